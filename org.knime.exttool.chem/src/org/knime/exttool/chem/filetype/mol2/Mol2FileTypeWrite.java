@@ -135,5 +135,11 @@ protected BufferedWriter openWriter() throws IOException,
                     "Unable to write Mol2 stream: " + e.getMessage(), e);
         }
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public String[] getWrittenColumns(final DataTableSpec spec) {
+        return m_targetColumn == null ? null : new String[] {m_targetColumn};
+    }
 }
 
@@ -51,6 +51,8 @@
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.knime.chem.base.node.io.sdfwriter2.DefaultSDFWriter;
 import org.knime.chem.base.node.io.sdfwriter2.SDFWriterSettings;
@@ -74,6 +76,9 @@ public class SdfFileTypeWrite extends AbstractFileTypeWrite {
 
     private SDFWriterSettings m_settings;
 
+    /** The columns written as properties. */
+    private List<String> m_propertiesColumns = new ArrayList<String>();
+
     /** Create new write instance.
      * @param factory Registered factory for this write object.
      */
@@ -91,6 +96,8 @@ public void prepare(final AbstractFileTypeWriteConfig config) {
         SdfFileTypeWriteConfig conf = (SdfFileTypeWriteConfig)config;
         String targetColumn = conf.getColumn();
         m_settings.structureColumn(targetColumn);
+        m_propertiesColumns =
+            new ArrayList<String>(conf.getPropertiesColumns());
         m_settings.setFilterConfiguration(
             new DataColumnSpecFilterConfiguration("column-filter", new InputFilter<DataColumnSpec>() {
                 @Override
@@ -142,5 +149,18 @@ protected BufferedWriter openOutputWriter()
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public String[] getWrittenColumns(final DataTableSpec spec) {
+        List<String> columns = new ArrayList<String>();
+        columns.add(m_settings.structureColumn());
+        for (String c : m_propertiesColumns) {
+            if (!columns.contains(c)) {
+                columns.add(c);
+            }
+        }
+        return columns.toArray(new String[columns.size()]);
+    }
+
 }
 
@@ -0,0 +1,138 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests the chunk sizes of the {@link AdaptiveChunkSizer}.
+ * @author agent
+ */
+public class AdaptiveChunkSizerTest {
+
+    /** Process start-up time of the simulated tool: 2s. */
+    private static final long OVERHEAD_NANOS = 2000000000L;
+
+    /** Runtime per row of the simulated tool: 1ms. */
+    private static final long ROW_NANOS = 1000000L;
+
+    /** Creates a sizer for 100000 rows on 4 workers (probe chunks of 16 and
+     * 32 rows) and reports the runtime of the probe chunks. */
+    private static AdaptiveChunkSizer createFittedSizer(
+            final int maxOverheadPercent) {
+        AdaptiveChunkSizer sizer =
+            new AdaptiveChunkSizer(100000, 4, maxOverheadPercent);
+        for (int i = 0; i < 2; i++) {
+            int rows = sizer.nextChunkSize(100000);
+            sizer.chunkFinished(rows, OVERHEAD_NANOS + rows * ROW_NANOS);
+        }
+        return sizer;
+    }
+
+    /** Probe chunks alternate between two sizes until two chunks finished. */
+    @Test
+    public void testProbeChunks() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(100000, 4, 10);
+        assertEquals(16, sizer.nextChunkSize(100000));
+        assertEquals(32, sizer.nextChunkSize(100000));
+        assertEquals(16, sizer.nextChunkSize(100000));
+        sizer.chunkFinished(16, OVERHEAD_NANOS + 16 * ROW_NANOS);
+        assertEquals(32, sizer.nextChunkSize(100000));
+        // small tables get smaller probes, but never empty ones
+        assertEquals(1, new AdaptiveChunkSizer(10, 4, 10).nextChunkSize(10));
+    }
+
+    /** The fit separates start-up time and time per row: with at most 50%
+     * overhead a chunk must run at least as long as the start-up (2000
+     * rows), which is more than the balanced size of 1250 rows. */
+    @Test
+    public void testOverheadBound() {
+        AdaptiveChunkSizer sizer = createFittedSizer(50);
+        assertEquals(2000, sizer.nextChunkSize(10000));
+    }
+
+    /** Chunks shrink with the remaining rows (guided self-scheduling) once
+     * the overhead bound is below the balanced size. */
+    @Test
+    public void testBalancedSize() {
+        AdaptiveChunkSizer sizer = createFittedSizer(50);
+        // remaining / (2 * parallelism)
+        assertEquals(12500, sizer.nextChunkSize(100000));
+    }
+
+    /** A chunk never gets more than the fair share of the remaining rows,
+     * otherwise workers would run idle at the end. */
+    @Test
+    public void testFairShare() {
+        AdaptiveChunkSizer sizer = createFittedSizer(50);
+        assertEquals(1000, sizer.nextChunkSize(4000));
+        assertEquals(1, sizer.nextChunkSize(1));
+    }
+
+    /** Chunks of the same size can't separate the start-up time, the time
+     * is attributed to the rows and the chunks are balanced. */
+    @Test
+    public void testEqualProbes() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(100000, 4, 10);
+        sizer.chunkFinished(16, OVERHEAD_NANOS);
+        sizer.chunkFinished(16, OVERHEAD_NANOS);
+        assertEquals(12500, sizer.nextChunkSize(100000));
+    }
+
+    /** If the runtime does not depend on the row count the remaining rows
+     * are split into as few chunks as there are workers. */
+    @Test
+    public void testConstantRuntime() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(100000, 4, 10);
+        sizer.chunkFinished(16, OVERHEAD_NANOS);
+        sizer.chunkFinished(32, OVERHEAD_NANOS);
+        assertEquals(25000, sizer.nextChunkSize(100000));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.knime.exttool.executor.Execution.ChunkLayout;
+
+/**
+ * Tests the row ranges and submission order of the {@link ChunkLayout},
+ * in particular the chunks of about equal cost created by
+ * {@link Execution#createWeightedChunkLayout(double[], int)}.
+ * @author agent
+ */
+public class ChunkLayoutTest {
+
+    /** @return first row of each chunk followed by the row count. */
+    private static long[] getStarts(final ChunkLayout layout) {
+        int count = layout.getChunkCount();
+        long[] starts = new long[count + 1];
+        for (int i = 0; i < count; i++) {
+            starts[i] = layout.getStartRow(i);
+            assertTrue(starts[i] < layout.getEndRow(i));
+        }
+        starts[count] = layout.getEndRow(count - 1);
+        return starts;
+    }
+
+    /** @return the chunk indices in submission order. */
+    private static int[] getOrder(final ChunkLayout layout) {
+        int[] order = new int[layout.getChunkCount()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = layout.getChunkAt(i);
+        }
+        return order;
+    }
+
+    /** Chunks of equal row count, the last one takes the remainder. */
+    @Test
+    public void testEqualRowCount() {
+        ChunkLayout layout = new ChunkLayout(3, 4, 10);
+        assertArrayEquals(new long[] {0, 4, 8, 10}, getStarts(layout));
+        assertArrayEquals(new int[] {0, 1, 2}, getOrder(layout));
+        assertEquals(4, layout.getRowsPerChunk());
+    }
+
+    /** Chunks are cut once their share of the total cost is reached and
+     * submitted most expensive first. */
+    @Test
+    public void testWeightedCuts() {
+        double[] weights = new double[] {9, 1, 1, 1, 1, 1, 1, 1, 1, 1};
+        ChunkLayout layout = Execution.createWeightedChunkLayout(weights, 3);
+        assertArrayEquals(new long[] {0, 1, 4, 10}, getStarts(layout));
+        // costs 9, 3 and 6
+        assertArrayEquals(new int[] {0, 2, 1}, getOrder(layout));
+        assertEquals(4, layout.getRowsPerChunk());
+    }
+
+    /** Equal costs give equal chunks, submitted in row order. */
+    @Test
+    public void testUniformWeights() {
+        double[] weights = new double[12];
+        Arrays.fill(weights, 2.5);
+        ChunkLayout layout = Execution.createWeightedChunkLayout(weights, 4);
+        assertArrayEquals(new long[] {0, 3, 6, 9, 12}, getStarts(layout));
+        assertArrayEquals(new int[] {0, 1, 2, 3}, getOrder(layout));
+    }
+
+    /** Each chunk gets at least one row, even if all cost is in the last
+     * row. */
+    @Test
+    public void testAtLeastOneRowPerChunk() {
+        double[] weights = new double[] {0, 0, 0, 10};
+        ChunkLayout layout = Execution.createWeightedChunkLayout(weights, 3);
+        assertArrayEquals(new long[] {0, 2, 3, 4}, getStarts(layout));
+        assertEquals(2, layout.getChunkAt(0));
+        // one chunk per row
+        layout = Execution.createWeightedChunkLayout(weights, 4);
+        assertArrayEquals(new long[] {0, 1, 2, 3, 4}, getStarts(layout));
+        assertEquals(3, layout.getChunkAt(0));
+    }
+
+    /** Rows without cost can't be balanced. */
+    @Test
+    public void testNoCost() {
+        assertNull(Execution.createWeightedChunkLayout(new double[3], 2));
+    }
+}
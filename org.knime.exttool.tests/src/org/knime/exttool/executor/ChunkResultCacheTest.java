@@ -0,0 +1,215 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+import org.knime.core.util.FileUtil;
+import org.knime.exttool.executor.InputDataHandle.FileInputDataHandle;
+import org.knime.exttool.executor.OutputDataHandle.FileOutputDataHandle;
+
+/**
+ * Tests the {@link ChunkResultCache}: the key, replaying stored output and
+ * eviction of least recently used entries.
+ * @author agent
+ */
+public class ChunkResultCacheTest {
+
+    private static void write(final File f, final String content)
+        throws Exception {
+        Files.write(f.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(final File f) throws Exception {
+        return new String(Files.readAllBytes(f.toPath()),
+                StandardCharsets.UTF_8);
+    }
+
+    /** Creates a chunk running "cat &lt;in&gt; &gt; &lt;out&gt;". */
+    private static ExecutionChunkCallable createChunk(
+            final DefaultExttoolExecutorConfig config, final int threads,
+            final File out, final InputDataHandle... ins) {
+        ExecutionChunkCallable callable =
+            new ExecutionChunkCallable(new DefaultExttoolExecutor());
+        callable.setInputHandles(ins);
+        OutputDataHandle outHandle = new FileOutputDataHandle(out);
+        callable.setOutputHandles(new OutputDataHandle[] {outHandle});
+        String[] args = new String[ins.length + 2];
+        args[0] = "cat";
+        for (int i = 0; i < ins.length; i++) {
+            args[i + 1] = Execution.getCommandlinePath(ins[i], i, ins.length);
+        }
+        args[args.length - 1] =
+            Execution.getCommandlinePath(outHandle, 0, 1);
+        callable.setCommandlineArgs(args);
+        callable.setThreadCount(threads);
+        callable.setExecutorConfig(config);
+        return callable;
+    }
+
+    private static InputDataHandle input(final File dir, final String name,
+            final String content) throws Exception {
+        File f = new File(dir, name);
+        write(f, content);
+        return new FileInputDataHandle(f);
+    }
+
+    /** The key depends on the input content, not on the file locations,
+     * and on the thread count passed in environment variables. */
+    @Test
+    public void testKey() throws Exception {
+        File dir = FileUtil.createTempDir("chunkcachetest");
+        try {
+            ChunkResultCache cache = new ChunkResultCache(
+                    new File(dir, "cache"), Long.MAX_VALUE, null);
+            DefaultExttoolExecutorConfig config =
+                new DefaultExttoolExecutorConfig();
+            File out = new File(dir, "out");
+            String key = cache.createKey(createChunk(config, 1, out,
+                    input(dir, "in1", "abc")));
+            assertNotNull(key);
+            assertEquals(key, cache.createKey(createChunk(config, 1,
+                    new File(dir, "out2"), input(dir, "in2", "abc"))));
+            assertFalse(key.equals(cache.createKey(createChunk(config, 1,
+                    out, input(dir, "in3", "abd")))));
+            // thread count only matters if passed to the process
+            assertEquals(key, cache.createKey(createChunk(config, 2, out,
+                    input(dir, "in1", "abc"))));
+            config.setThreadEnvironmentVariableNames("OMP_NUM_THREADS");
+            String key1 = cache.createKey(createChunk(config, 1, out,
+                    input(dir, "in1", "abc")));
+            assertFalse(key.equals(key1));
+            assertFalse(key1.equals(cache.createKey(createChunk(config, 2,
+                    out, input(dir, "in1", "abc")))));
+            // not cacheable without command line
+            ExecutionChunkCallable noArgs = createChunk(config, 1, out,
+                    input(dir, "in1", "abc"));
+            noArgs.setCommandlineArgs(new String[0]);
+            assertNull(cache.createKey(noArgs));
+        } finally {
+            FileUtil.deleteRecursively(dir);
+        }
+    }
+
+    /** The input of the shared ports is hashed once per cache, i.e. per
+     * execution. */
+    @Test
+    public void testSharedInputHashedOnce() throws Exception {
+        File dir = FileUtil.createTempDir("chunkcachetest");
+        try {
+            ChunkResultCache cache = new ChunkResultCache(
+                    new File(dir, "cache"), Long.MAX_VALUE, null);
+            DefaultExttoolExecutorConfig config =
+                new DefaultExttoolExecutorConfig();
+            File out = new File(dir, "out");
+            InputDataHandle shared = input(dir, "shared", "xyz");
+            String key = cache.createKey(createChunk(config, 1, out,
+                    input(dir, "in1", "abc"), shared));
+            // not read again for another chunk
+            write(new File(dir, "shared"), "changed");
+            assertEquals(key, cache.createKey(createChunk(config, 1, out,
+                    input(dir, "in2", "abc"), shared)));
+            // a new execution (cache object) reads it
+            ChunkResultCache next = new ChunkResultCache(
+                    new File(dir, "cache"), Long.MAX_VALUE, null);
+            assertFalse(key.equals(next.createKey(createChunk(config, 1,
+                    out, input(dir, "in1", "abc"), shared))));
+        } finally {
+            FileUtil.deleteRecursively(dir);
+        }
+    }
+
+    /** Stored output is replayed, least recently used entries are evicted
+     * if the cache exceeds its size. */
+    @Test
+    public void testStoreRestoreEvict() throws Exception {
+        File dir = FileUtil.createTempDir("chunkcachetest");
+        try {
+            File root = new File(dir, "cache");
+            ChunkResultCache cache = new ChunkResultCache(root, 10, null);
+            DefaultExttoolExecutorConfig config =
+                new DefaultExttoolExecutorConfig();
+            File out = new File(dir, "out");
+            ExecutionChunkCallable first =
+                createChunk(config, 1, out, input(dir, "in1", "first"));
+            String firstKey = cache.createKey(first);
+            assertFalse(cache.restore(firstKey, first));
+            write(out, "result1");
+            cache.store(firstKey, first);
+            out.delete();
+            assertTrue(cache.restore(firstKey, first));
+            assertEquals("result1", read(out));
+            File firstEntry = new File(
+                    new File(root, firstKey.substring(0, 2)), firstKey);
+            assertTrue(firstEntry.setLastModified(
+                    System.currentTimeMillis() - 60000));
+
+            ExecutionChunkCallable second =
+                createChunk(config, 1, out, input(dir, "in2", "second"));
+            String secondKey = cache.createKey(second);
+            write(out, "result2");
+            cache.store(secondKey, second);
+            // 14 bytes exceed the limit, the older entry is deleted
+            assertFalse(firstEntry.exists());
+            assertFalse(cache.restore(firstKey, first));
+            assertTrue(cache.restore(secondKey, second));
+            assertEquals("result2", read(out));
+        } finally {
+            FileUtil.deleteRecursively(dir);
+        }
+    }
+}
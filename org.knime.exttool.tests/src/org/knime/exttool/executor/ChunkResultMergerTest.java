@@ -0,0 +1,146 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
+import org.knime.exttool.executor.Execution.ChunkResultMerger;
+import org.knime.exttool.node.ExttoolTestUtil;
+
+/**
+ * Tests the {@link ChunkResultMerger}, which concatenates the chunk results
+ * in chunk order while the chunks finish in any order.
+ * @author agent
+ */
+public class ChunkResultMergerTest {
+
+    private final Execution m_execution = ExttoolTestUtil.createExecution();
+    private final ExecutionContext m_exec =
+        ExttoolTestUtil.createExecutionContext();
+
+    /** Creates the result of a chunk with one row per value, the row keys
+     * are "Chunk&lt;chunk&gt;_&lt;value&gt;". */
+    private BufferedDataTable createChunkTable(final int chunk,
+            final DataType type, final int... values) {
+        DataTableSpec spec = new DataTableSpec(
+                new DataColumnSpecCreator("value", type).createSpec());
+        BufferedDataContainer cont = m_exec.createDataContainer(spec);
+        for (int v : values) {
+            DataCell cell = DoubleCell.TYPE.equals(type)
+                ? new DoubleCell(v) : new IntCell(v);
+            cont.addRowToTable(
+                    new DefaultRow("Chunk" + chunk + "_" + v, cell));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static List<String> getKeys(final BufferedDataTable table) {
+        List<String> keys = new ArrayList<String>();
+        for (DataRow row : table) {
+            keys.add(row.getKey().getString());
+        }
+        return keys;
+    }
+
+    /** With adaptive chunking the number of chunks is unknown (-1) until
+     * all chunks are submitted; the merger is finished with the final
+     * count. Chunks finishing out of order are appended in chunk order,
+     * failed chunks are left out. */
+    @Test
+    public void testUnknownChunkCount() throws Exception {
+        ChunkResultMerger merger =
+            m_execution.new ChunkResultMerger(1, -1, null, m_exec);
+        merger.add(2, new BufferedDataTable[] {
+                createChunkTable(2, IntCell.TYPE, 5)});
+        merger.skip(1);
+        merger.add(0, new BufferedDataTable[] {
+                createChunkTable(0, IntCell.TYPE, 1, 2)});
+        merger.add(3, new BufferedDataTable[] {
+                createChunkTable(3, IntCell.TYPE, 7)});
+        BufferedDataTable[] result = merger.finish(4);
+        assertEquals(1, result.length);
+        assertEquals(Arrays.asList("Chunk0_1", "Chunk0_2", "Chunk2_5",
+                "Chunk3_7"), getKeys(result[0]));
+    }
+
+    /** A chunk whose output has a different column type starts a new
+     * segment, the segments are concatenated with the common type. */
+    @Test
+    public void testDifferentSpecs() throws Exception {
+        ChunkResultMerger merger =
+            m_execution.new ChunkResultMerger(1, 3, null, m_exec);
+        merger.add(0, new BufferedDataTable[] {
+                createChunkTable(0, IntCell.TYPE, 1)});
+        merger.add(2, new BufferedDataTable[] {
+                createChunkTable(2, IntCell.TYPE, 3)});
+        merger.add(1, new BufferedDataTable[] {
+                createChunkTable(1, DoubleCell.TYPE, 2)});
+        BufferedDataTable result = merger.finish(3)[0];
+        assertEquals(Arrays.asList("Chunk0_1", "Chunk1_2", "Chunk2_3"),
+                getKeys(result));
+        assertEquals(DoubleCell.TYPE,
+                result.getDataTableSpec().getColumnSpec(0).getType());
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.util.FileUtil;
+import org.knime.exttool.executor.CoProcessExttoolExecutor.CoProcess;
+import org.knime.exttool.executor.CoProcessExttoolExecutorConfig.Framing;
+
+/**
+ * Tests the {@link CoProcess} of the co-process executor with small shell
+ * tools: both framings, several chunks sent to the same process, Windows
+ * line endings, the thread environment, and failing or hanging tools.
+ * Requires <code>sh</code> and <code>cat</code>.
+ * @author agent
+ */
+public class CoProcessTest {
+
+    private static final String DELIMITER = "$$$$";
+
+    private static String[] sh(final String script) {
+        return new String[] {"sh", "-c", script};
+    }
+
+    /** Sends the chunks to the process, one after the other.
+     * @return the responses. */
+    private static String[] process(final CoProcess process,
+            final Framing framing, final String... chunks) throws Exception {
+        File dir = FileUtil.createTempDir("coprocesstest");
+        try {
+            String[] result = new String[chunks.length];
+            for (int i = 0; i < chunks.length; i++) {
+                File in = new File(dir, "in" + i);
+                File out = new File(dir, "out" + i);
+                Files.write(in.toPath(),
+                        chunks[i].getBytes(StandardCharsets.UTF_8));
+                process.process(in, out, framing, DELIMITER, 0,
+                        new ExecutionMonitor());
+                result[i] = new String(Files.readAllBytes(out.toPath()),
+                        StandardCharsets.UTF_8);
+            }
+            return result;
+        } finally {
+            FileUtil.deleteRecursively(dir);
+        }
+    }
+
+    private static CoProcess start(final String... cmds) throws IOException {
+        return new CoProcess(cmds, new DefaultExttoolExecutorConfig(), 1);
+    }
+
+    /** Delimited chunks are echoed by cat, a missing final line feed is
+     * added before the delimiter. */
+    @Test
+    public void testDelimiter() throws Exception {
+        CoProcess process = start("cat");
+        try {
+            String[] out = process(process, Framing.Delimiter,
+                    "a\nb\n", "c", "");
+            assertEquals("a\nb\n", out[0]);
+            assertEquals("c\n", out[1]);
+            assertEquals("", out[2]);
+            assertTrue(process.isAlive());
+        } finally {
+            process.close();
+        }
+        assertFalse(process.isAlive());
+    }
+
+    /** A delimiter line with Windows line ending ends the chunk, too. */
+    @Test
+    public void testDelimiterCRLF() throws Exception {
+        CoProcess process = start(sh("while IFS= read -r l; do "
+                + "printf '%s\\r\\n' \"$l\"; done"));
+        try {
+            String[] out = process(process, Framing.Delimiter, "x\ny\n");
+            assertEquals("x\r\ny\r\n", out[0]);
+        } finally {
+            process.close();
+        }
+    }
+
+    /** Length prefixed chunks (including binary content) are echoed by
+     * cat. */
+    @Test
+    public void testLengthPrefixed() throws Exception {
+        CoProcess process = start("cat");
+        try {
+            String[] out = process(process, Framing.LengthPrefixed,
+                    "no line feed", "two\nlines\n", DELIMITER + "\n", "");
+            assertEquals("no line feed", out[0]);
+            assertEquals("two\nlines\n", out[1]);
+            assertEquals(DELIMITER + "\n", out[2]);
+            assertEquals("", out[3]);
+        } finally {
+            process.close();
+        }
+    }
+
+    /** An invalid length line fails the chunk. */
+    @Test
+    public void testInvalidLength() throws Exception {
+        CoProcess process = start(sh("echo abc; cat > /dev/null"));
+        try {
+            process(process, Framing.LengthPrefixed, "x");
+            fail("Expected exception");
+        } catch (IOException ioe) {
+            assertTrue(ioe.getMessage(),
+                    ioe.getMessage().contains("Invalid length line"));
+        } finally {
+            process.close();
+        }
+    }
+
+    /** A tool that exits before answering fails the chunk. */
+    @Test
+    public void testTerminated() throws Exception {
+        CoProcess process = start(sh("read -r l; exit 3"));
+        try {
+            process(process, Framing.Delimiter, "x\n");
+            fail("Expected exception");
+        } catch (IOException ioe) {
+            assertTrue(ioe.getMessage(),
+                    ioe.getMessage().contains("terminated"));
+        } finally {
+            process.close();
+        }
+        assertFalse(process.isAlive());
+    }
+
+    /** A tool that doesn't answer is killed after the timeout. */
+    @Test
+    public void testTimeout() throws Exception {
+        CoProcess process = start("sleep", "30");
+        File dir = FileUtil.createTempDir("coprocesstest");
+        try {
+            File in = new File(dir, "in");
+            Files.write(in.toPath(), "x\n".getBytes(StandardCharsets.UTF_8));
+            process.process(in, new File(dir, "out"), Framing.Delimiter,
+                    DELIMITER, 200, new ExecutionMonitor());
+            fail("Expected timeout");
+        } catch (TimeoutException te) {
+            // expected
+        } finally {
+            process.close();
+            FileUtil.deleteRecursively(dir);
+        }
+        assertFalse(process.isAlive());
+    }
+
+    /** The thread environment variables are set for the process. */
+    @Test
+    public void testThreadEnvironment() throws Exception {
+        DefaultExttoolExecutorConfig config =
+            new DefaultExttoolExecutorConfig();
+        config.setThreadEnvironmentVariableNames("OMP_NUM_THREADS");
+        CoProcess process = new CoProcess(sh("while read -r l; do "
+                + "if [ \"$l\" = '" + DELIMITER + "' ]; then "
+                + "echo \"$OMP_NUM_THREADS\"; echo '" + DELIMITER + "'; "
+                + "fi; done"), config, 4);
+        try {
+            String[] out = process(process, Framing.Delimiter, "x\n");
+            assertEquals("4\n", out[0]);
+        } finally {
+            process.close();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Tests the {@link ContentHash}, which must produce the same hashes as
+ * before (they are the keys of persisted cache entries).
+ * @author agent
+ */
+public class ContentHashTest {
+
+    /** Strings are terminated by a 0 byte, the hash is lower case hex. */
+    @Test
+    public void testString() {
+        ContentHash hash = new ContentHash();
+        hash.update("abc");
+        assertEquals("dc1114cd074914bd872cc1f9a23ec910"
+                + "ea2203bc79779ab2e17da25782a624fc", hash.digest());
+        // reset after digest, prefix for row hashes
+        hash.update("abc");
+        assertEquals("dc1114cd074914bd872cc1f9a23ec910",
+                hash.digest(ContentHash.ROW_HASH_BYTES));
+    }
+
+    /** Cells are hashed with their type, missing cells as "?". */
+    @Test
+    public void testCells() {
+        ContentHash hash = new ContentHash();
+        hash.update(new StringCell("a"));
+        assertEquals("928de65eef33a867b1c1b065492b8311",
+                hash.digest(ContentHash.ROW_HASH_BYTES));
+        hash.update(DataType.getMissingCell());
+        assertEquals("5bf24ee4fe4f60dfe8f06ccf7eb26aaf",
+                hash.digest(ContentHash.ROW_HASH_BYTES));
+    }
+
+    /** Files are hashed with their length and content. */
+    @Test
+    public void testFile() throws Exception {
+        File f = File.createTempFile("contenthash", ".txt");
+        try {
+            Files.write(f.toPath(), "xyz".getBytes(StandardCharsets.UTF_8));
+            ContentHash hash = new ContentHash();
+            hash.update(f);
+            assertEquals("a12f6bf76e716546a900febebe3bd5be"
+                    + "e08b28f47888d4003a56cc274e3fa1fe", hash.digest());
+        } finally {
+            f.delete();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+import org.knime.base.node.util.exttool.ViewUpdateNotice;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.util.FileUtil;
+import org.knime.exttool.executor.InputDataHandle.FileInputDataHandle;
+import org.knime.exttool.executor.OutputDataHandle.FileOutputDataHandle;
+
+/**
+ * Tests the {@link DefaultExttoolExecutor}: waiting for the process with
+ * timeout and cancelation, and forwarding its output to observers.
+ * Requires <code>sh</code> and <code>sleep</code>.
+ * @author agent
+ */
+public class DefaultExttoolExecutorTest {
+
+    private static Process start(final String script) throws Exception {
+        return new ProcessBuilder("sh", "-c", script).start();
+    }
+
+    /** Waits a few seconds for the process to be killed. */
+    private static void assertKilled(final ProcessHandle process)
+        throws Exception {
+        try {
+            process.onExit().get(10, TimeUnit.SECONDS);
+        } catch (TimeoutException te) {
+            fail("Process " + process.pid() + " still running");
+        }
+    }
+
+    /** The exit code is returned once the process ends. */
+    @Test
+    public void testWaitFor() throws Exception {
+        assertEquals(0, DefaultExttoolExecutor.waitFor(
+                start("exit 0"), new ExecutionMonitor(), 0));
+        assertEquals(3, DefaultExttoolExecutor.waitFor(
+                start("sleep 0.2; exit 3"), new ExecutionMonitor(), 10000));
+    }
+
+    /** The process and its descendants are killed after the timeout. */
+    @Test
+    public void testTimeout() throws Exception {
+        Process process = start("sleep 30 & wait");
+        Thread.sleep(200);
+        final List<ProcessHandle> children = new ArrayList<ProcessHandle>();
+        process.descendants().forEach(new Consumer<ProcessHandle>() {
+            /** {@inheritDoc} */
+            @Override
+            public void accept(final ProcessHandle h) {
+                children.add(h);
+            }
+        });
+        try {
+            DefaultExttoolExecutor.waitFor(
+                    process, new ExecutionMonitor(), 300);
+            fail("Expected timeout");
+        } catch (TimeoutException te) {
+            // expected
+        }
+        assertKilled(process.toHandle());
+        assertFalse(children.isEmpty());
+        for (ProcessHandle child : children) {
+            assertKilled(child);
+        }
+    }
+
+    /** The process is killed if the execution is canceled. */
+    @Test
+    public void testCancel() throws Exception {
+        Process process = start("sleep 30");
+        ExecutionMonitor canceled = new ExecutionMonitor() {
+            /** {@inheritDoc} */
+            @Override
+            public void checkCanceled() throws CanceledExecutionException {
+                throw new CanceledExecutionException("canceled");
+            }
+        };
+        try {
+            DefaultExttoolExecutor.waitFor(process, canceled, 0);
+            fail("Expected cancelation");
+        } catch (CanceledExecutionException cee) {
+            // expected
+        }
+        assertKilled(process.toHandle());
+    }
+
+    /** Runs the script as chunk with one input and output file.
+     * @return The exit code. */
+    private static int execute(final DefaultExttoolExecutor executor,
+            final String script) throws Exception {
+        File dir = FileUtil.createTempDir("defaultexecutortest");
+        try {
+            ExecutionChunkCallable callable =
+                new ExecutionChunkCallable(executor);
+            callable.setInputHandles(new InputDataHandle[] {
+                new FileInputDataHandle(new File(dir, "in"))});
+            callable.setOutputHandles(new OutputDataHandle[] {
+                new FileOutputDataHandle(new File(dir, "out"))});
+            callable.setCommandlineArgs(new String[] {"sh", "-c", script});
+            callable.setThreadCount(1);
+            callable.setExecutorConfig(new DefaultExttoolExecutorConfig());
+            executor.setExecutionChunkCallable(callable);
+            return executor.execute(new ExecutionMonitor());
+        } finally {
+            FileUtil.deleteRecursively(dir);
+        }
+    }
+
+    /** Output lines are sent to the observers, separately for standard
+     * output and error. */
+    @Test
+    public void testViewUpdateNotices() throws Exception {
+        DefaultExttoolExecutor executor = new DefaultExttoolExecutor();
+        final List<String> stdout = new ArrayList<String>();
+        final List<String> stderr = new ArrayList<String>();
+        executor.addObserver(new Observer() {
+            /** {@inheritDoc} */
+            @Override
+            public void update(final Observable o, final Object arg) {
+                ViewUpdateNotice notice = (ViewUpdateNotice)arg;
+                List<String> lines = notice.getType()
+                    == ViewUpdateNotice.ViewType.stdout ? stdout : stderr;
+                synchronized (lines) {
+                    lines.add(notice.getNewLine());
+                }
+            }
+        });
+        assertEquals(2, execute(executor,
+                "echo a; echo b; echo c >&2; exit 2"));
+        assertEquals(Arrays.asList("a", "b"), stdout);
+        assertEquals(Arrays.asList("c"), stderr);
+    }
+
+    /** Without observers the output is not read, the exit code is still
+     * returned. */
+    @Test
+    public void testUnobserved() throws Exception {
+        assertEquals(0, execute(new DefaultExttoolExecutor(),
+                "echo a; echo b >&2"));
+        assertEquals(5, execute(new DefaultExttoolExecutor(), "exit 5"));
+    }
+}
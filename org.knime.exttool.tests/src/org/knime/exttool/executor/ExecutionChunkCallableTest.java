@@ -0,0 +1,144 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.exttool.filetype.AbstractFileTypeRead;
+import org.knime.exttool.node.ExttoolTestUtil;
+
+/**
+ * Tests the {@link ExecutionChunkCallable}: a chunk whose process is killed
+ * due to the timeout is run again up to the retry count.
+ * @author agent
+ */
+public class ExecutionChunkCallableTest {
+
+    /** Executor whose first runs time out, then returns an exit code. */
+    private static final class TimingOutExecutor
+        extends AbstractExttoolExecutor {
+
+        private final int m_timeoutCount;
+        private final int m_exitCode;
+        private int m_runCount;
+
+        TimingOutExecutor(final int timeoutCount, final int exitCode) {
+            m_timeoutCount = timeoutCount;
+            m_exitCode = exitCode;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected int execute(final ExecutionMonitor monitor)
+            throws Exception {
+            m_runCount += 1;
+            if (m_runCount <= m_timeoutCount) {
+                throw new TimeoutException("Timeout " + m_runCount);
+            }
+            return m_exitCode;
+        }
+    }
+
+    /** Runs a chunk without in- and output with the given executor.
+     * @param retryCount The retry count of the executor config. */
+    private static void call(final AbstractExttoolExecutor executor,
+            final int retryCount) throws Exception {
+        DefaultExttoolExecutorConfig config =
+            new DefaultExttoolExecutorConfig();
+        config.setChunkTimeoutSeconds(1);
+        config.setChunkRetryCount(retryCount);
+        ExecutionChunkCallable callable = new ExecutionChunkCallable(executor);
+        callable.setExecutorConfig(config);
+        callable.setInputHandles(new InputDataHandle[0]);
+        callable.setOutputHandles(new OutputDataHandle[0]);
+        callable.setOutputFileTypes(new AbstractFileTypeRead[0]);
+        callable.setExecutionContext(ExttoolTestUtil.createExecutionContext());
+        callable.call();
+    }
+
+    /** A chunk that times out is run again until it succeeds. */
+    @Test
+    public void testRetry() throws Exception {
+        TimingOutExecutor executor = new TimingOutExecutor(2, 0);
+        call(executor, 2);
+        assertEquals(3, executor.m_runCount);
+    }
+
+    /** The chunk fails with the timeout once the retries are used up. */
+    @Test
+    public void testRetriesExhausted() throws Exception {
+        TimingOutExecutor executor = new TimingOutExecutor(3, 0);
+        try {
+            call(executor, 2);
+            fail("Expected timeout");
+        } catch (TimeoutException te) {
+            assertEquals("Timeout 3", te.getMessage());
+        }
+        assertEquals(3, executor.m_runCount);
+    }
+
+    /** Other failures are not retried. */
+    @Test
+    public void testNoRetryOnExitCode() throws Exception {
+        TimingOutExecutor executor = new TimingOutExecutor(1, 2);
+        try {
+            call(executor, 3);
+            fail("Expected failure");
+        } catch (TimeoutException te) {
+            fail("Timeout not retried");
+        } catch (Exception e) {
+            assertEquals("Failed with exit code 2", e.getMessage());
+        }
+        assertEquals(2, executor.m_runCount);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.exttool.node.ExttoolCustomizer.Chunking;
+import org.knime.exttool.node.ExttoolSettings;
+import org.knime.exttool.node.ExttoolTestUtil;
+
+/**
+ * Tests the handling of failed and slow chunks by the {@link Execution},
+ * using a {@link FakeTool}.
+ * @author agent
+ */
+public class ExecutionTest {
+
+    /** Executes the tool on a table with the given values.
+     * @return the rows of the output as "key:value:result". */
+    private static List<String> execute(final Execution execution,
+            final int... values) throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        try {
+            BufferedDataTable[] result = execution.execute(
+                    new BufferedDataTable[] {
+                            FakeTool.createInput(exec, values)}, exec);
+            return FakeTool.toList(result[0]);
+        } finally {
+            execution.cleanUp();
+        }
+    }
+
+    /** @return the runs of the tool, sorted as they run concurrently. */
+    private static List<String> getSortedRuns(final FakeTool tool) {
+        List<String> runs = new ArrayList<String>(tool.getRuns());
+        Collections.sort(runs);
+        return runs;
+    }
+
+    /** Failed chunks are bisected, only the rows the tool fails on are
+     * missing in the result (joined with missing cells). */
+    @Test
+    public void testBisection() throws Exception {
+        FakeTool tool = new FakeTool();
+        Execution execution = tool.createExecution(
+                new FakeTool.SettingsCustomizer() {
+            /** {@inheritDoc} */
+            @Override
+            public void customize(final ExttoolSettings settings)
+                throws InvalidSettingsException {
+                settings.setChunking(Chunking.NrChunks, 2);
+                settings.setBisectFailedChunks(true);
+            }
+        });
+        assertEquals(Arrays.asList("Row0:1:10", "Row1:2:20", "Row2:-3:?",
+                "Row3:4:40", "Row4:5:50", "Row5:6:60"),
+                execute(execution, 1, 2, -3, 4, 5, 6));
+        // the failed chunk is not run again as a whole
+        assertEquals(Arrays.asList("[-3]", "[1, 2, -3]", "[1]", "[2, -3]",
+                "[2]", "[4, 5, 6]"), getSortedRuns(tool));
+        assertEquals("External tool failed on 1 input row(s), their output "
+                + "is missing: Row2", execution.clearWarningMessage());
+    }
+
+    /** Bisection stops if too many rows fail, the chunk fails then. */
+    @Test
+    public void testBisectionTooManyFailedRows() throws Exception {
+        FakeTool tool = new FakeTool();
+        Execution execution = tool.createExecution(
+                new FakeTool.SettingsCustomizer() {
+            /** {@inheritDoc} */
+            @Override
+            public void customize(final ExttoolSettings settings)
+                throws InvalidSettingsException {
+                settings.setChunking(Chunking.NrChunks, 2);
+                settings.setBisectFailedChunks(true);
+            }
+        });
+        int[] values = new int[24];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 12 ? -1 : 1;
+        }
+        List<String> result = execute(execution, values);
+        assertEquals("Row0:-1:?", result.get(0));
+        assertEquals("Row12:1:10", result.get(12));
+        int singleRowRuns = 0;
+        for (String run : tool.getRuns()) {
+            if (run.equals("[-1]")) {
+                singleRowRuns += 1;
+            }
+        }
+        assertEquals(11, singleRowRuns);
+        String warning = execution.clearWarningMessage();
+        assertTrue(warning, warning.startsWith("Execution on chunk 0 failed"));
+    }
+
+    /** Failed chunks are left out (missing cells) and the other chunks are
+     * run to the end by default. */
+    @Test
+    public void testFailedChunks() throws Exception {
+        FakeTool tool = new FakeTool();
+        Execution execution = tool.createExecution(
+                new FakeTool.SettingsCustomizer() {
+            /** {@inheritDoc} */
+            @Override
+            public void customize(final ExttoolSettings settings)
+                throws InvalidSettingsException {
+                settings.setChunking(Chunking.NrChunks, 4);
+            }
+        });
+        assertEquals(Arrays.asList("Row0:-1:?", "Row1:2:20", "Row2:-3:?",
+                "Row3:4:40"), execute(execution, -1, 2, -3, 4));
+        assertEquals(4, tool.getRuns().size());
+    }
+
+    /** The execution is aborted once more chunks failed than allowed,
+     * running chunks are canceled. */
+    @Test
+    public void testFailFast() throws Exception {
+        FakeTool tool = new FakeTool();
+        Execution execution = tool.createExecution(
+                new FakeTool.SettingsCustomizer() {
+            /** {@inheritDoc} */
+            @Override
+            public void customize(final ExttoolSettings settings)
+                throws InvalidSettingsException {
+                settings.setChunking(Chunking.NrChunks, 4);
+                settings.setMaxFailedChunksPercent(25);
+            }
+        });
+        long start = System.nanoTime();
+        try {
+            // the first chunk runs until canceled
+            execute(execution, FakeTool.SLOW_VALUE, -1, -2, 1);
+            fail("Expected abort");
+        } catch (Exception e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(
+                    "Aborted execution as 2 of 4 chunks failed"));
+        }
+        assertTrue(System.nanoTime() - start
+                < TimeUnit.SECONDS.toNanos(30));
+    }
+
+    /** A backup of a straggler chunk is started once most chunks are done,
+     * its result is used and the original is canceled. */
+    @Test
+    public void testSpeculativeExecution() throws Exception {
+        FakeTool tool = new FakeTool();
+        Execution execution = tool.createExecution(
+                new FakeTool.SettingsCustomizer() {
+            /** {@inheritDoc} */
+            @Override
+            public void customize(final ExttoolSettings settings)
+                throws InvalidSettingsException {
+                settings.setChunking(Chunking.NrChunks, 4);
+                settings.setSpeculativeExecution(true);
+            }
+        });
+        long start = System.nanoTime();
+        // the first run of the last chunk runs until canceled
+        assertEquals(Arrays.asList("Row0:1:10", "Row1:2:20", "Row2:3:30",
+                "Row3:1000:10000"),
+                execute(execution, 1, 2, 3, FakeTool.SLOW_VALUE));
+        assertTrue(System.nanoTime() - start
+                < TimeUnit.SECONDS.toNanos(30));
+        assertEquals(Arrays.asList("[1000]", "[1000]", "[1]", "[2]", "[3]"),
+                getSortedRuns(tool));
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link ExttoolProcessGovernor}: the global and per-node limits,
+ * fair dispatch among nodes and shutting down a node's executor service.
+ * @author agent
+ */
+public class ExttoolProcessGovernorTest {
+
+    /** Task that reports its start and waits for its latch. */
+    private static Runnable task(final String name,
+            final BlockingQueue<String> started, final CountDownLatch done) {
+        return new Runnable() {
+            /** {@inheritDoc} */
+            @Override
+            public void run() {
+                started.add(name);
+                try {
+                    done.await();
+                } catch (InterruptedException ie) {
+                    started.add(name + " interrupted");
+                }
+            }
+        };
+    }
+
+    private static String poll(final BlockingQueue<String> started)
+        throws InterruptedException {
+        return started.poll(10, TimeUnit.SECONDS);
+    }
+
+    /** @return the next two started tasks, in any order. */
+    private static Set<String> poll2(final BlockingQueue<String> started)
+        throws InterruptedException {
+        return new HashSet<String>(
+                Arrays.asList(poll(started), poll(started)));
+    }
+
+    /** At most the global limit of chunks runs, and at most the node's
+     * limit of each node. */
+    @Test
+    public void testLimits() throws Exception {
+        ExttoolProcessGovernor governor = new ExttoolProcessGovernor(2);
+        ExecutorService a = governor.createExecutorService(1, 1, false);
+        ExecutorService b = governor.createExecutorService(4, 1, false);
+        BlockingQueue<String> started = new LinkedBlockingQueue<String>();
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            a.execute(task("a1", started, done));
+            a.execute(task("a2", started, done));
+            b.execute(task("b1", started, done));
+            b.execute(task("b2", started, done));
+            assertEquals(new HashSet<String>(Arrays.asList("a1", "b1")),
+                    poll2(started));
+            assertNull(started.poll(200, TimeUnit.MILLISECONDS));
+        } finally {
+            done.countDown();
+            a.shutdown();
+            b.shutdown();
+        }
+        assertTrue(a.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(b.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    /** A free slot goes to the node with the lowest load relative to its
+     * priority, not to the node that queued first. */
+    @Test
+    public void testFairDispatch() throws Exception {
+        ExttoolProcessGovernor governor = new ExttoolProcessGovernor(2);
+        ExecutorService a = governor.createExecutorService(2, 1, false);
+        ExecutorService b = governor.createExecutorService(2, 1, false);
+        BlockingQueue<String> started = new LinkedBlockingQueue<String>();
+        CountDownLatch a1Done = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            a.execute(task("a1", started, a1Done));
+            a.execute(task("a2", started, done));
+            a.execute(task("a3", started, done));
+            b.execute(task("b1", started, done));
+            assertEquals(new HashSet<String>(Arrays.asList("a1", "a2")),
+                    poll2(started));
+            assertNull(started.poll(200, TimeUnit.MILLISECONDS));
+            // a runs 1 chunk after a1 finished, b none
+            a1Done.countDown();
+            assertEquals("b1", poll(started));
+            assertNull(started.poll(200, TimeUnit.MILLISECONDS));
+        } finally {
+            done.countDown();
+            a.shutdown();
+            b.shutdown();
+        }
+        assertEquals("a3", poll(started));
+        assertTrue(a.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(b.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    /** Shutting down returns the queued tasks, interrupts the running ones
+     * and kills their processes. Other nodes are not affected. */
+    @Test
+    public void testShutdownNow() throws Exception {
+        final ExttoolProcessGovernor governor = new ExttoolProcessGovernor(2);
+        ExecutorService a = governor.createExecutorService(1, 1, false);
+        ExecutorService b = governor.createExecutorService(1, 1, false);
+        final BlockingQueue<String> started =
+            new LinkedBlockingQueue<String>();
+        final Process[] process = new Process[1];
+        final CountDownLatch processStarted = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            a.execute(new Runnable() {
+                /** {@inheritDoc} */
+                @Override
+                public void run() {
+                    try {
+                        process[0] =
+                            new ProcessBuilder("sleep", "30").start();
+                        governor.processStarted(process[0]);
+                        processStarted.countDown();
+                        process[0].waitFor();
+                        started.add("a1 finished");
+                    } catch (InterruptedException ie) {
+                        started.add("a1 interrupted");
+                    } catch (Exception e) {
+                        started.add("a1 failed: " + e);
+                    } finally {
+                        governor.processFinished();
+                    }
+                }
+            });
+            a.execute(task("a2", started, done));
+            b.execute(task("b1", started, done));
+            assertTrue(processStarted.await(10, TimeUnit.SECONDS));
+            assertEquals("b1", poll(started));
+            List<Runnable> queued = a.shutdownNow();
+            assertEquals(1, queued.size());
+            assertEquals("a1 interrupted", poll(started));
+            assertTrue(process[0].waitFor(10, TimeUnit.SECONDS));
+            assertTrue(a.awaitTermination(10, TimeUnit.SECONDS));
+            assertTrue(a.isShutdown());
+            assertFalse(b.isShutdown());
+            assertNull(started.poll(200, TimeUnit.MILLISECONDS));
+        } finally {
+            done.countDown();
+            a.shutdownNow();
+            b.shutdown();
+        }
+        assertTrue(b.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
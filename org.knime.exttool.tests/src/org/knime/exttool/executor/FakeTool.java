@@ -0,0 +1,438 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.RowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.exttool.executor.InputDataHandle.FileInputDataHandle;
+import org.knime.exttool.executor.OutputDataHandle.FileOutputDataHandle;
+import org.knime.exttool.filetype.AbstractFileTypeFactory;
+import org.knime.exttool.filetype.AbstractFileTypeRead;
+import org.knime.exttool.filetype.AbstractFileTypeReadConfig;
+import org.knime.exttool.filetype.AbstractFileTypeReadConfigPanel;
+import org.knime.exttool.filetype.AbstractFileTypeWrite;
+import org.knime.exttool.filetype.AbstractFileTypeWriteConfig;
+import org.knime.exttool.filetype.AbstractFileTypeWriteConfigPanel;
+import org.knime.exttool.node.AbstractCommandlineSettings;
+import org.knime.exttool.node.ExttoolCustomizer;
+import org.knime.exttool.node.ExttoolCustomizer.JoinMode;
+import org.knime.exttool.node.ExttoolSettings;
+import org.knime.exttool.node.ExttoolTestUtil;
+import org.knime.exttool.node.FreeFormCommandlineSettings;
+
+/**
+ * An external tool simulated in Java, used to test the execution of chunks
+ * without starting processes. The input is a table with one int column,
+ * written to a file one value per line. The tool writes ten times each
+ * value to its output file (matched by position). It fails on negative
+ * values and the first run with {@link #SLOW_VALUE} runs until canceled.
+ * @author agent
+ */
+final class FakeTool {
+
+    /** The first run on a chunk with this value does not finish. */
+    static final int SLOW_VALUE = 1000;
+
+    private static final DataTableSpec IN_SPEC = new DataTableSpec(
+            new DataColumnSpecCreator("value", IntCell.TYPE).createSpec());
+
+    private final AtomicBoolean m_isSlowed = new AtomicBoolean();
+    /** The input values of each run. */
+    private final List<String> m_runs =
+        Collections.synchronizedList(new ArrayList<String>());
+
+    /** Creates an execution of a node with one input and output running
+     * this tool, the output is joined by position.
+     * @param customizer Changes the default settings, e.g. the chunking.
+     * @return A new execution.
+     * @throws InvalidSettingsException If the settings are invalid.
+     */
+    Execution createExecution(final SettingsCustomizer customizer)
+        throws InvalidSettingsException {
+        ExttoolCustomizer nodeCustomizer = new ExttoolCustomizer() {
+            /** {@inheritDoc} */
+            @Override
+            protected AbstractCommandlineSettings createCommandlineSettings() {
+                return new Commandline();
+            }
+        };
+        ExttoolSettings settings =
+            ExttoolTestUtil.createSettings(nodeCustomizer);
+        FileTypeFactory fileType = new FileTypeFactory();
+        settings.getInputConfig(0).setType(fileType);
+        settings.getInputConfig(0).setWriteConfig(new WriteConfig());
+        settings.getOutputConfig(0).setType(fileType);
+        settings.getOutputConfig(0).setReadConfig(new ReadConfig());
+        ExecutorFactory executorFactory = new ExecutorFactory();
+        DefaultExttoolExecutorConfig executorConfig =
+            (DefaultExttoolExecutorConfig)executorFactory.createConfig();
+        // default of the dialog, chunks run concurrently
+        executorConfig.setAutoThreadCount(true);
+        settings.setExecutor(executorFactory, executorConfig);
+        settings.setPathToExecutable("fake");
+        settings.setJoinMode(JoinMode.Positional);
+        customizer.customize(settings);
+        return new Execution(nodeCustomizer, settings,
+                ExttoolTestUtil.createEnvironment());
+    }
+
+    /** @return the input values of each run so far, e.g. "[1, 2]". */
+    List<String> getRuns() {
+        synchronized (m_runs) {
+            return new ArrayList<String>(m_runs);
+        }
+    }
+
+    /** Changes the settings of an execution. */
+    interface SettingsCustomizer {
+        /** @param settings The settings to change.
+         * @throws InvalidSettingsException If a value is invalid. */
+        void customize(ExttoolSettings settings)
+            throws InvalidSettingsException;
+    }
+
+    /** @param exec To create the table.
+     * @param values The values of the rows.
+     * @return An input table with rows "Row0", "Row1", ... */
+    static BufferedDataTable createInput(final ExecutionContext exec,
+            final int... values) {
+        BufferedDataContainer cont = exec.createDataContainer(IN_SPEC);
+        for (int i = 0; i < values.length; i++) {
+            cont.addRowToTable(
+                    new DefaultRow("Row" + i, new IntCell(values[i])));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    /** @param table A table.
+     * @return the rows as "key:cell1:cell2..." */
+    static List<String> toList(final BufferedDataTable table) {
+        List<String> result = new ArrayList<String>();
+        for (DataRow row : table) {
+            StringBuilder b = new StringBuilder(row.getKey().getString());
+            for (int i = 0; i < row.getNumCells(); i++) {
+                b.append(':').append(row.getCell(i));
+            }
+            result.add(b.toString());
+        }
+        return result;
+    }
+
+    /** The command line of the tool, ignored by the {@link Executor}. */
+    private static final class Commandline
+        extends FreeFormCommandlineSettings {
+
+        Commandline() {
+            setCommandline("fake %inFile% %outFile%");
+        }
+    }
+
+    /** Runs the tool on the input file of a chunk. */
+    private final class Executor extends DefaultExttoolExecutor {
+
+        /** {@inheritDoc} */
+        @Override
+        public int execute(final ExecutionMonitor monitor)
+            throws Exception {
+            File in = ((FileInputDataHandle)getInputHandles()[0]).getInFile();
+            File out =
+                ((FileOutputDataHandle)getOutputHandles()[0]).getOutFile();
+            List<Integer> values = new ArrayList<Integer>();
+            BufferedReader reader = new BufferedReader(new FileReader(in));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    values.add(Integer.valueOf(line));
+                }
+            } finally {
+                reader.close();
+            }
+            m_runs.add(values.toString());
+            for (Integer value : values) {
+                if (value < 0) {
+                    return 1;
+                }
+            }
+            if (values.contains(SLOW_VALUE) && m_isSlowed.compareAndSet(
+                    false, true)) {
+                // interrupted when canceled
+                Thread.sleep(60000);
+            }
+            Writer writer = new FileWriter(out);
+            try {
+                for (Integer value : values) {
+                    writer.write(10 * value + "\n");
+                }
+            } finally {
+                writer.close();
+            }
+            return 0;
+        }
+    }
+
+    /** Creates the {@link Executor}. */
+    private final class ExecutorFactory
+        extends DefaultExttoolExecutorFactory {
+
+        /** {@inheritDoc} */
+        @Override
+        public String getName() {
+            return "Fake Tool";
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public DefaultExttoolExecutor createNewInstance() {
+            return new Executor();
+        }
+    }
+
+    /** One int per line, written from the first column and read into a
+     * column "result". */
+    private static final class FileTypeFactory
+        extends AbstractFileTypeFactory {
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean canWrite() {
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbstractFileTypeWrite createNewWriteInstance() {
+            return new AbstractFileTypeWrite(this) {
+                /** {@inheritDoc} */
+                @Override
+                public void prepare(final AbstractFileTypeWriteConfig c) {
+                }
+
+                /** {@inheritDoc} */
+                @Override
+                public void validateInput(final DataTableSpec spec) {
+                }
+
+                /** {@inheritDoc} */
+                @Override
+                public void writeTable(final DataTableSpec spec,
+                        final RowIterator it, final int rowCount,
+                        final OutputStream out, final ExecutionMonitor exec)
+                    throws IOException, CanceledExecutionException {
+                    Writer writer = new OutputStreamWriter(
+                            out, StandardCharsets.UTF_8);
+                    try {
+                        while (it.hasNext()) {
+                            exec.checkCanceled();
+                            int value =
+                                ((IntValue)it.next().getCell(0)).getIntValue();
+                            writer.write(value + "\n");
+                        }
+                    } finally {
+                        writer.close();
+                    }
+                }
+            };
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbstractFileTypeWriteConfig createNewWriteConfig() {
+            return new WriteConfig();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean canRead() {
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbstractFileTypeRead createNewReadInstance() {
+            return new AbstractFileTypeRead(this) {
+                /** {@inheritDoc} */
+                @Override
+                public void prepare(final AbstractFileTypeReadConfig c) {
+                }
+
+                /** {@inheritDoc} */
+                @Override
+                public BufferedDataTable readTable(
+                        final OutputDataHandle handle,
+                        final ExecutionContext exec) throws Exception {
+                    BufferedDataContainer cont = exec.createDataContainer(
+                            new DataTableSpec(new DataColumnSpecCreator(
+                                    "result", IntCell.TYPE).createSpec()));
+                    BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(
+                                    handle.openOutputFileInStream(),
+                                    StandardCharsets.UTF_8));
+                    try {
+                        String line;
+                        for (int i = 0; (line = reader.readLine()) != null;
+                                i++) {
+                            cont.addRowToTable(new DefaultRow("Out" + i,
+                                    new IntCell(Integer.parseInt(line))));
+                        }
+                    } finally {
+                        reader.close();
+                    }
+                    cont.close();
+                    return cont.getTable();
+                }
+            };
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbstractFileTypeReadConfig createNewReadConfig() {
+            return new ReadConfig();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getSuffix() {
+            return "txt";
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getUserFriendlyName() {
+            return "Lines";
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean accepts(final DataColumnSpec spec) {
+            return spec.getType().isCompatible(IntValue.class);
+        }
+    }
+
+    /** Write config without settings. */
+    private static final class WriteConfig
+        extends AbstractFileTypeWriteConfig {
+
+        /** {@inheritDoc} */
+        @Override
+        public void loadSettingsInModel(final NodeSettingsRO settings) {
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void loadSettingsInDialog(final NodeSettingsRO settings,
+                final DataTableSpec spec) {
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void saveSettings(final NodeSettingsWO settings) {
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbstractFileTypeWriteConfigPanel createConfigPanel() {
+            return null;
+        }
+    }
+
+    /** Read config without settings. */
+    private static final class ReadConfig
+        extends AbstractFileTypeReadConfig {
+
+        /** {@inheritDoc} */
+        @Override
+        public void loadSettingsInModel(final NodeSettingsRO settings) {
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void loadSettingsInDialog(final NodeSettingsRO settings) {
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void saveSettings(final NodeSettingsWO settings) {
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbstractFileTypeReadConfigPanel createConfigPanel() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
+import org.knime.exttool.node.ExttoolCustomizer;
+import org.knime.exttool.node.ExttoolTestUtil;
+
+/**
+ * Tests the {@link IncrementalResultStore}, which only executes changed rows
+ * and merges their output with the stored output of the other rows.
+ * @author agent
+ */
+public class IncrementalResultStoreTest {
+
+    private static final DataTableSpec IN_SPEC = new DataTableSpec(
+            new DataColumnSpecCreator("value", IntCell.TYPE).createSpec());
+
+    private static final DataTableSpec OUT_SPEC = new DataTableSpec(
+            new DataColumnSpecCreator("value", IntCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("result", StringCell.TYPE).createSpec());
+
+    /** Fake execution: one result per row ("r" + value), two for value 0,
+     * and an output row without input row after the row with value 2. */
+    private static final class FakeExecution extends Execution {
+
+        private final List<String> m_executedKeys = new ArrayList<String>();
+
+        FakeExecution() {
+            this(new ExttoolCustomizer());
+        }
+
+        private FakeExecution(final ExttoolCustomizer customizer) {
+            super(customizer, ExttoolTestUtil.createSettings(customizer),
+                    ExttoolTestUtil.createEnvironment());
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public BufferedDataTable[] execute(final BufferedDataTable[] inData,
+                final ExecutionContext exec) {
+            BufferedDataContainer cont = exec.createDataContainer(OUT_SPEC);
+            for (DataRow row : inData[0]) {
+                String key = row.getKey().getString();
+                m_executedKeys.add(key);
+                DataCell value = row.getCell(0);
+                cont.addRowToTable(new DefaultRow(key, value,
+                        new StringCell("r" + value)));
+                if (((IntCell)value).getIntValue() == 0) {
+                    cont.addRowToTable(new DefaultRow(key + "_1", value,
+                            new StringCell("s" + value)));
+                }
+                if (((IntCell)value).getIntValue() == 2) {
+                    cont.addRowToTable(new DefaultRow("extra",
+                            DataType.getMissingCell(),
+                            new StringCell("x")));
+                }
+            }
+            cont.close();
+            return new BufferedDataTable[] {cont.getTable()};
+        }
+    }
+
+    private static BufferedDataTable[] input(final ExecutionContext exec,
+            final int... values) {
+        BufferedDataContainer cont = exec.createDataContainer(IN_SPEC);
+        for (int i = 0; i < values.length; i++) {
+            cont.addRowToTable(
+                    new DefaultRow("Row" + i, new IntCell(values[i])));
+        }
+        cont.close();
+        return new BufferedDataTable[] {cont.getTable()};
+    }
+
+    /** @return the rows as "key:cell1:cell2..." */
+    private static List<String> toList(final BufferedDataTable table) {
+        List<String> result = new ArrayList<String>();
+        for (DataRow row : table) {
+            StringBuilder b = new StringBuilder(row.getKey().getString());
+            for (DataCell c : row) {
+                b.append(':').append(c);
+            }
+            result.add(b.toString());
+        }
+        return result;
+    }
+
+    /** Only changed rows are executed, the output is in input order with
+     * the output row without input row after its executed row. */
+    @Test
+    public void testMerge() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        IncrementalResultStore store = new IncrementalResultStore();
+        try {
+            FakeExecution execution = new FakeExecution();
+            BufferedDataTable[] out = store.execute(execution,
+                    input(exec, 0, 1, 2, 3), "f", Long.MAX_VALUE, exec);
+            assertEquals(Arrays.asList("Row0", "Row1", "Row2", "Row3"),
+                    execution.m_executedKeys);
+            assertEquals(Arrays.asList("Row0:0:r0", "Row0_1:0:s0",
+                    "Row1:1:r1", "Row2:2:r2", "extra:?:x", "Row3:3:r3"),
+                    toList(out[0]));
+
+            // row 1 changed (value 2 now), the others are served
+            execution = new FakeExecution();
+            out = store.execute(execution, input(exec, 0, 2, 2, 3), "f",
+                    Long.MAX_VALUE, exec);
+            assertEquals(Arrays.asList("Row1"), execution.m_executedKeys);
+            assertEquals(Arrays.asList("Row0:0:r0", "Row0_1:0:s0",
+                    "Row1:2:r2", "extra:?:x", "Row2:2:r2", "Row3:3:r3"),
+                    toList(out[0]));
+        } finally {
+            store.dispose();
+        }
+    }
+
+    /** Unchanged input isn't executed; output rows without input row are
+     * not stored. A different fingerprint executes all rows. */
+    @Test
+    public void testUnchangedAndFingerprint() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        IncrementalResultStore store = new IncrementalResultStore();
+        try {
+            store.execute(new FakeExecution(), input(exec, 1, 2), "f",
+                    Long.MAX_VALUE, exec);
+            FakeExecution execution = new FakeExecution();
+            BufferedDataTable[] out = store.execute(execution,
+                    input(exec, 1, 2), "f", Long.MAX_VALUE, exec);
+            assertEquals(0, execution.m_executedKeys.size());
+            assertEquals(Arrays.asList("Row0:1:r1", "Row1:2:r2"),
+                    toList(out[0]));
+            execution = new FakeExecution();
+            store.execute(execution, input(exec, 1, 2), "g",
+                    Long.MAX_VALUE, exec);
+            assertEquals(Arrays.asList("Row0", "Row1"),
+                    execution.m_executedKeys);
+        } finally {
+            store.dispose();
+        }
+    }
+
+    /** Results exceeding the size limit are not stored. */
+    @Test
+    public void testSizeLimit() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        IncrementalResultStore store = new IncrementalResultStore();
+        try {
+            store.execute(new FakeExecution(), input(exec, 1, 3), "f",
+                    -1, exec);
+            FakeExecution execution = new FakeExecution();
+            store.execute(execution, input(exec, 1, 3), "f", -1, exec);
+            assertEquals(Arrays.asList("Row0", "Row1"),
+                    execution.m_executedKeys);
+        } finally {
+            store.dispose();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
+import org.knime.exttool.node.ExttoolTestUtil;
+
+/**
+ * Tests the {@link InputDeduplicator}, which passes only distinct rows to
+ * the external tool and fans the results out to the duplicates.
+ * @author agent
+ */
+public class InputDeduplicatorTest {
+
+    /** Two columns passed to the tool and a column that isn't. */
+    private static final DataTableSpec IN_SPEC = new DataTableSpec(
+            new DataColumnSpecCreator("smiles", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("count", IntCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("other", StringCell.TYPE).createSpec());
+
+    private static final DataTableSpec JOINED_SPEC = new DataTableSpec(
+            new DataColumnSpecCreator("smiles", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("count", IntCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("other", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("result", StringCell.TYPE).createSpec());
+
+    private static BufferedDataTable createTable(final ExecutionContext exec,
+            final DataTableSpec spec, final DataRow... rows) {
+        BufferedDataContainer cont = exec.createDataContainer(spec);
+        for (DataRow row : rows) {
+            cont.addRowToTable(row);
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static DataRow row(final String key, final String smiles,
+            final int count, final String other, final String... result) {
+        List<DataCell> cells = new ArrayList<DataCell>();
+        cells.add(new StringCell(smiles));
+        cells.add(new IntCell(count));
+        cells.add(new StringCell(other));
+        for (String r : result) {
+            cells.add(new StringCell(r));
+        }
+        return new DefaultRow(key, cells.toArray(new DataCell[0]));
+    }
+
+    /** @return the rows as "key:cell1:cell2..." */
+    private static List<String> toList(final BufferedDataTable table) {
+        List<String> result = new ArrayList<String>();
+        for (DataRow row : table) {
+            StringBuilder b = new StringBuilder(row.getKey().getString());
+            for (DataCell c : row) {
+                b.append(':').append(c);
+            }
+            result.add(b.toString());
+        }
+        return result;
+    }
+
+    private static BufferedDataTable createInput(final ExecutionContext exec) {
+        return createTable(exec, IN_SPEC,
+                row("r0", "C", 1, "x"), row("r1", "N", 1, "y"),
+                row("r2", "C", 1, "z"), row("r3", "C", 2, "x"),
+                row("r4", "N", 1, "w"));
+    }
+
+    /** Rows are duplicates if the written columns are equal, the first
+     * occurrence is kept. */
+    @Test
+    public void testDistinct() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        BufferedDataTable input = createInput(exec);
+        InputDeduplicator dedup =
+            new InputDeduplicator(input, new int[] {0, 1});
+        assertEquals(Arrays.asList("r0:C:1:x", "r1:N:1:y", "r3:C:2:x"),
+                toList(dedup.createDistinctTable(exec)));
+        // all columns written: no duplicates
+        dedup = new InputDeduplicator(input, null);
+        assertEquals(5, dedup.createDistinctTable(exec).getRowCount());
+    }
+
+    /** Cells of different types are not equal even if their string
+     * representation is. */
+    @Test
+    public void testCellTypes() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        DataTableSpec spec = new DataTableSpec(
+                new DataColumnSpecCreator("a", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("b", IntCell.TYPE).createSpec());
+        BufferedDataTable input = createTable(exec, spec,
+                new DefaultRow("r0", new StringCell("1"), new IntCell(1)),
+                new DefaultRow("r1", new IntCell(1), new StringCell("1")),
+                new DefaultRow("r2", new StringCell("1"), new IntCell(1)));
+        InputDeduplicator dedup = new InputDeduplicator(input, null);
+        assertEquals(2, dedup.createDistinctTable(exec).getRowCount());
+    }
+
+    /** The results of a distinct row are added to each duplicate, with its
+     * own key and input cells, in input order. */
+    @Test
+    public void testFanOut() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        BufferedDataTable input = createInput(exec);
+        InputDeduplicator dedup =
+            new InputDeduplicator(input, new int[] {0, 1});
+        dedup.createDistinctTable(exec);
+        // joined output of the distinct rows, two results for r1
+        BufferedDataTable distinctResult = createTable(exec, JOINED_SPEC,
+                row("r0", "C", 1, "x", "c1"), row("r1", "N", 1, "y", "n1"),
+                row("r1_1", "N", 1, "y", "n2"), row("r3", "C", 2, "x", "c2"));
+        assertEquals(Arrays.asList("r0:C:1:x:c1", "r1:N:1:y:n1",
+                "r1_1:N:1:y:n2", "r2:C:1:z:c1", "r3:C:2:x:c2",
+                "r4:N:1:w:n1", "r4_1:N:1:w:n2"),
+                toList(dedup.fanOut(distinctResult, "_", exec)));
+    }
+}
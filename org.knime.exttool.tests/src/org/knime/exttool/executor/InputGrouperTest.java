@@ -0,0 +1,179 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
+import org.knime.exttool.node.ExttoolTestUtil;
+
+/**
+ * Tests the {@link InputGrouper}, which keeps the rows of a group in one
+ * chunk and restores the input order of the joined output.
+ * @author agent
+ */
+public class InputGrouperTest {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+            new DataColumnSpecCreator("group", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("value", StringCell.TYPE).createSpec());
+
+    /** Creates a table with rows "Row0", "Row1", ... in the given groups,
+     * the value is the row key. */
+    private static BufferedDataTable createInput(final ExecutionContext exec,
+            final String... groups) {
+        List<String> keys = new ArrayList<String>();
+        for (int i = 0; i < groups.length; i++) {
+            keys.add("Row" + i);
+        }
+        return createTable(exec, keys, groups);
+    }
+
+    /** Creates a table with the given keys and groups. */
+    private static BufferedDataTable createTable(final ExecutionContext exec,
+            final List<String> keys, final String... groups) {
+        BufferedDataContainer cont = exec.createDataContainer(SPEC);
+        for (int i = 0; i < groups.length; i++) {
+            cont.addRowToTable(new DefaultRow(keys.get(i),
+                    new StringCell(groups[i]), new StringCell(keys.get(i))));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    /** @return "key:group" of the rows of a table. */
+    private static List<String> toList(final BufferedDataTable table) {
+        List<String> result = new ArrayList<String>();
+        for (DataRow row : table) {
+            result.add(row.getKey() + ":" + row.getCell(0));
+        }
+        return result;
+    }
+
+    /** Adjacent groups are cut into chunks of about equal size, the input
+     * is not reordered. */
+    @Test
+    public void testAdjacentGroups() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        BufferedDataTable input =
+            createInput(exec, "a", "a", "b", "b", "c", "c");
+        InputGrouper grouper = new InputGrouper(input, 0, 2);
+        assertSame(input, grouper.createGroupedTable(exec));
+        assertFalse(grouper.isReordered());
+        assertArrayEquals(new long[] {0, 4, 6}, grouper.getChunkStarts());
+        assertSame(input, grouper.restoreOrder(input, "_", exec));
+    }
+
+    /** A group larger than the chunk size is not split. */
+    @Test
+    public void testLargeGroup() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        BufferedDataTable input =
+            createInput(exec, "a", "a", "a", "a", "a", "b");
+        InputGrouper grouper = new InputGrouper(input, 0, 3);
+        grouper.createGroupedTable(exec);
+        assertArrayEquals(new long[] {0, 5, 6}, grouper.getChunkStarts());
+    }
+
+    /** Scattered groups are assigned to chunks largest first and the input
+     * is reordered such that each chunk is a row range. */
+    @Test
+    public void testScatteredGroups() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        BufferedDataTable input =
+            createInput(exec, "a", "b", "a", "c", "b", "a");
+        InputGrouper grouper = new InputGrouper(input, 0, 2);
+        BufferedDataTable grouped = grouper.createGroupedTable(exec);
+        assertTrue(grouper.isReordered());
+        assertEquals(SPEC.getNumColumns(),
+                grouped.getDataTableSpec().getNumColumns());
+        // a (3 rows) in the first chunk, b and c (3 rows) in the second
+        assertArrayEquals(new long[] {0, 3, 6}, grouper.getChunkStarts());
+        assertEquals(Arrays.asList("Row0:a", "Row2:a", "Row5:a", "Row1:b",
+                "Row4:b", "Row3:c"), toList(grouped));
+    }
+
+    /** The joined output of the reordered table is brought back into input
+     * order, including multiple results of a row; output rows without input
+     * row are added at the end. */
+    @Test
+    public void testRestoreOrder() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        BufferedDataTable input =
+            createInput(exec, "a", "b", "a", "c", "b", "a");
+        InputGrouper grouper = new InputGrouper(input, 0, 2);
+        grouper.createGroupedTable(exec);
+        BufferedDataTable groupedResult = createTable(exec,
+                Arrays.asList("Row0", "Row2", "Row2_1", "Row5", "Row1",
+                        "Row4", "Unmatched", "Row3"),
+                "a", "a", "a", "a", "b", "b", "x", "c");
+        BufferedDataTable restored =
+            grouper.restoreOrder(groupedResult, "_", exec);
+        assertEquals(Arrays.asList("Row0:a", "Row1:b", "Row2:a", "Row2_1:a",
+                "Row3:c", "Row4:b", "Row5:a", "Unmatched:x"),
+                toList(restored));
+        assertEquals(SPEC.getNumColumns(),
+                restored.getDataTableSpec().getNumColumns());
+    }
+}
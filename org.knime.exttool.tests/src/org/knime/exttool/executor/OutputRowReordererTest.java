@@ -0,0 +1,204 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTable;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowIterator;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.exttool.node.ExttoolTestUtil;
+
+/**
+ * Tests the {@link OutputRowReorderer}, which brings the tool output of the
+ * hash join mode into input order.
+ * @author agent
+ */
+public class OutputRowReordererTest {
+
+    /** Tool output: the ID column and the position in the output. */
+    private static final DataTableSpec OUT_SPEC = new DataTableSpec(
+            new DataColumnSpecCreator("id", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("position", IntCell.TYPE).createSpec());
+
+    private static final String[] KEYS = new String[] {"a", "b", "c"};
+
+    /** Reorders a tool output with the given IDs, given as a buffered
+     * table.
+     * @return "id:position" of the reordered rows. */
+    private static List<String> reorder(final String[] keys,
+            final String... ids) throws CanceledExecutionException {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        return reorder(keys, createOutput(exec, ids), exec);
+    }
+
+    /** Creates a tool output with the given IDs. */
+    private static BufferedDataTable createOutput(final ExecutionContext exec,
+            final String... ids) {
+        BufferedDataContainer cont = exec.createDataContainer(OUT_SPEC);
+        for (int i = 0; i < ids.length; i++) {
+            cont.addRowToTable(new DefaultRow("Out" + i,
+                    new StringCell(ids[i]), new IntCell(i)));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    /** Reorders a tool output.
+     * @return "id:position" of the reordered rows. */
+    private static List<String> reorder(final String[] keys,
+            final DataTable out, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        OutputRowReorderer reorderer = new OutputRowReorderer(keys);
+        List<String> result = new ArrayList<String>();
+        CloseableRowIterator it = reorderer.reorder(out, 0, exec);
+        try {
+            while (it.hasNext()) {
+                DataRow row = it.next();
+                result.add(row.getCell(0) + ":" + row.getCell(1));
+            }
+        } finally {
+            it.close();
+        }
+        reorderer.clear();
+        return result;
+    }
+
+    /** Positions of the input keys, also with many hash collisions. */
+    @Test
+    public void testGetPosition() {
+        OutputRowReorderer reorderer = new OutputRowReorderer(KEYS);
+        assertEquals(0, reorderer.getPosition("a"));
+        assertEquals(2, reorderer.getPosition("c"));
+        assertEquals(-1, reorderer.getPosition("d"));
+        String[] keys = new String[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "Row" + i;
+        }
+        reorderer = new OutputRowReorderer(keys);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(keys[i], i, reorderer.getPosition(keys[i]));
+        }
+        assertEquals(-1, reorderer.getPosition("Row1000"));
+    }
+
+    /** Output in input order is passed through (also with multiple and
+     * unmatched rows at the end). */
+    @Test
+    public void testInOrder() throws Exception {
+        assertEquals(Arrays.asList("a:0", "b:1", "c:2"),
+                reorder(KEYS, "a", "b", "c"));
+        assertEquals(Arrays.asList("a:0", "a:1", "c:2", "x:3"),
+                reorder(KEYS, "a", "a", "c", "x"));
+    }
+
+    /** Output in a different order is sorted into input order. */
+    @Test
+    public void testOutOfOrder() throws Exception {
+        assertEquals(Arrays.asList("a:1", "b:2", "c:0"),
+                reorder(KEYS, "c", "a", "b"));
+    }
+
+    /** Multiple output rows for an input row keep their output order. */
+    @Test
+    public void testDuplicateKeys() throws Exception {
+        assertEquals(Arrays.asList("a:1", "a:3", "b:0", "b:2"),
+                reorder(KEYS, "b", "a", "b", "a"));
+    }
+
+    /** Output rows without input row are added at the end, in output
+     * order. Input rows without output are skipped. */
+    @Test
+    public void testUnmatched() throws Exception {
+        assertEquals(Arrays.asList("a:2", "c:1", "y:0", "x:3"),
+                reorder(KEYS, "y", "c", "a", "x"));
+    }
+
+    /** Output that can only be iterated once is buffered and sorted. */
+    @Test
+    public void testSingleIteration() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        final BufferedDataTable table =
+            createOutput(exec, "c", "a", "x", "b", "a");
+        DataTable once = new DataTable() {
+            private boolean m_isIterated;
+
+            /** {@inheritDoc} */
+            @Override
+            public DataTableSpec getDataTableSpec() {
+                return table.getDataTableSpec();
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public RowIterator iterator() {
+                assertFalse("Iterated twice", m_isIterated);
+                m_isIterated = true;
+                return table.iterator();
+            }
+        };
+        assertEquals(Arrays.asList("a:1", "a:4", "b:3", "c:0", "x:2"),
+                reorder(KEYS, once, exec));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
+import org.knime.exttool.node.ExttoolTestUtil;
+
+/**
+ * Tests the {@link ResultOrderRestorer}, which maps the joined output of a
+ * derived table back to the input rows.
+ * @author agent
+ */
+public class ResultOrderRestorerTest {
+
+    private static final DataTableSpec IN_SPEC = new DataTableSpec(
+            new DataColumnSpecCreator("in", StringCell.TYPE).createSpec());
+
+    private static final DataTableSpec JOINED_SPEC = new DataTableSpec(
+            new DataColumnSpecCreator("in", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("out", StringCell.TYPE).createSpec());
+
+    /** Creates a table, each row given as "key:cell1:cell2...". */
+    private static BufferedDataTable createTable(final ExecutionContext exec,
+            final DataTableSpec spec, final String... rows) {
+        BufferedDataContainer cont = exec.createDataContainer(spec);
+        for (String row : rows) {
+            String[] parts = row.split(":");
+            StringCell[] cells = new StringCell[parts.length - 1];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = new StringCell(parts[i + 1]);
+            }
+            cont.addRowToTable(new DefaultRow(parts[0], cells));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    /** @return the rows of a table as "key:cell1:cell2...". */
+    private static List<String> toList(final BufferedDataTable table) {
+        List<String> result = new ArrayList<String>();
+        for (DataRow row : table) {
+            StringBuilder b = new StringBuilder(row.getKey().getString());
+            for (int i = 0; i < row.getNumCells(); i++) {
+                b.append(':').append(row.getCell(i));
+            }
+            result.add(b.toString());
+        }
+        return result;
+    }
+
+    /** The results of a derived row are added for all input rows mapped to
+     * it, with the input row's key and (if given) its input cells. */
+    @Test
+    public void testFanOut() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        // a and c are mapped to derived row a, b and d to b
+        ResultOrderRestorer restorer = new ResultOrderRestorer(
+                new String[] {"a", "b", "c", "d"}, new int[] {0, 1, 0, 1},
+                new String[] {"a", "b"});
+        BufferedDataTable derivedResult = createTable(exec, JOINED_SPEC,
+                "a:x:1", "a#1:x:2", "b:y:3", "z:?:4");
+        BufferedDataTable input = createTable(exec, IN_SPEC,
+                "a:x", "b:y", "c:X", "d:Y");
+        assertEquals(Arrays.asList("a:x:1", "a#1:x:2", "b:y:3", "c:X:1",
+                "c#1:X:2", "d:Y:3", "z:?:4"),
+                toList(restorer.restore(derivedResult, "#", input, exec)));
+        assertEquals(Arrays.asList("a:x:1", "a#1:x:2", "b:y:3", "c:x:1",
+                "c#1:x:2", "d:y:3", "z:?:4"),
+                toList(restorer.restore(derivedResult, "#", null, exec)));
+    }
+
+    /** The output is in the order of the input, not of the derived
+     * table. */
+    @Test
+    public void testReordered() throws Exception {
+        ExecutionContext exec = ExttoolTestUtil.createExecutionContext();
+        // derived table in order c, a, b
+        ResultOrderRestorer restorer = new ResultOrderRestorer(
+                new String[] {"a", "b", "c"}, new int[] {1, 2, 0},
+                new String[] {"c", "a", "b"});
+        BufferedDataTable derivedResult = createTable(exec, JOINED_SPEC,
+                "c:z:1", "c#1:z:2", "a:x:3", "b:y:4");
+        assertEquals(Arrays.asList("a:x:3", "b:y:4", "c:z:1", "c#1:z:2"),
+                toList(restorer.restore(derivedResult, "#", null, exec)));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.node;
+
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+import org.knime.exttool.executor.Execution;
+
+/**
+ * Creates the objects needed to test the executor classes outside of a
+ * workflow.
+ * @author agent
+ */
+public final class ExttoolTestUtil {
+
+    private ExttoolTestUtil() {
+    }
+
+    /** Creates an execution with default settings of a node with one input
+     * and one output. It is not meant to be executed, only its parts.
+     * @return A new execution.
+     */
+    public static Execution createExecution() {
+        ExttoolCustomizer customizer = new ExttoolCustomizer();
+        return new Execution(customizer, createSettings(customizer),
+                createEnvironment());
+    }
+
+    /** @param customizer The customizer of the node.
+     * @return New default settings for the customizer. */
+    public static ExttoolSettings createSettings(
+            final ExttoolCustomizer customizer) {
+        return new ExttoolSettings(customizer);
+    }
+
+    /** @return An environment without node model. */
+    public static ExttoolNodeEnvironment createEnvironment() {
+        return new ExttoolNodeEnvironment(null);
+    }
+
+    /** Creates an execution context of a dummy node, whose tables are kept
+     * in memory.
+     * @return A new execution context.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static ExecutionContext createExecutionContext() {
+        NodeFactory<NodeModel> factory = (NodeFactory)
+            new VirtualParallelizedChunkPortObjectInNodeFactory(
+                    new PortType[0]);
+        return new ExecutionContext(new DefaultNodeProgressMonitor(),
+                new Node(factory),
+                SingleNodeContainer.MemoryPolicy.CacheSmallInMemory,
+                NotInWorkflowDataRepository.newInstance());
+    }
+}
@@ -83,6 +83,18 @@ protected final String[] getCommandlineArgs() {
         return getExecutionChunkCallable().getCommandlineArgs();
     }
 
+    /**
+     * Get the number of threads the external process may use. Executors
+     * set the {@link
+     * AbstractExttoolExecutorConfig#getThreadEnvironmentVariables() thread
+     * environment variables} to this value.
+     * @return the thread count, at least 1.
+     * @see ExecutionChunkCallable#getThreadCount()
+     */
+    protected final int getThreadCount() {
+        return getExecutionChunkCallable().getThreadCount();
+    }
+
     /**
      * Get the input handles that are associated with this execution. Each
      * element in the returned array can safely be type-casted to the class
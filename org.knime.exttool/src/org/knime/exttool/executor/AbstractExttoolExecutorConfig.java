@@ -47,6 +47,7 @@
  */
 package org.knime.exttool.executor;
 
+import java.io.File;
 import java.util.concurrent.ExecutorService;
 
 import org.knime.core.node.InvalidSettingsException;
@@ -110,4 +111,77 @@ public abstract void loadSettingsInDialog(final NodeSettingsRO settings)
      */
     abstract ExecutorService createExecutorService();
 
+    /** The maximum number of chunks that are run concurrently by the
+     * {@link #createExecutorService() executor service}. This is used as a
+     * hint by the framework, for instance to bound the number of chunks that
+     * are written ahead of their execution.
+     *
+     * <p>This default implementation returns -1 (unknown or unbounded).
+     * @return the maximum number of concurrently running chunks or -1.
+     */
+    public int getMaxParallelChunkCount() {
+        return -1;
+    }
+
+    /** A directory on a memory file system (such as /dev/shm), in which the
+     * framework places the in- and output files of chunks as long as their
+     * estimated size fits into the {@link #getMemoryBudget() budget}. Files
+     * of other chunks are placed in the
+     * {@link AbstractExttoolExecutorFactory#getDefaultTempDirectory()
+     * default temp directory}.
+     *
+     * <p>This default implementation returns null (not used).
+     * @return The memory directory or null.
+     * @since 5.9
+     */
+    public File getMemoryDirectory() {
+        return null;
+    }
+
+    /** The maximum number of bytes of files in the
+     * {@link #getMemoryDirectory() memory directory}.
+     *
+     * <p>This default implementation returns 0.
+     * @return The budget in bytes.
+     * @since 5.9
+     */
+    public long getMemoryBudget() {
+        return 0L;
+    }
+
+    /** Names of environment variables (such as <code>OMP_NUM_THREADS</code>)
+     * that are set to the number of threads available to a chunk when the
+     * external process is started.
+     *
+     * <p>This default implementation returns an empty array.
+     * @return The variable names, not null.
+     * @since 5.9
+     */
+    public String[] getThreadEnvironmentVariables() {
+        return new String[0];
+    }
+
+    /** The wall-clock time after which the external process of a chunk
+     * (and all its descendants) is killed. The chunk is then run again up
+     * to {@link #getChunkRetryCount()} times before it fails.
+     *
+     * <p>This default implementation returns 0 (no timeout).
+     * @return The timeout in milliseconds, 0 for none.
+     * @since 5.9
+     */
+    public long getChunkTimeout() {
+        return 0L;
+    }
+
+    /** How often a chunk is run again after its process was killed due to
+     * the {@link #getChunkTimeout() timeout}.
+     *
+     * <p>This default implementation returns 0.
+     * @return The number of retries.
+     * @since 5.9
+     */
+    public int getChunkRetryCount() {
+        return 0;
+    }
+
 }
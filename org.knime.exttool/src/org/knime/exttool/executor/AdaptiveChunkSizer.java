@@ -0,0 +1,160 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+/**
+ * Determines the chunk sizes for {@link
+ * org.knime.exttool.node.ExttoolCustomizer.Chunking#Adaptive adaptive}
+ * chunking. It hands out small probe chunks first and fits the runtime of the
+ * finished chunks to <i>overhead + rows * timePerRow</i>. Subsequent chunks
+ * are large enough to keep the process start-up overhead below the
+ * configured fraction and shrink towards the end of the table (guided
+ * self-scheduling), so that all workers finish at about the same time.
+ *
+ * <p>All methods are thread-safe, chunks are reported from the executor
+ * threads.
+ *
+ * @author agent
+ */
+final class AdaptiveChunkSizer {
+
+    /** Upper bound for the number of rows in a probe chunk. */
+    private static final int MAX_PROBE_ROWS = 16;
+
+    private final int m_parallelism;
+    private final double m_maxOverheadFraction;
+    private final int m_probeRows;
+
+    /** Number of probe chunks handed out so far. */
+    private int m_probeCount;
+
+    /** Sums for the least squares fit of chunk runtime vs. row count. */
+    private int m_n;
+    private double m_sumRows;
+    private double m_sumTime;
+    private double m_sumRowsSquare;
+    private double m_sumRowsTime;
+
+    /** Creates a new sizer.
+     * @param rowCount The total number of rows to be chunked.
+     * @param parallelism Number of chunks that are run concurrently.
+     * @param maxOverheadPercent The maximum fraction of the runtime spent on
+     *        process start-up, in percent [1, 99].
+     */
+    AdaptiveChunkSizer(final long rowCount, final int parallelism,
+            final int maxOverheadPercent) {
+        m_parallelism = Math.max(1, parallelism);
+        m_maxOverheadFraction =
+            Math.min(99, Math.max(1, maxOverheadPercent)) / 100.0;
+        m_probeRows = (int)Math.max(1, Math.min(MAX_PROBE_ROWS,
+                rowCount / (64L * m_parallelism)));
+    }
+
+    /** Determines the size of the next chunk.
+     * @param remainingRows The number of rows not yet assigned to a chunk,
+     *        &gt; 0.
+     * @return The number of rows in the next chunk, in [1, remainingRows].
+     */
+    synchronized int nextChunkSize(final long remainingRows) {
+        long size;
+        if (m_n < 2) {
+            // alternate probe sizes so that the fit can separate the
+            // start-up overhead from the per-row time
+            size = m_probeRows * (1 + (m_probeCount++ % 2));
+        } else {
+            long balanced = (long)Math.ceil(
+                    remainingRows / (2.0 * m_parallelism));
+            long fairShare = (long)Math.ceil(
+                    remainingRows / (double)m_parallelism);
+            double denominator = m_n * m_sumRowsSquare - m_sumRows * m_sumRows;
+            double timePerRow;
+            double overhead;
+            if (denominator > 0.0) {
+                timePerRow = (m_n * m_sumRowsTime - m_sumRows * m_sumTime)
+                    / denominator;
+                overhead = Math.max(0.0,
+                        (m_sumTime - timePerRow * m_sumRows) / m_n);
+            } else {
+                // all chunks of same size, attribute all time to the rows
+                timePerRow = m_sumTime / m_sumRows;
+                overhead = 0.0;
+            }
+            long minForOverhead;
+            if (timePerRow > 0.0) {
+                minForOverhead = (long)Math.ceil(overhead
+                        * (1.0 - m_maxOverheadFraction)
+                        / (m_maxOverheadFraction * timePerRow));
+            } else {
+                // runtime independent of row count, use few large chunks
+                minForOverhead = fairShare;
+            }
+            // never exceed the fair share, otherwise workers run idle
+            // at the end
+            size = Math.min(fairShare, Math.max(balanced, minForOverhead));
+        }
+        return (int)Math.max(1, Math.min(size,
+                Math.min(remainingRows, Integer.MAX_VALUE)));
+    }
+
+    /** Reports the runtime of a successfully finished chunk.
+     * @param rowCount The number of rows in the chunk.
+     * @param nanos The wall time of the chunk execution in nanoseconds.
+     */
+    synchronized void chunkFinished(final int rowCount, final long nanos) {
+        if (rowCount <= 0) {
+            return;
+        }
+        double time = nanos;
+        m_n += 1;
+        m_sumRows += rowCount;
+        m_sumTime += time;
+        m_sumRowsSquare += (double)rowCount * rowCount;
+        m_sumRowsTime += rowCount * time;
+    }
+
+}
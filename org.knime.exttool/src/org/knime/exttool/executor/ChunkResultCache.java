@@ -0,0 +1,340 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.exttool.executor.InputDataHandle.FileInputDataHandle;
+import org.knime.exttool.executor.OutputDataHandle.FileOutputDataHandle;
+
+/**
+ * Persistent cache of the output files of chunks, addressed by the content
+ * of the chunk's input files, its command line (including the %threads%
+ * value), the thread count passed in environment variables and a
+ * fingerprint of the executable. A hit replays the stored output files
+ * instead of running the external tool.
+ *
+ * <p>The input of the ports other than the first one is shared by all
+ * chunks of an execution, its hash is computed once per cache object (one
+ * is created per execution).
+ *
+ * <p>Entries are directories <code>&lt;root&gt;/ab/abcdef.../</code>
+ * containing one file per output port. They are created in a temporary
+ * directory and renamed, so the cache can be shared by concurrent chunks,
+ * nodes and KNIME instances (e.g. on a network drive). The modification
+ * time of an entry is updated on every hit; if the cache exceeds its size
+ * limit the least recently used entries are deleted.
+ *
+ * @author agent
+ */
+final class ChunkResultCache {
+
+    private static final NodeLogger LOGGER =
+        NodeLogger.getLogger(ChunkResultCache.class);
+
+    private static final String OUTPUT_FILE_PREFIX = "out";
+
+    private final File m_root;
+    private final long m_maxSize;
+    private final String m_pathToExecutable;
+    /** Size of the cache as known by this object, -1 if not yet scanned. */
+    private long m_size = -1L;
+    /** Hashes of the shared input handles (ports &gt; 0), by identity. */
+    private final Map<InputDataHandle, String> m_sharedInputHashes =
+        new IdentityHashMap<InputDataHandle, String>();
+
+    /** Creates a new cache.
+     * @param root The cache directory, created if it does not exist.
+     * @param maxSize The max size in bytes.
+     * @param pathToExecutable The executable as set in the dialog, may be
+     *        null (the first command line argument is used then).
+     */
+    ChunkResultCache(final File root, final long maxSize,
+            final String pathToExecutable) {
+        m_root = root;
+        m_maxSize = maxSize;
+        m_pathToExecutable = pathToExecutable == null
+            || pathToExecutable.isEmpty() ? null : pathToExecutable;
+    }
+
+    /** Computes the cache key of a chunk whose input files are written.
+     * @param callable The chunk.
+     * @return The key or null if the chunk can't be cached (handles are not
+     *         plain files).
+     * @throws IOException If the input can't be read.
+     */
+    String createKey(final ExecutionChunkCallable callable)
+        throws IOException {
+        InputDataHandle[] ins = callable.getInputHandles();
+        OutputDataHandle[] outs = callable.getOutputHandles();
+        String[] args = callable.getCommandlineArgs();
+        if (args == null || args.length == 0) {
+            return null;
+        }
+        for (InputDataHandle in : ins) {
+            if (!(in instanceof FileInputDataHandle)) {
+                return null;
+            }
+        }
+        for (OutputDataHandle out : outs) {
+            if (!(out instanceof FileOutputDataHandle)) {
+                return null;
+            }
+        }
+        ContentHash hash = new ContentHash();
+        // file locations differ between runs, hash them as place holders
+        for (String arg : args) {
+            String a = arg;
+            for (int i = 0; i < ins.length; i++) {
+                a = a.replace(Execution.getCommandlinePath(
+                        ins[i], i, ins.length), "%inFile" + i + "%");
+            }
+            for (int i = 0; i < outs.length; i++) {
+                a = a.replace(Execution.getCommandlinePath(
+                        outs[i], i, outs.length), "%outFile" + i + "%");
+            }
+            hash.update(a);
+        }
+        AbstractExttoolExecutorConfig config = callable.getExecutorConfig();
+        if (config != null) {
+            String threads = Integer.toString(callable.getThreadCount());
+            for (String name : config.getThreadEnvironmentVariables()) {
+                hash.update(name + "=" + threads);
+            }
+        }
+        File executable = findExecutable(
+                m_pathToExecutable != null ? m_pathToExecutable : args[0]);
+        if (executable != null) {
+            hash.update(executable.getAbsolutePath());
+            hash.update(Long.toString(executable.lastModified()));
+            hash.update(Long.toString(executable.length()));
+        }
+        for (int i = 0; i < ins.length; i++) {
+            File inFile = ((FileInputDataHandle)ins[i]).getInFile();
+            if (i == 0) {
+                hash.update(inFile);
+            } else {
+                hash.update(getSharedInputHash(ins[i], inFile));
+            }
+        }
+        return hash.digest();
+    }
+
+    /** Hash of the file of a shared input handle, computed on first use. */
+    private String getSharedInputHash(final InputDataHandle in,
+            final File inFile) throws IOException {
+        synchronized (m_sharedInputHashes) {
+            String result = m_sharedInputHashes.get(in);
+            if (result == null) {
+                ContentHash hash = new ContentHash();
+                hash.update(inFile);
+                result = hash.digest();
+                m_sharedInputHashes.put(in, result);
+            }
+            return result;
+        }
+    }
+
+    /** Copies the stored output files to the chunk's output handles.
+     * @param key The key as per {@link #createKey(ExecutionChunkCallable)}.
+     * @param callable The chunk.
+     * @return true if the cache contained the output, false otherwise.
+     */
+    boolean restore(final String key, final ExecutionChunkCallable callable) {
+        File entry = getEntryDir(key);
+        if (!entry.isDirectory()) {
+            return false;
+        }
+        OutputDataHandle[] outs = callable.getOutputHandles();
+        try {
+            for (int i = 0; i < outs.length; i++) {
+                File target = ((FileOutputDataHandle)outs[i]).getOutFile();
+                Files.copy(new File(entry, OUTPUT_FILE_PREFIX + i).toPath(),
+                        target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ioe) {
+            // e.g. deleted concurrently, execute the chunk
+            LOGGER.debug("Could not restore cached chunk output "
+                    + entry.getAbsolutePath() + ": " + ioe.getMessage(), ioe);
+            return false;
+        }
+        entry.setLastModified(System.currentTimeMillis());
+        return true;
+    }
+
+    /** Stores the output files of a successfully executed chunk. Failures
+     * are logged but not propagated.
+     * @param key The key as per {@link #createKey(ExecutionChunkCallable)}.
+     * @param callable The chunk.
+     */
+    void store(final String key, final ExecutionChunkCallable callable) {
+        File entry = getEntryDir(key);
+        if (entry.isDirectory()) {
+            return;
+        }
+        OutputDataHandle[] outs = callable.getOutputHandles();
+        File tmp = new File(m_root, ".tmp-" + UUID.randomUUID());
+        long size = 0L;
+        try {
+            Files.createDirectories(tmp.toPath());
+            for (int i = 0; i < outs.length; i++) {
+                File src = ((FileOutputDataHandle)outs[i]).getOutFile();
+                Files.copy(src.toPath(),
+                        new File(tmp, OUTPUT_FILE_PREFIX + i).toPath());
+                size += src.length();
+            }
+            Files.createDirectories(entry.getParentFile().toPath());
+            if (!tmp.renameTo(entry)) {
+                // stored concurrently by another chunk or process
+                FileUtil.deleteRecursively(tmp);
+                return;
+            }
+        } catch (IOException ioe) {
+            LOGGER.warn("Could not store chunk output in cache "
+                    + m_root.getAbsolutePath() + ": " + ioe.getMessage(), ioe);
+            FileUtil.deleteRecursively(tmp);
+            return;
+        }
+        addAndEvict(size);
+    }
+
+    /** Adds to the known cache size and deletes least recently used
+     * entries if the limit is exceeded. */
+    private synchronized void addAndEvict(final long size) {
+        if (m_size >= 0) {
+            m_size += size;
+            if (m_size <= m_maxSize) {
+                return;
+            }
+        }
+        // scan (first time or limit exceeded), other processes may have
+        // added or deleted entries in the meantime
+        List<File> entries = new ArrayList<File>();
+        File[] prefixDirs = m_root.listFiles();
+        for (File prefixDir : prefixDirs == null ? new File[0] : prefixDirs) {
+            File[] dirs = prefixDir.getName().startsWith(".")
+                ? null : prefixDir.listFiles();
+            if (dirs != null) {
+                entries.addAll(Arrays.asList(dirs));
+            }
+        }
+        final long[] sizes = new long[entries.size()];
+        long total = 0L;
+        for (int i = 0; i < sizes.length; i++) {
+            File[] files = entries.get(i).listFiles();
+            for (File f : files == null ? new File[0] : files) {
+                sizes[i] += f.length();
+            }
+            total += sizes[i];
+        }
+        Integer[] order = new Integer[sizes.length];
+        final long[] lastModified = new long[sizes.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            lastModified[i] = entries.get(i).lastModified();
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            /** {@inheritDoc} */
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                return Long.compare(lastModified[o1], lastModified[o2]);
+            }
+        });
+        for (int i = 0; i < order.length && total > m_maxSize; i++) {
+            File entry = entries.get(order[i]);
+            if (FileUtil.deleteRecursively(entry)) {
+                total -= sizes[order[i]];
+                File parent = entry.getParentFile();
+                String[] siblings = parent.list();
+                if (siblings != null && siblings.length == 0) {
+                    parent.delete();
+                }
+            }
+        }
+        m_size = total;
+    }
+
+    private File getEntryDir(final String key) {
+        return new File(new File(m_root, key.substring(0, 2)), key);
+    }
+
+    /** Resolves the executable, searching the PATH if the argument is not
+     * a file.
+     * @return The file or null if not found (e.g. a shell built-in).
+     */
+    private static File findExecutable(final String exe) {
+        File f = new File(exe);
+        if (f.isFile()) {
+            return f;
+        }
+        String path = System.getenv("PATH");
+        if (path == null || exe.contains(File.separator)) {
+            return null;
+        }
+        for (String dir : path.split(File.pathSeparator)) {
+            File candidate = new File(dir, exe);
+            if (candidate.isFile()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
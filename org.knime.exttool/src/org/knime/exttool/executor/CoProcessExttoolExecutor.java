@@ -0,0 +1,656 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.NodeLogger;
+import org.knime.exttool.executor.CoProcessExttoolExecutorConfig.Framing;
+import org.knime.exttool.executor.InputDataHandle.FileInputDataHandle;
+import org.knime.exttool.executor.OutputDataHandle.FileOutputDataHandle;
+
+/**
+ * Executor that keeps the external tool running across chunks. Chunks are
+ * run by the {@link CoProcessExttoolExecutorConfig#createExecutorService()
+ * executor service}, each running chunk leases a slot from the node's
+ * {@link CoProcessPool}. A slot starts the tool once (on the first chunk
+ * that uses it) and the content of each chunk's input file is sent to the
+ * process' standard input; the response on standard output is written to
+ * the chunk's output file. Chunks are separated by a delimiter line or
+ * preceded by a line containing their length in bytes (see
+ * {@link CoProcessExttoolExecutorConfig.Framing}), the tool must answer in
+ * the same format. The process is restarted if it terminates or a chunk
+ * fails and stopped (by closing its standard input) when the execution is
+ * finished.
+ *
+ * <p>Only tools with one input and one output are supported, the locations
+ * of the files are not meaningful to the tool.
+ * @author agent
+ */
+public class CoProcessExttoolExecutor extends AbstractExttoolExecutor {
+
+    private static final NodeLogger LOGGER =
+        NodeLogger.getLogger(CoProcessExttoolExecutor.class);
+
+    /** The slot leased by the chunk running in the current thread. */
+    private static final ThreadLocal<CoProcessSlot> CURRENT_SLOT =
+        new ThreadLocal<CoProcessSlot>();
+
+    /** {@inheritDoc} */
+    @Override
+    public int execute(final ExecutionMonitor monitor) throws Exception {
+        InputDataHandle[] inputs = getInputHandles();
+        OutputDataHandle[] outputs = getOutputHandles();
+        if (inputs.length != 1 || outputs.length != 1) {
+            throw new IOException("Co-process execution requires exactly one "
+                    + "input and one output (got " + inputs.length + " and "
+                    + outputs.length + ")");
+        }
+        CoProcessSlot slot = CURRENT_SLOT.get();
+        if (slot == null) {
+            throw new IllegalStateException("Co-process execution must run "
+                    + "in the executor service of its configuration");
+        }
+        File inFile = ((FileInputDataHandle)inputs[0]).getInFile();
+        File outFile = ((FileOutputDataHandle)outputs[0]).getOutFile();
+        String[] cmds = getCommandlineArgs().clone();
+        // the process is reused for chunks with different file locations
+        for (int i = 0; i < cmds.length; i++) {
+            cmds[i] = cmds[i].replace(inputs[0].getLocation(), "%inFile%");
+            cmds[i] = cmds[i].replace(outputs[0].getLocation(), "%outFile%");
+        }
+        CoProcessExttoolExecutorConfig config =
+            (CoProcessExttoolExecutorConfig)getExecutorConfig();
+        CoProcess process = slot.getCoProcess(
+                cmds, config, getThreadCount());
+        monitor.setMessage("Sending chunk to co-process");
+        // the process is busy for this chunk only (as seen by the tuner)
+        ExttoolProcessGovernor governor = ExttoolProcessGovernor.getInstance();
+        governor.processStarted(process.m_process);
+        try {
+            process.process(inFile, outFile, config.getFraming(),
+                    config.getDelimiter(), config.getChunkTimeout(), monitor);
+        } catch (Exception e) {
+            // the process may be in the middle of a response (or still
+            // reading the input), it must not be used for the next chunk
+            slot.discardCoProcess();
+            throw e;
+        } finally {
+            governor.processFinished();
+        }
+        return 0;
+    }
+
+    /** Executor service of one execution. The chunks are run by the
+     * JVM-wide {@link ExttoolProcessGovernor} (the given service); each
+     * running chunk leases a slot, which owns a tool process, and returns it
+     * when done. The number of processes is thus bounded by the number of
+     * chunks the governor runs concurrently for the node. The processes are
+     * stopped when the service is shut down, those of running chunks are
+     * killed by {@link #shutdownNow()} and canceling a chunk's future. */
+    static final class CoProcessPool extends AbstractExecutorService {
+
+        private final ExecutorService m_governed;
+        /** Slots not leased, most recently used first. */
+        private final ArrayDeque<CoProcessSlot> m_idle =
+            new ArrayDeque<CoProcessSlot>();
+        /** All slots not yet closed. */
+        private final List<CoProcessSlot> m_slots =
+            new ArrayList<CoProcessSlot>();
+        private boolean m_isShutdown;
+
+        /**
+         * @param governed The service running the chunks.
+         */
+        CoProcessPool(final ExecutorService governed) {
+            m_governed = governed;
+        }
+
+        private synchronized CoProcessSlot lease() {
+            CoProcessSlot slot = m_idle.poll();
+            if (slot == null) {
+                slot = new CoProcessSlot();
+                m_slots.add(slot);
+            }
+            return slot;
+        }
+
+        private void release(final CoProcessSlot slot) {
+            synchronized (this) {
+                if (!m_isShutdown) {
+                    m_idle.push(slot);
+                    return;
+                }
+                m_slots.remove(slot);
+            }
+            slot.close();
+        }
+
+        /** Closes the processes of idle slots, those of leased slots are
+         * closed when they are returned. Also kills the latter if
+         * requested. */
+        private void closeSlots(final boolean killLeased) {
+            List<CoProcessSlot> idle;
+            List<CoProcessSlot> leased;
+            synchronized (this) {
+                m_isShutdown = true;
+                idle = new ArrayList<CoProcessSlot>(m_idle);
+                m_idle.clear();
+                m_slots.removeAll(idle);
+                leased = new ArrayList<CoProcessSlot>(m_slots);
+            }
+            if (killLeased) {
+                for (CoProcessSlot slot : leased) {
+                    slot.discardCoProcess();
+                }
+            }
+            // all processes get their end of input before waiting for one
+            for (CoProcessSlot slot : idle) {
+                slot.closeInput();
+            }
+            for (CoProcessSlot slot : idle) {
+                slot.close();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(final Callable<T> c) {
+            return new CoProcessTask<T>(c);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(
+                final Runnable r, final T value) {
+            return new CoProcessTask<T>(r, value);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void execute(final Runnable command) {
+            m_governed.execute(command instanceof CoProcessTask
+                    ? command : newTaskFor(command, null));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void shutdown() {
+            m_governed.shutdown();
+            closeSlots(false);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public List<Runnable> shutdownNow() {
+            List<Runnable> queued = m_governed.shutdownNow();
+            closeSlots(true);
+            return queued;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isShutdown() {
+            return m_governed.isShutdown();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isTerminated() {
+            return m_governed.isTerminated();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean awaitTermination(final long timeout,
+                final TimeUnit unit) throws InterruptedException {
+            return m_governed.awaitTermination(timeout, unit);
+        }
+
+        /** A chunk (or other task), which leases a slot while it runs. */
+        private final class CoProcessTask<T> extends FutureTask<T> {
+
+            /** The leased slot while running, guarded by this. */
+            private CoProcessSlot m_slot;
+
+            CoProcessTask(final Callable<T> callable) {
+                super(callable);
+            }
+
+            CoProcessTask(final Runnable runnable, final T value) {
+                super(runnable, value);
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public void run() {
+                // nested if wrapped (e.g. by a completion service)
+                CoProcessSlot slot = CURRENT_SLOT.get();
+                boolean isLeased = slot == null;
+                if (isLeased) {
+                    slot = lease();
+                    CURRENT_SLOT.set(slot);
+                }
+                synchronized (this) {
+                    m_slot = slot;
+                }
+                try {
+                    super.run();
+                } finally {
+                    synchronized (this) {
+                        m_slot = null;
+                    }
+                    if (isLeased) {
+                        CURRENT_SLOT.remove();
+                        release(slot);
+                    }
+                }
+            }
+
+            /** Also kills the process, so that a blocked read or write
+             * returns. {@inheritDoc} */
+            @Override
+            public boolean cancel(final boolean mayInterruptIfRunning) {
+                boolean canceled = super.cancel(mayInterruptIfRunning);
+                if (canceled && mayInterruptIfRunning) {
+                    CoProcessSlot slot;
+                    synchronized (this) {
+                        slot = m_slot;
+                    }
+                    if (slot != null) {
+                        slot.discardCoProcess();
+                    }
+                }
+                return canceled;
+            }
+        }
+    }
+
+    /** Slot of a {@link CoProcessPool}, owns the tool process that is
+     * started by the first chunk using the slot. */
+    static final class CoProcessSlot {
+
+        private CoProcess m_coProcess;
+
+        /** Get the running process for the command line, (re)starts it
+         * if there is none, it terminated or it was started with a different
+         * command line. The thread environment variables are set when the
+         * process is started. */
+        CoProcess getCoProcess(final String[] cmds,
+                final AbstractExttoolExecutorConfig config,
+                final int threadCount) throws IOException {
+            synchronized (this) {
+                if (m_coProcess != null && (!m_coProcess.isAlive()
+                        || !Arrays.equals(m_coProcess.m_cmds, cmds))) {
+                    m_coProcess.close();
+                    m_coProcess = null;
+                }
+                if (m_coProcess == null) {
+                    m_coProcess = new CoProcess(cmds, config, threadCount);
+                }
+                return m_coProcess;
+            }
+        }
+
+        /** Kills the current process (tree), the next chunk starts a new
+         * one. */
+        void discardCoProcess() {
+            synchronized (this) {
+                if (m_coProcess != null) {
+                    DefaultExttoolExecutor.destroyProcessTree(
+                            m_coProcess.m_process);
+                    m_coProcess = null;
+                }
+            }
+        }
+
+        /** Closes the standard input of the process, if any. */
+        void closeInput() {
+            CoProcess coProcess;
+            synchronized (this) {
+                coProcess = m_coProcess;
+            }
+            if (coProcess != null) {
+                coProcess.closeInput();
+            }
+        }
+
+        /** Stops the process, if any. */
+        void close() {
+            CoProcess coProcess;
+            synchronized (this) {
+                coProcess = m_coProcess;
+                m_coProcess = null;
+            }
+            if (coProcess != null) {
+                coProcess.close();
+            }
+        }
+    }
+
+    /** A running tool process and its streams. */
+    static final class CoProcess {
+
+        private final String[] m_cmds;
+        private final Process m_process;
+        private final OutputStream m_stdin;
+        private final InputStream m_stdout;
+
+        /** Starts the process, its error stream is logged. */
+        CoProcess(final String[] cmds,
+                final AbstractExttoolExecutorConfig config,
+                final int threadCount) throws IOException {
+            m_cmds = cmds;
+            LOGGER.debug("Starting co-process: " + Arrays.toString(cmds));
+            ProcessBuilder builder = new ProcessBuilder(cmds);
+            DefaultExttoolExecutor.setThreadEnvironment(
+                    builder, config, threadCount);
+            m_process = builder.start();
+            m_stdin = new BufferedOutputStream(m_process.getOutputStream());
+            m_stdout = new BufferedInputStream(m_process.getInputStream());
+            final InputStream stderr = m_process.getErrorStream();
+            Thread errThread = new Thread(new Runnable() {
+                /** {@inheritDoc} */
+                @Override
+                public void run() {
+                    try (LineNumberReader reader = new LineNumberReader(
+                            new InputStreamReader(stderr))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            LOGGER.debug("[co-process] " + line);
+                        }
+                    } catch (IOException ioe) {
+                        // process terminated
+                    }
+                }
+            }, "KNIME-Exttool-CoProcess-stderr");
+            errThread.setDaemon(true);
+            errThread.start();
+        }
+
+        boolean isAlive() {
+            return m_process.isAlive();
+        }
+
+        /** Sends the input file as one chunk and writes the response to the
+         * output file. The input is written in a separate thread, so that
+         * a tool that answers while still reading does not block. The
+         * process (tree) is killed if it does not answer within the timeout
+         * (in milliseconds, 0 for none). */
+        void process(final File inFile, final File outFile,
+                final Framing framing, final String delimiter,
+                final long timeout, final ExecutionMonitor monitor)
+            throws Exception {
+            final AtomicBoolean timedOut = new AtomicBoolean();
+            CompletableFuture<Void> watchdog = null;
+            if (timeout > 0) {
+                watchdog = CompletableFuture.runAsync(new Runnable() {
+                    /** {@inheritDoc} */
+                    @Override
+                    public void run() {
+                        timedOut.set(true);
+                        DefaultExttoolExecutor.destroyProcessTree(m_process);
+                    }
+                }, CompletableFuture.delayedExecutor(
+                        timeout, TimeUnit.MILLISECONDS));
+            }
+            try {
+                processChunk(inFile, outFile, framing, delimiter, monitor);
+            } catch (IOException ioe) {
+                if (timedOut.get()) {
+                    throw new TimeoutException("Co-process did not answer "
+                            + "within " + timeout / 1000 + "s");
+                }
+                throw ioe;
+            } finally {
+                if (watchdog != null) {
+                    watchdog.cancel(false);
+                }
+            }
+        }
+
+        private void processChunk(final File inFile, final File outFile,
+                final Framing framing, final String delimiter,
+                final ExecutionMonitor monitor) throws Exception {
+            final byte[] delimiterLine =
+                (delimiter + "\n").getBytes(StandardCharsets.UTF_8);
+            final AtomicReference<IOException> writeError =
+                new AtomicReference<IOException>();
+            Thread feeder = new Thread(new Runnable() {
+                /** {@inheritDoc} */
+                @Override
+                public void run() {
+                    try {
+                        writeChunk(inFile, framing, delimiterLine);
+                    } catch (IOException ioe) {
+                        writeError.set(ioe);
+                    }
+                }
+            }, Thread.currentThread().getName() + "-stdin");
+            feeder.setDaemon(true);
+            feeder.start();
+            try (OutputStream out = new BufferedOutputStream(
+                    new FileOutputStream(outFile))) {
+                if (Framing.LengthPrefixed.equals(framing)) {
+                    readLengthPrefixed(out);
+                } else {
+                    readDelimited(out, delimiterLine);
+                }
+                feeder.join();
+            } catch (IOException ioe) {
+                feeder.join(1000);
+                IOException cause = writeError.get();
+                if (cause != null) {
+                    ioe.addSuppressed(cause);
+                }
+                throw ioe;
+            }
+            if (writeError.get() != null) {
+                throw writeError.get();
+            }
+            monitor.checkCanceled();
+        }
+
+        private void writeChunk(final File inFile, final Framing framing,
+                final byte[] delimiterLine) throws IOException {
+            // not synchronized: only one chunk at a time per process
+            if (Framing.LengthPrefixed.equals(framing)) {
+                m_stdin.write((inFile.length() + "\n").getBytes(
+                        StandardCharsets.UTF_8));
+            }
+            int last = '\n';
+            try (InputStream in = new FileInputStream(inFile)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    if (read > 0) {
+                        m_stdin.write(buffer, 0, read);
+                        last = buffer[read - 1];
+                    }
+                }
+            }
+            if (Framing.Delimiter.equals(framing)) {
+                if (last != '\n') {
+                    m_stdin.write('\n');
+                }
+                m_stdin.write(delimiterLine);
+            }
+            m_stdin.flush();
+        }
+
+        private void readLengthPrefixed(final OutputStream out)
+            throws IOException {
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            readLine(header);
+            String lengthString = new String(header.toByteArray(),
+                    StandardCharsets.UTF_8).trim();
+            long remaining;
+            try {
+                remaining = Long.parseLong(lengthString);
+            } catch (NumberFormatException nfe) {
+                throw new IOException("Invalid length line from co-process: \""
+                        + lengthString + "\"", nfe);
+            }
+            byte[] buffer = new byte[8192];
+            while (remaining > 0) {
+                int read = m_stdout.read(
+                        buffer, 0, (int)Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw terminated();
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+
+        private void readDelimited(final OutputStream out,
+                final byte[] delimiterLine) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            while (true) {
+                line.reset();
+                readLine(line);
+                byte[] bytes = line.toByteArray();
+                if (isDelimiter(bytes, delimiterLine)) {
+                    return;
+                }
+                line.writeTo(out);
+            }
+        }
+
+        /** Reads a line including the line feed, throws an exception if the
+         * stream ends before. */
+        private void readLine(final ByteArrayOutputStream line)
+            throws IOException {
+            int b;
+            while ((b = m_stdout.read()) >= 0) {
+                line.write(b);
+                if (b == '\n') {
+                    return;
+                }
+            }
+            throw terminated();
+        }
+
+        /** Whether the line (with line feed and possibly carriage return)
+         * equals the delimiter line. */
+        private static boolean isDelimiter(final byte[] line,
+                final byte[] delimiterLine) {
+            int length = line.length;
+            if (length >= 2 && line[length - 2] == '\r') {
+                // Windows line ending
+                length -= 1;
+                line[length - 1] = '\n';
+            }
+            return length == delimiterLine.length && Arrays.equals(
+                    Arrays.copyOf(line, length), delimiterLine);
+        }
+
+        private IOException terminated() {
+            String exit = "";
+            try {
+                if (m_process.waitFor(1, TimeUnit.SECONDS)) {
+                    exit = " with exit code " + m_process.exitValue();
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return new IOException("Co-process terminated" + exit
+                    + " before the end of the chunk was sent");
+        }
+
+        /** Closes standard input, which asks the tool to exit. */
+        void closeInput() {
+            try {
+                m_stdin.close();
+            } catch (IOException ioe) {
+                // ignore, process already terminated
+            }
+        }
+
+        /** Closes standard input and waits for the process to exit, kills it
+         * if it does not exit in time. */
+        void close() {
+            closeInput();
+            try {
+                if (!m_process.waitFor(5, TimeUnit.SECONDS)) {
+                    m_process.destroyForcibly();
+                }
+            } catch (InterruptedException ie) {
+                m_process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.util.concurrent.ExecutorService;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.NotConfigurableException;
+
+/** Configuration of the {@link CoProcessExttoolExecutor}. In addition to the
+ * number of threads (= number of concurrent tool processes) it defines how
+ * chunks are framed on the process' standard input and output.
+ * @author agent
+ */
+public class CoProcessExttoolExecutorConfig extends
+    DefaultExttoolExecutorConfig {
+
+    /** How the end of a chunk is marked in the data stream. */
+    public enum Framing {
+        /** Chunk data is followed by a line containing the delimiter. */
+        Delimiter,
+        /** Chunk data is preceded by a line containing its length in
+         * bytes. */
+        LengthPrefixed;
+
+        /** Parses the argument, throws exception if invalid.
+         * @param value The value to parse
+         * @return The corresponding enum value.
+         * @throws InvalidSettingsException If that fails.
+         */
+        public static Framing read(final String value)
+            throws InvalidSettingsException {
+            if (value == null) {
+                throw new InvalidSettingsException("Value for "
+                        + Framing.class.getSimpleName() + " is null");
+            }
+            try {
+                return valueOf(value);
+            } catch (IllegalArgumentException iae) {
+                throw new InvalidSettingsException("Invalid value for "
+                        + Framing.class.getSimpleName() + ": " + value);
+            }
+        }
+    }
+
+    /** Default delimiter line. */
+    static final String DEFAULT_DELIMITER = "$$$$END$$$$";
+
+    private Framing m_framing = Framing.Delimiter;
+    private String m_delimiter = DEFAULT_DELIMITER;
+
+    /**
+     * @return the framing, never null.
+     */
+    public Framing getFraming() {
+        return m_framing;
+    }
+
+    /**
+     * @param framing the framing to set
+     * @throws InvalidSettingsException If argument is null.
+     */
+    public void setFraming(final Framing framing)
+        throws InvalidSettingsException {
+        if (framing == null) {
+            throw new InvalidSettingsException("Framing must not be null");
+        }
+        m_framing = framing;
+    }
+
+    /**
+     * @return the delimiter line (only used for {@link Framing#Delimiter}).
+     */
+    public String getDelimiter() {
+        return m_delimiter;
+    }
+
+    /**
+     * @param delimiter the delimiter line to set
+     * @throws InvalidSettingsException If argument is null or empty.
+     */
+    public void setDelimiter(final String delimiter)
+        throws InvalidSettingsException {
+        if (delimiter == null || delimiter.isEmpty()) {
+            throw new InvalidSettingsException("Delimiter must not be empty");
+        }
+        m_delimiter = delimiter;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbstractExttoolExecutorConfigPanel createConfigPanel() {
+        return new CoProcessExttoolExecutorConfigPanel();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void loadSettingsInDialog(final NodeSettingsRO settings)
+            throws NotConfigurableException {
+        super.loadSettingsInDialog(settings);
+        try {
+            m_framing = Framing.read(settings.getString(
+                    "framing", Framing.Delimiter.name()));
+        } catch (InvalidSettingsException ise) {
+            m_framing = Framing.Delimiter;
+        }
+        m_delimiter = settings.getString("delimiter", DEFAULT_DELIMITER);
+        if (m_delimiter == null || m_delimiter.isEmpty()) {
+            m_delimiter = DEFAULT_DELIMITER;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void loadSettingsInModel(final NodeSettingsRO settings)
+            throws InvalidSettingsException {
+        super.loadSettingsInModel(settings);
+        setFraming(Framing.read(settings.getString("framing")));
+        setDelimiter(settings.getString("delimiter"));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void saveSettings(final NodeSettingsWO settings) {
+        super.saveSettings(settings);
+        settings.addString("framing", m_framing.name());
+        settings.addString("delimiter", m_delimiter);
+    }
+
+    /** Runs the chunks on the threads of the {@link ExttoolProcessGovernor}
+     * like the default executor, the tool processes are kept in a pool of
+     * the node (closed when the service is shut down after execution).
+     * {@inheritDoc} */
+    @Override
+    public ExecutorService createExecutorService() {
+        return new CoProcessExttoolExecutor.CoProcessPool(
+                super.createExecutorService());
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.awt.FlowLayout;
+
+import javax.swing.ButtonGroup;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JRadioButton;
+import javax.swing.JTextField;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NotConfigurableException;
+import org.knime.exttool.executor.CoProcessExttoolExecutorConfig.Framing;
+
+/** Panel to {@link CoProcessExttoolExecutorConfig}, adds the framing
+ * controls to the thread count controls.
+ * @author agent
+ */
+@SuppressWarnings("serial")
+public class CoProcessExttoolExecutorConfigPanel extends
+        DefaultExttoolExecutorConfigPanel {
+
+    private final JRadioButton m_delimiterButton;
+    private final JRadioButton m_lengthPrefixButton;
+    private final JTextField m_delimiterField;
+
+    /** Creates new panel. */
+    public CoProcessExttoolExecutorConfigPanel() {
+        m_delimiterButton = new JRadioButton("End of chunk line");
+        m_lengthPrefixButton =
+            new JRadioButton("Length prefix line (bytes)");
+        m_delimiterField = new JTextField(
+                CoProcessExttoolExecutorConfig.DEFAULT_DELIMITER, 12);
+        m_delimiterButton.addChangeListener(new ChangeListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                m_delimiterField.setEnabled(m_delimiterButton.isSelected());
+            }
+        });
+        ButtonGroup bg = new ButtonGroup();
+        bg.add(m_delimiterButton);
+        bg.add(m_lengthPrefixButton);
+        m_delimiterButton.doClick();
+        JPanel framingPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        framingPanel.add(new JLabel("Chunk framing on stdin/stdout: "));
+        framingPanel.add(m_delimiterButton);
+        framingPanel.add(m_delimiterField);
+        framingPanel.add(m_lengthPrefixButton);
+        add(framingPanel);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void loadSettings(final AbstractExttoolExecutorConfig config)
+            throws NotConfigurableException {
+        super.loadSettings(config);
+        CoProcessExttoolExecutorConfig c =
+            (CoProcessExttoolExecutorConfig)config;
+        m_delimiterField.setText(c.getDelimiter());
+        if (Framing.LengthPrefixed.equals(c.getFraming())) {
+            m_lengthPrefixButton.doClick();
+        } else {
+            m_delimiterButton.doClick();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void saveSettings(final AbstractExttoolExecutorConfig config)
+            throws InvalidSettingsException {
+        super.saveSettings(config);
+        CoProcessExttoolExecutorConfig c =
+            (CoProcessExttoolExecutorConfig)config;
+        c.setFraming(m_lengthPrefixButton.isSelected()
+                ? Framing.LengthPrefixed : Framing.Delimiter);
+        c.setDelimiter(m_delimiterField.getText());
+    }
+
+}
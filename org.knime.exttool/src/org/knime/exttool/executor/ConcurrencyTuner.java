@@ -0,0 +1,239 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adapts the number of concurrently running chunks of a node to the
+ * observed CPU utilization (AIMD: additive increase, multiplicative
+ * decrease). It is sampled periodically and reads the system's CPU times and
+ * number of runnable threads from <code>/proc/stat</code> and the CPU time
+ * of the running external process trees from
+ * <code>/proc/&lt;pid&gt;/stat</code> (Linux only, see
+ * {@link #isSupported()}).
+ *
+ * <p>The limit starts at the number of cores. It is increased by one if the
+ * machine is not fully used, chunks are waiting and one more chunk (using
+ * as much CPU as the running ones) does not oversubscribe the cores, e.g.
+ * for tools waiting on I/O. It is reduced by a constant factor if the CPUs
+ * are saturated and more threads are runnable than cores, e.g. for
+ * multi-threaded tools.
+ * @author agent
+ */
+final class ConcurrencyTuner {
+
+    /** Clock ticks per second of the times in /proc (USER_HZ). */
+    private static final double CLOCK_TICKS_PER_SECOND = 100.0;
+
+    /** Utilization below which the limit may be increased. */
+    private static final double INCREASE_BELOW_UTILIZATION = 0.85;
+
+    /** Utilization above which the limit may be decreased. */
+    private static final double DECREASE_ABOVE_UTILIZATION = 0.95;
+
+    /** Runnable threads per core above which the CPUs are oversubscribed. */
+    private static final double OVERLOAD_RUNNABLE_PER_CORE = 1.25;
+
+    /** Factor applied to the limit when decreasing. */
+    private static final double DECREASE_FACTOR = 0.7;
+
+    private static final File PROC_STAT = new File("/proc/stat");
+
+    private final int m_cores;
+    private final int m_maxLimit;
+    private double m_limit;
+
+    private long m_lastTotalTicks = -1L;
+    private long m_lastBusyTicks;
+    private long m_lastSampleNanos;
+    /** CPU ticks of the process trees at the last sample, by root pid. */
+    private Map<Long, Long> m_lastTreeTicks = new HashMap<Long, Long>();
+
+    /**
+     * @param maxLimit Upper bound for the limit.
+     */
+    ConcurrencyTuner(final int maxLimit) {
+        m_cores = Runtime.getRuntime().availableProcessors();
+        m_maxLimit = Math.max(1, maxLimit);
+        m_limit = Math.min(m_cores, m_maxLimit);
+    }
+
+    /** @return whether the /proc file system is available. */
+    static boolean isSupported() {
+        return PROC_STAT.canRead();
+    }
+
+    /** @return the current limit of concurrently running chunks. */
+    synchronized int getLimit() {
+        return Math.max(1, (int)m_limit);
+    }
+
+    /** Takes a sample and adjusts the limit.
+     * @param running The processes of the running chunks.
+     * @param queued The number of chunks waiting for a free slot.
+     * @return whether the limit was increased.
+     */
+    synchronized boolean sample(final Collection<ProcessHandle> running,
+            final int queued) {
+        long[] system;
+        try {
+            system = readSystemTicks();
+        } catch (IOException ioe) {
+            return false;
+        }
+        long now = System.nanoTime();
+        double seconds = (now - m_lastSampleNanos) / 1e9;
+        // CPU used by the process trees that were running at both samples
+        Map<Long, Long> treeTicks = new HashMap<Long, Long>();
+        double toolTicks = 0.0;
+        int toolCount = 0;
+        for (ProcessHandle p : running) {
+            long ticks = readTreeTicks(p);
+            treeTicks.put(p.pid(), ticks);
+            Long last = m_lastTreeTicks.get(p.pid());
+            if (last != null) {
+                // lower if descendants terminated (their ticks are lost)
+                toolTicks += Math.max(0L, ticks - last);
+                toolCount += 1;
+            }
+        }
+        m_lastTreeTicks = treeTicks;
+        boolean increased = false;
+        if (m_lastTotalTicks >= 0 && system[0] > m_lastTotalTicks) {
+            double utilization = (system[1] - m_lastBusyTicks)
+                / (double)(system[0] - m_lastTotalTicks);
+            // cores used per chunk, 0 if unknown
+            double coresPerChunk = toolCount == 0 || seconds <= 0.0 ? 0.0
+                : toolTicks / CLOCK_TICKS_PER_SECOND / seconds / toolCount;
+            int current = getLimit();
+            if (utilization > DECREASE_ABOVE_UTILIZATION
+                    && system[2] > m_cores * OVERLOAD_RUNNABLE_PER_CORE) {
+                m_limit = Math.max(1.0, m_limit * DECREASE_FACTOR);
+            } else if (utilization < INCREASE_BELOW_UTILIZATION
+                    && queued > 0 && running.size() >= current
+                    && current < m_maxLimit
+                    && (current + 1) * coresPerChunk <= m_cores) {
+                m_limit = current + 1.0;
+                increased = true;
+            }
+        }
+        m_lastTotalTicks = system[0];
+        m_lastBusyTicks = system[1];
+        m_lastSampleNanos = now;
+        return increased;
+    }
+
+    /** Reads total and busy CPU ticks and the number of runnable threads
+     * from /proc/stat. */
+    private static long[] readSystemTicks() throws IOException {
+        List<String> lines =
+            Files.readAllLines(PROC_STAT.toPath(), StandardCharsets.UTF_8);
+        long total = -1L;
+        long busy = 0L;
+        long runnable = 0L;
+        for (String line : lines) {
+            String[] fields = line.trim().split("\\s+");
+            if ("cpu".equals(fields[0])) {
+                total = 0L;
+                // guest and guest_nice (9, 10) are included in user and
+                // nice (1, 2)
+                int end = Math.min(fields.length, 9);
+                for (int i = 1; i < end; i++) {
+                    long v = Long.parseLong(fields[i]);
+                    total += v;
+                    // idle (4) and iowait (5) are not busy
+                    if (i != 4 && i != 5) {
+                        busy += v;
+                    }
+                }
+            } else if ("procs_running".equals(fields[0])) {
+                runnable = Long.parseLong(fields[1]);
+            }
+        }
+        if (total < 0) {
+            throw new IOException("No cpu line in " + PROC_STAT);
+        }
+        return new long[] {total, busy, runnable};
+    }
+
+    /** Sum of user and system ticks of a process and its descendants,
+     * processes that terminated meanwhile are ignored. */
+    private static long readTreeTicks(final ProcessHandle root) {
+        long ticks = readProcessTicks(root.pid());
+        for (Iterator<ProcessHandle> it = root.descendants().iterator();
+                it.hasNext();) {
+            ticks += readProcessTicks(it.next().pid());
+        }
+        return ticks;
+    }
+
+    private static long readProcessTicks(final long pid) {
+        File stat = new File("/proc/" + pid + "/stat");
+        try {
+            String content = new String(
+                    Files.readAllBytes(stat.toPath()), StandardCharsets.UTF_8);
+            // the command (2nd field) is in parentheses and may contain
+            // spaces, utime and stime are the 14th and 15th field
+            int end = content.lastIndexOf(')');
+            String[] fields = content.substring(end + 2).split("\\s+");
+            return Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+        } catch (IOException | RuntimeException e) {
+            return 0L;
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.knime.core.data.DataCell;
+
+/**
+ * SHA-256 hash of strings, cells and file contents, hex encoded. Used for
+ * the keys of the {@link ChunkResultCache} and to identify rows in
+ * {@link InputDeduplicator} and {@link IncrementalResultStore}. Not thread
+ * safe, the digest is reset after each hash.
+ *
+ * @author agent
+ */
+final class ContentHash {
+
+    /** Number of bytes of row hashes, 128 bits are sufficient. */
+    static final int ROW_HASH_BYTES = 16;
+
+    private static final char[] HEX_DIGITS =
+        "0123456789abcdef".toCharArray();
+
+    private final MessageDigest m_digest;
+
+    /** Read buffer for files, created lazily. */
+    private byte[] m_buffer;
+
+    /** Creates a new (empty) hash. */
+    ContentHash() {
+        try {
+            m_digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(
+                    "SHA-256 not supported by JVM", e);
+        }
+    }
+
+    /** Adds a string, terminated such that consecutive strings can't be
+     * confused with their concatenation.
+     * @param s The string.
+     */
+    void update(final String s) {
+        m_digest.update(s.getBytes(StandardCharsets.UTF_8));
+        m_digest.update((byte)0);
+    }
+
+    /** Adds a cell, its type and its string representation.
+     * @param cell The cell.
+     */
+    void update(final DataCell cell) {
+        update(cell.isMissing() ? "?" : cell.getClass().getName());
+        update(cell.toString());
+    }
+
+    /** Adds the length and the content of a file.
+     * @param file The file.
+     * @throws IOException If the file can't be read.
+     */
+    void update(final File file) throws IOException {
+        update(Long.toString(file.length()));
+        if (m_buffer == null) {
+            m_buffer = new byte[64 * 1024];
+        }
+        InputStream is = Files.newInputStream(file.toPath());
+        try {
+            int read;
+            while ((read = is.read(m_buffer)) >= 0) {
+                m_digest.update(m_buffer, 0, read);
+            }
+        } finally {
+            is.close();
+        }
+    }
+
+    /** Completes the hash and resets the digest.
+     * @return The hex encoded hash (all 32 bytes).
+     */
+    String digest() {
+        return digest(32);
+    }
+
+    /** Completes the hash and resets the digest.
+     * @param byteCount The number of leading bytes of the hash to encode.
+     * @return The hex encoded hash.
+     */
+    String digest(final int byteCount) {
+        byte[] hash = m_digest.digest();
+        char[] hex = new char[2 * byteCount];
+        for (int i = 0; i < byteCount; i++) {
+            hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
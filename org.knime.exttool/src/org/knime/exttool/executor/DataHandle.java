@@ -62,4 +62,27 @@ interface DataHandle {
     /** Deletes allocated resources. Called after execution. */
     public void cleanUp();
 
+    /** Whether the data is streamed while the external tool runs (e.g. via a
+     * named pipe) rather than written before execution. The framework then
+     * writes the input concurrently to the external process. Only input
+     * handles may be streaming. This default implementation returns
+     * <code>false</code>.
+     * @return If this handle is a stream.
+     * @since 5.9
+     */
+    public default boolean isStreaming() {
+        return false;
+    }
+
+    /** Called for {@link #isStreaming() streaming} handles after the
+     * external tool terminated. Implementations unblock the framework's
+     * writer, if it is still waiting for the tool to open or consume the
+     * stream. May be called multiple times. This default
+     * implementation does nothing.
+     * @since 5.9
+     */
+    public default void releaseStream() {
+        // no-op
+    }
+
 }
@@ -47,62 +47,284 @@
  */
 package org.knime.exttool.executor;
 
+import java.io.BufferedReader;
 import java.io.File;
-import java.util.Observable;
-import java.util.Observer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
-import org.knime.base.node.util.exttool.CommandExecution;
 import org.knime.base.node.util.exttool.ViewUpdateNotice;
+import org.knime.base.node.util.exttool.ViewUpdateNotice.ViewType;
+import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
-import org.knime.exttool.executor.InputDataHandle.FileInputDataHandle;
-import org.knime.exttool.executor.OutputDataHandle.FileOutputDataHandle;
+import org.knime.core.node.NodeLogger;
 
 /**
- * Default (local) execution by means of temporary files.
+ * Default (local) execution by means of temporary files. The process is
+ * started with a {@link ProcessBuilder} and awaited via
+ * {@link Process#onExit()}, so that the end of the process is noticed
+ * immediately. If the executor has observers, each line of standard output
+ * and error is forwarded to them as {@link ViewUpdateNotice} (read by two
+ * threads per process). Otherwise standard output is discarded and
+ * standard error redirected to a temporary file, so that no threads are
+ * needed to pump the process' streams. The end of standard error is logged
+ * if the process fails.
  * @author Bernd Wiswedel, KNIME AG, Zurich, Switzerland
  */
 public class DefaultExttoolExecutor extends AbstractExttoolExecutor {
 
+    private static final NodeLogger LOGGER =
+        NodeLogger.getLogger(DefaultExttoolExecutor.class);
+
+    /** Interval in which cancelation is checked while waiting. */
+    private static final long CANCEL_CHECK_INTERVAL_MS = 500L;
+
+    /** Number of bytes of standard error that are logged. */
+    private static final int MAX_ERROR_LOG_BYTES = 4096;
+
     /** {@inheritDoc} */
     @Override
     public int execute(final ExecutionMonitor monitor) throws Exception {
         String[] cmds = getCommandlineArgs();
-        final Observer commandObserver = new Observer() {
-            /** {@inheritDoc} */
-            @Override
-            public void update(final Observable o, final Object arg) {
-                if (arg instanceof ViewUpdateNotice) {
-                    DefaultExttoolExecutor.this.setChanged();
-                    DefaultExttoolExecutor.this.notifyObservers(arg);
-                }
-            }
-        };
-        CommandExecution commandExecution = new CommandExecution(cmds);
-        commandExecution.addObserver(commandObserver);
-        // find first in/output file and set working dir to parent of that file
+        // find first in/output file and set working dir to parent of that
+        // file (handles are not necessarily files, their location is a path)
         File workingDir = null;
         InputDataHandle[] inputs = getInputHandles();
         for (InputDataHandle inPath : inputs) {
-            FileInputDataHandle inFilePath = (FileInputDataHandle)inPath;
             if (workingDir != null) {
                 break;
             }
-            File temp = inFilePath.getInFile();
-            workingDir = temp.getParentFile();
+            workingDir = getParentDirectory(inPath);
         }
         OutputDataHandle[] outputs = getOutputHandles();
         for (OutputDataHandle outPath : outputs) {
-            FileOutputDataHandle outFilePath = (FileOutputDataHandle)outPath;
             if (workingDir != null) {
                 break;
             }
-            File temp = outFilePath.getOutFile();
-            workingDir = temp.getParentFile();
+            workingDir = getParentDirectory(outPath);
         }
+        ProcessBuilder builder = new ProcessBuilder(cmds);
         if (workingDir != null) {
-            commandExecution.setExecutionDir(workingDir);
+            builder.directory(workingDir);
+        }
+        setThreadEnvironment(builder, getExecutorConfig(), getThreadCount());
+        // streams are only pumped if someone listens
+        final boolean isObserved = countObservers() > 0;
+        File stderrFile = null;
+        if (!isObserved) {
+            stderrFile = File.createTempFile("stderr_", ".txt", workingDir);
+            builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            builder.redirectError(stderrFile);
+        }
+        StringBuilder stderrTail = new StringBuilder();
+        Thread[] pumps = new Thread[0];
+        try {
+            monitor.setMessage("Running external process");
+            Process process = builder.start();
+            if (isObserved) {
+                pumps = new Thread[] {
+                    startPump(process.getInputStream(), ViewType.stdout,
+                            null),
+                    startPump(process.getErrorStream(), ViewType.stderr,
+                            stderrTail)};
+            }
+            ExttoolProcessGovernor governor =
+                ExttoolProcessGovernor.getInstance();
+            governor.processStarted(process);
+            int exitCode;
+            try {
+                exitCode = waitFor(process, monitor,
+                        getExecutorConfig().getChunkTimeout());
+            } finally {
+                governor.processFinished();
+            }
+            for (Thread pump : pumps) {
+                // descendants may keep the streams open
+                pump.join(CANCEL_CHECK_INTERVAL_MS);
+            }
+            if (exitCode != 0) {
+                String tail;
+                if (stderrFile != null) {
+                    tail = readTail(stderrFile, MAX_ERROR_LOG_BYTES);
+                } else {
+                    synchronized (stderrTail) {
+                        tail = stderrTail.toString();
+                    }
+                }
+                LOGGER.warn("External process failed with exit code "
+                        + exitCode + ", error output:\n" + tail);
+            }
+            return exitCode;
+        } finally {
+            for (Thread pump : pumps) {
+                pump.interrupt();
+            }
+            if (stderrFile != null && !stderrFile.delete()) {
+                stderrFile.deleteOnExit();
+            }
+        }
+    }
+
+    /** Starts a daemon thread that forwards each line of the stream to the
+     * observers of this executor.
+     * @param in The process' stream.
+     * @param type The type of the notices.
+     * @param tail Receives the last {@link #MAX_ERROR_LOG_BYTES} characters
+     *        of the stream if not null (synchronized on it).
+     * @return The started thread, it ends with the stream.
+     */
+    private Thread startPump(final InputStream in, final ViewType type,
+            final StringBuilder tail) {
+        Thread t = new Thread(new Runnable() {
+            /** {@inheritDoc} */
+            @Override
+            public void run() {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (tail != null) {
+                            synchronized (tail) {
+                                tail.append(line).append('\n');
+                                int excess = tail.length()
+                                    - MAX_ERROR_LOG_BYTES;
+                                if (excess > 0) {
+                                    tail.delete(0, excess);
+                                }
+                            }
+                        }
+                        ViewUpdateNotice notice = new ViewUpdateNotice(type);
+                        notice.setNewLine(line);
+                        setChanged();
+                        notifyObservers(notice);
+                    }
+                } catch (IOException ioe) {
+                    // stream closed, process terminated
+                }
+            }
+        }, "KNIME-Exttool-" + type + "-" + Thread.currentThread().getName());
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+    /** Sets the config's thread environment variables to the number of
+     * threads available to the process.
+     * @param builder The builder of the process.
+     * @param config The executor config.
+     * @param threadCount The thread count.
+     */
+    static void setThreadEnvironment(final ProcessBuilder builder,
+            final AbstractExttoolExecutorConfig config,
+            final int threadCount) {
+        for (String name : config.getThreadEnvironmentVariables()) {
+            builder.environment().put(name, Integer.toString(threadCount));
+        }
+    }
+
+    /** Waits for the process to terminate, checking for cancelation
+     * periodically. The process and its descendants are destroyed if
+     * canceled or if the timeout expires.
+     * @param process The running process.
+     * @param monitor For cancelation.
+     * @param timeout The timeout in milliseconds, 0 for none.
+     * @return The exit code of the process.
+     * @throws CanceledExecutionException If canceled or interrupted.
+     * @throws TimeoutException If the process did not finish in time.
+     */
+    static int waitFor(final Process process, final ExecutionMonitor monitor,
+            final long timeout)
+        throws CanceledExecutionException, TimeoutException {
+        CompletableFuture<Process> exit = process.onExit();
+        final long start = System.currentTimeMillis();
+        while (true) {
+            try {
+                exit.get(CANCEL_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                return process.exitValue();
+            } catch (TimeoutException te) {
+                try {
+                    monitor.checkCanceled();
+                } catch (CanceledExecutionException cee) {
+                    destroyProcessTree(process);
+                    throw cee;
+                }
+                if (timeout > 0
+                        && System.currentTimeMillis() - start > timeout) {
+                    destroyProcessTree(process);
+                    throw new TimeoutException("External process did not "
+                            + "finish within " + timeout / 1000 + "s");
+                }
+            } catch (InterruptedException ie) {
+                destroyProcessTree(process);
+                throw new CanceledExecutionException(
+                        "Interrupted while waiting for external process");
+            } catch (ExecutionException ee) {
+                // onExit does not fail, fall back to blocking wait
+                try {
+                    return process.waitFor();
+                } catch (InterruptedException ie) {
+                    destroyProcessTree(process);
+                    throw new CanceledExecutionException(
+                            "Interrupted while waiting for external process");
+                }
+            }
+        }
+    }
+
+    /** Forcibly destroys the process and all its descendants (e.g. the
+     * programs started by a shell script).
+     * @param process The process to destroy.
+     */
+    static void destroyProcessTree(final Process process) {
+        destroyDescendants(process.toHandle());
+        process.destroyForcibly();
+    }
+
+    /** Forcibly destroys a process and all its descendants.
+     * @param process The handle of the process to destroy.
+     */
+    static void destroyProcessTree(final ProcessHandle process) {
+        destroyDescendants(process);
+        process.destroyForcibly();
+    }
+
+    private static void destroyDescendants(final ProcessHandle process) {
+        process.descendants().forEach(
+            new Consumer<ProcessHandle>() {
+                /** {@inheritDoc} */
+                @Override
+                public void accept(final ProcessHandle h) {
+                    h.destroyForcibly();
+                }
+            });
+    }
+
+    /** The last bytes of a file as string, empty if it can't be read. */
+    private static String readTail(final File file, final int maxBytes) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long length = raf.length();
+            int count = (int)Math.min(length, maxBytes);
+            byte[] bytes = new byte[count];
+            raf.seek(length - count);
+            raf.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException ioe) {
+            return "";
         }
-        return commandExecution.execute(monitor);
+    }
+
+    /** The directory containing the handle's location if the location is an
+     * absolute path, otherwise null. */
+    private static File getParentDirectory(final DataHandle handle) {
+        File temp = new File(handle.getLocation());
+        return temp.isAbsolute() ? temp.getParentFile() : null;
     }
 
 }
@@ -47,12 +47,8 @@
  */
 package org.knime.exttool.executor;
 
+import java.io.File;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsRO;
@@ -60,14 +56,37 @@
 import org.knime.core.node.NotConfigurableException;
 
 /** A default configuration class for executors. It allows setting the number
- * of threads for the execution.
+ * of threads for the execution, a directory on a memory file system for
+ * the chunk files, environment variables that limit the threads of
+ * multi-threaded tools and a timeout for the process of a chunk. Chunks
+ * are run by the JVM-wide {@link ExttoolProcessGovernor}, the number of
+ * threads is the limit for this node and the priority its share of the
+ * global limit. Optionally the number of threads is adapted to the CPU
+ * utilization at runtime (see {@link ConcurrencyTuner}).
  * @author Bernd Wiswedel, KNIME AG, Zurich, Switzerland
  */
 public class DefaultExttoolExecutorConfig extends
     AbstractExttoolExecutorConfig {
 
+    /** Default memory directory (shared memory on Linux). */
+    static final String DEFAULT_MEMORY_DIRECTORY = "/dev/shm";
+
+    /** Default memory budget in MB. */
+    static final int DEFAULT_MEMORY_BUDGET = 512;
+
+    /** Default thread environment variables (OpenMP and common BLAS). */
+    static final String DEFAULT_THREAD_ENVIRONMENT_VARIABLES =
+        "OMP_NUM_THREADS MKL_NUM_THREADS OPENBLAS_NUM_THREADS";
+
     private int m_maxThreads;
     private boolean m_isAutoThreadCount;
+    private boolean m_isAdaptiveThreadCount;
+    private String m_memoryDirectoryPath;
+    private int m_memoryBudgetMB = DEFAULT_MEMORY_BUDGET;
+    private int m_priority = 1;
+    private String m_threadEnvironmentVariables;
+    private int m_chunkTimeoutSeconds;
+    private int m_chunkRetryCount = 1;
 
     /**
      * @return the maxThreads
@@ -103,6 +122,158 @@ public void setAutoThreadCount(final boolean isAutoThreadCount) {
         m_isAutoThreadCount = isAutoThreadCount;
     }
 
+    /**
+     * @return whether the number of concurrent chunks is adapted to the CPU
+     * utilization at runtime (overrides the other thread count settings)
+     */
+    public boolean isAdaptiveThreadCount() {
+        return m_isAdaptiveThreadCount;
+    }
+
+    /**
+     * @param isAdaptive the isAdaptiveThreadCount to set
+     */
+    public void setAdaptiveThreadCount(final boolean isAdaptive) {
+        m_isAdaptiveThreadCount = isAdaptive;
+    }
+
+    /**
+     * @return the path of the memory directory or null if not used
+     */
+    public String getMemoryDirectoryPath() {
+        return m_memoryDirectoryPath;
+    }
+
+    /**
+     * @param path the path of the memory directory, null to not use one
+     */
+    public void setMemoryDirectoryPath(final String path) {
+        m_memoryDirectoryPath = path;
+    }
+
+    /**
+     * @return the memory budget in MB
+     */
+    public int getMemoryBudgetMB() {
+        return m_memoryBudgetMB;
+    }
+
+    /**
+     * @param memoryBudgetMB the memory budget in MB
+     * @throws InvalidSettingsException If argument &lt; 1
+     */
+    public void setMemoryBudgetMB(final int memoryBudgetMB)
+        throws InvalidSettingsException {
+        if (memoryBudgetMB < 1) {
+            throw new InvalidSettingsException(
+                    "memory budget < 1: " + memoryBudgetMB);
+        }
+        m_memoryBudgetMB = memoryBudgetMB;
+    }
+
+    /**
+     * @return the priority, i.e. the weight of this node when sharing the
+     * global process limit with other nodes (default 1)
+     */
+    public int getPriority() {
+        return m_priority;
+    }
+
+    /**
+     * @param priority the priority to set
+     * @throws InvalidSettingsException If argument &lt; 1
+     */
+    public void setPriority(final int priority)
+        throws InvalidSettingsException {
+        if (priority < 1) {
+            throw new InvalidSettingsException("priority < 1: " + priority);
+        }
+        m_priority = priority;
+    }
+
+    /**
+     * @return the names of the thread environment variables, separated by
+     * spaces or commas, or null if none are set
+     */
+    public String getThreadEnvironmentVariableNames() {
+        return m_threadEnvironmentVariables;
+    }
+
+    /**
+     * @param names the names of the thread environment variables, separated
+     * by spaces or commas, null to not set any
+     */
+    public void setThreadEnvironmentVariableNames(final String names) {
+        m_threadEnvironmentVariables = names;
+    }
+
+    /**
+     * @return the timeout of a chunk's process in seconds, 0 for none
+     */
+    public int getChunkTimeoutSeconds() {
+        return m_chunkTimeoutSeconds;
+    }
+
+    /**
+     * @param seconds the timeout of a chunk's process, 0 for none
+     * @throws InvalidSettingsException If argument &lt; 0
+     */
+    public void setChunkTimeoutSeconds(final int seconds)
+        throws InvalidSettingsException {
+        if (seconds < 0) {
+            throw new InvalidSettingsException("timeout < 0: " + seconds);
+        }
+        m_chunkTimeoutSeconds = seconds;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getChunkRetryCount() {
+        return m_chunkRetryCount;
+    }
+
+    /**
+     * @param retryCount the number of retries after a timeout
+     * @throws InvalidSettingsException If argument &lt; 0
+     */
+    public void setChunkRetryCount(final int retryCount)
+        throws InvalidSettingsException {
+        if (retryCount < 0) {
+            throw new InvalidSettingsException(
+                    "retry count < 0: " + retryCount);
+        }
+        m_chunkRetryCount = retryCount;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getChunkTimeout() {
+        return m_chunkTimeoutSeconds * 1000L;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String[] getThreadEnvironmentVariables() {
+        if (m_threadEnvironmentVariables == null
+                || m_threadEnvironmentVariables.trim().isEmpty()) {
+            return new String[0];
+        }
+        return m_threadEnvironmentVariables.trim().split("[\\s,]+");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public File getMemoryDirectory() {
+        return m_memoryDirectoryPath == null
+            ? null : new File(m_memoryDirectoryPath);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getMemoryBudget() {
+        return m_memoryBudgetMB * 1024L * 1024L;
+    }
+
     /** {@inheritDoc} */
     @Override
     public AbstractExttoolExecutorConfigPanel createConfigPanel() {
@@ -120,6 +291,20 @@ public void loadSettingsInDialog(final NodeSettingsRO settings)
             maxThreads = autoThreadCount;
         }
         m_maxThreads = maxThreads;
+        m_memoryDirectoryPath = settings.getString("memoryDirectory", null);
+        m_memoryBudgetMB =
+            settings.getInt("memoryBudgetMB", DEFAULT_MEMORY_BUDGET);
+        if (m_memoryBudgetMB < 1) {
+            m_memoryBudgetMB = DEFAULT_MEMORY_BUDGET;
+        }
+        m_priority = Math.max(1, settings.getInt("priority", 1));
+        m_isAdaptiveThreadCount =
+            settings.getBoolean("isAdaptiveThreadCount", false);
+        m_threadEnvironmentVariables =
+            settings.getString("threadEnvironmentVariables", null);
+        m_chunkTimeoutSeconds =
+            Math.max(0, settings.getInt("chunkTimeoutSeconds", 0));
+        m_chunkRetryCount = Math.max(0, settings.getInt("chunkRetryCount", 1));
     }
 
     /** {@inheritDoc} */
@@ -136,6 +321,17 @@ public void loadSettingsInModel(final NodeSettingsRO settings)
                         "Invalid thread count: " + m_maxThreads);
             }
         }
+        // added in 5.9
+        m_memoryDirectoryPath = settings.getString("memoryDirectory", null);
+        setMemoryBudgetMB(
+                settings.getInt("memoryBudgetMB", DEFAULT_MEMORY_BUDGET));
+        setPriority(settings.getInt("priority", 1));
+        m_isAdaptiveThreadCount =
+            settings.getBoolean("isAdaptiveThreadCount", false);
+        m_threadEnvironmentVariables =
+            settings.getString("threadEnvironmentVariables", null);
+        setChunkTimeoutSeconds(settings.getInt("chunkTimeoutSeconds", 0));
+        setChunkRetryCount(settings.getInt("chunkRetryCount", 1));
     }
 
     /** {@inheritDoc} */
@@ -148,6 +344,14 @@ public void saveSettings(final NodeSettingsWO settings) {
         } else {
             settings.addInt("maxThreads", m_maxThreads);
         }
+        settings.addString("memoryDirectory", m_memoryDirectoryPath);
+        settings.addInt("memoryBudgetMB", m_memoryBudgetMB);
+        settings.addInt("priority", m_priority);
+        settings.addBoolean("isAdaptiveThreadCount", m_isAdaptiveThreadCount);
+        settings.addString("threadEnvironmentVariables",
+                m_threadEnvironmentVariables);
+        settings.addInt("chunkTimeoutSeconds", m_chunkTimeoutSeconds);
+        settings.addInt("chunkRetryCount", m_chunkRetryCount);
     }
 
     /** Get a thread count suitable for the current system (a number slightly
@@ -165,22 +369,28 @@ protected static int getAutoThreadCount() {
         }
     }
 
-    /** Id provider for threads. */
-    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    /** The upper bound of the adapted number of concurrent chunks.
+     * @return twice the number of cores */
+    static int getMaxAdaptiveThreadCount() {
+        return 2 * Runtime.getRuntime().availableProcessors();
+    }
 
     /** {@inheritDoc} */
     @Override
+    public int getMaxParallelChunkCount() {
+        if (m_isAdaptiveThreadCount) {
+            return getMaxAdaptiveThreadCount();
+        }
+        return m_isAutoThreadCount ? getAutoThreadCount() : m_maxThreads;
+    }
+
+    /** Returns a view on the threads of the JVM-wide
+     * {@link ExttoolProcessGovernor}. {@inheritDoc} */
+    @Override
     public ExecutorService createExecutorService() {
-        int threadcount = m_isAutoThreadCount ? getAutoThreadCount()
-                : m_maxThreads;
-        return new ThreadPoolExecutor(threadcount, threadcount, 60L,
-            TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
-                /** {@inheritDoc} */
-                @Override
-                public Thread newThread(final Runnable r) {
-                    return new Thread(r, "KNIME-Exttool-" + THREAD_COUNTER.incrementAndGet());
-                }
-            });
+        return ExttoolProcessGovernor.getInstance().createExecutorService(
+                getMaxParallelChunkCount(), m_priority,
+                m_isAdaptiveThreadCount);
     }
 
 }
@@ -53,8 +53,10 @@
 import javax.swing.BorderFactory;
 import javax.swing.JCheckBox;
 import javax.swing.JComponent;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JSpinner;
+import javax.swing.JTextField;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -71,6 +73,16 @@ public class DefaultExttoolExecutorConfigPanel extends
 
     private final JSpinner m_threadCountSpinner;
     private final JCheckBox m_autoThreaderChecker;
+    private final JCheckBox m_adaptiveThreaderChecker;
+    private final JSpinner m_prioritySpinner;
+    private final JCheckBox m_memoryDirectoryChecker;
+    private final JTextField m_memoryDirectoryField;
+    private final JSpinner m_memoryBudgetSpinner;
+    private final JCheckBox m_threadEnvironmentChecker;
+    private final JTextField m_threadEnvironmentField;
+    private final JCheckBox m_timeoutChecker;
+    private final JSpinner m_timeoutSpinner;
+    private final JSpinner m_retrySpinner;
 
     /**
      *
@@ -78,24 +90,120 @@ public class DefaultExttoolExecutorConfigPanel extends
     public DefaultExttoolExecutorConfigPanel() {
         super(new GridLayout(0, 1));
         final int def = DefaultExttoolExecutorConfig.getAutoThreadCount();
-        m_autoThreaderChecker = new JCheckBox("Set automatically");
-        m_autoThreaderChecker.addChangeListener(new ChangeListener() {
+        ChangeListener threadListener = new ChangeListener() {
             /** {@inheritDoc} */
             @Override
             public void stateChanged(final ChangeEvent e) {
-                m_threadCountSpinner.setEnabled(
-                        !m_autoThreaderChecker.isSelected());
+                boolean isAdaptive = m_adaptiveThreaderChecker.isSelected();
+                m_autoThreaderChecker.setEnabled(!isAdaptive);
+                m_threadCountSpinner.setEnabled(!isAdaptive
+                        && !m_autoThreaderChecker.isSelected());
             }
-        });
+        };
+        m_adaptiveThreaderChecker =
+            new JCheckBox("Adapt to CPU utilization at runtime (Linux)");
+        m_adaptiveThreaderChecker.setToolTipText("Starts with the CPU count "
+                + "and raises or lowers the number of processes (up to "
+                + DefaultExttoolExecutorConfig.getMaxAdaptiveThreadCount()
+                + ") depending on the observed CPU usage");
+        m_autoThreaderChecker = new JCheckBox("Set automatically");
+        m_adaptiveThreaderChecker.addChangeListener(threadListener);
+        m_autoThreaderChecker.addChangeListener(threadListener);
         m_autoThreaderChecker.setToolTipText("Set thread count slighly larger "
                 + "than the system's CPU count (" + def + ")");
         m_threadCountSpinner = new JSpinner(new SpinnerNumberModel(
                 def, 1, Integer.MAX_VALUE, 1));
-        setBorder(BorderFactory.createTitledBorder(
+        JPanel threadPanel = new JPanel(new GridLayout(0, 1));
+        threadPanel.setBorder(BorderFactory.createTitledBorder(
                 "Parallel process count (only when chunking enabled)"));
-        add(getInFlowLayout(m_autoThreaderChecker));
-        add(getInFlowLayout(m_threadCountSpinner));
+        threadPanel.add(getInFlowLayout(m_adaptiveThreaderChecker));
+        threadPanel.add(getInFlowLayout(m_autoThreaderChecker));
+        threadPanel.add(getInFlowLayout(m_threadCountSpinner));
+        m_prioritySpinner = new JSpinner(
+                new SpinnerNumberModel(1, 1, Integer.MAX_VALUE, 1));
+        m_prioritySpinner.setToolTipText("Share of the limit of processes "
+                + "of all nodes (" + ExttoolProcessGovernor.getInstance()
+                .getMaxProcesses() + ") when other nodes run in parallel");
+        threadPanel.add(getInFlowLayout(
+                new JLabel("Priority: "), m_prioritySpinner));
+        add(threadPanel);
         m_autoThreaderChecker.doClick();
+        m_memoryDirectoryChecker =
+            new JCheckBox("Place chunk files in memory directory");
+        m_memoryDirectoryField = new JTextField(
+                DefaultExttoolExecutorConfig.DEFAULT_MEMORY_DIRECTORY, 12);
+        m_memoryBudgetSpinner = new JSpinner(new SpinnerNumberModel(
+                DefaultExttoolExecutorConfig.DEFAULT_MEMORY_BUDGET, 1,
+                Integer.MAX_VALUE, 64));
+        m_memoryDirectoryChecker.addChangeListener(new ChangeListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                boolean b = m_memoryDirectoryChecker.isSelected();
+                m_memoryDirectoryField.setEnabled(b);
+                m_memoryBudgetSpinner.setEnabled(b);
+            }
+        });
+        m_memoryDirectoryChecker.setToolTipText("Chunks exceeding the "
+                + "budget are placed in the temp directory on disk");
+        m_memoryDirectoryField.setEnabled(false);
+        m_memoryBudgetSpinner.setEnabled(false);
+        JPanel memoryPanel = new JPanel(new GridLayout(0, 1));
+        memoryPanel.setBorder(BorderFactory.createTitledBorder(
+                "Temporary files in memory (e.g. tmpfs)"));
+        memoryPanel.add(getInFlowLayout(
+                m_memoryDirectoryChecker, m_memoryDirectoryField));
+        memoryPanel.add(getInFlowLayout(new JLabel("Memory budget (MB): "),
+                m_memoryBudgetSpinner));
+        add(memoryPanel);
+        m_threadEnvironmentChecker =
+            new JCheckBox("Limit threads of the tool via variables");
+        m_threadEnvironmentChecker.setToolTipText("Sets the variables to "
+                + "the CPU count divided by the number of parallel processes"
+                + " (also used for %threads% in the command line)");
+        m_threadEnvironmentField = new JTextField(DefaultExttoolExecutorConfig
+                .DEFAULT_THREAD_ENVIRONMENT_VARIABLES, 24);
+        m_threadEnvironmentChecker.addChangeListener(new ChangeListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                m_threadEnvironmentField.setEnabled(
+                        m_threadEnvironmentChecker.isSelected());
+            }
+        });
+        m_threadEnvironmentField.setEnabled(false);
+        JPanel environmentPanel = new JPanel(new GridLayout(0, 1));
+        environmentPanel.setBorder(BorderFactory.createTitledBorder(
+                "Threads of multi-threaded tools"));
+        environmentPanel.add(getInFlowLayout(m_threadEnvironmentChecker));
+        environmentPanel.add(getInFlowLayout(m_threadEnvironmentField));
+        add(environmentPanel);
+        m_timeoutChecker =
+            new JCheckBox("Kill process of a chunk after (seconds)");
+        m_timeoutChecker.setToolTipText("Kills the process and all processes"
+                + " started by it, the chunk is then run again or fails");
+        m_timeoutSpinner = new JSpinner(
+                new SpinnerNumberModel(3600, 1, Integer.MAX_VALUE, 60));
+        m_retrySpinner = new JSpinner(
+                new SpinnerNumberModel(1, 0, Integer.MAX_VALUE, 1));
+        m_timeoutChecker.addChangeListener(new ChangeListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                boolean b = m_timeoutChecker.isSelected();
+                m_timeoutSpinner.setEnabled(b);
+                m_retrySpinner.setEnabled(b);
+            }
+        });
+        m_timeoutSpinner.setEnabled(false);
+        m_retrySpinner.setEnabled(false);
+        JPanel timeoutPanel = new JPanel(new GridLayout(0, 1));
+        timeoutPanel.setBorder(BorderFactory.createTitledBorder(
+                "Timeout of hanging processes"));
+        timeoutPanel.add(getInFlowLayout(m_timeoutChecker, m_timeoutSpinner));
+        timeoutPanel.add(getInFlowLayout(
+                new JLabel("Retries after timeout: "), m_retrySpinner));
+        add(timeoutPanel);
     }
 
     private static final JPanel getInFlowLayout(final JComponent... comps) {
@@ -113,6 +221,22 @@ public void loadSettings(final AbstractExttoolExecutorConfig config)
         DefaultExttoolExecutorConfig c = (DefaultExttoolExecutorConfig)config;
         m_threadCountSpinner.setValue(c.getMaxThreads());
         m_autoThreaderChecker.setSelected(c.isAutoThreadCount());
+        m_prioritySpinner.setValue(c.getPriority());
+        m_adaptiveThreaderChecker.setSelected(c.isAdaptiveThreadCount());
+        String memoryDir = c.getMemoryDirectoryPath();
+        m_memoryDirectoryChecker.setSelected(memoryDir != null);
+        m_memoryDirectoryField.setText(memoryDir != null ? memoryDir
+                : DefaultExttoolExecutorConfig.DEFAULT_MEMORY_DIRECTORY);
+        m_memoryBudgetSpinner.setValue(c.getMemoryBudgetMB());
+        String envVars = c.getThreadEnvironmentVariableNames();
+        m_threadEnvironmentChecker.setSelected(envVars != null);
+        m_threadEnvironmentField.setText(envVars != null ? envVars
+                : DefaultExttoolExecutorConfig
+                .DEFAULT_THREAD_ENVIRONMENT_VARIABLES);
+        int timeout = c.getChunkTimeoutSeconds();
+        m_timeoutChecker.setSelected(timeout > 0);
+        m_timeoutSpinner.setValue(timeout > 0 ? timeout : 3600);
+        m_retrySpinner.setValue(c.getChunkRetryCount());
     }
 
     /** {@inheritDoc} */
@@ -122,6 +246,32 @@ public void saveSettings(final AbstractExttoolExecutorConfig config)
         DefaultExttoolExecutorConfig c = (DefaultExttoolExecutorConfig)config;
         c.setAutoThreadCount(m_autoThreaderChecker.isSelected());
         c.setMaxThreads((Integer)m_threadCountSpinner.getValue());
+        c.setPriority((Integer)m_prioritySpinner.getValue());
+        c.setAdaptiveThreadCount(m_adaptiveThreaderChecker.isSelected());
+        if (m_memoryDirectoryChecker.isSelected()) {
+            String memoryDir = m_memoryDirectoryField.getText().trim();
+            if (memoryDir.isEmpty()) {
+                throw new InvalidSettingsException(
+                        "No memory directory specified");
+            }
+            c.setMemoryDirectoryPath(memoryDir);
+        } else {
+            c.setMemoryDirectoryPath(null);
+        }
+        c.setMemoryBudgetMB((Integer)m_memoryBudgetSpinner.getValue());
+        if (m_threadEnvironmentChecker.isSelected()) {
+            String envVars = m_threadEnvironmentField.getText().trim();
+            if (envVars.isEmpty()) {
+                throw new InvalidSettingsException(
+                        "No thread environment variables specified");
+            }
+            c.setThreadEnvironmentVariableNames(envVars);
+        } else {
+            c.setThreadEnvironmentVariableNames(null);
+        }
+        c.setChunkTimeoutSeconds(m_timeoutChecker.isSelected()
+                ? (Integer)m_timeoutSpinner.getValue() : 0);
+        c.setChunkRetryCount((Integer)m_retrySpinner.getValue());
     }
 
 }
@@ -53,27 +53,47 @@
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTable;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
 import org.knime.core.data.RowIterator;
 import org.knime.core.data.RowKey;
+import org.knime.core.data.StringValue;
 import org.knime.core.data.container.BlobSupportDataRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.filter.TableFilter;
 import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DefaultRowIterator;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
@@ -83,12 +103,14 @@
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.util.FileUtil;
+import org.knime.core.util.ThreadUtils.CallableWithContext;
 import org.knime.exttool.filetype.AbstractFileTypeRead;
 import org.knime.exttool.filetype.AbstractFileTypeWrite;
 import org.knime.exttool.node.AbstractCommandlineSettings;
 import org.knime.exttool.node.ExttoolCustomizer;
 import org.knime.exttool.node.ExttoolCustomizer.Chunking;
 import org.knime.exttool.node.ExttoolCustomizer.DeleteTempFilePolicy;
+import org.knime.exttool.node.ExttoolCustomizer.JoinMode;
 import org.knime.exttool.node.ExttoolNodeEnvironment;
 import org.knime.exttool.node.ExttoolSettings;
 import org.knime.exttool.node.ExttoolSettings.PathAndTypeConfigurationInput;
@@ -113,6 +135,23 @@ public class Execution {
     private static final NodeLogger LOGGER =
         NodeLogger.getLogger(Execution.class);
 
+    /** Time to wait for canceled chunks to terminate in cleanUp. */
+    private static final long TERMINATION_TIMEOUT_SECONDS = 5L;
+
+    /** Maximum number of single rows a chunk may fail on when bisecting it,
+     * if more rows fail the failure is probably not caused by the rows. */
+    private static final int MAX_FAILED_ROWS_PER_CHUNK = 10;
+
+    /** Chunk count above which chunks are created lazily while earlier chunks
+     * run (as in pipelined execution), so that handles, callables and files
+     * only exist for the chunks in flight. */
+    private static final int MAX_EAGER_CHUNKS = 1000;
+
+    /** Maximum number of chunks whose files are placed in one directory,
+     * files of further chunks go into numbered sub-directories of the in-
+     * and output directory. */
+    private static final int CHUNKS_PER_DIRECTORY = 1000;
+
     private final ExttoolCustomizer m_customizer;
     private final ExttoolSettings m_settings;
     private final ExttoolNodeEnvironment m_env;
@@ -126,8 +165,27 @@ public class Execution {
     private List<Integer> m_indicesOfFailedExecutionChunks =
         Collections.emptyList();
 
+    /** Joins the output at port 0 chunk-wise with the input, null if not
+     * possible, see {@link #isFusedJoinPossible()}. */
+    private ChunkJoiner m_chunkJoiner;
+
+    /** Chunk layout of the current execution, see
+     * {@link #createChunkLayout(BufferedDataTable[], ExecutionMonitor)}. */
+    private ChunkLayout m_chunkLayout;
+
+    /** Chunk layout determined by the {@link InputGrouper} for
+     * {@link Chunking#ByGroup}, null otherwise. */
+    private ChunkLayout m_groupChunkLayout;
+
+    /** Cache of chunk output files, null if disabled. */
+    private ChunkResultCache m_resultCache;
+
     /** Executor service created by the executor config. */
     private ExecutorService m_executorService;
+    /** Completion service on top of {@link #m_executorService}, all chunks
+     * are submitted through it so that results are collected in the order
+     * the chunks finish. */
+    private CompletionService<BufferedDataTable[]> m_completionService;
 
     /** List of created files/folders during execution. These files are deleted
      * during {@link #cleanUp()}. It contains the working directory (if newly
@@ -136,6 +194,22 @@ public class Execution {
      */
     private List<File> m_toBeDeletedFolders = Collections.emptyList();
 
+    /** Callables of chunks that were run twice (speculative execution) and
+     * whose result is not used. Their output is deleted in
+     * {@link #cleanUp()}. */
+    private final List<ExecutionChunkCallable> m_speculativeLosers =
+        new ArrayList<ExecutionChunkCallable>();
+
+    /** Handles shared by all chunks of a pipelined execution, deleted in
+     * {@link #cleanUp()}. Null if chunks are not released once merged. */
+    private Set<DataHandle> m_sharedHandles;
+
+    /** Keys of input rows the external tool failed on, determined by
+     * bisecting failed chunks (see
+     * {@link ExttoolSettings#isBisectFailedChunks()}). */
+    private final List<RowKey> m_failedRowKeys =
+        Collections.synchronizedList(new ArrayList<RowKey>());
+
     /** Working directory, created based on the first valid in/output file.*/
     private File m_workingDirectory;
     /** Directory in the working dir containing input data to the ext-tool. */
@@ -144,6 +218,16 @@ public class Execution {
      * the external tool. */
     private File m_outputDirectory;
 
+    /** Directory on a memory file system for chunk files, null if not
+     * configured (see
+     * {@link AbstractExttoolExecutorConfig#getMemoryDirectory()}). */
+    private MemoryWorkingDirectory m_memoryDirectory;
+
+    /** Number of threads each chunk's process may use, replaces %threads%
+     * and is set as thread environment variables, see
+     * {@link #initThreadsPerChunk(int)}. */
+    private int m_threadsPerChunk = 1;
+
     /** Warning messages that are collected throughout the execution. */
     private final StringBuilder m_warningMessageBuilder = new StringBuilder();
 
@@ -219,7 +303,10 @@ protected BufferedDataTable[] postprocessOutput(
      * execute method} to write the input and create the execution callables.
      * This method is not be called outside this class (but it can be
      * overwritten to take additional steps that are required in preparation of
-     * the execution).
+     * the execution). It is not called for
+     * {@link ExttoolSettings#isPipelinedExecution() pipelined executions}
+     * and {@link Chunking#Adaptive adaptive chunking}.
+     * The input files of all ports and chunks are written concurrently.
      * @param inputTables The input table of this node.
      * @param exec Progress monitor for cancellation/progress
      * @return A list of callables that are run by the <code>execute</code>
@@ -236,14 +323,157 @@ protected List<ExecutionChunkCallable> prepareExecution(
         final int nrOutPorts = getCustomizer().getNrOutputs();
         List<ExecutionChunkCallable> result =
             new ArrayList<ExecutionChunkCallable>();
+        ChunkLayout layout = m_chunkLayout != null
+            ? m_chunkLayout : createChunkLayout(inputTables, exec);
+        final int chunkCount = layout.getChunkCount();
+        initThreadsPerChunk(chunkCount);
+
+        InputDataHandle[][] inputHandles =
+            new InputDataHandle[nrInPorts][chunkCount];
+        OutputDataHandle[][] outputHandles =
+            new OutputDataHandle[nrOutPorts][chunkCount];
+        AbstractFileTypeRead[] outputFileTypes =
+            new AbstractFileTypeRead[nrOutPorts];
+        // writes of streaming handles, run by the callables
+        WriteInputTask[][] streamingWrites =
+            new WriteInputTask[nrInPorts][chunkCount];
+
+        // determine input file names (on this thread) and write input data
+        // of all ports and chunks in parallel
+        int writeCount = 0;
+        for (int port = 0; port < nrInPorts; port++) {
+            writeCount += port == 0 ? chunkCount : 1;
+        }
+        ExecutorService writerService = createWriterService(writeCount);
+        try {
+            List<Future<?>> writes = new ArrayList<Future<?>>(writeCount);
+            for (int port = 0; port < nrInPorts; port++) {
+                ExecutionMonitor subProg =
+                    exec.createSubProgress(1.0 / nrInPorts);
+                BufferedDataTable table = inputTables[port];
+                final int rowCount = table.getRowCount();
+                if (port == 0 && chunkCount > 1) {
+                    for (int chunkIdx = 0; chunkIdx < chunkCount; chunkIdx++) {
+                        long startRowIncl = layout.getStartRow(chunkIdx);
+                        long endRowExcl = layout.getEndRow(chunkIdx);
+                        // one file type instance per file, writers are
+                        // not required to be thread-safe
+                        AbstractFileTypeWrite fileType =
+                            settings.createInputFileType(port);
+                        InputDataHandle handle = createInputDataHandle(port,
+                                chunkIdx, endRowExcl - startRowIncl, fileType);
+                        inputHandles[port][chunkIdx] = handle;
+                        WriteInputTask write = new WriteInputTask(
+                                handle, table, startRowIncl, endRowExcl,
+                                fileType,
+                                subProg.createSubProgress(1.0 / chunkCount));
+                        if (handle.isStreaming()) {
+                            streamingWrites[port][chunkIdx] = write;
+                        } else {
+                            writes.add(writerService.submit(write));
+                        }
+                    }
+                } else {
+                    AbstractFileTypeWrite fileType =
+                        settings.createInputFileType(port);
+                    InputDataHandle handle =
+                        createInputDataHandle(port, -1, rowCount, fileType);
+                    Arrays.fill(inputHandles[port], handle);
+                    if (!handle.isStreaming()) {
+                        writes.add(writerService.submit(new WriteInputTask(
+                                handle, table, 0, rowCount, fileType,
+                                subProg)));
+                        continue;
+                    }
+                    // a stream is consumed by one process, each chunk
+                    // gets its own handle
+                    for (int chunkIdx = 0; chunkIdx < chunkCount; chunkIdx++) {
+                        if (chunkIdx > 0) {
+                            fileType = settings.createInputFileType(port);
+                            handle = createInputDataHandle(
+                                    port, chunkIdx, rowCount, fileType);
+                            inputHandles[port][chunkIdx] = handle;
+                        }
+                        streamingWrites[port][chunkIdx] = new WriteInputTask(
+                                handle, table, 0, rowCount, fileType,
+                                subProg.createSubProgress(1.0 / chunkCount));
+                    }
+                }
+            }
+            exec.setMessage("Writing input (" + writeCount + " file(s))");
+            for (Future<?> write : writes) {
+                waitForWrite(write, exec);
+            }
+        } finally {
+            writerService.shutdownNow();
+        }
+        // determine output file names
+        final long inRowCount =
+            nrInPorts > 0 ? inputTables[0].getRowCount() : 0L;
+        for (int port = 0; port < nrOutPorts; port++) {
+            AbstractFileTypeRead outputFileType =
+                settings.createOutputFileType(port);
+            outputFileTypes[port] = outputFileType;
+            if (port == 0 && chunkCount > 1) {
+                for (int chunkIdx = 0; chunkIdx < chunkCount; chunkIdx++) {
+                    outputHandles[port][chunkIdx] = createOutputDataHandle(
+                            port, chunkIdx, layout.getEndRow(chunkIdx)
+                            - layout.getStartRow(chunkIdx), outputFileType);
+                }
+            } else {
+                OutputDataHandle handle = createOutputDataHandle(
+                        port, -1, inRowCount, outputFileType);
+                Arrays.fill(outputHandles[port], handle);
+            }
+        }
+
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            InputDataHandle[] ins = new InputDataHandle[nrInPorts];
+            for (int port = 0; port < nrInPorts; port++) {
+                ins[port] = inputHandles[port][chunk];
+            }
+            OutputDataHandle[] outs = new OutputDataHandle[nrOutPorts];
+            for (int port = 0; port < nrOutPorts; port++) {
+                outs[port] = outputHandles[port][chunk];
+            }
+            ExecutionChunkCallable callable =
+                createExecutionChunkCallable(ins, outs, outputFileTypes);
+            for (int port = 0; port < nrInPorts; port++) {
+                if (streamingWrites[port][chunk] != null) {
+                    callable.addStreamingWrite(streamingWrites[port][chunk]);
+                }
+            }
+            if (nrInPorts > 0) {
+                callable.setInputRowRange(
+                        layout.getStartRow(chunk), layout.getEndRow(chunk));
+            }
+            result.add(callable);
+        }
+        return result;
+    }
+
+    /** Determines the number of chunks and the rows per chunk of the first
+     * input port according to the chunking settings.
+     * @param inputTables The input tables of the node.
+     * @param exec For cancelation while reading the cost of the rows.
+     * @return The chunk layout, never null.
+     * @throws InvalidSettingsException If the chunking is not supported.
+     * @throws CanceledExecutionException If canceled.
+     */
+    private ChunkLayout createChunkLayout(final BufferedDataTable[] inputTables,
+            final ExecutionMonitor exec)
+        throws InvalidSettingsException, CanceledExecutionException {
+        final ExttoolSettings settings = getSettings();
         Chunking chunking = settings.getChunking();
         int chunkValue = settings.getChunkValue();
 
         int rowsPerChunkFirstPort = -1;
         int chunkCount = 1;
-        if (nrInPorts > 0) {
+        int rowCountFirstPort = 0;
+        if (getCustomizer().getNrInputs() > 0) {
             // only first input port will be chunked
             final int rowCount = inputTables[0].getRowCount();
+            rowCountFirstPort = rowCount;
             switch (chunking) {
             case EntireTable:
                 chunkCount = 1;
@@ -266,106 +496,788 @@ protected List<ExecutionChunkCallable> prepareExecution(
                 rowsPerChunkFirstPort =
                     (int)Math.ceil(rowCount / (double)chunkCount);
                 break;
+            case Adaptive:
+                // sizes are determined during execution, this static
+                // layout (one chunk per worker) is only used as fallback
+                chunkCount =
+                    Math.max(1, Math.min(rowCount, getParallelChunkCount()));
+                rowsPerChunkFirstPort =
+                    (int)Math.ceil(rowCount / (double)chunkCount);
+                break;
+            case ByGroup:
+                if (m_groupChunkLayout != null) {
+                    return m_groupChunkLayout;
+                }
+                chunkCount = 1;
+                rowsPerChunkFirstPort = rowCount;
+                break;
             default:
                 throw new InvalidSettingsException("Unsupported: " + chunking);
             }
+            String weightColumn = settings.getChunkWeightColumn();
+            if (weightColumn != null && chunkCount > 1
+                    && (Chunking.ChunksOfSize.equals(chunking)
+                            || Chunking.NrChunks.equals(chunking))) {
+                ChunkLayout weighted = createWeightedChunkLayout(
+                        inputTables[0], weightColumn, chunkCount, exec);
+                if (weighted != null) {
+                    return weighted;
+                }
+            }
         }
+        return new ChunkLayout(
+                chunkCount, rowsPerChunkFirstPort, rowCountFirstPort);
+    }
 
-        InputDataHandle[][] inputHandles =
-            new InputDataHandle[nrInPorts][chunkCount];
-        OutputDataHandle[][] outputHandles =
-            new OutputDataHandle[nrOutPorts][chunkCount];
-        AbstractFileTypeRead[] outputFileTypes =
-            new AbstractFileTypeRead[nrOutPorts];
+    /** Creates a layout whose chunks are contiguous row ranges of about
+     * equal cost, the cost of a row is read from the weight column (see
+     * {@link ExttoolSettings#getChunkWeightColumn()}). Chunks are submitted
+     * in descending order of their cost (longest job first).
+     * @param table The table at the first input port.
+     * @param weightColumn The column containing the cost of the rows.
+     * @param chunkCount The number of chunks, at most the row count.
+     * @param exec For cancelation.
+     * @return The layout or null if the rows have no cost.
+     * @throws InvalidSettingsException If the column does not exist.
+     * @throws CanceledExecutionException If canceled.
+     */
+    private static ChunkLayout createWeightedChunkLayout(
+            final BufferedDataTable table, final String weightColumn,
+            final int chunkCount, final ExecutionMonitor exec)
+        throws InvalidSettingsException, CanceledExecutionException {
+        final int col =
+            table.getDataTableSpec().findColumnIndex(weightColumn);
+        if (col < 0) {
+            throw new InvalidSettingsException("Column \"" + weightColumn
+                    + "\" for the chunk balancing does not exist");
+        }
+        double[] weights = new double[table.getRowCount()];
+        int row = 0;
+        exec.setMessage("Determining cost of rows");
+        for (DataRow r : table) {
+            exec.checkCanceled();
+            weights[row++] = getRowWeight(r.getCell(col));
+        }
+        ChunkLayout layout = createWeightedChunkLayout(weights, chunkCount);
+        if (layout == null) {
+            LOGGER.debug("Rows have no cost in column \"" + weightColumn
+                    + "\", chunking by row count");
+        }
+        return layout;
+    }
 
-        // determine input file names and write input data
-        for (int port = 0; port < nrInPorts; port++) {
-            exec.setMessage("Writing port " + port);
-            ExecutionMonitor subProg = exec.createSubProgress(1.0 / nrInPorts);
-            BufferedDataTable table = inputTables[port];
-            AbstractFileTypeWrite fileType = settings.createInputFileType(port);
-            RowIterator it = table.iterator();
-            if (port == 0 && chunkCount > 1) {
-                for (int chunkIdx = 0; chunkIdx < chunkCount; chunkIdx++) {
-                    int startRowIncl = chunkIdx * rowsPerChunkFirstPort;
-                    int endRowExcl = startRowIncl + rowsPerChunkFirstPort;
-                    File suggestedInputFile = getInputFilePath(
-                            port, chunkIdx, fileType);
-                    RowIterator filterIterator =
-                        new ViewRowIterator(it, endRowExcl - startRowIncl);
-                    InputDataHandle inputHandle =
-                        m_executorFactory.createInputDataHandle(
-                            settings, suggestedInputFile);
-                    OutputStream out = inputHandle.openInputFileOutStream();
-                    subProg.setMessage("Chunk " + chunkIdx);
-                    ExecutionMonitor subProg2 =
-                        subProg.createSubProgress(1.0 / chunkCount);
-                    fileType.writeTable(table.getDataTableSpec(),
-                            filterIterator, endRowExcl - startRowIncl,
-                            out, subProg2);
-                    out.close();
-                    inputHandles[port][chunkIdx] = inputHandle;
-                }
-            } else {
-                File suggestedInputFile = getInputFilePath(port, -1, fileType);
-                InputDataHandle inputHandle =
-                    m_executorFactory.createInputDataHandle(
-                            settings, suggestedInputFile);
-                OutputStream out = inputHandle.openInputFileOutStream();
-                fileType.writeTable(table.getDataTableSpec(), it,
-                        table.getRowCount(), out, subProg);
-                out.close();
-                Arrays.fill(inputHandles[port], inputHandle);
+    /** Cuts rows into contiguous chunks of about equal cost, which are
+     * submitted in descending order of their cost.
+     * @param weights The cost of each row, not negative.
+     * @param chunkCount The number of chunks, at most the row count.
+     * @return The layout or null if the rows have no cost.
+     */
+    static ChunkLayout createWeightedChunkLayout(final double[] weights,
+            final int chunkCount) {
+        final int rowCount = weights.length;
+        double total = 0.0;
+        for (double w : weights) {
+            total += w;
+        }
+        if (!(total > 0.0)) {
+            return null;
+        }
+        long[] starts = new long[chunkCount + 1];
+        double[] chunkWeights = new double[chunkCount];
+        double cumulative = 0.0;
+        int chunk = 0;
+        for (int r = 0; r < rowCount; r++) {
+            cumulative += weights[r];
+            chunkWeights[chunk] += weights[r];
+            // cut once the chunk's share of the total cost is reached but
+            // leave at least one row for each remaining chunk
+            int rowsLeft = rowCount - r - 1;
+            int chunksLeft = chunkCount - chunk - 1;
+            if (chunksLeft > 0 && (rowsLeft == chunksLeft
+                    || cumulative >= total * (chunk + 1) / chunkCount)) {
+                chunk += 1;
+                starts[chunk] = r + 1;
             }
-            assert !it.hasNext() : "Did not process all rows";
-            subProg.setProgress(1.0);
         }
-        // determine output file names
-        for (int port = 0; port < nrOutPorts; port++) {
-            AbstractFileTypeRead outputFileType =
-                settings.createOutputFileType(port);
-            outputFileTypes[port] = outputFileType;
-            if (port == 0 && chunkCount > 1) {
-                for (int chunkIdx = 0; chunkIdx < chunkCount; chunkIdx++) {
-                    File suggestedOutFile = getOutputFilePath(
-                            port, chunkIdx, outputFileType);
-                    OutputDataHandle handle =
-                        m_executorFactory.createOutputDataHandle(
-                                settings, suggestedOutFile);
-                    outputHandles[port][chunkIdx] = handle;
+        starts[chunkCount] = rowCount;
+        return new ChunkLayout(starts, chunkWeights);
+    }
+
+    /** The cost of a row given its cell in the weight column: the value of
+     * numeric cells, the length of the text for all other cells, 0 for
+     * missing cells. */
+    private static double getRowWeight(final DataCell cell) {
+        if (cell.isMissing()) {
+            return 0.0;
+        }
+        double w;
+        if (cell instanceof DoubleValue) {
+            w = ((DoubleValue)cell).getDoubleValue();
+        } else if (cell instanceof StringValue) {
+            w = ((StringValue)cell).getStringValue().length();
+        } else {
+            w = cell.toString().length();
+        }
+        return w > 0.0 && !Double.isInfinite(w) ? w : 0.0;
+    }
+
+    /** Creates the input handle for a given port (and chunk). This resolves
+     * the file name and possibly creates the working directory and must
+     * therefore be called on the node's thread.
+     * @param port The input port.
+     * @param chunkIndex The chunk index or -1 if the data is not chunked.
+     * @param rowCount The number of rows written to the handle, used to
+     *        estimate the file size for the memory directory.
+     * @param fileType The file type used to write the data.
+     * @return A new (still empty) input handle.
+     * @throws IOException If the working directory can't be created.
+     * @throws InvalidSettingsException If settings are invalid.
+     */
+    private InputDataHandle createInputDataHandle(final int port,
+            final int chunkIndex, final long rowCount,
+            final AbstractFileTypeWrite fileType)
+        throws IOException, InvalidSettingsException {
+        File suggestedInputFile = getInputFilePath(port, chunkIndex, fileType);
+        return createInputDataHandle(suggestedInputFile, rowCount);
+    }
+
+    /** Creates the input handle for a given file, which is moved to the
+     * memory directory if it is in the input directory and fits into the
+     * memory budget.
+     * @param suggestedInputFile The input file.
+     * @param rowCount The number of rows written to the file.
+     * @return A new input handle.
+     * @throws IOException If the handle can't be created.
+     * @throws InvalidSettingsException If settings are invalid.
+     */
+    private InputDataHandle createInputDataHandle(
+            final File suggestedInputFile, final long rowCount)
+        throws IOException, InvalidSettingsException {
+        File inFile = suggestedInputFile;
+        if (m_memoryDirectory != null && isInDirectory(
+                inFile, m_inputDirectory)) {
+            File memoryFile = m_memoryDirectory.reserveInput(inFile, rowCount);
+            if (memoryFile != null) {
+                inFile = memoryFile;
+            }
+        }
+        return m_executorFactory.createInputDataHandle(getSettings(), inFile);
+    }
+
+    /** Inserts a suffix into the file name of a path before its extension.
+     * @param path The path, e.g. "/tmp/foo_xyz/output/myOutput_1.sdf".
+     * @param suffix The suffix, e.g. "_backup".
+     * @return The new path, e.g. "/tmp/foo_xyz/output/myOutput_1_backup.sdf".
+     */
+    private static String insertIntoName(final String path,
+            final String suffix) {
+        String result = path.replaceAll("(\\.[^\\./]*)$", suffix + "$1");
+        return result.equals(path) ? path + suffix : result;
+    }
+
+    /** Whether the file is located in the directory or one of its chunk
+     * sub-directories (i.e. not set by the user), such that it can be moved
+     * to the memory directory. */
+    private static boolean isInDirectory(final File file, final File dir) {
+        if (dir == null) {
+            return false;
+        }
+        File absDir = dir.getAbsoluteFile();
+        File parent = file.getAbsoluteFile().getParentFile();
+        return absDir.equals(parent)
+            || (parent != null && absDir.equals(parent.getParentFile()));
+    }
+
+    /** Creates the thread pool that writes the input files. The threads are
+     * only used during the write phase and bounded by the number of cores.
+     * @param taskCount The number of files to be written.
+     * @return A new executor service, to be shut down by the caller.
+     */
+    private static ExecutorService createWriterService(final int taskCount) {
+        int threadCount = Math.max(1, Math.min(taskCount,
+                Runtime.getRuntime().availableProcessors()));
+        return new ThreadPoolExecutor(threadCount, threadCount, 0L,
+            TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+            new ThreadFactory() {
+                /** {@inheritDoc} */
+                @Override
+                public Thread newThread(final Runnable r) {
+                    return new Thread(r, "KNIME-Exttool-Writer-"
+                            + WRITER_THREAD_COUNTER.incrementAndGet());
                 }
-            } else {
-                File suggestedOutFile = getOutputFilePath(
-                        port, -1, outputFileType);
-                OutputDataHandle handle =
-                    m_executorFactory.createOutputDataHandle(
-                            settings, suggestedOutFile);
-                Arrays.fill(outputHandles[port], handle);
+            });
+    }
+
+    /** Waits for a submitted write task, checking for cancelation
+     * periodically, and re-throws its exception (if any).
+     * @param write The future of the write task.
+     * @param exec For cancelation.
+     * @throws IOException If writing failed.
+     * @throws CanceledExecutionException If canceled.
+     */
+    private static void waitForWrite(final Future<?> write,
+            final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
+        while (true) {
+            exec.checkCanceled();
+            try {
+                write.get(500, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                // check cancelation and continue waiting
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CanceledExecutionException(
+                        "Interrupted while writing input");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException)cause;
+                } else if (cause instanceof CanceledExecutionException) {
+                    throw (CanceledExecutionException)cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException)cause;
+                } else if (cause instanceof Error) {
+                    throw (Error)cause;
+                }
+                throw new IOException(cause.getMessage(), cause);
             }
         }
+    }
 
-        AbstractExttoolExecutorConfig execConfig =
-            m_settings.getExecutorConfig();
-        for (int chunk = 0; chunk < chunkCount; chunk++) {
-            InputDataHandle[] ins = new InputDataHandle[nrInPorts];
-            for (int port = 0; port < nrInPorts; port++) {
-                ins[port] = inputHandles[port][chunk];
+    /** Creates the output handle for a given port (and chunk).
+     * @param port The output port.
+     * @param chunkIndex The chunk index or -1 if the output is not chunked.
+     * @param rowCount The number of input rows of the chunk, used to
+     *        estimate the file size for the memory directory.
+     * @param fileType The file type reading the output.
+     * @return A new output handle.
+     * @throws IOException If the working directory can't be created.
+     * @throws InvalidSettingsException If settings are invalid.
+     */
+    private OutputDataHandle createOutputDataHandle(final int port,
+            final int chunkIndex, final long rowCount,
+            final AbstractFileTypeRead fileType)
+        throws IOException, InvalidSettingsException {
+        File suggestedOutFile = getOutputFilePath(port, chunkIndex, fileType);
+        return createOutputDataHandle(suggestedOutFile, rowCount);
+    }
+
+    /** Creates the output handle for a given file, which is moved to the
+     * memory directory if it is in the output directory and fits into the
+     * memory budget.
+     * @param suggestedOutFile The output file.
+     * @param rowCount The number of input rows of the chunk.
+     * @return A new output handle.
+     * @throws IOException If the handle can't be created.
+     * @throws InvalidSettingsException If settings are invalid.
+     */
+    private OutputDataHandle createOutputDataHandle(
+            final File suggestedOutFile, final long rowCount)
+        throws IOException, InvalidSettingsException {
+        File outFile = suggestedOutFile;
+        if (m_memoryDirectory != null && isInDirectory(
+                outFile, m_outputDirectory)) {
+            File memoryFile =
+                m_memoryDirectory.reserveOutput(outFile, rowCount);
+            if (memoryFile != null) {
+                outFile = memoryFile;
             }
-            OutputDataHandle[] outs = new OutputDataHandle[nrOutPorts];
+        }
+        return m_executorFactory.createOutputDataHandle(getSettings(), outFile);
+    }
+
+    /** Creates and initializes the callable for a chunk with the given
+     * in- and output handles.
+     * @param ins The input handles, one for each input port.
+     * @param outs The output handles, one for each output port.
+     * @param outputFileTypes The file types to read the output.
+     * @return A new callable, ready to be submitted (except for the
+     *         execution context).
+     * @throws InvalidSettingsException If the command line can't be created.
+     */
+    private ExecutionChunkCallable createExecutionChunkCallable(
+            final InputDataHandle[] ins, final OutputDataHandle[] outs,
+            final AbstractFileTypeRead[] outputFileTypes)
+        throws InvalidSettingsException {
+        String[] commandlineArgs = createCommandlineArgs(ins, outs);
+        AbstractExttoolExecutor exe = m_executorFactory.createNewInstance();
+        ExecutionChunkCallable callable = createExecutionChunkCallable(exe);
+        callable.setInputHandles(ins);
+        callable.setOutputHandles(outs);
+        callable.setOutputFileTypes(outputFileTypes);
+        callable.setCommandlineArgs(commandlineArgs);
+        callable.setThreadCount(m_threadsPerChunk);
+        callable.setExecutorConfig(m_settings.getExecutorConfig());
+        if (m_chunkJoiner != null && callable.isChunkJoinSupported()) {
+            callable.setChunkJoiner(m_chunkJoiner);
+        }
+        callable.setResultCache(m_resultCache);
+        return callable;
+    }
+
+    /** Creates a backup copy of a chunk's callable for speculative
+     * execution. The copy reads the same input files but writes its output
+     * to separate files.
+     * @param chunk The chunk index.
+     * @param original The callable of the chunk.
+     * @param mainExec Parent context of the chunk executions.
+     * @param rowUnifier The row id unifier passed to the callables.
+     * @return The backup or null if the chunk can't be run twice (its input
+     *         is streamed).
+     * @throws IOException If the output handles can't be created.
+     * @throws InvalidSettingsException If the command line can't be created.
+     */
+    private ExecutionChunkCallable createBackupCallable(final int chunk,
+            final ExecutionChunkCallable original,
+            final ExecutionContext mainExec, final AtomicInteger rowUnifier)
+        throws IOException, InvalidSettingsException {
+        InputDataHandle[] ins = original.getInputHandles();
+        for (InputDataHandle in : ins) {
+            if (in.isStreaming()) {
+                return null;
+            }
+        }
+        AbstractFileTypeRead[] outputFileTypes =
+            original.getOutputFileTypes();
+        long rowCount = Math.max(0L,
+                original.getInputRowEnd() - original.getInputRowStart());
+        OutputDataHandle[] outs =
+            new OutputDataHandle[outputFileTypes.length];
+        for (int port = 0; port < outs.length; port++) {
+            String path = getOutputFilePath(
+                    port, chunk, outputFileTypes[port]).getPath();
+            outs[port] = createOutputDataHandle(
+                    new File(insertIntoName(path, "_backup")), rowCount);
+        }
+        ExecutionChunkCallable backup = createExecutionChunkCallable(
+                ins.clone(), outs, outputFileTypes);
+        backup.setInputRowRange(
+                original.getInputRowStart(), original.getInputRowEnd());
+        backup.setExecutionContext(
+                mainExec.createSilentSubExecutionContext(0.0));
+        backup.setRowIdUnifier(rowUnifier);
+        return backup;
+    }
+
+    /** Creates the callable for a part of a failed chunk, i.e. for a sub
+     * range of its rows on the first input port. The part gets its own
+     * input file at port 0 and its own output files, the input of the other
+     * ports is shared with the chunk.
+     * @param chunk The chunk index.
+     * @param original The callable of the chunk.
+     * @param table The table at the first input port.
+     * @param startRowIncl The first row of the part (inclusive).
+     * @param endRowExcl The last row of the part (exclusive).
+     * @return The part, its input is written by the callable itself.
+     * @throws IOException If the handles can't be created.
+     * @throws InvalidSettingsException If the command line can't be created.
+     */
+    private ExecutionChunkCallable createPartCallable(final int chunk,
+            final ExecutionChunkCallable original,
+            final BufferedDataTable table, final long startRowIncl,
+            final long endRowExcl)
+        throws IOException, InvalidSettingsException {
+        final long rowCount = endRowExcl - startRowIncl;
+        final String suffix = "_rows" + startRowIncl + "-" + endRowExcl;
+        InputDataHandle[] ins = original.getInputHandles().clone();
+        AbstractFileTypeWrite inType = getSettings().createInputFileType(0);
+        String inPath = getInputFilePath(0, chunk, inType).getPath();
+        ins[0] = createInputDataHandle(
+                new File(insertIntoName(inPath, suffix)), rowCount);
+        AbstractFileTypeRead[] outputFileTypes =
+            original.getOutputFileTypes();
+        OutputDataHandle[] outs =
+            new OutputDataHandle[outputFileTypes.length];
+        for (int port = 0; port < outs.length; port++) {
+            String path = getOutputFilePath(
+                    port, chunk, outputFileTypes[port]).getPath();
+            outs[port] = createOutputDataHandle(
+                    new File(insertIntoName(path, suffix)), rowCount);
+        }
+        ExecutionChunkCallable part =
+            createExecutionChunkCallable(ins, outs, outputFileTypes);
+        part.setInputRowRange(startRowIncl, endRowExcl);
+        part.setExecutionContext(original.getExecutionContext()
+                .createSilentSubExecutionContext(0.0));
+        part.setRowIdUnifier(original.getRowIdUnifier());
+        WriteInputTask write = new WriteInputTask(ins[0], table,
+                startRowIncl, endRowExcl, inType,
+                part.getExecutionContext().createSilentSubProgress(0.0));
+        if (ins[0].isStreaming()) {
+            part.addStreamingWrite(write);
+        } else {
+            try {
+                write.call();
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+        return part;
+    }
+
+    /** Runs a chunk, if bisection of failed chunks is enabled it is wrapped
+     * in a {@link BisectingChunkTask}.
+     * @param chunk The chunk index.
+     * @param callable The chunk's callable.
+     * @param table The table at the first input port, null if none.
+     * @return The result of the chunk.
+     * @throws Exception If the chunk fails.
+     */
+    private BufferedDataTable[] callChunk(final int chunk,
+            final ExecutionChunkCallable callable,
+            final BufferedDataTable table) throws Exception {
+        if (!m_settings.isBisectFailedChunks() || table == null) {
+            return callable.call();
+        }
+        return new BisectingChunkTask(chunk, callable, table).call();
+    }
+
+    /** Writes the input data and submits the chunks as soon as their input
+     * is available. At most {@link #getMaxChunksInFlight()} chunks are
+     * written but not yet finished, i.e. the number of chunk files in the
+     * temp directory is bounded. The chunk files are written concurrently,
+     * each write task submits its chunk once the file is complete. Chunks
+     * are created lazily as slots become free and finished chunks are
+     * collected while waiting for a slot, so memory and files are bounded
+     * by the chunks in flight, not by the chunk count.
+     * @param inputTables The input tables.
+     * @param layout The chunk layout, more than one chunk. Ignored if
+     *        a sizer is given.
+     * @param sizer The sizer for adaptive chunking or null if the chunks are
+     *        defined by the layout.
+     * @param writeExec Progress for writing the input.
+     * @param mainExec Parent context of the chunk executions.
+     * @param rowUnifier The row id unifier passed to the callables.
+     * @param collector The collector the chunks are submitted to.
+     * @throws Exception If writing fails, execution is canceled or aborted.
+     */
+    private void submitPipelined(
+            final BufferedDataTable[] inputTables, final ChunkLayout layout,
+            final AdaptiveChunkSizer sizer, final ExecutionMonitor writeExec,
+            final ExecutionContext mainExec, final AtomicInteger rowUnifier,
+            final ChunkCollector collector) throws Exception {
+        final ExttoolSettings settings = getSettings();
+        final int nrInPorts = getCustomizer().getNrInputs();
+        final int nrOutPorts = getCustomizer().getNrOutputs();
+        final int chunkCount = layout.getChunkCount();
+        final int maxChunksInFlight = getMaxChunksInFlight();
+        initThreadsPerChunk(sizer == null ? chunkCount : -1);
+        // chunks of the layout are stored by index (they are written in
+        // submission order), adaptive chunks are appended in row order
+        m_executionChunkCallables = sizer == null
+            ? new ArrayList<ExecutionChunkCallable>(Collections.nCopies(
+                    chunkCount, (ExecutionChunkCallable)null))
+            : new ArrayList<ExecutionChunkCallable>();
+        m_sharedHandles = Collections.newSetFromMap(
+                new IdentityHashMap<DataHandle, Boolean>());
+        ExecutorService writerService = createWriterService(Math.max(
+                sizer == null ? chunkCount : maxChunksInFlight, nrInPorts - 1));
+        try {
+            // all but the first input port are not chunked, they are shared
+            // between all chunks and written upfront
+            writeExec.setMessage("Writing shared input ports");
+            InputDataHandle[] sharedIns = new InputDataHandle[nrInPorts];
+            List<Future<?>> sharedWrites = new ArrayList<Future<?>>();
+            for (int port = 1; port < nrInPorts; port++) {
+                BufferedDataTable table = inputTables[port];
+                AbstractFileTypeWrite fileType =
+                    settings.createInputFileType(port);
+                sharedIns[port] = createInputDataHandle(
+                        port, -1, table.getRowCount(), fileType);
+                m_sharedHandles.add(sharedIns[port]);
+                if (sharedIns[port].isStreaming()) {
+                    // written for each chunk while its process runs
+                    continue;
+                }
+                sharedWrites.add(writerService.submit(new WriteInputTask(
+                        sharedIns[port], table, 0, table.getRowCount(),
+                        fileType,
+                        writeExec.createSubProgress(1.0 / nrInPorts))));
+            }
+            for (Future<?> write : sharedWrites) {
+                waitForWrite(write, writeExec);
+            }
+            AbstractFileTypeRead[] outputFileTypes =
+                new AbstractFileTypeRead[nrOutPorts];
+            OutputDataHandle[] sharedOuts = new OutputDataHandle[nrOutPorts];
             for (int port = 0; port < nrOutPorts; port++) {
-                outs[port] = outputHandles[port][chunk];
+                outputFileTypes[port] = settings.createOutputFileType(port);
+                if (port > 0) {
+                    sharedOuts[port] = createOutputDataHandle(port, -1,
+                            inputTables[0].getRowCount(),
+                            outputFileTypes[port]);
+                    m_sharedHandles.add(sharedOuts[port]);
+                }
+            }
+            final BufferedDataTable table = inputTables[0];
+            final int rowCount = table.getRowCount();
+            ExecutionMonitor firstPortExec =
+                writeExec.createSubProgress(1.0 / nrInPorts);
+            Semaphore window = new Semaphore(maxChunksInFlight);
+            // writes of chunks not yet submitted
+            List<Future<?>> submissions = new ArrayList<Future<?>>();
+            writeExec.setMessage("Writing chunks");
+            long nextRow = 0;
+            for (int i = 0; sizer == null ? i < chunkCount
+                    : nextRow < rowCount; i++) {
+                acquireChunkSlot(window, collector);
+                // chunks of the layout are written in its submission order
+                // (most expensive first), adaptive chunks in row order
+                final int chunkIdx = sizer == null ? layout.getChunkAt(i) : i;
+                final long startRowIncl =
+                    sizer == null ? layout.getStartRow(chunkIdx) : nextRow;
+                // sizer is asked after a slot became available so that it
+                // sees the runtime of as many finished chunks as possible
+                final int chunkRows = (int)(sizer == null
+                        ? layout.getEndRow(chunkIdx) - startRowIncl
+                        : Math.min(rowCount - startRowIncl,
+                                sizer.nextChunkSize(rowCount - startRowIncl)));
+                long endRowExcl = startRowIncl + chunkRows;
+                // progress is weighted by the fraction of rows in the chunk
+                final double chunkWeight = chunkRows / (double)rowCount;
+                InputDataHandle[] ins = Arrays.copyOf(sharedIns, nrInPorts);
+                OutputDataHandle[] outs =
+                    Arrays.copyOf(sharedOuts, nrOutPorts);
+                final ExecutionChunkCallable callable;
+                final WriteInputTask write;
+                List<WriteInputTask> streamingWrites =
+                    new ArrayList<WriteInputTask>();
+                try {
+                    AbstractFileTypeWrite fileType =
+                        settings.createInputFileType(0);
+                    ins[0] = createInputDataHandle(
+                            0, chunkIdx, chunkRows, fileType);
+                    if (nrOutPorts > 0) {
+                        outs[0] = createOutputDataHandle(
+                                0, chunkIdx, chunkRows, outputFileTypes[0]);
+                    }
+                    // a stream is consumed by one process, each chunk
+                    // gets its own handle for the shared ports
+                    for (int port = 1; port < nrInPorts; port++) {
+                        if (sharedIns[port].isStreaming()) {
+                            AbstractFileTypeWrite sharedType =
+                                settings.createInputFileType(port);
+                            if (chunkIdx > 0) {
+                                ins[port] = createInputDataHandle(port,
+                                        chunkIdx,
+                                        inputTables[port].getRowCount(),
+                                        sharedType);
+                            }
+                            streamingWrites.add(new WriteInputTask(ins[port],
+                                    inputTables[port], 0,
+                                    inputTables[port].getRowCount(),
+                                    sharedType,
+                                    writeExec.createSilentSubProgress(0.0)));
+                        }
+                    }
+                    callable = createExecutionChunkCallable(
+                            ins, outs, outputFileTypes);
+                    callable.setInputRowRange(startRowIncl, endRowExcl);
+                    write = new WriteInputTask(ins[0], table, startRowIncl,
+                            endRowExcl, fileType,
+                            firstPortExec.createSubProgress(chunkWeight));
+                    if (ins[0].isStreaming()) {
+                        streamingWrites.add(write);
+                    }
+                    for (WriteInputTask w : streamingWrites) {
+                        callable.addStreamingWrite(w);
+                    }
+                    if (sizer == null) {
+                        m_executionChunkCallables.set(chunkIdx, callable);
+                    } else {
+                        m_executionChunkCallables.add(callable);
+                    }
+                    callable.setExecutionContext(mainExec
+                            .createSilentSubExecutionContext(chunkWeight));
+                    callable.setRowIdUnifier(rowUnifier);
+                    final Semaphore chunkWindow = window;
+                    final int chunk = chunkIdx;
+                    final boolean isWriteDeferred = ins[0].isStreaming();
+                    submissions.add(writerService.submit(
+                            new CallableWithContext<Void>() {
+                        /** {@inheritDoc} */
+                        @Override
+                        protected Void callWithContext() throws Exception {
+                            // the slot is freed by the chunk task, unless
+                            // it is never submitted (failed write, or the
+                            // collector rejects it after a fail-fast abort)
+                            try {
+                                if (!isWriteDeferred) {
+                                    write.call();
+                                }
+                                collector.submit(chunk,
+                                        new PipelinedChunkTask(chunk,
+                                                callable, table, chunkWindow,
+                                                chunkRows, sizer));
+                            } catch (Exception e) {
+                                chunkWindow.release();
+                                throw e;
+                            } catch (Error e) {
+                                chunkWindow.release();
+                                throw e;
+                            }
+                            return null;
+                        }
+                    }));
+                } catch (Exception e) {
+                    // includes the writer service rejecting the write
+                    window.release();
+                    throw e;
+                } catch (Error e) {
+                    window.release();
+                    throw e;
+                }
+                nextRow = endRowExcl;
+                // forget completed writes, failed writes abort
+                for (Iterator<Future<?>> it = submissions.iterator();
+                        it.hasNext();) {
+                    Future<?> s = it.next();
+                    if (s.isDone()) {
+                        waitForWrite(s, writeExec);
+                        it.remove();
+                    }
+                }
+            }
+            for (Future<?> s : submissions) {
+                waitForWrite(s, writeExec);
+            }
+            writeExec.setProgress(1.0);
+        } finally {
+            writerService.shutdownNow();
+        }
+    }
+
+    /** Blocks until a new chunk can be written. Finished chunks are
+     * collected while waiting, which also checks for cancelation. */
+    private static void acquireChunkSlot(final Semaphore window,
+            final ChunkCollector collector) throws Exception {
+        while (!window.tryAcquire()) {
+            collector.collectNext(100);
+        }
+    }
+
+    /** Whether chunks are created lazily (as in pipelined execution) even
+     * if pipelined execution is not selected. Creating many chunks upfront
+     * (e.g. each row individually) would create as many handles, callables
+     * and files at once.
+     * @param layout The chunk layout.
+     * @return Whether there are more than {@link #MAX_EAGER_CHUNKS} chunks.
+     * @see #isLazyChunkCreationSupported()
+     */
+    private boolean isLazyExecution(final ChunkLayout layout) {
+        return layout.getChunkCount() > MAX_EAGER_CHUNKS
+            && isLazyChunkCreationSupported();
+    }
+
+    /** Whether this execution supports creating the chunks lazily while
+     * others run. Lazy creation bypasses
+     * {@link #prepareExecution(BufferedDataTable[], ExecutionMonitor)
+     * prepareExecution}, sub classes that create the chunks themselves must
+     * not return true.
+     * @return true for this class, false for sub classes unless they
+     *         override this method (opt-in).
+     * @since 5.9
+     */
+    protected boolean isLazyChunkCreationSupported() {
+        return getClass() == Execution.class;
+    }
+
+    /** The number of chunks in flight for pipelined execution. This is the
+     * user setting or, if set to automatic, twice the parallelism of the
+     * executor.
+     * @return The maximum number of chunks written but not yet finished.
+     */
+    private int getMaxChunksInFlight() {
+        int value = m_settings.getMaxChunksInFlight();
+        if (value > 0) {
+            return value;
+        }
+        return 2 * getParallelChunkCount();
+    }
+
+    /** The number of chunks the executor runs concurrently, falling back to
+     * the number of cores if the executor does not define it.
+     * @return The parallelism of the executor, at least 1.
+     */
+    private int getParallelChunkCount() {
+        int parallel = m_settings.getExecutorConfig().getMaxParallelChunkCount();
+        if (parallel < 1) {
+            parallel = Runtime.getRuntime().availableProcessors();
+        }
+        return parallel;
+    }
+
+    /** Divides the cores among the chunks that run concurrently, so that
+     * tools that use multiple threads (as many as there are cores by default)
+     * do not oversubscribe the CPUs.
+     * @param chunkCount The number of chunks or -1 if not known upfront.
+     */
+    private void initThreadsPerChunk(final int chunkCount) {
+        int concurrent = getParallelChunkCount();
+        if (chunkCount > 0) {
+            concurrent = Math.min(concurrent, chunkCount);
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        m_threadsPerChunk = Math.max(1, cores / concurrent);
+    }
+
+    /** Deletes the files that are specific to a (successfully) finished chunk,
+     * i.e. the in- and output of the first port. Files of the other ports are
+     * shared by all chunks and deleted in {@link #cleanUp()}. */
+    private void cleanUpChunkSpecificHandles(
+            final ExecutionChunkCallable callable) {
+        if (DeleteTempFilePolicy.None.equals(
+                m_settings.getDeleteTempFilePolicy())) {
+            return;
+        }
+        InputDataHandle[] ins = callable.getInputHandles();
+        if (ins.length > 0) {
+            ins[0].cleanUp();
+            releaseMemory(ins[0]);
+        }
+        OutputDataHandle[] outs = callable.getOutputHandles();
+        if (outs.length > 0) {
+            outs[0].cleanUp();
+            releaseMemory(outs[0]);
+        }
+    }
+
+    /** Drops the callable of a chunk whose result is merged and deletes its
+     * remaining files, so that memory does not grow with the number of
+     * chunks. Only done for pipelined execution, which knows the handles
+     * shared by all chunks; these are deleted in {@link #cleanUp()}.
+     * @param chunk The chunk index.
+     */
+    private void releaseChunk(final int chunk) {
+        if (m_sharedHandles == null) {
+            return;
+        }
+        ExecutionChunkCallable callable =
+            m_executionChunkCallables.set(chunk, null);
+        if (callable == null || DeleteTempFilePolicy.None.equals(
+                m_settings.getDeleteTempFilePolicy())) {
+            return;
+        }
+        List<DataHandle> handles = new ArrayList<DataHandle>();
+        handles.addAll(Arrays.asList(callable.getInputHandles()));
+        handles.addAll(Arrays.asList(callable.getOutputHandles()));
+        for (DataHandle handle : handles) {
+            if (!m_sharedHandles.contains(handle)) {
+                handle.cleanUp();
+                releaseMemory(handle);
             }
-            String[] commandlineArgs = createCommandlineArgs(ins, outs);
-            AbstractExttoolExecutor exe = m_executorFactory.createNewInstance();
-            ExecutionChunkCallable callable = createExecutionChunkCallable(exe);
-            callable.setInputHandles(ins);
-            callable.setOutputHandles(outs);
-            callable.setOutputFileTypes(outputFileTypes);
-            callable.setCommandlineArgs(commandlineArgs);
-            callable.setExecutorConfig(execConfig);
-            result.add(callable);
         }
-        return result;
+    }
+
+    /** Releases the reservation of a (deleted) handle in the memory
+     * directory, if any. */
+    private void releaseMemory(final DataHandle handle) {
+        if (m_memoryDirectory != null) {
+            m_memoryDirectory.release(new File(handle.getLocation()));
+        }
     }
 
     /** Main execution called from the node's execute method. It writes the
@@ -381,98 +1293,209 @@ public BufferedDataTable[] execute(final BufferedDataTable[] inData,
         if (inData.length != m_customizer.getNrInputs()) {
             throw new Exception("Invalid input length: " + inData.length);
         }
+        if (!m_settings.isDeduplicateInput() || inData.length == 0
+                || m_customizer.getNrOutputs() == 0) {
+            return executeGrouped(inData, exec);
+        }
+        exec.setMessage("Removing duplicate input rows");
+        InputDeduplicator dedup = new InputDeduplicator(
+                inData[0], getWrittenColumns(inData[0].getDataTableSpec()));
+        BufferedDataTable distinct =
+            dedup.createDistinctTable(exec.createSubExecutionContext(0.05));
+        if (distinct.getRowCount() == inData[0].getRowCount()) {
+            exec.clearTable(distinct);
+            return executeGrouped(inData, exec);
+        }
+        LOGGER.debug("Executing " + distinct.getRowCount() + " distinct of "
+                + inData[0].getRowCount() + " input rows");
+        BufferedDataTable[] distinctIn = inData.clone();
+        distinctIn[0] = distinct;
+        BufferedDataTable[] result = executeGrouped(
+                distinctIn, exec.createSubExecutionContext(0.85));
+        exec.setMessage("Adding results to duplicate input rows");
+        ExecutionContext fanExec = exec.createSubExecutionContext(0.1);
+        BufferedDataTable distinctResult = result[0];
+        result[0] = dedup.fanOut(distinctResult,
+                m_settings.getMultipleResultRowKeySeparator(), fanExec);
+        exec.clearTable(distinctResult);
+        return result;
+    }
+
+    /** Get the indices of the columns written to the input file of the
+     * first port, i.e. the columns passed to the external tool.
+     * @param spec The spec of the input at port 0.
+     * @return The column indices or null if all columns are written.
+     * @throws InvalidSettingsException If the file type can't be created or
+     *         a written column does not exist.
+     */
+    private int[] getWrittenColumns(final DataTableSpec spec)
+        throws InvalidSettingsException {
+        String[] names =
+            m_settings.createInputFileType(0).getWrittenColumns(spec);
+        if (names == null) {
+            return null;
+        }
+        int[] columns = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = spec.findColumnIndex(names[i]);
+            if (columns[i] < 0) {
+                throw new InvalidSettingsException(
+                        "No such column in input: " + names[i]);
+            }
+        }
+        return columns;
+    }
+
+    /** Runs the execution on the given (possibly deduplicated) input. For
+     * {@link Chunking#ByGroup} the chunks are determined upfront by an
+     * {@link InputGrouper}, which may reorder the input rows; the output is
+     * then restored to input order.
+     * @param inData The input data.
+     * @param exec for progress monitoring, cancelation, table creation.
+     * @return The final output table(s).
+     * @throws Exception In case of errors.
+     */
+    private BufferedDataTable[] executeGrouped(
+            final BufferedDataTable[] inData, final ExecutionContext exec)
+        throws Exception {
+        m_groupChunkLayout = null;
+        if (!Chunking.ByGroup.equals(m_settings.getChunking())
+                || inData.length == 0) {
+            return executeChunks(inData, exec);
+        }
+        String column = m_settings.getChunkGroupColumn();
+        int col = inData[0].getDataTableSpec().findColumnIndex(column);
+        if (col < 0) {
+            throw new InvalidSettingsException("Column \"" + column
+                    + "\" for chunking by group does not exist");
+        }
+        exec.setMessage("Assigning groups of rows to chunks");
+        InputGrouper grouper = new InputGrouper(
+                inData[0], col, m_settings.getChunkValue());
+        BufferedDataTable grouped =
+            grouper.createGroupedTable(exec.createSubExecutionContext(0.05));
+        long[] starts = grouper.getChunkStarts();
+        double[] chunkRows = new double[starts.length - 1];
+        for (int c = 0; c < chunkRows.length; c++) {
+            chunkRows[c] = starts[c + 1] - starts[c];
+        }
+        m_groupChunkLayout = new ChunkLayout(starts, chunkRows);
+        if (!grouper.isReordered()) {
+            return executeChunks(inData, exec);
+        }
+        LOGGER.debug("Reordered input rows into " + chunkRows.length
+                + " chunk(s) of groups");
+        BufferedDataTable[] groupedIn = inData.clone();
+        groupedIn[0] = grouped;
+        BufferedDataTable[] result = executeChunks(
+                groupedIn, exec.createSubExecutionContext(0.85));
+        if (result.length == 0) {
+            return result;
+        }
+        exec.setMessage("Restoring input order");
+        BufferedDataTable groupedResult = result[0];
+        result[0] = grouper.restoreOrder(groupedResult,
+                m_settings.getMultipleResultRowKeySeparator(),
+                exec.createSubExecutionContext(0.1));
+        exec.clearTable(groupedResult);
+        return result;
+    }
+
+    /** Runs the execution on the given (possibly deduplicated) input, see
+     * {@link #execute(BufferedDataTable[], ExecutionContext)}. */
+    private BufferedDataTable[] executeChunks(final BufferedDataTable[] inData,
+                final ExecutionContext exec) throws Exception {
         AbstractExttoolExecutorConfig execConfig =
             m_settings.getExecutorConfig();
         m_executorService = execConfig.createExecutorService();
+        m_completionService =
+            new ExecutorCompletionService<BufferedDataTable[]>(
+                    m_executorService);
         m_indicesOfFailedExecutionChunks = new ArrayList<Integer>();
-        m_toBeDeletedFolders = new ArrayList<File>();
+        // shard directories are added from the chunk threads
+        m_toBeDeletedFolders =
+            Collections.synchronizedList(new ArrayList<File>());
+        m_failedRowKeys.clear();
+        m_chunkJoiner =
+            isFusedJoinPossible() ? new ChunkJoiner(inData[0]) : null;
+        String cacheDir = m_settings.getResultCacheDirectory();
+        m_resultCache = cacheDir == null ? null : new ChunkResultCache(
+                new File(cacheDir), m_settings.getResultCacheMaxSize()
+                * 1024L * 1024L, m_settings.getPathToExecutable());
         double pre = 0.1;
         double main = 0.7;
         double post = 0.1;
         double merge = 0.1;
         exec.setMessage("Writing input");
         ExecutionMonitor subExec = exec.createSubProgress(pre);
-        m_executionChunkCallables = prepareExecution(inData, subExec);
-        final int chunkCount = m_executionChunkCallables.size();
-        subExec.setProgress(1.0);
         ExecutionContext mainExec = exec.createSubExecutionContext(main);
-        exec.setMessage("Calling executable (" + chunkCount + " chunk(s))");
-        List<Future<BufferedDataTable[]>> futures =
-            new ArrayList<Future<BufferedDataTable[]>>();
         AtomicInteger rowUnifier = new AtomicInteger();
-        for (final ExecutionChunkCallable ec : m_executionChunkCallables) {
-            final ExecutionContext sub =
-                mainExec.createSilentSubExecutionContext(1.0 / chunkCount);
-            ec.setExecutionContext(sub);
-            if (chunkCount > 0) {
-                ec.setRowIdUnifier(rowUnifier);
-            }
-            futures.add(m_executorService.submit(ec));
-        }
-        boolean success = false;
+        ChunkLayout layout = createChunkLayout(inData, subExec);
+        m_chunkLayout = layout;
+        m_sharedHandles = null;
         final int nrOutputs = getCustomizer().getNrOutputs();
-        @SuppressWarnings("unchecked")
-        List<BufferedDataTable>[] tablesPerPort = new ArrayList[nrOutputs];
-        for (int i = 0; i < nrOutputs; i++) {
-            tablesPerPort[i] = new ArrayList<BufferedDataTable>();
-        }
-        List<Throwable> failures = new ArrayList<Throwable>();
-        for (int chunk = 0; chunk < chunkCount; chunk++) {
-            Future<BufferedDataTable[]> f = futures.get(chunk);
-            BufferedDataTable[] result;
-            try {
-                result = f.get();
-                if (result.length != nrOutputs) {
-                    IndexOutOfBoundsException iooe =
-                        new IndexOutOfBoundsException("Returned table "
-                                + "array is not of expected length, got "
-                                + result.length + ", expected " + nrOutputs);
-                    throw new ExecutionException(iooe);
+        ExecutionContext postExec = exec.createSubExecutionContext(post);
+        ChunkCollector collector;
+        if (Chunking.Adaptive.equals(m_settings.getChunking())
+                && inData.length > 0 && inData[0].getRowCount() > 1) {
+            // adaptive chunking is always pipelined, chunk sizes are
+            // determined while the first chunks are running
+            exec.setMessage("Writing input and calling executable "
+                    + "(adaptive chunking)");
+            AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(
+                    inData[0].getRowCount(), getParallelChunkCount(),
+                    m_settings.getChunkValue());
+            collector = new ChunkCollector(
+                    -1, exec, mainExec, postExec, rowUnifier);
+            submitPipelined(inData, layout, sizer, subExec, mainExec,
+                    rowUnifier, collector);
+        } else if ((m_settings.isPipelinedExecution()
+                || isLazyExecution(layout)) && layout.getChunkCount() > 1) {
+            exec.setMessage("Writing input and calling executable ("
+                    + layout.getChunkCount() + " chunk(s))");
+            collector = new ChunkCollector(layout.getChunkCount(), exec,
+                    mainExec, postExec, rowUnifier);
+            submitPipelined(inData, layout, null, subExec, mainExec,
+                    rowUnifier, collector);
+        } else {
+            m_executionChunkCallables = prepareExecution(inData, subExec);
+            final int chunkCount = m_executionChunkCallables.size();
+            subExec.setProgress(1.0);
+            exec.setMessage("Calling executable (" + chunkCount + " chunk(s))");
+            collector = new ChunkCollector(
+                    chunkCount, exec, mainExec, postExec, rowUnifier);
+            // submitted in the order of the layout, most expensive first
+            boolean isLayoutOrder = layout.getChunkCount() == chunkCount;
+            for (int i = 0; i < chunkCount; i++) {
+                final int chunk = isLayoutOrder ? layout.getChunkAt(i) : i;
+                final ExecutionChunkCallable ec =
+                    m_executionChunkCallables.get(chunk);
+                final ExecutionContext sub =
+                    mainExec.createSilentSubExecutionContext(1.0 / chunkCount);
+                ec.setExecutionContext(sub);
+                if (chunkCount > 0) {
+                    ec.setRowIdUnifier(rowUnifier);
                 }
-            } catch (ExecutionException e) {
-                m_indicesOfFailedExecutionChunks.add(chunk);
-                Throwable cause = e.getCause();
-                if (chunkCount == 1) {
-                    if (cause instanceof Exception) {
-                        throw (Exception)cause;
-                    } else {
-                        throw e;
-                    }
+                if (m_settings.isBisectFailedChunks() && inData.length > 0) {
+                    final BufferedDataTable table = inData[0];
+                    collector.submit(chunk,
+                            new Callable<BufferedDataTable[]>() {
+                        /** {@inheritDoc} */
+                        @Override
+                        public BufferedDataTable[] call() throws Exception {
+                            return callChunk(chunk, ec, table);
+                        }
+                    });
+                } else {
+                    collector.submit(chunk, ec);
                 }
-                String message = "Execution on chunk " + chunk + " failed: "
-                    + e.getMessage();
-                addWarningMessage(message);
-                LOGGER.warn(message, cause);
-                failures.add(cause);
-                continue;
-            }
-            success = true;
-            for (int i = 0; i < tablesPerPort.length; i++) {
-                tablesPerPort[i].add(result[i]);
             }
         }
-        if (!success) {
-            throw new Exception("Failed on all chunks, last error:  "
-                    + failures.get(failures.size() - 1).getMessage());
-        }
-        BufferedDataTable[] preResult = new BufferedDataTable[nrOutputs];
-        if (chunkCount == 1) {
-            for (int i = 0; i < nrOutputs; i++) {
-                preResult[i] = tablesPerPort[i].get(0);
-            }
-        } else {
-            exec.setMessage("Aggregating output tables");
-            preResult = new BufferedDataTable[nrOutputs];
-            ExecutionContext postExec = exec.createSubExecutionContext(post);
-            for (int i = 0; i < nrOutputs; i++) {
-                ExecutionMonitor sub =
-                    postExec.createSubProgress(1.0 / nrOutputs);
-                BufferedDataTable[] fromChunks = tablesPerPort[i].toArray(
-                        new BufferedDataTable[tablesPerPort[i].size()]);
-                fromChunks = ensureCompatibleTableSpecs(fromChunks, exec);
-                preResult[i] =
-                    postExec.createConcatenateTable(sub, fromChunks);
-            }
+        BufferedDataTable[] preResult = collector.collectAll();
+        postExec.setProgress(1.0);
+        if (m_chunkJoiner != null) {
+            // already joined with the input, no post-processing defined
+            return preResult;
         }
         BufferedDataTable[] postProcessedResult =
             postprocessOutput(preResult, exec.createSubExecutionContext(0.0));
@@ -482,10 +1505,106 @@ public BufferedDataTable[] execute(final BufferedDataTable[] inData,
         ExecutionContext mergeExec = exec.createSubExecutionContext(merge);
         BufferedDataTable in = inData[0];
         BufferedDataTable out = postProcessedResult[0];
-        postProcessedResult[0] = joinInAndOutputTable(in, out, 0, mergeExec);
+        postProcessedResult[0] = joinInAndOutputTable(
+                in, out, getIdColumnInOutput(), mergeExec);
         return postProcessedResult;
     }
 
+    /** Adds a warning listing the input rows the external tool failed on
+     * (found by bisecting failed chunks), if any. */
+    private void reportFailedRows() {
+        List<RowKey> keys;
+        synchronized (m_failedRowKeys) {
+            keys = new ArrayList<RowKey>(m_failedRowKeys);
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        final int maxListed = 10;
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < Math.min(keys.size(), maxListed); i++) {
+            b.append(i > 0 ? ", " : "").append(keys.get(i));
+        }
+        if (keys.size() > maxListed) {
+            b.append(", ... (").append(keys.size() - maxListed)
+                .append(" more)");
+        }
+        addWarningMessage("External tool failed on " + keys.size()
+                + " input row(s), their output is missing: " + b);
+        LOGGER.warn("External tool failed on input rows " + keys);
+    }
+
+    /** Cancels all chunks that have not finished yet. Chunks that did not
+     * start are not run, the processes of running chunks (and their
+     * descendants) are killed.
+     * @param futures The futures of the chunks.
+     */
+    private void cancelChunks(final Collection<Future<BufferedDataTable[]>>
+            futures) {
+        for (Future<BufferedDataTable[]> f : futures) {
+            f.cancel(true);
+        }
+        m_executorService.shutdownNow();
+    }
+
+    /** Creates an iterator on a row range of a table, reading only the rows
+     * in the range.
+     * @param table The table to read from.
+     * @param startRowIncl The first row (inclusive).
+     * @param endRowExcl The last row (exclusive).
+     * @param exec For cancelation.
+     * @return A new iterator, to be closed with
+     *         {@link #closeIfCloseable(RowIterator)}.
+     */
+    private static RowIterator createRowRangeIterator(
+            final BufferedDataTable table, final long startRowIncl,
+            final long endRowExcl, final ExecutionMonitor exec) {
+        if (endRowExcl <= startRowIncl) {
+            return new DefaultRowIterator();
+        } else if (startRowIncl == 0 && endRowExcl >= table.getRowCount()) {
+            return table.iterator();
+        }
+        return table.filter(TableFilter.filterRangeOfRows(
+                startRowIncl, endRowExcl - 1), exec);
+    }
+
+    /** Closes the argument iterator if it holds resources.
+     * @param it The iterator to close. */
+    private static void closeIfCloseable(final RowIterator it) {
+        if (it instanceof CloseableRowIterator) {
+            ((CloseableRowIterator)it).close();
+        }
+    }
+
+    /** Whether the output at port 0 can be joined chunk-wise with the input
+     * by the chunk callables. The rows are then parsed, get their final row
+     * key and are joined in one pass (in parallel), rather than reading,
+     * uniquifying, concatenating and joining them in separate steps.
+     * @return whether the fused join can be used.
+     * @see #isFusedJoinSupported()
+     */
+    private boolean isFusedJoinPossible() {
+        return getCustomizer().getNrInputs() > 0
+            && getCustomizer().getNrOutputs() > 0 && isFusedJoinSupported();
+    }
+
+    /** Whether this execution supports joining the output at port 0 with
+     * the input chunk-wise, see {@link ExecutionChunkCallable}. The fused
+     * join bypasses {@link #postprocessOutput(BufferedDataTable[],
+     * ExecutionContext) postprocessOutput} and
+     * {@link #joinInAndOutputTable(BufferedDataTable, BufferedDataTable,
+     * int, ExecutionContext) joinInAndOutputTable} for port 0, sub classes
+     * that change these methods or the chunks created in
+     * {@link #prepareExecution(BufferedDataTable[], ExecutionMonitor)
+     * prepareExecution} must not return true.
+     * @return true for this class, false for sub classes unless they
+     *         override this method (opt-in).
+     * @since 5.9
+     */
+    protected boolean isFusedJoinSupported() {
+        return getClass() == Execution.class;
+    }
+
     /** Prepares the tables from the different chunks in such a way that they
      * have {@link DataColumnSpec#equalStructure(DataColumnSpec) compatible}
      * structure and can be concatenated using standard table builders.
@@ -529,10 +1648,20 @@ public DataTableSpec[] configure(final DataTableSpec[] inSpecs)
         }
         DataTableSpec in = inSpecs[0];
         DataTableSpec out = postProcessedSpecs[0];
-        postProcessedSpecs[0] = createJoinOutputTable(in, out, /*idColumn*/0);
+        postProcessedSpecs[0] =
+            createJoinOutputTable(in, out, getIdColumnInOutput());
         return postProcessedSpecs;
     }
 
+    /** Get the index of the ID column in the output of the external tool at
+     * port 0, used to match output rows with input rows.
+     * @return 0 or -1 if the rows are matched by position
+     *         (see {@link JoinMode#Positional}).
+     */
+    protected int getIdColumnInOutput() {
+        return JoinMode.Positional.equals(m_settings.getJoinMode()) ? -1 : 0;
+    }
+
     /** Computes table spec that is compatible with all argument tables. Throws
      * runtime exception if tables are incompatible (e.g. different column
      * names).
@@ -589,7 +1718,8 @@ protected DataTableSpec createConcatenateTableSpec(
      * @param inSpec The input table spec of the node (1st port), never null.
      * @param outSpec The output spec that will be generated by the
      *      external tool, never null.
-     * @param idCol The index of the ID column (so far 0) in outSpec.
+     * @param idCol The index of the ID column (so far 0) in outSpec, -1 if
+     *      there is none (rows matched by position).
      * @return The joined output spec (column concatenation with unique names)
      */
     protected DataTableSpec createJoinOutputTable(
@@ -627,11 +1757,13 @@ protected DataTableSpec createJoinOutputTable(
     /** Joins the first input data table with the first output data table. The
      * output table must retain the same row-ordering as the input table, though
      * it may contain additional rows in between (with the same IDs) or no
-     * matching row at all.
+     * matching row at all. The ordering is not required if the join mode is
+     * {@link JoinMode#Hash}.
      * @param in The input table.
      * @param out The output table (output from external tool).
      * @param idColInOutTable index of column in the output table containing
-     *        the ID based on which the matching with the input row IDs is done.
+     *        the ID based on which the matching with the input row IDs is done,
+     *        -1 to match the rows by position.
      * @param exec for progress/cancellation/table creation.
      * @return The final output table (at port 0)
      * @throws Exception In case of problems.
@@ -640,17 +1772,104 @@ protected BufferedDataTable joinInAndOutputTable(
             final BufferedDataTable in, final BufferedDataTable out,
             final int idColInOutTable, final ExecutionContext exec)
         throws Exception {
-        RowIterator inIt = in.iterator();
         DataTableSpec inSpec = in.getDataTableSpec();
-        int inCount = in.getRowCount();
-
         DataTableSpec outSpec = out.getDataTableSpec();
 
         DataTableSpec spec = createJoinOutputTable(
                 inSpec, outSpec, idColInOutTable);
         BufferedDataContainer cont = exec.createDataContainer(spec);
-        RowIterator outIt = out.iterator();
+        joinRange(in, 0, in.getRowCount(), out, outSpec,
+                idColInOutTable, cont, exec, new AtomicInteger(1));
+        cont.close();
+        return cont.getTable();
+    }
+
+    /** Joins a row range of the input with the output rows, the output rows
+     * are brought into input order first if the join mode is
+     * {@link JoinMode#Hash}.
+     * @param in The input table.
+     * @param start The first input row (inclusive).
+     * @param end The last input row (exclusive).
+     * @param out The output rows or null to add the input rows with
+     *        missing cells. Only iterated once unless it's a
+     *        {@link BufferedDataTable}.
+     * @param outSpec The spec of the output.
+     * @param idColInOutTable The ID column in the output, -1 to match rows
+     *        by position.
+     * @param cont The container to add to, its spec is the joined spec.
+     * @param exec For progress/cancelation/temporary tables.
+     * @param unmatchedIndex Counter for keys of unmatched output rows.
+     * @throws CanceledExecutionException If canceled.
+     */
+    private void joinRange(final BufferedDataTable in, final long start,
+            final long end, final DataTable out,
+            final DataTableSpec outSpec, final int idColInOutTable,
+            final BufferedDataContainer cont, final ExecutionContext exec,
+            final AtomicInteger unmatchedIndex)
+        throws CanceledExecutionException {
+        DataTableSpec inSpec = in.getDataTableSpec();
+        int inCount = (int)(end - start);
+        if (idColInOutTable < 0) {
+            RowIterator outIt = out == null ? null : out.iterator();
+            RowIterator inIt = createRowRangeIterator(in, start, end, exec);
+            try {
+                zipRows(inIt, inCount, outIt, outSpec, cont, exec);
+            } finally {
+                closeIfCloseable(inIt);
+                closeIfCloseable(outIt);
+            }
+            return;
+        }
+        OutputRowReorderer reorderer = null;
+        RowIterator orderedOutIt;
+        if (out == null) {
+            orderedOutIt = new DefaultRowIterator();
+        } else if (JoinMode.Hash.equals(m_settings.getJoinMode())) {
+            RowIterator keyIt = createRowRangeIterator(in, start, end, exec);
+            try {
+                reorderer = new OutputRowReorderer(keyIt, inCount, exec);
+            } finally {
+                closeIfCloseable(keyIt);
+            }
+            orderedOutIt = reorderer.reorder(out, idColInOutTable,
+                    exec.createSilentSubExecutionContext(0.0));
+        } else {
+            orderedOutIt = out.iterator();
+        }
+        RowIterator inIt = createRowRangeIterator(in, start, end, exec);
+        try {
+            joinRows(inIt, inSpec, inCount, orderedOutIt, outSpec,
+                    idColInOutTable, cont, exec, unmatchedIndex);
+        } finally {
+            closeIfCloseable(inIt);
+            closeIfCloseable(orderedOutIt);
+            if (reorderer != null) {
+                reorderer.clear();
+            }
+        }
+    }
 
+    /** Joins the rows of the input with the rows of the external tool output
+     * and adds the result to a container. Used to join entire tables and
+     * single chunks.
+     * @param inIt The input rows.
+     * @param inSpec The spec of the input.
+     * @param inCount The number of input rows (for progress).
+     * @param outIt The output rows, same order as the input.
+     * @param outSpec The spec of the output.
+     * @param idColInOutTable The ID column in the output.
+     * @param cont The container to add to, its spec is the joined spec.
+     * @param exec For progress/cancelation.
+     * @param unmatchedIndex Counter to create unique keys for output rows
+     *        without matching input row, shared between chunks.
+     * @throws CanceledExecutionException If canceled.
+     */
+    private void joinRows(final RowIterator inIt, final DataTableSpec inSpec,
+            final int inCount, final RowIterator outIt,
+            final DataTableSpec outSpec, final int idColInOutTable,
+            final BufferedDataContainer cont, final ExecutionMonitor exec,
+            final AtomicInteger unmatchedIndex)
+        throws CanceledExecutionException {
         DataRow lastFromRight = outIt.hasNext() ? outIt.next() : null;
         int index = 0;
         int runningIndex = 0;
@@ -682,7 +1901,6 @@ protected BufferedDataTable joinInAndOutputTable(
             }
         }
         exec.setMessage("Filling remaining rows");
-        int uniquifier = 1;
         while (lastFromRight != null) {
             exec.checkCanceled();
             DataCell[] inMissingCells = new DataCell[inSpec.getNumColumns()];
@@ -691,12 +1909,68 @@ protected BufferedDataTable joinInAndOutputTable(
             RowKey key = new RowKey(keyS);
             DataRow inMissing = new DefaultRow(key, inMissingCells);
             boolean add = addToContainerIfMatches(inMissing, lastFromRight,
-                    idColInOutTable, cont, uniquifier++);
+                    idColInOutTable, cont, unmatchedIndex.getAndIncrement());
             assert add;
             lastFromRight = outIt.hasNext() ? outIt.next() : null;
         }
-        cont.close();
-        return cont.getTable();
+    }
+
+    /** Pairs the input rows with the output rows by position and adds the
+     * concatenated rows (with the input row key) to a container.
+     * @param inIt The input rows.
+     * @param inCount The number of input rows (for progress).
+     * @param outIt The output rows or null to add the input rows with
+     *        missing cells.
+     * @param outSpec The spec of the output.
+     * @param cont The container to add to, its spec is the joined spec.
+     * @param exec For progress/cancelation.
+     * @throws CanceledExecutionException If canceled.
+     * @throws IllegalStateException If the row counts differ.
+     */
+    private static void zipRows(final RowIterator inIt, final int inCount,
+            final RowIterator outIt, final DataTableSpec outSpec,
+            final BufferedDataContainer cont, final ExecutionMonitor exec)
+        throws CanceledExecutionException {
+        final int outCount = outSpec.getNumColumns();
+        int index = 0;
+        while (inIt.hasNext()) {
+            DataRow inRow = inIt.next();
+            exec.setProgress(index / (double)inCount);
+            exec.checkCanceled();
+            DataRow outRow = null;
+            if (outIt != null) {
+                if (!outIt.hasNext()) {
+                    throw new IllegalStateException("Output of external tool "
+                            + "has fewer rows (" + index + ") than its input ("
+                            + inCount + ")");
+                }
+                outRow = outIt.next();
+            }
+            int inCellCount = inRow.getNumCells();
+            DataCell[] newCells = new DataCell[inCellCount + outCount];
+            for (int i = 0; i < inCellCount; i++) {
+                newCells[i] = inRow instanceof BlobSupportDataRow
+                ? ((BlobSupportDataRow)inRow).getRawCell(i) : inRow.getCell(i);
+            }
+            for (int i = 0; i < outCount; i++) {
+                DataCell c;
+                if (outRow == null) {
+                    c = DataType.getMissingCell();
+                } else if (outRow instanceof BlobSupportDataRow) {
+                    c = ((BlobSupportDataRow)outRow).getRawCell(i);
+                } else {
+                    c = outRow.getCell(i);
+                }
+                newCells[inCellCount + i] = c;
+            }
+            cont.addRowToTable(
+                    new BlobSupportDataRow(inRow.getKey(), newCells));
+            index++;
+        }
+        if (outIt != null && outIt.hasNext()) {
+            throw new IllegalStateException("Output of external tool has more "
+                    + "rows than its input (" + inCount + ")");
+        }
     }
 
     /** Add a row the output container if the two argument rows match. */
@@ -735,8 +2009,32 @@ private boolean addToContainerIfMatches(final DataRow left,
         return false;
     }
 
+    /** Get the path of a handle as it is passed on the command line. If
+     * there is more than one port, the port index is inserted into the
+     * file name.
+     * @param handle The in- or output handle.
+     * @param port The port of the handle.
+     * @param portCount The number of in- or output ports.
+     * @return The path replacing the place holder.
+     */
+    static String getCommandlinePath(final DataHandle handle,
+            final int port, final int portCount) {
+        String path = handle.getLocation();
+        if (portCount > 1) {
+            int lastDot = path.lastIndexOf('.');
+            if (lastDot >= 0) {
+                path = path.substring(0, lastDot) + "_"
+                    + port + path.substring(lastDot);
+            } else {
+                path = path.concat("_" + port);
+            }
+        }
+        return path;
+    }
+
     /** Creates the complete command line prior execution. It replaces the
-     * in- and output place holders by their final actual file paths.
+     * in- and output place holders by their final actual file paths and
+     * %threads% by the number of threads available to each chunk.
      * @param inputHandles Input handles to the external tool.
      * @param outputHandles Output handles, containing result data.
      * @return The list of final commandline arguments
@@ -750,38 +2048,24 @@ protected String[] createCommandlineArgs(
         String[] copy = Arrays.copyOf(args, args.length);
         // replace in each argument %inFile%, %inFile_x%",... by the full paths
         for (int i = 0; i < copy.length; i++) {
-            for (int iPort = 0; iPort < m_customizer.getNrInputs(); iPort++) {
-                String path = inputHandles[iPort].getLocation();
-                if (m_customizer.getNrInputs() > 1) {
-                    int lastDot = path.lastIndexOf('.');
-                    if (lastDot >= 0) {
-                        path = path.substring(0, lastDot) + "_"
-                            + iPort + path.substring(lastDot);
-                    } else {
-                        path = path.concat("_" + iPort);
-                    }
-                }
+            for (int iPort = 0; iPort < m_customizer.getNrInputs(); iPort++) {
+                String path = getCommandlinePath(
+                        inputHandles[iPort], iPort, m_customizer.getNrInputs());
                 if (iPort == 0) {
                     copy[i] = copy[i].replace("%inFile%", path);
                 }
                 copy[i] = copy[i].replace("%inFile_" + iPort + "%", path);
             }
             for (int oPort = 0; oPort < m_customizer.getNrOutputs(); oPort++) {
-                String path = outputHandles[oPort].getLocation();
-                if (m_customizer.getNrOutputs() > 1) {
-                    int lastDot = path.lastIndexOf('.');
-                    if (lastDot >= 0) {
-                        path = path.substring(0, lastDot) + "_"
-                        + oPort + path.substring(lastDot);
-                    } else {
-                        path = path.concat("_" + oPort);
-                    }
-                }
+                String path = getCommandlinePath(outputHandles[oPort],
+                        oPort, m_customizer.getNrOutputs());
                 if (oPort == 0) {
                     copy[i] = copy[i].replace("%outFile%", path);
                 }
                 copy[i] = copy[i].replace("%outFile_" + oPort + "%", path);
             }
+            copy[i] = copy[i].replace(
+                    "%threads%", Integer.toString(m_threadsPerChunk));
         }
         return copy;
     }
@@ -810,8 +2094,9 @@ protected File getInputFilePath(final int port, final int chunkIndex,
             if (m_workingDirectory == null) {
                 createWorkingDirectory();
             }
-            inputFile = new File(m_inputDirectory,
-                    "port" + port + "." + suffix).getAbsolutePath();
+            File dir = getChunkDirectory(m_inputDirectory, chunkIndex);
+            inputFile = new File(
+                    dir, "port" + port + "." + suffix).getAbsolutePath();
         }
         // if chunking is enabled, generate unique name per row/chunk
         if (chunkIndex > 0) {
@@ -848,8 +2133,9 @@ protected File getOutputFilePath(final int port, final int chunkIndex,
             if (m_workingDirectory == null) {
                 createWorkingDirectory();
             }
-            outputFile = new File(m_outputDirectory,
-                    "port" + port + "." + suffix).getAbsolutePath();
+            File dir = getChunkDirectory(m_outputDirectory, chunkIndex);
+            outputFile = new File(
+                    dir, "port" + port + "." + suffix).getAbsolutePath();
         }
         // if chunking is enabled, generate unique name per row/chunk
         if (chunkIndex > 0) {
@@ -861,6 +2147,30 @@ protected File getOutputFilePath(final int port, final int chunkIndex,
         return new File(outputFile);
     }
 
+    /** Get the directory for the files of a chunk. The first chunks are
+     * placed directly in the given directory, further chunks in numbered
+     * sub-directories of at most {@link #CHUNKS_PER_DIRECTORY} chunks each,
+     * so that no directory gets huge for millions of chunks. Called
+     * concurrently as bisected chunks create their files in the chunk
+     * threads; only the thread that creates a directory registers it for
+     * deletion.
+     * @param dir The in- or output directory.
+     * @param chunkIndex The chunk index or -1 if the data is not chunked.
+     * @return The directory, created if needed.
+     */
+    private File getChunkDirectory(final File dir,
+            final int chunkIndex) {
+        int shard = Math.max(chunkIndex, 0) / CHUNKS_PER_DIRECTORY;
+        if (shard == 0) {
+            return dir;
+        }
+        File shardDir = new File(dir, Integer.toString(shard));
+        if (!shardDir.isDirectory() && shardDir.mkdirs()) {
+            m_toBeDeletedFolders.add(shardDir);
+        }
+        return shardDir;
+    }
+
     /** Create a callable representing an execution of a chunk.
      * @param executor The associated executor.
      * @return A new chunk callable.
@@ -898,31 +2208,69 @@ public String clearWarningMessage() {
         return result;
     }
 
-    /** Cleans execution chunks (deletes temporary data). */
+    /** Cleans execution chunks (deletes temporary data). Processes that are
+     * still running (e.g. when canceled) are killed, this method waits
+     * a few seconds for the chunks to terminate before files are deleted.
+     * Does nothing if no chunks were run (e.g. all results were stored or
+     * execution was canceled before).
+     */
     public void cleanUp() {
+        if (m_executorService == null) {
+            return;
+        }
         m_executorService.shutdownNow();
+        try {
+            if (!m_executorService.awaitTermination(
+                    TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.debug("Chunks still running after "
+                        + TERMINATION_TIMEOUT_SECONDS + "s");
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
         DeleteTempFilePolicy delPolicy = m_settings.getDeleteTempFilePolicy();
         if (DeleteTempFilePolicy.None.equals(delPolicy)) {
             return;
         }
         boolean skippedSomeFiles = false;
+        for (ExecutionChunkCallable loser : m_speculativeLosers) {
+            // input is shared with the chunk's other copy
+            for (OutputDataHandle out : loser.getOutputHandles()) {
+                out.cleanUp();
+                releaseMemory(out);
+            }
+        }
+        m_speculativeLosers.clear();
         if (m_executionChunkCallables != null) {
+            Set<Integer> failedChunks =
+                new HashSet<Integer>(m_indicesOfFailedExecutionChunks);
             for (int c = 0; c < m_executionChunkCallables.size(); c++) {
+                ExecutionChunkCallable callable =
+                    m_executionChunkCallables.get(c);
+                if (callable == null) {
+                    continue; // released once merged
+                }
                 switch (delPolicy) {
                 case OnlyNonFailed:
-                    if (m_indicesOfFailedExecutionChunks.contains(c)) {
+                    if (failedChunks.contains(c)) {
                         skippedSomeFiles = true;
                         break; // skip this chunk
                     }
                     // no break
                 case All:
-                    m_executionChunkCallables.get(c).cleanUp();
+                    callable.cleanUp();
                     break;
                 default:
                     throw new InternalError("All cases covered");
                 }
             }
         }
+        if (m_sharedHandles != null && !skippedSomeFiles) {
+            for (DataHandle handle : m_sharedHandles) {
+                handle.cleanUp();
+            }
+        }
+        m_sharedHandles = null;
         // delete in reverse order to ensure empty dirs
         Collections.reverse(m_toBeDeletedFolders);
         for (Iterator<File> it = m_toBeDeletedFolders.iterator();
@@ -967,6 +2315,10 @@ protected final File getOutputDirectory() {
     private static final SimpleDateFormat DATE_FORMAT =
         new SimpleDateFormat("yyyyMMdd");
 
+    /** Id provider for writer threads. */
+    private static final AtomicInteger WRITER_THREAD_COUNTER =
+        new AtomicInteger();
+
     /** Create a working directory for all the jobs.
      * @throws IOException If the file can't be created.
      * @throws InvalidSettingsException If settings are invalid.
@@ -1009,36 +2361,1031 @@ protected void createWorkingDirectory()
         m_outputDirectory = new File(m_workingDirectory, "output");
         m_toBeDeletedFolders.add(m_outputDirectory);
         m_outputDirectory.mkdir();
+        AbstractExttoolExecutorConfig execConfig = settings.getExecutorConfig();
+        File memoryRoot = execConfig.getMemoryDirectory();
+        if (memoryRoot == null) {
+            return;
+        }
+        if (!memoryRoot.isDirectory()) {
+            LOGGER.warn("Memory directory \"" + memoryRoot.getAbsolutePath()
+                    + "\" does not exist, using only "
+                    + m_workingDirectory.getAbsolutePath());
+            return;
+        }
+        File memoryWorkingDir = FileUtil.createTempDir(baseName, memoryRoot);
+        m_toBeDeletedFolders.add(memoryWorkingDir);
+        LOGGER.debug("Using memory directory "
+                + memoryWorkingDir.getAbsolutePath());
+        File memoryInDir = new File(memoryWorkingDir, "input");
+        m_toBeDeletedFolders.add(memoryInDir);
+        memoryInDir.mkdir();
+        File memoryOutDir = new File(memoryWorkingDir, "output");
+        m_toBeDeletedFolders.add(memoryOutDir);
+        memoryOutDir.mkdir();
+        m_memoryDirectory = new MemoryWorkingDirectory(
+                memoryInDir, memoryOutDir, execConfig.getMemoryBudget());
+    }
+
+    /** Task writing the data of an input port (or a row range of it for
+     * a chunk) into its input handle. Tasks are run concurrently in the
+     * pool created by {@link Execution#createWriterService(int)}, each
+     * reading its own row range from the input table.
+     */
+    private final class WriteInputTask
+        extends CallableWithContext<InputDataHandle> {
+
+        private final InputDataHandle m_handle;
+        private final BufferedDataTable m_table;
+        private final long m_startRowIncl;
+        private final long m_endRowExcl;
+        private final AbstractFileTypeWrite m_fileType;
+        private final ExecutionMonitor m_exec;
+
+        WriteInputTask(final InputDataHandle handle,
+                final BufferedDataTable table, final long startRowIncl,
+                final long endRowExcl, final AbstractFileTypeWrite fileType,
+                final ExecutionMonitor exec) {
+            m_handle = handle;
+            m_table = table;
+            m_startRowIncl = startRowIncl;
+            m_endRowExcl = endRowExcl;
+            m_fileType = fileType;
+            m_exec = exec;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected InputDataHandle callWithContext() throws Exception {
+            final int rowCount =
+                (int)Math.max(0, m_endRowExcl - m_startRowIncl);
+            RowIterator it = createRowRangeIterator(
+                    m_table, m_startRowIncl, m_endRowExcl, m_exec);
+            OutputStream out = m_handle.openInputFileOutStream();
+            try {
+                m_fileType.writeTable(
+                        m_table.getDataTableSpec(), it, rowCount, out, m_exec);
+            } finally {
+                out.close();
+                closeIfCloseable(it);
+            }
+            if (m_memoryDirectory != null) {
+                m_memoryDirectory.written(
+                        new File(m_handle.getLocation()), rowCount);
+            }
+            m_exec.setProgress(1.0);
+            return m_handle;
+        }
+    }
+
+    /** Number of chunks and their row ranges on the first input port. By
+     * default all chunks have the same number of rows (except for the last)
+     * and are submitted in row order. A weighted layout has chunks of
+     * about equal cost, which are submitted most expensive first. */
+    static final class ChunkLayout {
+
+        private final int m_chunkCount;
+        private final int m_rowsPerChunk;
+        private final int m_rowCount;
+        /** First row of each chunk followed by the row count, null if all
+         * chunks have {@link #m_rowsPerChunk} rows. */
+        private final long[] m_chunkStarts;
+        /** Chunk indices in the order they are submitted. */
+        private final int[] m_submissionOrder;
+
+        ChunkLayout(final int chunkCount, final int rowsPerChunk,
+                final int rowCount) {
+            m_chunkCount = chunkCount;
+            m_rowsPerChunk = rowsPerChunk;
+            m_rowCount = rowCount;
+            m_chunkStarts = null;
+            m_submissionOrder = new int[Math.max(0, chunkCount)];
+            for (int i = 0; i < m_submissionOrder.length; i++) {
+                m_submissionOrder[i] = i;
+            }
+        }
+
+        /** Layout of chunks with given row ranges and costs.
+         * @param chunkStarts The first row of each chunk, followed by the
+         *        row count.
+         * @param chunkWeights The cost of each chunk.
+         */
+        ChunkLayout(final long[] chunkStarts, final double[] chunkWeights) {
+            m_chunkCount = chunkWeights.length;
+            m_rowCount = (int)chunkStarts[m_chunkCount];
+            m_rowsPerChunk =
+                (int)Math.ceil(m_rowCount / (double)m_chunkCount);
+            m_chunkStarts = chunkStarts;
+            Integer[] order = new Integer[m_chunkCount];
+            for (int i = 0; i < m_chunkCount; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, new Comparator<Integer>() {
+                /** {@inheritDoc} */
+                @Override
+                public int compare(final Integer o1, final Integer o2) {
+                    return Double.compare(
+                            chunkWeights[o2], chunkWeights[o1]);
+                }
+            });
+            m_submissionOrder = new int[m_chunkCount];
+            for (int i = 0; i < m_chunkCount; i++) {
+                m_submissionOrder[i] = order[i];
+            }
+        }
+
+        /** @return the number of chunks, at least 1. */
+        int getChunkCount() {
+            return m_chunkCount;
+        }
+
+        /** @return the (average) number of rows per chunk, -1 if there is
+         * no input. */
+        int getRowsPerChunk() {
+            return m_rowsPerChunk;
+        }
+
+        /** @param chunk The chunk index.
+         * @return the first row of the chunk (inclusive). */
+        long getStartRow(final int chunk) {
+            if (m_chunkStarts != null) {
+                return m_chunkStarts[chunk];
+            }
+            return m_chunkCount > 1
+                ? Math.min((long)chunk * m_rowsPerChunk, m_rowCount) : 0L;
+        }
+
+        /** @param chunk The chunk index.
+         * @return the last row of the chunk (exclusive). */
+        long getEndRow(final int chunk) {
+            if (m_chunkStarts != null) {
+                return m_chunkStarts[chunk + 1];
+            }
+            return m_chunkCount > 1 ? Math.min(
+                    getStartRow(chunk) + m_rowsPerChunk, m_rowCount)
+                    : m_rowCount;
+        }
+
+        /** @param position The position in the submission order.
+         * @return the index of the chunk submitted at that position. */
+        int getChunkAt(final int position) {
+            return m_submissionOrder[position];
+        }
+    }
+
+    /** Collects the results of the chunks in the order they finish and
+     * passes them to the {@link ChunkResultMerger}. Chunks are registered
+     * when submitted (by the writer threads in pipelined execution) and
+     * only referenced until their result is collected, so memory is bounded
+     * by the chunks in flight. Results are collected on the node's thread,
+     * in pipelined execution already while waiting to write further chunks.
+     */
+    private final class ChunkCollector {
+
+        private final ExecutionMonitor m_exec;
+        /** The number of chunks or -1 if not known upfront. */
+        private final int m_chunkCount;
+        private final int m_nrOutputs;
+        private final ChunkResultMerger m_merger;
+        /** Backups for speculative execution or null. */
+        private final SpeculativeBackups m_backups;
+        /** Chunk indices of the submitted futures that are not collected,
+         * also guards the submission. */
+        private final Map<Future<BufferedDataTable[]>, Integer> m_chunkIndices =
+            new IdentityHashMap<Future<BufferedDataTable[]>, Integer>();
+        /** Futures of the chunks whose result is not decided yet. */
+        private final Map<Integer, Future<BufferedDataTable[]>> m_undecided =
+            new HashMap<Integer, Future<BufferedDataTable[]>>();
+        private final List<Throwable> m_failures = new ArrayList<Throwable>();
+        private int m_submittedCount;
+        private int m_collectedCount;
+        private boolean m_isSubmissionComplete;
+        private boolean m_success;
+        private BufferedDataTable[] m_singleResult;
+
+        /**
+         * @param chunkCount The number of chunks or -1 if not known upfront
+         *        (adaptive chunking).
+         * @param exec For progress messages and cancelation.
+         * @param mainExec Parent context of the chunk executions.
+         * @param postExec Context of the merger.
+         * @param rowUnifier The row id unifier passed to the callables.
+         */
+        ChunkCollector(final int chunkCount, final ExecutionMonitor exec,
+                final ExecutionContext mainExec,
+                final ExecutionContext postExec,
+                final AtomicInteger rowUnifier) {
+            m_exec = exec;
+            m_chunkCount = chunkCount;
+            m_nrOutputs = getCustomizer().getNrOutputs();
+            m_merger = new ChunkResultMerger(
+                    m_nrOutputs, chunkCount, m_chunkJoiner, postExec);
+            m_backups = m_settings.isSpeculativeExecution() && chunkCount != 1
+                ? new SpeculativeBackups(this, mainExec, rowUnifier) : null;
+        }
+
+        /** Submits a chunk to the completion service, may be called from
+         * any thread.
+         * @param chunk The chunk index.
+         * @param task The task running the chunk.
+         */
+        void submit(final int chunk,
+                final Callable<BufferedDataTable[]> task) {
+            synchronized (m_chunkIndices) {
+                Future<BufferedDataTable[]> f =
+                    m_completionService.submit(task);
+                m_chunkIndices.put(f, chunk);
+                m_undecided.put(chunk, f);
+                m_submittedCount += 1;
+            }
+        }
+
+        /** Submits the backup copy of a chunk.
+         * @param chunk The chunk index.
+         * @param task The backup task.
+         * @return The future of the backup.
+         */
+        Future<BufferedDataTable[]> submitBackup(final int chunk,
+                final Callable<BufferedDataTable[]> task) {
+            synchronized (m_chunkIndices) {
+                Future<BufferedDataTable[]> f =
+                    m_completionService.submit(task);
+                m_chunkIndices.put(f, chunk);
+                return f;
+            }
+        }
+
+        /** @param chunk A chunk index.
+         * @return The future of the chunk (not of its backup) or null if its
+         *         result is already decided. */
+        Future<BufferedDataTable[]> getUndecided(final int chunk) {
+            synchronized (m_chunkIndices) {
+                return m_undecided.get(chunk);
+            }
+        }
+
+        /** @return The sorted indices of the submitted chunks whose result
+         *          is not decided yet. */
+        List<Integer> getUndecidedChunks() {
+            List<Integer> chunks;
+            synchronized (m_chunkIndices) {
+                chunks = new ArrayList<Integer>(m_undecided.keySet());
+            }
+            Collections.sort(chunks);
+            return chunks;
+        }
+
+        /** @return The number of chunks submitted so far. */
+        int getSubmittedCount() {
+            synchronized (m_chunkIndices) {
+                return m_submittedCount;
+            }
+        }
+
+        /** @return The number of chunks whose result is decided. */
+        int getDecidedCount() {
+            synchronized (m_chunkIndices) {
+                return m_submittedCount - m_undecided.size();
+            }
+        }
+
+        /** Waits for the next chunk to finish and collects its result. If
+         * chunks are run twice, only the copy that decides the chunk's
+         * result is collected. Once all chunks are submitted, backups of
+         * slow chunks are started while waiting.
+         * @param timeoutMillis The maximum time to wait.
+         * @throws Exception If canceled or the execution is aborted.
+         */
+        void collectNext(final long timeoutMillis) throws Exception {
+            Future<BufferedDataTable[]> f = m_completionService.poll(
+                    timeoutMillis, TimeUnit.MILLISECONDS);
+            if (f == null) {
+                m_exec.checkCanceled();
+                if (m_backups != null && m_isSubmissionComplete) {
+                    m_backups.startBackups();
+                }
+                return;
+            }
+            final int chunk;
+            synchronized (m_chunkIndices) {
+                chunk = m_chunkIndices.remove(f);
+            }
+            if (m_backups != null && !m_backups.isDeciding(f, chunk)) {
+                return;
+            }
+            synchronized (m_chunkIndices) {
+                m_undecided.remove(chunk);
+            }
+            collect(chunk, f);
+        }
+
+        /** Passes the result of a decided chunk to the merger or records
+         * its failure, aborting if too many chunks failed. */
+        private void collect(final int chunk,
+                final Future<BufferedDataTable[]> f) throws Exception {
+            m_collectedCount += 1;
+            // chunks submitted so far if the count is not known upfront
+            final int chunkCount =
+                m_chunkCount >= 0 ? m_chunkCount : getSubmittedCount();
+            BufferedDataTable[] result;
+            try {
+                result = f.get();
+                if (result.length != m_nrOutputs) {
+                    IndexOutOfBoundsException iooe =
+                        new IndexOutOfBoundsException("Returned table "
+                                + "array is not of expected length, got "
+                                + result.length + ", expected " + m_nrOutputs);
+                    throw new ExecutionException(iooe);
+                }
+            } catch (ExecutionException e) {
+                m_indicesOfFailedExecutionChunks.add(chunk);
+                Throwable cause = e.getCause();
+                if (m_chunkCount == 1) {
+                    if (cause instanceof Exception) {
+                        throw (Exception)cause;
+                    } else {
+                        throw e;
+                    }
+                }
+                String message = "Execution on chunk " + chunk + " failed: "
+                    + e.getMessage();
+                addWarningMessage(message);
+                LOGGER.warn(message, cause);
+                m_failures.add(cause);
+                if (m_failures.size() * 100.0 > chunkCount
+                        * m_settings.getMaxFailedChunksPercent()) {
+                    List<Future<BufferedDataTable[]>> running;
+                    synchronized (m_chunkIndices) {
+                        running = new ArrayList<Future<BufferedDataTable[]>>(
+                                m_chunkIndices.keySet());
+                    }
+                    cancelChunks(running);
+                    throw new Exception("Aborted execution as "
+                            + m_failures.size() + " of " + chunkCount
+                            + " chunks failed, last error: "
+                            + cause.getMessage(), cause);
+                }
+                m_merger.skip(chunk);
+                return;
+            }
+            m_success = true;
+            if (m_chunkCount == 1 && m_chunkJoiner == null) {
+                m_singleResult = result;
+            } else {
+                m_exec.setMessage("Calling executable and aggregating "
+                        + "output (" + m_collectedCount + "/" + chunkCount
+                        + " chunk(s) done)");
+                m_merger.add(chunk, result);
+            }
+        }
+
+        /** Collects the remaining chunks, to be called once all chunks are
+         * submitted.
+         * @return The merged output tables.
+         * @throws Exception If all chunks failed, execution is canceled or
+         *         aborted.
+         */
+        BufferedDataTable[] collectAll() throws Exception {
+            m_isSubmissionComplete = true;
+            while (m_collectedCount < getSubmittedCount()) {
+                collectNext(500);
+            }
+            Collections.sort(m_indicesOfFailedExecutionChunks);
+            reportFailedRows();
+            if (!m_success) {
+                throw new Exception("Failed on all chunks, last error:  "
+                        + m_failures.get(m_failures.size() - 1).getMessage());
+            }
+            if (m_chunkCount == 1 && m_chunkJoiner == null) {
+                return m_singleResult;
+            }
+            m_exec.setMessage("Aggregating output tables");
+            return m_merger.finish(getSubmittedCount());
+        }
+    }
+
+    /** Reorder buffer for chunk results. Results are added in the order the
+     * chunks finish and appended in chunk order to one container per port.
+     * Chunk tables are cleared right after they are copied, so only the
+     * results of chunks that wait for a predecessor are kept. A new
+     * container (segment) is only started if a chunk's spec differs from the
+     * previous chunks, segments are concatenated at the end.
+     *
+     * <p>For a {@link Execution#isFusedJoinPossible() fused join} the tables
+     * at port 0 are already joined by the chunk callables; they are not
+     * copied again but kept as segments and concatenated at the end (a
+     * single chunk's table is returned as is). Rows of failed chunks are
+     * added with missing output cells.
+     */
+    final class ChunkResultMerger {
+
+        private final ExecutionContext m_exec;
+        private final int m_chunkCount;
+        /** Joiner for the output at port 0, null if not fused. */
+        private final ChunkJoiner m_joiner;
+        /** Output spec of the external tool of the last joined chunk. */
+        private DataTableSpec m_lastToolOutSpec;
+        /** Failed chunks whose input rows are not added yet, since no
+         * output spec is known (fused join only). */
+        private final List<Integer> m_failedNotJoined =
+            new ArrayList<Integer>();
+        /** Finished chunks waiting for their predecessors, null values
+         * represent failed chunks. */
+        private final Map<Integer, BufferedDataTable[]> m_pending =
+            new HashMap<Integer, BufferedDataTable[]>();
+        private final BufferedDataContainer[] m_containers;
+        private final List<List<BufferedDataTable>> m_segments;
+        private int m_nextChunk;
+
+        ChunkResultMerger(final int nrOutputs, final int chunkCount,
+                final ChunkJoiner joiner, final ExecutionContext exec) {
+            m_exec = exec;
+            m_chunkCount = chunkCount;
+            m_joiner = joiner;
+            m_containers = new BufferedDataContainer[nrOutputs];
+            m_segments = new ArrayList<List<BufferedDataTable>>(nrOutputs);
+            for (int i = 0; i < nrOutputs; i++) {
+                m_segments.add(new ArrayList<BufferedDataTable>());
+            }
+        }
+
+        /** Adds the result of a successful chunk.
+         * @param chunk The chunk index.
+         * @param result The chunk's output tables.
+         * @throws CanceledExecutionException If canceled.
+         */
+        void add(final int chunk, final BufferedDataTable[] result)
+            throws CanceledExecutionException {
+            m_pending.put(chunk, result);
+            flush();
+        }
+
+        /** Marks a chunk as failed, it does not contribute to the output
+         * (except for the input rows in a fused join).
+         * @param chunk The chunk index.
+         * @throws CanceledExecutionException If canceled.
+         */
+        void skip(final int chunk) throws CanceledExecutionException {
+            m_pending.put(chunk, null);
+            flush();
+        }
+
+        /** Appends all pending chunks that have no missing predecessor. */
+        private void flush() throws CanceledExecutionException {
+            while (m_pending.containsKey(m_nextChunk)) {
+                BufferedDataTable[] result = m_pending.remove(m_nextChunk);
+                if (result != null) {
+                    for (int port = 0; port < result.length; port++) {
+                        if (port == 0 && m_joiner != null) {
+                            addJoined(m_nextChunk, result[0]);
+                        } else {
+                            append(port, result[port]);
+                        }
+                    }
+                    releaseChunk(m_nextChunk);
+                } else if (m_joiner != null) {
+                    if (m_lastToolOutSpec == null) {
+                        m_failedNotJoined.add(m_nextChunk);
+                    } else {
+                        m_segments.get(0).add(joinFailed(m_nextChunk));
+                    }
+                }
+                m_nextChunk += 1;
+                if (m_chunkCount > 0) {
+                    m_exec.setProgress(
+                            Math.min(1.0, m_nextChunk / (double)m_chunkCount));
+                }
+            }
+        }
+
+        /** Adds the table of a chunk at port 0 in a fused join as a segment
+         * of its own. If the chunk callable did not join the output (e.g.
+         * since it reads the results differently) the join is done here. */
+        private void addJoined(final int chunk, final BufferedDataTable table)
+            throws CanceledExecutionException {
+            ExecutionChunkCallable callable =
+                m_executionChunkCallables.get(chunk);
+            BufferedDataTable joined;
+            if (callable.getChunkJoiner() != null) {
+                m_lastToolOutSpec = callable.getToolOutputSpec();
+                joined = table;
+            } else {
+                m_lastToolOutSpec = table.getDataTableSpec();
+                joined = m_joiner.join(callable, m_lastToolOutSpec, table,
+                        m_exec.createSilentSubExecutionContext(0.0));
+                m_exec.clearTable(table);
+            }
+            List<BufferedDataTable> segments = m_segments.get(0);
+            for (Integer failedChunk : m_failedNotJoined) {
+                segments.add(joinFailed(failedChunk));
+            }
+            m_failedNotJoined.clear();
+            segments.add(joined);
+        }
+
+        /** Joins the input rows of a failed chunk with missing cells. */
+        private BufferedDataTable joinFailed(final int chunk)
+            throws CanceledExecutionException {
+            return m_joiner.join(m_executionChunkCallables.get(chunk),
+                    m_lastToolOutSpec, null,
+                    m_exec.createSilentSubExecutionContext(0.0));
+        }
+
+        /** Get the container for a port, starting a new segment if the spec
+         * differs from the current container's spec. */
+        private BufferedDataContainer getContainer(final int port,
+                final DataTableSpec spec) {
+            BufferedDataContainer cont = m_containers[port];
+            if (cont != null && !cont.getTableSpec().equalStructure(spec)) {
+                cont.close();
+                m_segments.get(port).add(cont.getTable());
+                cont = null;
+            }
+            if (cont == null) {
+                cont = m_exec.createDataContainer(spec);
+                m_containers[port] = cont;
+            }
+            return cont;
+        }
+
+        /** Copies a chunk table into the container of a port and clears
+         * the chunk table. */
+        private void append(final int port, final BufferedDataTable table)
+            throws CanceledExecutionException {
+            BufferedDataContainer cont =
+                getContainer(port, table.getDataTableSpec());
+            for (DataRow row : table) {
+                m_exec.checkCanceled();
+                cont.addRowToTable(row);
+            }
+            m_exec.clearTable(table);
+        }
+
+        /** Closes the containers and returns the final tables. Must only be
+         * called after all chunks have been added or skipped.
+         * @param chunkCount The number of chunks, which for adaptive
+         *        chunking is only known at the end.
+         * @return The output tables, one for each port.
+         * @throws CanceledExecutionException If canceled.
+         */
+        BufferedDataTable[] finish(final int chunkCount)
+            throws CanceledExecutionException {
+            assert m_nextChunk == chunkCount && m_pending.isEmpty()
+                : "Not all chunks merged";
+            BufferedDataTable[] result =
+                new BufferedDataTable[m_containers.length];
+            for (int port = 0; port < m_containers.length; port++) {
+                List<BufferedDataTable> segments = m_segments.get(port);
+                if (m_containers[port] != null) {
+                    m_containers[port].close();
+                    segments.add(m_containers[port].getTable());
+                    m_containers[port] = null;
+                }
+                if (segments.size() == 1) {
+                    result[port] = segments.get(0);
+                } else {
+                    BufferedDataTable[] segmentArray = segments.toArray(
+                            new BufferedDataTable[segments.size()]);
+                    segmentArray =
+                        ensureCompatibleTableSpecs(segmentArray, m_exec);
+                    result[port] = m_exec.createConcatenateTable(
+                            m_exec.createSubProgress(0.0), segmentArray);
+                }
+            }
+            return result;
+        }
     }
 
-    /** Helper class that creates a filter view on an argument iterator.
-     * This is used to sub-divide the input data into several chunks.
+    /** Joins the output at port 0 of a chunk with the chunk's input rows.
+     * Used concurrently by the chunk callables (while reading their output)
+     * and by the result merger for rows of failed chunks. Output rows
+     * without matching input row get keys from a counter shared by all
+     * chunks, so the joined chunk tables can be concatenated.
      */
-    private static final class ViewRowIterator extends RowIterator {
+    final class ChunkJoiner {
+
+        private final BufferedDataTable m_input;
+        private final AtomicInteger m_unmatchedIndex = new AtomicInteger(1);
+
+        private ChunkJoiner(final BufferedDataTable input) {
+            m_input = input;
+        }
+
+        /** Joins the input rows of a chunk with output rows.
+         * @param callable The chunk, defining the input row range.
+         * @param toolOutSpec The spec of the output, see
+         *        {@link Execution#getIdColumnInOutput()}.
+         * @param out The output rows or null to add the input rows with
+         *        missing cells (failed chunk).
+         * @param exec For progress/cancelation/table creation.
+         * @return The joined table of this chunk.
+         * @throws CanceledExecutionException If canceled.
+         */
+        BufferedDataTable join(final ExecutionChunkCallable callable,
+                final DataTableSpec toolOutSpec, final DataTable out,
+                final ExecutionContext exec)
+            throws CanceledExecutionException {
+            long start = callable.getInputRowStart();
+            long end = callable.getInputRowEnd();
+            DataTableSpec inSpec = m_input.getDataTableSpec();
+            int idCol = getIdColumnInOutput();
+            BufferedDataContainer cont = exec.createDataContainer(
+                    createJoinOutputTable(inSpec, toolOutSpec, idCol));
+            joinRange(m_input, start, end, out, toolOutSpec, idCol, cont,
+                    exec, m_unmatchedIndex);
+            cont.close();
+            return cont.getTable();
+        }
+    }
+
+    /** Starts backup copies of straggler chunks (speculative execution).
+     * Once {@link #MIN_FINISHED_FRACTION most} chunks are done, a backup
+     * is submitted for each chunk that runs longer than the
+     * {@link ExttoolSettings#getSpeculativeRuntimeFactor() runtime factor}
+     * times the median runtime of the finished chunks (at most one backup
+     * per chunk). The first copy that finishes successfully decides the
+     * chunk's result, the other copy is canceled, which kills its process
+     * tree. A chunk only fails if both copies fail. */
+    private final class SpeculativeBackups {
+
+        /** Fraction of chunks that must be done before backups are
+         * started. */
+        private static final double MIN_FINISHED_FRACTION = 0.75;
+
+        private final ChunkCollector m_collector;
+        private final ExecutionContext m_mainExec;
+        private final AtomicInteger m_rowUnifier;
+        private final double m_runtimeFactor;
+        /** Backups of undecided chunks by chunk index, null values for
+         * chunks that can't be run twice. */
+        private final Map<Integer, Future<BufferedDataTable[]>> m_backups =
+            new HashMap<Integer, Future<BufferedDataTable[]>>();
+        private final Map<Integer, ExecutionChunkCallable> m_backupCallables =
+            new HashMap<Integer, ExecutionChunkCallable>();
+        /** Runtimes of successful chunks in nanoseconds. */
+        private final List<Long> m_runtimes = new ArrayList<Long>();
+
+        /**
+         * @param collector The collector knowing the undecided chunks,
+         *        backups are submitted to it.
+         * @param mainExec Parent context of the chunk executions.
+         * @param rowUnifier The row id unifier passed to the callables.
+         */
+        SpeculativeBackups(final ChunkCollector collector,
+                final ExecutionContext mainExec,
+                final AtomicInteger rowUnifier) {
+            m_collector = collector;
+            m_mainExec = mainExec;
+            m_rowUnifier = rowUnifier;
+            m_runtimeFactor = m_settings.getSpeculativeRuntimeFactor();
+        }
+
+        /** Whether a finished future decides the result of its chunk. This
+         * is not the case if the other copy already decided it (this copy
+         * was canceled) or if this copy failed but the other is still
+         * running or succeeded. The other copy is canceled if this one
+         * decides the chunk.
+         * @param f A finished future.
+         * @param chunk The chunk index of the future.
+         * @return Whether the result of the future is used.
+         * @throws InterruptedException If interrupted.
+         */
+        boolean isDeciding(final Future<BufferedDataTable[]> f,
+                final int chunk) throws InterruptedException {
+            Future<BufferedDataTable[]> original =
+                m_collector.getUndecided(chunk);
+            if (original == null) {
+                // decided by the other copy
+                return false;
+            }
+            Future<BufferedDataTable[]> other =
+                f == original ? m_backups.get(chunk) : original;
+            boolean failed = hasFailed(f);
+            if (failed && other != null && !hasFailed(other)) {
+                // wait for the other copy
+                return false;
+            }
+            m_backups.remove(chunk);
+            ExecutionChunkCallable backup = m_backupCallables.remove(chunk);
+            if (other != null) {
+                other.cancel(true);
+                if (f == original) {
+                    m_speculativeLosers.add(backup);
+                } else {
+                    LOGGER.debug("Using result of backup of chunk " + chunk);
+                    m_speculativeLosers.add(
+                            m_executionChunkCallables.set(chunk, backup));
+                }
+            }
+            ExecutionChunkCallable winner =
+                m_executionChunkCallables.get(chunk);
+            if (!failed && winner.getEndNanos() != 0L) {
+                m_runtimes.add(winner.getEndNanos() - winner.getStartNanos());
+            }
+            return true;
+        }
+
+        /** Whether a future is done and failed or was canceled. */
+        private boolean hasFailed(final Future<BufferedDataTable[]> f)
+            throws InterruptedException {
+            if (!f.isDone()) {
+                return false;
+            }
+            if (f.isCancelled()) {
+                return true;
+            }
+            try {
+                f.get();
+                return false;
+            } catch (ExecutionException e) {
+                return true;
+            }
+        }
+
+        /** Submits backups of running chunks that exceed the runtime limit,
+         * if most chunks are done. Only called once all chunks are
+         * submitted. */
+        void startBackups() {
+            final int chunkCount = m_collector.getSubmittedCount();
+            if (m_runtimes.isEmpty() || m_collector.getDecidedCount()
+                    < MIN_FINISHED_FRACTION * chunkCount) {
+                return;
+            }
+            List<Long> sorted = new ArrayList<Long>(m_runtimes);
+            Collections.sort(sorted);
+            long median = sorted.get(sorted.size() / 2);
+            long limit = (long)(median * m_runtimeFactor);
+            long now = System.nanoTime();
+            for (int chunk : m_collector.getUndecidedChunks()) {
+                if (m_backups.containsKey(chunk)) {
+                    continue;
+                }
+                ExecutionChunkCallable original =
+                    m_executionChunkCallables.get(chunk);
+                long start = original.getStartNanos();
+                if (start == 0L || now - start <= limit) {
+                    continue;
+                }
+                Future<BufferedDataTable[]> backupFuture = null;
+                try {
+                    ExecutionChunkCallable backup = createBackupCallable(
+                            chunk, original, m_mainExec, m_rowUnifier);
+                    if (backup != null) {
+                        LOGGER.debug("Chunk " + chunk + " is running for "
+                                + TimeUnit.NANOSECONDS.toSeconds(now - start)
+                                + "s (median " + TimeUnit.NANOSECONDS
+                                .toSeconds(median) + "s), starting backup");
+                        backupFuture = m_collector.submitBackup(
+                                chunk, backup);
+                        m_backupCallables.put(chunk, backup);
+                    }
+                } catch (Exception e) {
+                    LOGGER.warn("Unable to start backup of chunk " + chunk
+                            + ": " + e.getMessage(), e);
+                }
+                m_backups.put(chunk, backupFuture);
+            }
+        }
+    }
 
-        private final RowIterator m_it;
-        private final int m_maxRowCount;
-        private int m_currentRowIndex;
+    /** Runs a chunk and, if it fails, runs the halves of its rows again as
+     * new parts (recursively) to isolate the rows the external tool fails
+     * on. The results of the successful parts are concatenated in row order
+     * to the chunk's result, rows that fail individually are left out (or
+     * joined with missing cells in a fused join) and reported as warning.
+     * The chunk fails with its original error if no part succeeds or if
+     * more than {@link Execution#MAX_FAILED_ROWS_PER_CHUNK} rows fail. The
+     * parts are run one after another in the thread of the chunk. */
+    private final class BisectingChunkTask
+        implements Callable<BufferedDataTable[]> {
 
-        ViewRowIterator(final RowIterator it, final int maxRowCount) {
-            m_it = it;
-            m_maxRowCount = maxRowCount;
+        private final int m_chunk;
+        private final ExecutionChunkCallable m_callable;
+        private final BufferedDataTable m_table;
+        /** All parts created, for clean up. */
+        private final List<ExecutionChunkCallable> m_allParts =
+            new ArrayList<ExecutionChunkCallable>();
+        /** Parts that succeeded or failed on a single row, in row order. */
+        private final List<ExecutionChunkCallable> m_leafParts =
+            new ArrayList<ExecutionChunkCallable>();
+        /** Results of {@link #m_leafParts}, null for failed rows. */
+        private final List<BufferedDataTable[]> m_leafResults =
+            new ArrayList<BufferedDataTable[]>();
+        private int m_failedRowCount;
+
+        BisectingChunkTask(final int chunk,
+                final ExecutionChunkCallable callable,
+                final BufferedDataTable table) {
+            m_chunk = chunk;
+            m_callable = callable;
+            m_table = table;
         }
 
         /** {@inheritDoc} */
         @Override
-        public boolean hasNext() {
-            return m_currentRowIndex < m_maxRowCount && m_it.hasNext();
+        public BufferedDataTable[] call() throws Exception {
+            try {
+                return m_callable.call();
+            } catch (Exception e) {
+                ExecutionContext exec = m_callable.getExecutionContext();
+                exec.checkCanceled();
+                long start = m_callable.getInputRowStart();
+                long end = m_callable.getInputRowEnd();
+                if (Thread.currentThread().isInterrupted() || end - start < 2
+                        || hasStreamingSharedInput()) {
+                    throw e;
+                }
+                LOGGER.debug("Chunk " + m_chunk + " failed, running parts "
+                        + "of it to isolate failing rows", e);
+                try {
+                    BufferedDataTable[] result = null;
+                    long middle = start + (end - start) / 2;
+                    if (runPart(start, middle, exec)
+                            && runPart(middle, end, exec)) {
+                        result = combine(exec);
+                    }
+                    if (result == null) {
+                        throw e;
+                    }
+                    return result;
+                } finally {
+                    cleanUpParts();
+                }
+            }
+        }
+
+        /** Input streams of the shared ports are consumed by the chunk. */
+        private boolean hasStreamingSharedInput() {
+            InputDataHandle[] ins = m_callable.getInputHandles();
+            for (int port = 1; port < ins.length; port++) {
+                if (ins[port].isStreaming()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Runs a part of the chunk, bisecting it further if it fails.
+         * @return false if too many rows failed, i.e. bisection is
+         *         stopped. */
+        private boolean runPart(final long start, final long end,
+                final ExecutionContext exec) throws Exception {
+            ExecutionChunkCallable part =
+                createPartCallable(m_chunk, m_callable, m_table, start, end);
+            m_allParts.add(part);
+            BufferedDataTable[] result;
+            try {
+                result = part.call();
+            } catch (Exception e) {
+                exec.checkCanceled();
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                if (end - start > 1) {
+                    long middle = start + (end - start) / 2;
+                    return runPart(start, middle, exec)
+                        && runPart(middle, end, exec);
+                }
+                LOGGER.debug("Chunk " + m_chunk + " failed on row "
+                        + start, e);
+                m_leafParts.add(part);
+                m_leafResults.add(null);
+                m_failedRowCount += 1;
+                return m_failedRowCount <= MAX_FAILED_ROWS_PER_CHUNK;
+            }
+            m_leafParts.add(part);
+            m_leafResults.add(result);
+            return true;
+        }
+
+        /** Concatenates the results of the parts per port, null if no part
+         * succeeded. */
+        private BufferedDataTable[] combine(final ExecutionContext exec)
+            throws CanceledExecutionException {
+            int nrOutputs = -1;
+            DataTableSpec toolOutSpec = null;
+            for (int i = 0; i < m_leafParts.size(); i++) {
+                BufferedDataTable[] result = m_leafResults.get(i);
+                if (result != null) {
+                    nrOutputs = result.length;
+                    if (toolOutSpec == null) {
+                        toolOutSpec = m_leafParts.get(i).getToolOutputSpec();
+                    }
+                }
+            }
+            if (nrOutputs < 0) {
+                return null;
+            }
+            if (toolOutSpec != null) {
+                // read by the result merger
+                m_callable.setToolOutputSpec(toolOutSpec);
+            }
+            BufferedDataTable[] combined = new BufferedDataTable[nrOutputs];
+            for (int port = 0; port < nrOutputs; port++) {
+                List<BufferedDataTable> tables =
+                    new ArrayList<BufferedDataTable>();
+                for (int i = 0; i < m_leafParts.size(); i++) {
+                    ExecutionChunkCallable part = m_leafParts.get(i);
+                    BufferedDataTable[] result = m_leafResults.get(i);
+                    if (result != null) {
+                        tables.add(result[port]);
+                    } else if (port == 0 && part.getChunkJoiner() != null) {
+                        tables.add(part.getChunkJoiner().join(part,
+                                toolOutSpec, null,
+                                exec.createSilentSubExecutionContext(0.0)));
+                    }
+                }
+                BufferedDataTable[] tableArray =
+                    tables.toArray(new BufferedDataTable[tables.size()]);
+                if (tableArray.length == 1) {
+                    combined[port] = tableArray[0];
+                } else {
+                    combined[port] = exec.createConcatenateTable(
+                            exec.createSubProgress(0.0),
+                            ensureCompatibleTableSpecs(tableArray, exec));
+                }
+            }
+            for (int i = 0; i < m_leafParts.size(); i++) {
+                if (m_leafResults.get(i) == null) {
+                    long row = m_leafParts.get(i).getInputRowStart();
+                    RowIterator it = createRowRangeIterator(
+                            m_table, row, row + 1, exec);
+                    try {
+                        m_failedRowKeys.add(it.next().getKey());
+                    } finally {
+                        closeIfCloseable(it);
+                    }
+                }
+            }
+            return combined;
+        }
+
+        /** Deletes the files of the parts, the input of the shared ports
+         * belongs to the chunk. Files of failed parts are kept unless all
+         * files are to be deleted. */
+        private void cleanUpParts() {
+            DeleteTempFilePolicy delPolicy =
+                m_settings.getDeleteTempFilePolicy();
+            for (ExecutionChunkCallable part : m_allParts) {
+                boolean failed = !m_leafParts.contains(part)
+                    || m_leafResults.get(m_leafParts.indexOf(part)) == null;
+                if (DeleteTempFilePolicy.None.equals(delPolicy)
+                        || (failed && DeleteTempFilePolicy.OnlyNonFailed
+                                .equals(delPolicy))) {
+                    continue;
+                }
+                InputDataHandle in = part.getInputHandles()[0];
+                in.cleanUp();
+                releaseMemory(in);
+                for (OutputDataHandle out : part.getOutputHandles()) {
+                    out.cleanUp();
+                    releaseMemory(out);
+                }
+            }
+        }
+    }
+
+    /** Task submitted in pipelined execution. It runs the chunk, deletes its
+     * chunk-specific files upon success and frees its slot in the window
+     * of chunks in flight. The runtime of successful chunks is reported to
+     * the adaptive chunk sizer (if any). */
+    private final class PipelinedChunkTask
+        implements Callable<BufferedDataTable[]> {
+
+        private final int m_chunk;
+        private final ExecutionChunkCallable m_callable;
+        private final BufferedDataTable m_table;
+        private final Semaphore m_window;
+        private final int m_rowCount;
+        private final AdaptiveChunkSizer m_sizer;
+
+        PipelinedChunkTask(final int chunk,
+                final ExecutionChunkCallable callable,
+                final BufferedDataTable table, final Semaphore window,
+                final int rowCount, final AdaptiveChunkSizer sizer) {
+            m_chunk = chunk;
+            m_callable = callable;
+            m_table = table;
+            m_window = window;
+            m_rowCount = rowCount;
+            m_sizer = sizer;
         }
 
         /** {@inheritDoc} */
         @Override
-        public DataRow next() {
-            if (!hasNext()) {
-                throw new NoSuchElementException();
+        public BufferedDataTable[] call() throws Exception {
+            try {
+                long start = System.nanoTime();
+                BufferedDataTable[] result =
+                    callChunk(m_chunk, m_callable, m_table);
+                if (m_sizer != null) {
+                    m_sizer.chunkFinished(
+                            m_rowCount, System.nanoTime() - start);
+                }
+                cleanUpChunkSpecificHandles(m_callable);
+                return result;
+            } finally {
+                m_window.release();
             }
-            m_currentRowIndex += 1;
-            return m_it.next();
         }
     }
 
@@ -47,11 +47,16 @@
  */
 package org.knime.exttool.executor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTable;
+import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.RowKey;
 import org.knime.core.data.container.BlobSupportDataRow;
 import org.knime.core.node.BufferedDataContainer;
@@ -59,6 +64,7 @@
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.NodeLogger;
 import org.knime.core.util.ThreadUtils.CallableWithContext;
 import org.knime.exttool.filetype.AbstractFileTypeRead;
 
@@ -71,6 +77,9 @@
  */
 public class ExecutionChunkCallable extends CallableWithContext<BufferedDataTable[]> {
 
+    private static final NodeLogger LOGGER =
+        NodeLogger.getLogger(ExecutionChunkCallable.class);
+
     /** input handles, length equals number of input ports. */
     private InputDataHandle[] m_inputHandles;
 
@@ -85,6 +94,9 @@ public class ExecutionChunkCallable extends CallableWithContext<BufferedDataTabl
      * replaced by actual path. */
     private String[] m_commandlineArgs;
 
+    /** Number of threads the external process may use. */
+    private int m_threadCount = 1;
+
     private ExecutionContext m_context;
 
     /** An atomic integer that is used to create unique row IDs in the result
@@ -97,6 +109,33 @@ public class ExecutionChunkCallable extends CallableWithContext<BufferedDataTabl
     /** Config to the executor. */
     private AbstractExttoolExecutorConfig m_executorConfig;
 
+    /** Row range (start inclusive, end exclusive) of this chunk in the table
+     * at the first input port, -1 if unknown. */
+    private long m_inputRowStart = -1L;
+    private long m_inputRowEnd = -1L;
+
+    /** Joins the output at port 0 with this chunk's input rows while it is
+     * read, null if the output is returned as is. See
+     * {@link #setChunkJoiner(Execution.ChunkJoiner)}. */
+    private Execution.ChunkJoiner m_chunkJoiner;
+
+    /** Spec of the output at port 0 as created by the external tool, only
+     * set if joined by this callable. */
+    private DataTableSpec m_toolOutputSpec;
+
+    /** Cache for the output files, null if disabled. */
+    private ChunkResultCache m_resultCache;
+
+    /** Tasks writing the {@link DataHandle#isStreaming() streaming} input
+     * handles, run while the external tool executes. */
+    private final List<Callable<?>> m_streamingWrites =
+        new ArrayList<Callable<?>>();
+
+    /** {@link System#nanoTime()} when the execution started and when it
+     * finished successfully, 0 if not (yet). */
+    private volatile long m_startNanos;
+    private volatile long m_endNanos;
+
     /** Create new chunk callable based for the associated executor.
      * @param executor The (non-null) executor.
      */
@@ -116,6 +155,7 @@ protected ExecutionChunkCallable(final AbstractExttoolExecutor executor) {
      */
     @Override
     protected final BufferedDataTable[] callWithContext() throws Exception {
+        m_startNanos = System.nanoTime();
         m_executor.setExecutionChunkCallable(this);
         ExecutionMonitor mainMon;
         ExecutionContext readContext;
@@ -133,27 +173,83 @@ protected final BufferedDataTable[] callWithContext() throws Exception {
             throw new IllegalStateException("No execution context set on "
                     + getClass().getSimpleName());
         }
-        int exitCode = m_executor.execute(mainMon);
-        if (exitCode != 0) {
-            throw new Exception("Failed with exit code " + exitCode);
+        String cacheKey = m_resultCache == null
+            ? null : m_resultCache.createKey(this);
+        if (cacheKey != null && m_resultCache.restore(cacheKey, this)) {
+            m_context.setMessage("Using cached results");
+        } else {
+            runExecutor(mainMon);
+            if (cacheKey != null) {
+                m_resultCache.store(cacheKey, this);
+            }
         }
         mainMon.setProgress(1.0);
         m_context.setMessage("Reading results");
         BufferedDataTable[] tables = readResults(readContext);
         readContext.setProgress(1.0);
-        if (m_rowIdUnifier != null && tables.length > 0) {
+        if (m_chunkJoiner != null && tables.length > 0) {
+            m_context.setMessage("Joining results with input");
+            DataTable out = m_outputFileTypes[0].readTableForSingleIteration(
+                    m_outputHandles[0], postContext);
+            m_toolOutputSpec = out.getDataTableSpec();
+            tables[0] = m_chunkJoiner.join(
+                    this, m_toolOutputSpec, out, postContext);
+            if (out instanceof BufferedDataTable) {
+                postContext.clearTable((BufferedDataTable)out);
+            }
+            postContext.setProgress(1.0);
+        } else if (m_rowIdUnifier != null && tables.length > 0) {
             m_context.setMessage("Creating unique row identifiers "
                         + "for table concatenation");
             tables[0] = uniquifyRowIdsPort0(tables[0], postContext);
             postContext.setProgress(1.0);
         }
+        m_endNanos = System.nanoTime();
         return tables;
     }
 
+    /** Runs the executor, the input streams (if any) are written while the
+     * tool runs. If the executor's process is killed due to the
+     * {@link AbstractExttoolExecutorConfig#getChunkTimeout() timeout} it is
+     * run again up to {@link AbstractExttoolExecutorConfig#getChunkRetryCount()
+     * retry count} times.
+     */
+    private void runExecutor(final ExecutionMonitor mainMon)
+        throws Exception {
+        final int retryCount = m_executorConfig.getChunkRetryCount();
+        for (int attempt = 0;; attempt++) {
+            StreamingChunkIO streams =
+                StreamingChunkIO.start(m_streamingWrites, m_inputHandles);
+            int exitCode;
+            try {
+                exitCode = m_executor.execute(mainMon);
+            } catch (Exception e) {
+                if (streams != null) {
+                    streams.abort();
+                }
+                if (e instanceof TimeoutException && attempt < retryCount) {
+                    LOGGER.warn(e.getMessage() + ", running chunk again ("
+                            + (attempt + 1) + "/" + retryCount + ")");
+                    continue;
+                }
+                throw e;
+            }
+            if (streams != null) {
+                streams.finish();
+            }
+            if (exitCode != 0) {
+                throw new Exception("Failed with exit code " + exitCode);
+            }
+            return;
+        }
+    }
+
     /** Called after execution to read the final results.
      * @param context For cancellation/progress report and table creation.
      * @return The output tables, read from the corresponding
-     *         {@link #getOutputHandles()}.
+     *         {@link #getOutputHandles()}. The table at port 0 is null if
+     *         it is read and joined in one pass, see
+     *         {@link #setChunkJoiner(Execution.ChunkJoiner)}.
      * @throws Exception In case of read errors, e.g.
      */
     protected BufferedDataTable[] readResults(
@@ -163,6 +259,9 @@ protected BufferedDataTable[] readResults(
         final double prog = 1.0 / outCount;
         for (int i = 0; i < outCount; i++) {
             ExecutionContext sub = context.createSubExecutionContext(prog);
+            if (i == 0 && m_chunkJoiner != null) {
+                continue;
+            }
             AbstractFileTypeRead read = m_outputFileTypes[i];
             OutputDataHandle outHandle = m_outputHandles[i];
             result[i] = read.readTable(outHandle, sub);
@@ -170,6 +269,19 @@ protected BufferedDataTable[] readResults(
         return result;
     }
 
+    /** Whether the output at port 0 may be read and joined with the input
+     * in one pass, see {@link #setChunkJoiner(Execution.ChunkJoiner)}. The
+     * table at port 0 is then not read by
+     * {@link #readResults(ExecutionContext) readResults}, sub classes that
+     * change that method must not return true.
+     * @return true for this class, false for sub classes unless they
+     *         override this method (opt-in).
+     * @since 5.9
+     */
+    protected boolean isChunkJoinSupported() {
+        return getClass() == ExecutionChunkCallable.class;
+    }
+
     /** Post-processing step to ensure unique row IDs in the output tables of
      * all chunks. See {@link #setRowIdUnifier(AtomicInteger)} for details.
      * @param table The table to be uniquified.
@@ -202,6 +314,13 @@ public final String[] getCommandlineArgs() {
         return m_commandlineArgs;
     }
 
+    /** @return the number of threads the external process may use, i.e.
+     * the cores divided among the concurrently running chunks (at least 1).
+     */
+    public final int getThreadCount() {
+        return m_threadCount;
+    }
+
     /**
      * @return the inputHandles
      */
@@ -258,6 +377,13 @@ final void setCommandlineArgs(final String[] commandlineArgs) {
         m_commandlineArgs = commandlineArgs;
     }
 
+    /**
+     * @param threadCount the threadCount to set
+     */
+    final void setThreadCount(final int threadCount) {
+        m_threadCount = threadCount;
+    }
+
     /**
      * @param inputHandles the inputHandles to set
      */
@@ -315,6 +441,92 @@ final void setExecutionContext(final ExecutionContext context) {
         m_context = context;
     }
 
+    /** @return the first row (inclusive) of this chunk in the table at the
+     * first input port or -1 if not set. */
+    final long getInputRowStart() {
+        return m_inputRowStart;
+    }
+
+    /** @return the last row (exclusive) of this chunk in the table at the
+     * first input port or -1 if not set. */
+    final long getInputRowEnd() {
+        return m_inputRowEnd;
+    }
+
+    /** Set the row range of this chunk in the table at the first input port.
+     * @param startRowIncl first row, inclusive
+     * @param endRowExcl last row, exclusive
+     */
+    final void setInputRowRange(final long startRowIncl,
+            final long endRowExcl) {
+        m_inputRowStart = startRowIncl;
+        m_inputRowEnd = endRowExcl;
+    }
+
+    /** @return {@link System#nanoTime()} when the execution started, 0 if
+     * not started yet. */
+    final long getStartNanos() {
+        return m_startNanos;
+    }
+
+    /** @return {@link System#nanoTime()} when the execution finished
+     * successfully, 0 if it is not finished or failed. */
+    final long getEndNanos() {
+        return m_endNanos;
+    }
+
+    /** @return the row id unifier, or null. */
+    final AtomicInteger getRowIdUnifier() {
+        return m_rowIdUnifier;
+    }
+
+    /** @return the joiner for the output at port 0, or null. */
+    final Execution.ChunkJoiner getChunkJoiner() {
+        return m_chunkJoiner;
+    }
+
+    /** Set by the framework if the output at port 0 is read and joined with
+     * the chunk's input rows in one pass. The table returned at port 0 is
+     * then the final (joined) table of the chunk, row IDs are not
+     * uniquified.
+     * @param chunkJoiner the joiner to set
+     */
+    final void setChunkJoiner(final Execution.ChunkJoiner chunkJoiner) {
+        m_chunkJoiner = chunkJoiner;
+    }
+
+    /** @return the spec of the output at port 0 as created by the external
+     * tool, only available if the output was joined by this callable. */
+    final DataTableSpec getToolOutputSpec() {
+        return m_toolOutputSpec;
+    }
+
+    /** Set by the framework if the output of this chunk was joined by other
+     * callables, i.e. the callables of the parts of a bisected chunk.
+     * @param toolOutputSpec the spec of the output at port 0
+     */
+    final void setToolOutputSpec(final DataTableSpec toolOutputSpec) {
+        m_toolOutputSpec = toolOutputSpec;
+    }
+
+    /** Set by the framework if output files are cached. The external tool
+     * is then only run if the cache has no output for the same input files
+     * and command line.
+     * @param resultCache the cache to set, may be null
+     */
+    final void setResultCache(final ChunkResultCache resultCache) {
+        m_resultCache = resultCache;
+    }
+
+    /** Added by the framework for each {@link DataHandle#isStreaming()
+     * streaming} input handle. The task writes the handle and is run
+     * concurrently to the external tool.
+     * @param write The write task.
+     */
+    final void addStreamingWrite(final Callable<?> write) {
+        m_streamingWrites.add(write);
+    }
+
     /** Set by the framework when the execution is split into chunks. Each of
      * the chunks potentially creates the same set of (default) row IDs, which
      * need to be concatenated in a post-processing step. This atomic integer
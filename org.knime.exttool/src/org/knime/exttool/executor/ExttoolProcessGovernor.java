@@ -0,0 +1,455 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Schedules the chunks of all executions in this JVM on one shared thread
+ * pool and bounds the number of chunks (i.e. external processes) running
+ * concurrently. Each execution gets its own {@link ExecutorService} view
+ * with a per-node limit and a priority; free slots are assigned to the
+ * node with the lowest number of running chunks relative to its priority,
+ * so that nodes running in parallel share the global limit fairly.
+ *
+ * <p>The global limit defaults to slightly more than the number of cores
+ * and can be set with the system property
+ * {@value #MAX_PROCESSES_PROPERTY}. The per-node limit can also be adapted
+ * at runtime by a {@link ConcurrencyTuner}, which needs to know the
+ * processes of the running chunks; executors register them with
+ * {@link #processStarted(Process)}.
+ * @author agent
+ */
+final class ExttoolProcessGovernor {
+
+    private static final NodeLogger LOGGER =
+        NodeLogger.getLogger(ExttoolProcessGovernor.class);
+
+    /** System property for the global limit of concurrent processes. */
+    static final String MAX_PROCESSES_PROPERTY = "knime.exttool.maxProcesses";
+
+    private static final ExttoolProcessGovernor INSTANCE =
+        new ExttoolProcessGovernor(readMaxProcesses());
+
+    /** Id provider for threads. */
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /** Interval in which the {@link ConcurrencyTuner}s are sampled. */
+    private static final long TUNING_INTERVAL_MS = 2000L;
+
+    private final int m_maxProcesses;
+    private final ThreadPoolExecutor m_threadPool;
+    /** Nodes with queued chunks, in order of their last dispatch. */
+    private final List<GovernedExecutorService> m_waiting =
+        new ArrayList<GovernedExecutorService>();
+    private int m_running;
+    /** The process started by a thread of the pool, if any. */
+    private final Map<Thread, ProcessHandle> m_processes =
+        new ConcurrentHashMap<Thread, ProcessHandle>();
+    /** Samples the tuners, created on first use. */
+    private ScheduledThreadPoolExecutor m_tuningTimer;
+
+    /** Creates a governor, there is usually only the
+     * {@link #getInstance() singleton}.
+     * @param maxProcesses The global limit of concurrently running chunks.
+     */
+    ExttoolProcessGovernor(final int maxProcesses) {
+        m_maxProcesses = maxProcesses;
+        // threads are only started for dispatched chunks, whose number is
+        // bounded by the governor, and are kept for reuse
+        m_threadPool = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L,
+            TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+            new ThreadFactory() {
+                /** {@inheritDoc} */
+                @Override
+                public Thread newThread(final Runnable r) {
+                    Thread t = new Thread(r, "KNIME-Exttool-"
+                            + THREAD_COUNTER.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+    }
+
+    private static int readMaxProcesses() {
+        int auto = DefaultExttoolExecutorConfig.getAutoThreadCount();
+        String value = System.getProperty(MAX_PROCESSES_PROPERTY);
+        if (value == null) {
+            return auto;
+        }
+        try {
+            int max = Integer.parseInt(value.trim());
+            if (max >= 1) {
+                return max;
+            }
+        } catch (NumberFormatException nfe) {
+            // warned below
+        }
+        LOGGER.warn("Invalid value for system property "
+                + MAX_PROCESSES_PROPERTY + ": \"" + value + "\", using "
+                + auto);
+        return auto;
+    }
+
+    /** @return the singleton instance. */
+    static ExttoolProcessGovernor getInstance() {
+        return INSTANCE;
+    }
+
+    /** @return the global limit of concurrently running chunks. */
+    int getMaxProcesses() {
+        return m_maxProcesses;
+    }
+
+    /** Creates the executor service for one execution.
+     * @param maxParallel The maximum number of concurrent chunks of this
+     *        execution (in addition to the global limit, a warning is
+     *        logged if it is higher).
+     * @param priority The priority (weight) of the node, at least 1.
+     * @param isAdaptive Whether the number of concurrent chunks is adapted
+     *        to the CPU utilization (up to <code>maxParallel</code>),
+     *        ignored if not {@link ConcurrencyTuner#isSupported()
+     *        supported}.
+     * @return A new executor service, to be shut down after execution (the
+     *         shared threads are not affected by that).
+     */
+    ExecutorService createExecutorService(final int maxParallel,
+            final int priority, final boolean isAdaptive) {
+        // the adaptive upper bound is not chosen by the user
+        if (!isAdaptive && maxParallel > m_maxProcesses) {
+            LOGGER.warn("The node's limit of " + maxParallel
+                    + " parallel processes exceeds the global limit of "
+                    + m_maxProcesses + " processes of all nodes, increase "
+                    + "it with the system property -D"
+                    + MAX_PROCESSES_PROPERTY + "=<n> if needed");
+        }
+        ConcurrencyTuner tuner = isAdaptive && ConcurrencyTuner.isSupported()
+            ? new ConcurrencyTuner(maxParallel) : null;
+        GovernedExecutorService s = new GovernedExecutorService(
+                Math.max(1, maxParallel), Math.max(1, priority), tuner);
+        if (tuner != null) {
+            s.startTuning(getTuningTimer());
+        }
+        return s;
+    }
+
+    private synchronized ScheduledThreadPoolExecutor getTuningTimer() {
+        if (m_tuningTimer == null) {
+            m_tuningTimer = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactory() {
+                    /** {@inheritDoc} */
+                    @Override
+                    public Thread newThread(final Runnable r) {
+                        Thread t = new Thread(r, "KNIME-Exttool-Tuner");
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+            m_tuningTimer.setRemoveOnCancelPolicy(true);
+        }
+        return m_tuningTimer;
+    }
+
+    /** Called by executors when they started the external process of a chunk
+     * on the current thread.
+     * @param process The started process.
+     */
+    void processStarted(final Process process) {
+        m_processes.put(Thread.currentThread(), process.toHandle());
+    }
+
+    /** Called by executors when the process started on the current thread
+     * terminated. */
+    void processFinished() {
+        m_processes.remove(Thread.currentThread());
+    }
+
+    /** Starts queued chunks while slots are free. */
+    private synchronized void dispatch() {
+        while (m_running < m_maxProcesses) {
+            GovernedExecutorService next = null;
+            for (Iterator<GovernedExecutorService> it = m_waiting.iterator();
+                    it.hasNext();) {
+                GovernedExecutorService s = it.next();
+                if (!s.hasQueued()) {
+                    it.remove(); // shut down
+                } else if (s.canStart() && (next == null
+                        || s.getLoad() < next.getLoad())) {
+                    next = s;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            Runnable task = next.startNext();
+            // least recently served nodes come first among equal loads
+            m_waiting.remove(next);
+            if (next.hasQueued()) {
+                m_waiting.add(next);
+            }
+            m_running += 1;
+            try {
+                m_threadPool.execute(task);
+            } catch (RejectedExecutionException ree) {
+                m_running -= 1;
+                throw ree;
+            }
+        }
+    }
+
+    private synchronized void enqueued(final GovernedExecutorService s) {
+        if (!m_waiting.contains(s)) {
+            m_waiting.add(s);
+        }
+    }
+
+    private synchronized void finished() {
+        m_running -= 1;
+    }
+
+    /** The executor service view of one execution. All fields are guarded
+     * by this object's monitor, the governor's monitor is acquired first
+     * where both are needed. */
+    private final class GovernedExecutorService
+        extends AbstractExecutorService {
+
+        private final int m_maxParallel;
+        private final int m_priority;
+        /** Adapts the limit, null if fixed. */
+        private final ConcurrencyTuner m_tuner;
+        private ScheduledFuture<?> m_tuning;
+        private final ArrayDeque<Runnable> m_queue = new ArrayDeque<Runnable>();
+        /** Running tasks and the thread running them. */
+        private final Map<Runnable, Thread> m_runningTasks =
+            new HashMap<Runnable, Thread>();
+        private boolean m_isShutdown;
+
+        GovernedExecutorService(final int maxParallel, final int priority,
+                final ConcurrencyTuner tuner) {
+            m_maxParallel = maxParallel;
+            m_priority = priority;
+            m_tuner = tuner;
+        }
+
+        synchronized boolean canStart() {
+            int limit = m_tuner == null ? m_maxParallel
+                : Math.min(m_maxParallel, m_tuner.getLimit());
+            return !m_queue.isEmpty() && m_runningTasks.size() < limit;
+        }
+
+        /** Samples the tuner periodically until shut down. */
+        synchronized void startTuning(
+                final ScheduledThreadPoolExecutor timer) {
+            m_tuning = timer.scheduleAtFixedRate(new Runnable() {
+                /** {@inheritDoc} */
+                @Override
+                public void run() {
+                    tune();
+                }
+            }, TUNING_INTERVAL_MS, TUNING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+
+        private void tune() {
+            List<ProcessHandle> processes = new ArrayList<ProcessHandle>();
+            int queued;
+            synchronized (this) {
+                for (Thread t : m_runningTasks.values()) {
+                    ProcessHandle p = t == null ? null : m_processes.get(t);
+                    if (p != null && p.isAlive()) {
+                        processes.add(p);
+                    }
+                }
+                queued = m_queue.size();
+            }
+            if (m_tuner.sample(processes, queued)) {
+                dispatch();
+            }
+        }
+
+        private void stopTuning() {
+            if (m_tuning != null) {
+                m_tuning.cancel(false);
+            }
+        }
+
+        synchronized boolean hasQueued() {
+            return !m_queue.isEmpty();
+        }
+
+        /** Number of running chunks (including the next one) relative to
+         * the priority. */
+        synchronized double getLoad() {
+            return (m_runningTasks.size() + 1) / (double)m_priority;
+        }
+
+        /** Removes the next task from the queue and wraps it so that it
+         * frees its slot when done. */
+        synchronized Runnable startNext() {
+            final Runnable task = m_queue.poll();
+            // reserve slot until the thread has started
+            m_runningTasks.put(task, null);
+            return new Runnable() {
+                /** {@inheritDoc} */
+                @Override
+                public void run() {
+                    try {
+                        synchronized (GovernedExecutorService.this) {
+                            if (!m_runningTasks.containsKey(task)) {
+                                return; // shut down meanwhile
+                            }
+                            m_runningTasks.put(task, Thread.currentThread());
+                        }
+                        task.run();
+                    } finally {
+                        synchronized (GovernedExecutorService.this) {
+                            m_runningTasks.remove(task);
+                            GovernedExecutorService.this.notifyAll();
+                        }
+                        finished();
+                        dispatch();
+                    }
+                }
+            };
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void execute(final Runnable command) {
+            synchronized (this) {
+                if (m_isShutdown) {
+                    throw new RejectedExecutionException(
+                            "Executor service is shut down");
+                }
+                m_queue.add(command);
+            }
+            enqueued(this);
+            dispatch();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void shutdown() {
+            m_isShutdown = true;
+            stopTuning();
+            notifyAll();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized List<Runnable> shutdownNow() {
+            m_isShutdown = true;
+            stopTuning();
+            List<Runnable> queued = new ArrayList<Runnable>(m_queue);
+            m_queue.clear();
+            for (Iterator<Thread> it = m_runningTasks.values().iterator();
+                    it.hasNext();) {
+                Thread t = it.next();
+                if (t == null) {
+                    it.remove(); // dispatched but not started, skipped
+                } else {
+                    t.interrupt();
+                    // don't rely on the executor noticing the interrupt
+                    ProcessHandle p = m_processes.get(t);
+                    if (p != null) {
+                        DefaultExttoolExecutor.destroyProcessTree(p);
+                    }
+                }
+            }
+            notifyAll();
+            return Collections.unmodifiableList(queued);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized boolean isShutdown() {
+            return m_isShutdown;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized boolean isTerminated() {
+            return m_isShutdown && m_queue.isEmpty()
+                && m_runningTasks.isEmpty();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized boolean awaitTermination(final long timeout,
+                final TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+    }
+
+}
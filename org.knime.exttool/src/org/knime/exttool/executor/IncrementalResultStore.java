@@ -0,0 +1,531 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowIterator;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.BlobSupportDataRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.container.DataContainer;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeSettings;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.util.FileUtil;
+
+/**
+ * Keeps the output cells (port 0) of the previous execution, addressed by a
+ * hash of the input row's key and cells. On re-execution only new or
+ * changed input rows are passed to the {@link Execution}, the output of all
+ * other rows is taken from the store. Used by nodes with one output port
+ * that enable incremental execution; the store is kept by the node model
+ * across resets and saved with the node's internals.
+ *
+ * <p>The output is in input order, as for a full execution. Output rows
+ * without input row (see {@link Execution#joinInAndOutputTable(
+ * BufferedDataTable, BufferedDataTable, int, ExecutionContext)}) follow the
+ * executed row they follow in the output of the execution; they are not
+ * stored, i.e. they are only part of the output if their rows are executed.
+ *
+ * <p>The stored rows are kept in a table file in a temp directory. During
+ * execution the hashes and keys of the current input rows (and an index on
+ * them) are held in memory; the stored rows are streamed if they are in
+ * input order, all other intermediate tables are regular tables that are
+ * swapped to disk if large. If the table file exceeds the size limit
+ * nothing is stored.
+ *
+ * @author agent
+ */
+public final class IncrementalResultStore {
+
+    private static final NodeLogger LOGGER =
+        NodeLogger.getLogger(IncrementalResultStore.class);
+
+    private static final String TABLE_FILE = "incremental_results.zip";
+    private static final String META_FILE = "incremental_results.xml";
+
+    /** Temp directory containing the table file, created lazily. */
+    private File m_tempDir;
+    /** The stored rows, column 0 is the row hash; null if none. */
+    private File m_tableFile;
+    /** Fingerprint of settings and input spec of the stored results. */
+    private String m_fingerprint;
+
+    /** Runs the execution on the changed input rows and combines its output
+     * with the stored output of the unchanged rows. The store is updated
+     * with the output of the current input.
+     * @param execution The execution, used for the changed rows only.
+     * @param inData The input data of the node.
+     * @param fingerprint Identifies settings and input spec; stored results
+     *        are only used if the fingerprint is unchanged.
+     * @param maxSize The max size of the stored results in bytes.
+     * @param exec For progress/cancelation/table creation.
+     * @return The output of the node (one table).
+     * @throws Exception If the execution fails.
+     */
+    public BufferedDataTable[] execute(final Execution execution,
+            final BufferedDataTable[] inData, final String fingerprint,
+            final long maxSize, final ExecutionContext exec)
+        throws Exception {
+        BufferedDataTable in = inData[0];
+        if (in.getRowCount() == 0) {
+            return execution.execute(inData, exec);
+        }
+        final int inCols = in.getDataTableSpec().getNumColumns();
+        exec.setMessage("Computing row hashes");
+        String[] hashes = createRowHashes(in, exec.createSubProgress(0.05));
+        OutputRowReorderer index = new OutputRowReorderer(hashes);
+        ContainerTable stored = null;
+        if (m_tableFile != null && fingerprint.equals(m_fingerprint)) {
+            try {
+                stored = DataContainer.readFromZip(m_tableFile);
+            } catch (IOException ioe) {
+                LOGGER.warn("Could not read stored results, executing all "
+                        + "rows: " + ioe.getMessage(), ioe);
+            }
+        }
+        boolean[] served = new boolean[hashes.length];
+        int servedCount = 0;
+        if (stored != null) {
+            CloseableRowIterator it = stored.iterator();
+            try {
+                while (it.hasNext()) {
+                    int pos = index.getPosition(
+                            it.next().getCell(0).toString());
+                    if (pos >= 0 && !served[pos]) {
+                        served[pos] = true;
+                        servedCount++;
+                    }
+                }
+            } finally {
+                it.close();
+            }
+        }
+        LOGGER.debug("Re-using stored results for " + servedCount + " of "
+                + hashes.length + " rows");
+        BufferedDataTable executed = null;
+        if (servedCount < hashes.length) {
+            BufferedDataTable[] changedIn = inData.clone();
+            if (servedCount > 0) {
+                changedIn[0] = filterChanged(in, served,
+                        exec.createSubExecutionContext(0.0));
+            }
+            BufferedDataTable[] result = execution.execute(
+                    changedIn, exec.createSubExecutionContext(0.8));
+            executed = result[0];
+        }
+        exec.setMessage("Combining stored and new results");
+        ExecutionContext mergeExec = exec.createSubExecutionContext(0.15);
+        String sep = execution.getSettings().getMultipleResultRowKeySeparator();
+        BufferedDataContainer cont;
+        BufferedDataContainer store;
+        RowIterator storedIt = null;
+        RowIterator execIt = null;
+        try {
+            DataTableSpec outSpec;
+            if (stored == null || servedCount == 0) {
+                outSpec = executed.getDataTableSpec();
+            } else {
+                outSpec = createOutputSpec(in.getDataTableSpec(),
+                        stored.getDataTableSpec(), executed);
+            }
+            DataColumnSpec[] storeCols =
+                new DataColumnSpec[outSpec.getNumColumns() - inCols + 1];
+            storeCols[0] = new DataColumnSpecCreator(
+                    "Row Hash", StringCell.TYPE).createSpec();
+            for (int i = 1; i < storeCols.length; i++) {
+                storeCols[i] = outSpec.getColumnSpec(inCols + i - 1);
+            }
+            cont = mergeExec.createDataContainer(outSpec);
+            store = mergeExec.createDataContainer(new DataTableSpec(storeCols));
+            storedIt = stored == null || servedCount == 0 ? null
+                : index.reorder(stored, 0,
+                        mergeExec.createSilentSubExecutionContext(0.0));
+            execIt = executed == null ? null : executed.iterator();
+            // finds the input row of an executed output row by its key
+            OutputRowReorderer keyIndex =
+                executed == null ? null : new OutputRowReorderer(getKeys(in));
+            DataRow storedRow = next(storedIt);
+            DataRow execRow = next(execIt);
+            int i = 0;
+            for (DataRow inRow : in) {
+                mergeExec.checkCanceled();
+                mergeExec.setProgress(i / (double)hashes.length);
+                String inKey = inRow.getKey().getString();
+                int n = 0;
+                if (served[i]) {
+                    while (storedRow != null && index.getPosition(
+                            storedRow.getCell(0).toString()) == i) {
+                        RowKey key = n == 0 ? inRow.getKey()
+                                : new RowKey(inKey + sep + n);
+                        cont.addRowToTable(
+                                combine(key, inRow, storedRow, 1));
+                        store.addRowToTable(storedRow);
+                        storedRow = next(storedIt);
+                        n++;
+                    }
+                } else {
+                    // further results of the row have keys <key><sep><n>;
+                    // output rows without input row (ends of chunks) are
+                    // added at their position in the executed output
+                    execRow = addUnmatched(execRow, execIt, keyIndex, cont);
+                    while (execRow != null && execRow.getKey().getString()
+                            .equals(n == 0 ? inKey : inKey + sep + n)) {
+                        cont.addRowToTable(execRow);
+                        if (hasResult(execRow, inCols)) {
+                            store.addRowToTable(combine(
+                                    new RowKey(hashes[i] + "#" + n),
+                                    new StringCell(hashes[i]), execRow,
+                                    inCols));
+                        }
+                        execRow = next(execIt);
+                        n++;
+                    }
+                    execRow = addUnmatched(execRow, execIt, keyIndex, cont);
+                }
+                i++;
+            }
+            while (execRow != null) {
+                cont.addRowToTable(execRow);
+                execRow = next(execIt);
+            }
+        } finally {
+            close(storedIt);
+            close(execIt);
+            if (stored != null) {
+                stored.clear();
+            }
+            index.clear();
+        }
+        cont.close();
+        store.close();
+        writeStore(store.getTable(), fingerprint, maxSize, mergeExec);
+        mergeExec.clearTable(store.getTable());
+        if (executed != null) {
+            exec.clearTable(executed);
+        }
+        return new BufferedDataTable[]{cont.getTable()};
+    }
+
+    /** Output spec if stored and new results are combined, fails if the
+     * output columns have changed. */
+    private DataTableSpec createOutputSpec(final DataTableSpec inSpec,
+            final DataTableSpec storedSpec, final BufferedDataTable executed) {
+        final int inCols = inSpec.getNumColumns();
+        List<DataColumnSpec> cols = new ArrayList<DataColumnSpec>();
+        for (int i = 0; i < inCols; i++) {
+            cols.add(inSpec.getColumnSpec(i));
+        }
+        DataTableSpec execSpec =
+            executed == null ? null : executed.getDataTableSpec();
+        if (execSpec != null && execSpec.getNumColumns()
+                != inCols + storedSpec.getNumColumns() - 1) {
+            discard();
+            throw new IllegalStateException("Output columns differ from "
+                    + "stored results (discarded), execute again");
+        }
+        for (int i = 1; i < storedSpec.getNumColumns(); i++) {
+            DataColumnSpec s = storedSpec.getColumnSpec(i);
+            if (execSpec != null) {
+                DataColumnSpec e = execSpec.getColumnSpec(inCols + i - 1);
+                if (!s.getName().equals(e.getName())) {
+                    discard();
+                    throw new IllegalStateException("Output column \""
+                            + e.getName() + "\" differs from stored results "
+                            + "(discarded), execute again");
+                }
+                if (!s.equalStructure(e)) {
+                    s = new DataColumnSpecCreator(s.getName(),
+                            DataType.getCommonSuperType(
+                                    s.getType(), e.getType())).createSpec();
+                }
+            }
+            cols.add(s);
+        }
+        return new DataTableSpec(inSpec.getName(),
+                cols.toArray(new DataColumnSpec[cols.size()]));
+    }
+
+    /** Writes the stored rows to a new table file (if within the limit). */
+    private void writeStore(final BufferedDataTable table,
+            final String fingerprint, final long maxSize,
+            final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
+        if (m_tempDir == null) {
+            m_tempDir = FileUtil.createTempDir("knime_exttool_incremental");
+        }
+        File newFile = File.createTempFile("results", ".zip", m_tempDir);
+        DataContainer.writeToZip(table, newFile, exec);
+        deleteTableFile();
+        if (newFile.length() > maxSize) {
+            LOGGER.info("Results of " + table.getRowCount() + " rows are "
+                    + "not stored for incremental execution, size ("
+                    + newFile.length() / (1024 * 1024) + "MB) exceeds limit");
+            newFile.delete();
+            m_fingerprint = null;
+            return;
+        }
+        m_tableFile = newFile;
+        m_fingerprint = fingerprint;
+    }
+
+    /** Saves the stored results to the node's internals directory.
+     * @param nodeInternDir The directory.
+     * @throws IOException If writing fails.
+     */
+    public void save(final File nodeInternDir) throws IOException {
+        if (m_tableFile == null) {
+            return;
+        }
+        Files.copy(m_tableFile.toPath(),
+                new File(nodeInternDir, TABLE_FILE).toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        NodeSettings meta = new NodeSettings("incremental_results");
+        meta.addString("fingerprint", m_fingerprint);
+        OutputStream out =
+            new FileOutputStream(new File(nodeInternDir, META_FILE));
+        try {
+            meta.saveToXML(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    /** Restores results saved by {@link #save(File)}, if any.
+     * @param nodeInternDir The directory.
+     * @throws IOException If reading fails.
+     */
+    public void load(final File nodeInternDir) throws IOException {
+        discard();
+        File table = new File(nodeInternDir, TABLE_FILE);
+        File metaFile = new File(nodeInternDir, META_FILE);
+        if (!table.isFile() || !metaFile.isFile()) {
+            return;
+        }
+        InputStream in = new FileInputStream(metaFile);
+        String fingerprint;
+        try {
+            NodeSettingsRO meta = NodeSettings.loadFromXML(in);
+            fingerprint = meta.getString("fingerprint");
+        } catch (InvalidSettingsException ise) {
+            throw new IOException("Invalid meta data of stored results: "
+                    + ise.getMessage(), ise);
+        } finally {
+            in.close();
+        }
+        if (m_tempDir == null) {
+            m_tempDir = FileUtil.createTempDir("knime_exttool_incremental");
+        }
+        File copy = File.createTempFile("results", ".zip", m_tempDir);
+        Files.copy(table.toPath(), copy.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        m_tableFile = copy;
+        m_fingerprint = fingerprint;
+    }
+
+    /** Deletes the stored results. */
+    public void discard() {
+        deleteTableFile();
+        m_fingerprint = null;
+    }
+
+    /** Deletes the stored results and the temp directory. */
+    public void dispose() {
+        discard();
+        if (m_tempDir != null) {
+            FileUtil.deleteRecursively(m_tempDir);
+            m_tempDir = null;
+        }
+    }
+
+    private void deleteTableFile() {
+        if (m_tableFile != null) {
+            m_tableFile.delete();
+            m_tableFile = null;
+        }
+    }
+
+    /** Creates a table with the input rows not served from the store. */
+    private static BufferedDataTable filterChanged(
+            final BufferedDataTable in, final boolean[] served,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        BufferedDataContainer cont =
+            exec.createDataContainer(in.getDataTableSpec());
+        int i = 0;
+        for (DataRow row : in) {
+            exec.checkCanceled();
+            if (!served[i++]) {
+                cont.addRowToTable(row);
+            }
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    /** Whether an executed row has a result. Rows of failed chunks and
+     * rows a bisected chunk failed on only have missing output cells, they
+     * are not stored so that they are executed again. */
+    private static boolean hasResult(final DataRow row, final int inCols) {
+        for (int i = inCols; i < row.getNumCells(); i++) {
+            if (!row.getCell(i).isMissing()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The row keys of a table, indexed by position. */
+    private static String[] getKeys(final BufferedDataTable in) {
+        String[] keys = new String[in.getRowCount()];
+        int i = 0;
+        for (DataRow row : in) {
+            keys[i++] = row.getKey().getString();
+        }
+        return keys;
+    }
+
+    /** Hashes of the input rows (key and cells), hex encoded. */
+    private static String[] createRowHashes(final BufferedDataTable in,
+            final ExecutionMonitor exec) throws CanceledExecutionException {
+        ContentHash hash = new ContentHash();
+        final int rowCount = in.getRowCount();
+        String[] hashes = new String[rowCount];
+        int i = 0;
+        for (DataRow row : in) {
+            exec.checkCanceled();
+            exec.setProgress(i / (double)rowCount);
+            hash.update(row.getKey().getString());
+            for (DataCell c : row) {
+                hash.update(c);
+            }
+            hashes[i++] = hash.digest(ContentHash.ROW_HASH_BYTES);
+        }
+        return hashes;
+    }
+
+    /** Concatenates the cells of the first row with the cells of the second
+     * row starting at the given index. */
+    private static DataRow combine(final RowKey key, final DataRow first,
+            final DataRow second, final int secondStart) {
+        int firstCount = first.getNumCells();
+        int secondCount = second.getNumCells() - secondStart;
+        DataCell[] cells = new DataCell[firstCount + secondCount];
+        for (int i = 0; i < firstCount; i++) {
+            cells[i] = getRawCell(first, i);
+        }
+        for (int i = 0; i < secondCount; i++) {
+            cells[firstCount + i] = getRawCell(second, secondStart + i);
+        }
+        return new BlobSupportDataRow(key, cells);
+    }
+
+    private static DataRow combine(final RowKey key, final DataCell first,
+            final DataRow second, final int secondStart) {
+        int secondCount = second.getNumCells() - secondStart;
+        DataCell[] cells = new DataCell[1 + secondCount];
+        cells[0] = first;
+        for (int i = 0; i < secondCount; i++) {
+            cells[1 + i] = getRawCell(second, secondStart + i);
+        }
+        return new BlobSupportDataRow(key, cells);
+    }
+
+    private static DataCell getRawCell(final DataRow row, final int i) {
+        return row instanceof BlobSupportDataRow
+            ? ((BlobSupportDataRow)row).getRawCell(i) : row.getCell(i);
+    }
+
+    /** Adds the executed rows without input row, starting with the given
+     * one, and returns the next row with input row (or null). */
+    private static DataRow addUnmatched(final DataRow first,
+            final RowIterator execIt, final OutputRowReorderer keyIndex,
+            final BufferedDataContainer cont) {
+        DataRow row = first;
+        while (row != null
+                && keyIndex.getPosition(row.getKey().getString()) < 0) {
+            cont.addRowToTable(row);
+            row = next(execIt);
+        }
+        return row;
+    }
+
+    private static DataRow next(final RowIterator it) {
+        return it != null && it.hasNext() ? it.next() : null;
+    }
+
+    private static void close(final RowIterator it) {
+        if (it instanceof CloseableRowIterator) {
+            ((CloseableRowIterator)it).close();
+        }
+    }
+}
@@ -113,4 +113,59 @@ public String getLocation() {
             return m_inFile.getAbsolutePath();
         }
     }
+
+    /** Input handle using a named pipe (FIFO), which the framework writes
+     * while the external tool reads it. The data is not stored on disk.
+     * @since 5.9
+     */
+    public static class NamedPipeInputDataHandle implements InputDataHandle {
+
+        private final File m_pipe;
+
+        /** New input handle, creates the named pipe.
+         * @param pipe The path of the pipe, must not be null.
+         * @throws IOException If the pipe can't be created.
+         */
+        public NamedPipeInputDataHandle(final File pipe) throws IOException {
+            if (pipe == null) {
+                throw new NullPointerException("Argument must not be null");
+            }
+            NamedPipes.create(pipe);
+            m_pipe = pipe;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void cleanUp() {
+            if (m_pipe.exists() && !m_pipe.delete()) {
+                NodeLogger.getLogger(getClass()).warn("Could not delete pipe "
+                        + "\"" + m_pipe.getAbsolutePath() + "\"");
+            }
+        }
+
+        /** Opens the pipe, blocks until the external tool opens it.
+         * {@inheritDoc} */
+        @Override
+        public OutputStream openInputFileOutStream() throws IOException {
+            return new BufferedOutputStream(new FileOutputStream(m_pipe));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getLocation() {
+            return m_pipe.getAbsolutePath();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isStreaming() {
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void releaseStream() {
+            NamedPipes.release(m_pipe);
+        }
+    }
 }
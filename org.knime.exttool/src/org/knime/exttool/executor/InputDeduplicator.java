@@ -0,0 +1,161 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+
+/**
+ * Removes duplicate rows from the input table before execution and fans the
+ * result of each distinct row back out to all its duplicates. Rows are
+ * duplicates if the cells passed to the external tool (the columns written
+ * to the input file) are equal; row keys and other columns may differ. The
+ * output rows of a duplicate consist of its own input cells and the result
+ * cells of its distinct row.
+ *
+ * <p>A hash of the written cells of each distinct row is kept in memory, as
+ * well as the row keys and an int per input row (see
+ * {@link ResultOrderRestorer}).
+ *
+ * @author agent
+ */
+final class InputDeduplicator {
+
+    private final BufferedDataTable m_input;
+    /** Indices of the columns passed to the tool. */
+    private final int[] m_keyColumns;
+    /** Maps the output of the distinct rows to the input rows, created
+     * with the distinct table. */
+    private ResultOrderRestorer m_restorer;
+
+    /**
+     * @param input The input table at port 0.
+     * @param keyColumns The indices of the columns passed to the tool or
+     *        null for all columns.
+     */
+    InputDeduplicator(final BufferedDataTable input, final int[] keyColumns) {
+        m_input = input;
+        if (keyColumns != null) {
+            m_keyColumns = keyColumns;
+        } else {
+            m_keyColumns = new int[input.getDataTableSpec().getNumColumns()];
+            for (int i = 0; i < m_keyColumns.length; i++) {
+                m_keyColumns[i] = i;
+            }
+        }
+    }
+
+    /** Creates the table of distinct rows, retaining the first occurrence
+     * of each row.
+     * @param exec For progress/cancelation/table creation.
+     * @return The distinct rows.
+     * @throws CanceledExecutionException If canceled.
+     */
+    BufferedDataTable createDistinctTable(final ExecutionContext exec)
+        throws CanceledExecutionException {
+        final int rowCount = m_input.getRowCount();
+        String[] keys = new String[rowCount];
+        int[] distinctIndex = new int[rowCount];
+        ContentHash hash = new ContentHash();
+        Map<String, Integer> distinctMap = new HashMap<String, Integer>();
+        List<String> distinctKeys = new ArrayList<String>();
+        BufferedDataContainer cont =
+            exec.createDataContainer(m_input.getDataTableSpec());
+        int index = 0;
+        for (DataRow row : m_input) {
+            exec.checkCanceled();
+            exec.setProgress(index / (double)rowCount,
+                    "Finding duplicates of row \"" + row.getKey() + "\"");
+            for (int col : m_keyColumns) {
+                hash.update(row.getCell(col));
+            }
+            String hashString = hash.digest(ContentHash.ROW_HASH_BYTES);
+            Integer distinct = distinctMap.get(hashString);
+            if (distinct == null) {
+                distinct = distinctKeys.size();
+                distinctMap.put(hashString, distinct);
+                distinctKeys.add(row.getKey().getString());
+                cont.addRowToTable(row);
+            }
+            keys[index] = row.getKey().getString();
+            distinctIndex[index] = distinct;
+            index++;
+        }
+        cont.close();
+        m_restorer = new ResultOrderRestorer(keys, distinctIndex,
+                distinctKeys.toArray(new String[distinctKeys.size()]));
+        return cont.getTable();
+    }
+
+    /** Creates the final output from the joined output of the distinct rows.
+     * Each joined row of a distinct row is added for all its duplicates,
+     * with the duplicate's key (and the same suffix for multiple results)
+     * and its own input cells. The rows are sorted in input order, output
+     * rows without input row are added at the end. Must be called after
+     * {@link #createDistinctTable(ExecutionContext)}.
+     * @param distinctResult The joined output, in order of the distinct rows.
+     * @param separator The separator of keys for multiple results.
+     * @param exec For progress/cancelation/table creation.
+     * @return The final output table.
+     * @throws CanceledExecutionException If canceled.
+     */
+    BufferedDataTable fanOut(final BufferedDataTable distinctResult,
+            final String separator, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        return m_restorer.restore(distinctResult, separator, m_input, exec);
+    }
+}
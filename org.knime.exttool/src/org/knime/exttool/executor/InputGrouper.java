@@ -0,0 +1,256 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+
+/**
+ * Assigns the rows of the input table to chunks such that all rows with the
+ * same value in a group column are in the same chunk (used for
+ * {@link org.knime.exttool.node.ExttoolCustomizer.Chunking#ByGroup}).
+ *
+ * <p>If the rows of each group are already adjacent (e.g. the input is
+ * sorted by the group column) the chunks are cut at group boundaries such
+ * that they have about the same number of rows. Otherwise the groups are
+ * distributed to the chunks largest first, each to the chunk with the
+ * fewest rows, and the input is reordered so that each chunk is a row range
+ * (with the rows of a group adjacent). The joined output is brought back
+ * into input order by {@link #restoreOrder(BufferedDataTable, String,
+ * ExecutionContext)}.
+ *
+ * <p>The group values and an int per input row are kept in memory, as well
+ * as the row keys if the input is reordered.
+ *
+ * @author agent
+ */
+final class InputGrouper {
+
+    private final BufferedDataTable m_input;
+    private final int m_groupColumn;
+    private final int m_maxChunks;
+    /** First row of each chunk followed by the row count. */
+    private long[] m_chunkStarts;
+    /** Maps the joined output to input order, null if not reordered. */
+    private ResultOrderRestorer m_reorder;
+
+    /**
+     * @param input The input table at port 0.
+     * @param groupColumn The index of the group column.
+     * @param maxChunks The maximum number of chunks, at least 1.
+     */
+    InputGrouper(final BufferedDataTable input, final int groupColumn,
+            final int maxChunks) {
+        m_input = input;
+        m_groupColumn = groupColumn;
+        m_maxChunks = Math.max(1, maxChunks);
+    }
+
+    /** Determines the groups and the chunks, reordering the input if the
+     * rows of the groups are not adjacent.
+     * @param exec For progress/cancelation/table creation.
+     * @return The input table or the reordered table.
+     * @throws CanceledExecutionException If canceled.
+     */
+    BufferedDataTable createGroupedTable(final ExecutionContext exec)
+        throws CanceledExecutionException {
+        final int rowCount = m_input.getRowCount();
+        int[] groupOfRow = new int[rowCount];
+        Map<DataCell, Integer> groupMap = new HashMap<DataCell, Integer>();
+        List<Integer> groupSizes = new ArrayList<Integer>();
+        boolean isAdjacent = true;
+        int index = 0;
+        ExecutionContext groupExec = exec.createSubExecutionContext(0.2);
+        for (DataRow row : m_input) {
+            groupExec.checkCanceled();
+            groupExec.setProgress(index / (double)rowCount,
+                    "Finding group of row \"" + row.getKey() + "\"");
+            DataCell value = row.getCell(m_groupColumn);
+            Integer group = groupMap.get(value);
+            if (group == null) {
+                group = groupSizes.size();
+                groupMap.put(value, group);
+                groupSizes.add(0);
+            } else if (index > 0 && groupOfRow[index - 1] != group) {
+                isAdjacent = false;
+            }
+            groupSizes.set(group, groupSizes.get(group) + 1);
+            groupOfRow[index++] = group;
+        }
+        groupMap = null;
+        final int groupCount = groupSizes.size();
+        if (isAdjacent) {
+            m_chunkStarts = cutAtGroupBoundaries(groupSizes, rowCount);
+            exec.setProgress(1.0);
+            return m_input;
+        }
+        // largest groups first, each to the chunk with the fewest rows
+        final int[] sizes = new int[groupCount];
+        Integer[] bySize = new Integer[groupCount];
+        for (int g = 0; g < groupCount; g++) {
+            sizes[g] = groupSizes.get(g);
+            bySize[g] = g;
+        }
+        Arrays.sort(bySize, new Comparator<Integer>() {
+            /** {@inheritDoc} */
+            @Override
+            public int compare(final Integer g1, final Integer g2) {
+                return Integer.compare(sizes[g2], sizes[g1]);
+            }
+        });
+        final int chunkCount = Math.min(m_maxChunks, groupCount);
+        long[] chunkRows = new long[chunkCount];
+        int[] chunkOfGroup = new int[groupCount];
+        for (Integer g : bySize) {
+            int smallest = 0;
+            for (int c = 1; c < chunkCount; c++) {
+                if (chunkRows[c] < chunkRows[smallest]) {
+                    smallest = c;
+                }
+            }
+            chunkOfGroup[g] = smallest;
+            chunkRows[smallest] += sizes[g];
+        }
+        m_chunkStarts = new long[chunkCount + 1];
+        for (int c = 0; c < chunkCount; c++) {
+            m_chunkStarts[c + 1] = m_chunkStarts[c] + chunkRows[c];
+        }
+        // position of the first row of each group in the reordered table,
+        // groups of a chunk in order of their first row
+        long[] chunkCursor = Arrays.copyOf(m_chunkStarts, chunkCount);
+        int[] groupCursor = new int[groupCount];
+        for (int g = 0; g < groupCount; g++) {
+            int c = chunkOfGroup[g];
+            groupCursor[g] = (int)chunkCursor[c];
+            chunkCursor[c] += sizes[g];
+        }
+        String[] keys = new String[rowCount];
+        String[] groupedKeys = new String[rowCount];
+        int[] position = new int[rowCount];
+        SortKeyBuffer buffer =
+            new SortKeyBuffer(m_input.getDataTableSpec(), exec);
+        ExecutionContext copyExec = exec.createSubExecutionContext(0.3);
+        index = 0;
+        for (DataRow row : m_input) {
+            copyExec.checkCanceled();
+            copyExec.setProgress(index / (double)rowCount);
+            int pos = groupCursor[groupOfRow[index]]++;
+            keys[index] = row.getKey().getString();
+            groupedKeys[pos] = keys[index];
+            position[index] = pos;
+            buffer.add(row.getKey(), row, pos);
+            index++;
+        }
+        buffer.sort(exec.createSubExecutionContext(0.4));
+        m_reorder = new ResultOrderRestorer(keys, position, groupedKeys);
+        return buffer.createTable(exec.createSubExecutionContext(0.1));
+    }
+
+    /** Cuts adjacent groups into at most the max number of chunks of about
+     * equal row count. */
+    private long[] cutAtGroupBoundaries(final List<Integer> groupSizes,
+            final int rowCount) {
+        List<Long> starts = new ArrayList<Long>();
+        starts.add(0L);
+        long cumulative = 0;
+        for (int g = 0; g < groupSizes.size() - 1; g++) {
+            cumulative += groupSizes.get(g);
+            int chunk = starts.size();
+            if (chunk < m_maxChunks
+                    && cumulative >= (double)rowCount * chunk / m_maxChunks) {
+                starts.add(cumulative);
+            }
+        }
+        starts.add((long)rowCount);
+        long[] result = new long[starts.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = starts.get(i);
+        }
+        return result;
+    }
+
+    /** @return the first row of each chunk followed by the row count (of
+     * the table returned by {@link #createGroupedTable(ExecutionContext)}).
+     */
+    long[] getChunkStarts() {
+        return m_chunkStarts;
+    }
+
+    /** @return whether the input was reordered. */
+    boolean isReordered() {
+        return m_reorder != null;
+    }
+
+    /** Brings the joined output of the reordered table back into input
+     * order. Output rows without input row are added at the end.
+     * @param groupedResult The joined output, in order of the reordered
+     *        table.
+     * @param separator The separator of keys for multiple results.
+     * @param exec For progress/cancelation/table creation.
+     * @return The output in input order.
+     * @throws CanceledExecutionException If canceled.
+     */
+    BufferedDataTable restoreOrder(final BufferedDataTable groupedResult,
+            final String separator, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        if (m_reorder == null) {
+            return groupedResult;
+        }
+        return m_reorder.restore(groupedResult, separator, null, exec);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Directory on a memory file system (such as /dev/shm) for the in- and
+ * output files of chunks, bounded by a byte budget. The size of a file is
+ * estimated from the number of rows and the average size per row of the
+ * input files written so far; files that would exceed the budget are placed
+ * on disk instead. Reservations are corrected once an input file is written
+ * and released when its chunk is cleaned up.
+ * @author agent
+ */
+final class MemoryWorkingDirectory {
+
+    /** Size per row assumed before the first file is written. */
+    private static final long DEFAULT_BYTES_PER_ROW = 1024L;
+
+    private final File m_inputDirectory;
+    private final File m_outputDirectory;
+    private final long m_budget;
+    /** Reserved bytes per file in memory. */
+    private final Map<File, Long> m_reservations = new HashMap<File, Long>();
+    private long m_reserved;
+    private long m_writtenBytes;
+    private long m_writtenRows;
+
+    /**
+     * @param inputDirectory Directory for the input files (existing).
+     * @param outputDirectory Directory for the output files (existing).
+     * @param budget The maximum number of bytes in memory.
+     */
+    MemoryWorkingDirectory(final File inputDirectory,
+            final File outputDirectory, final long budget) {
+        m_inputDirectory = inputDirectory;
+        m_outputDirectory = outputDirectory;
+        m_budget = budget;
+    }
+
+    /** Reserves memory for an input file.
+     * @param diskFile The file as it would be placed on disk.
+     * @param rowCount The number of rows written to the file.
+     * @return The file in memory or null if the budget is exceeded.
+     */
+    synchronized File reserveInput(final File diskFile, final long rowCount) {
+        return reserve(
+                new File(m_inputDirectory, diskFile.getName()), rowCount);
+    }
+
+    /** Reserves memory for an output file, whose size is assumed to be the
+     * size of the corresponding input.
+     * @param diskFile The file as it would be placed on disk.
+     * @param rowCount The number of input rows of the chunk.
+     * @return The file in memory or null if the budget is exceeded.
+     */
+    synchronized File reserveOutput(final File diskFile, final long rowCount) {
+        return reserve(
+                new File(m_outputDirectory, diskFile.getName()), rowCount);
+    }
+
+    private File reserve(final File file, final long rowCount) {
+        long bytesPerRow = m_writtenRows > 0
+            ? Math.max(1L, m_writtenBytes / m_writtenRows)
+            : DEFAULT_BYTES_PER_ROW;
+        long estimate = Math.max(1L, rowCount) * bytesPerRow;
+        if (m_reserved + estimate > m_budget) {
+            return null;
+        }
+        Long old = m_reservations.put(file, estimate);
+        m_reserved += estimate - (old == null ? 0L : old);
+        return file;
+    }
+
+    /** Called after an input file was written, replaces the estimate by the
+     * actual size and updates the size per row.
+     * @param file The (possibly not in memory) file.
+     * @param rowCount The number of rows written.
+     */
+    synchronized void written(final File file, final long rowCount) {
+        if (!file.isFile()) {
+            return; // not a regular file, e.g. a named pipe
+        }
+        long size = file.length();
+        m_writtenBytes += size;
+        m_writtenRows += rowCount;
+        Long old = m_reservations.get(file);
+        if (old != null) {
+            m_reservations.put(file, size);
+            m_reserved += size - old;
+        }
+    }
+
+    /** Releases the reservation of a file after it was deleted.
+     * @param file The (possibly not in memory) file.
+     */
+    synchronized void release(final File file) {
+        Long old = m_reservations.remove(file);
+        if (old != null) {
+            m_reserved -= old;
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.exttool.executor.InputDataHandle.NamedPipeInputDataHandle;
+import org.knime.exttool.executor.OutputDataHandle.FileOutputDataHandle;
+import org.knime.exttool.node.ExttoolSettings;
+
+/**
+ * Local execution using named pipes instead of temporary input files. The
+ * input is written while the external tool reads it, so that writing and
+ * execution overlap and the input is not stored on disk. The tool must read
+ * the files sequentially (no seeking, each file opened once). The output is
+ * written to temporary files as with the default executor, since the
+ * output readers parse the file more than once. Not supported on Windows.
+ * @author agent
+ */
+public class NamedPipeExttoolExecutorFactory extends
+    AbstractExttoolExecutorFactory {
+
+    /** {@inheritDoc} */
+    @Override
+    public String getName() {
+        return "Named Pipe Executor";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DefaultExttoolExecutor createNewInstance() {
+        return new DefaultExttoolExecutor();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbstractExttoolExecutorConfig createConfig() {
+        return new DefaultExttoolExecutorConfig();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NamedPipeInputDataHandle createInputDataHandle(
+            final ExttoolSettings settings,
+            final File suggestInFile) throws InvalidSettingsException {
+        try {
+            return new NamedPipeInputDataHandle(suggestInFile);
+        } catch (IOException ioe) {
+            throw new InvalidSettingsException(ioe.getMessage(), ioe);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FileOutputDataHandle createOutputDataHandle(
+            final ExttoolSettings settings, final File suggestOutFile) {
+        return new FileOutputDataHandle(suggestOutFile);
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/** Utility methods for named pipes (FIFOs) as used by
+ * {@link InputDataHandle.NamedPipeInputDataHandle}. Only supported on
+ * systems providing the <code>mkfifo</code> command.
+ * @author agent
+ */
+final class NamedPipes {
+
+    private NamedPipes() {
+    }
+
+    /** Creates a named pipe (replacing an existing file).
+     * @param pipe The path of the pipe.
+     * @throws IOException If <code>mkfifo</code> fails or is not available.
+     */
+    static void create(final File pipe) throws IOException {
+        if (System.getProperty("os.name", "").startsWith("Windows")) {
+            throw new IOException("Named pipes are not supported on Windows");
+        }
+        if (pipe.exists() && !pipe.delete()) {
+            throw new IOException("Unable to delete existing file \""
+                    + pipe.getAbsolutePath() + "\"");
+        }
+        Process p = new ProcessBuilder("mkfifo", pipe.getAbsolutePath())
+            .redirectErrorStream(true).start();
+        int exitCode;
+        try {
+            exitCode = p.waitFor();
+        } catch (InterruptedException ie) {
+            p.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while creating named pipe");
+        }
+        if (exitCode != 0) {
+            throw new IOException("Unable to create named pipe \""
+                    + pipe.getAbsolutePath() + "\" (mkfifo exit code "
+                    + exitCode + ")");
+        }
+    }
+
+    /** Opens and closes the pipe for reading and writing, which does not
+     * block. A reader or writer waiting for its counterpart to open the pipe
+     * sees the end of the stream (or a broken pipe) then.
+     * @param pipe The path of the pipe.
+     */
+    static void release(final File pipe) {
+        if (!pipe.exists()) {
+            return;
+        }
+        try {
+            new RandomAccessFile(pipe, "rw").close();
+        } catch (IOException ioe) {
+            // nothing to release
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTable;
+import org.knime.core.data.RowIterator;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Brings the rows of the external tool output into the order of the input
+ * rows, used for the {@link
+ * org.knime.exttool.node.ExttoolCustomizer.JoinMode#Hash Hash} join mode.
+ * The ordered output is then joined like an ordered output.
+ *
+ * <p>The input row keys are put into an open addressing hash index that maps
+ * them to their position (an int) in the input. The sort key of an output
+ * row is composed of the position of its input row and its own position in
+ * the output. Output that is in input order is passed through; otherwise
+ * the rows are buffered in a {@link SortKeyBuffer}, which spills to disk for
+ * large outputs. Output rows without matching input row are sorted to the
+ * end, retaining their order.
+ *
+ * @author agent
+ */
+final class OutputRowReorderer {
+
+    /** Position of output rows that have no matching input row. */
+    private static final long UNMATCHED = Integer.MAX_VALUE;
+
+    /** The input row keys, indexed by position. */
+    private final String[] m_keys;
+    /** Hash slots containing position + 1, 0 for empty slots. */
+    private final int[] m_slots;
+    private final int m_mask;
+    private int m_size;
+
+    /** The buffered output, null if not buffered. */
+    private SortKeyBuffer m_buffer;
+
+    /** Builds the index on the input row keys.
+     * @param inIt The input rows.
+     * @param inCount The number of input rows.
+     * @param exec For cancelation.
+     * @throws CanceledExecutionException If canceled.
+     */
+    OutputRowReorderer(final RowIterator inIt, final int inCount,
+            final ExecutionMonitor exec) throws CanceledExecutionException {
+        this(inCount);
+        while (inIt.hasNext()) {
+            exec.checkCanceled();
+            add(inIt.next().getKey().getString());
+        }
+    }
+
+    /** Builds the index on the given keys (which must be unique).
+     * @param keys The keys in input order.
+     */
+    OutputRowReorderer(final String[] keys) {
+        this(keys.length);
+        for (String key : keys) {
+            add(key);
+        }
+    }
+
+    private OutputRowReorderer(final int inCount) {
+        // power of 2, at most half full
+        int capacity = Integer.highestOneBit(Math.max(1, inCount) * 2 - 1) << 1;
+        m_keys = new String[inCount];
+        m_slots = new int[capacity];
+        m_mask = capacity - 1;
+    }
+
+    private void add(final String key) {
+        if (m_size == m_keys.length) {
+            throw new IllegalStateException("More than " + m_keys.length
+                    + " input rows");
+        }
+        int slot = hash(key) & m_mask;
+        while (m_slots[slot] != 0) {
+            slot = (slot + 1) & m_mask;
+        }
+        m_keys[m_size] = key;
+        m_slots[slot] = ++m_size;
+    }
+
+    private static int hash(final String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /** Get the position of the input row with the given key.
+     * @param key The row key.
+     * @return Its position or -1 if there is no such input row.
+     */
+    int getPosition(final String key) {
+        int slot = hash(key) & m_mask;
+        int entry;
+        while ((entry = m_slots[slot]) != 0) {
+            if (m_keys[entry - 1].equals(key)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & m_mask;
+        }
+        return -1;
+    }
+
+    /** Get the sort key of an output row: the position of its input row
+     * (unmatched rows at the end) and its own position in the output. */
+    private long getSortKey(final DataRow row, final int idCol,
+            final long outIndex) {
+        int pos = getPosition(row.getCell(idCol).toString());
+        return ((pos < 0 ? UNMATCHED : pos) << 32) | outIndex;
+    }
+
+    /** Returns the output rows in input order. If the output is a buffered
+     * or container table that is already in input order its rows are
+     * returned as they are (the table is iterated twice); otherwise the
+     * output is read once and buffered.
+     * @param out The output, only iterated once unless it's a
+     *        {@link BufferedDataTable} or {@link ContainerTable}.
+     * @param idCol The ID column in the output.
+     * @param exec For cancelation and creation of temporary tables.
+     * @return An iterator on the reordered rows (spec as the output), to be
+     *         closed when done.
+     * @throws CanceledExecutionException If canceled.
+     */
+    CloseableRowIterator reorder(final DataTable out, final int idCol,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        if ((out instanceof BufferedDataTable
+                || out instanceof ContainerTable)
+                && isInOrder(out, idCol, exec)) {
+            return (CloseableRowIterator)out.iterator();
+        }
+        m_buffer = new SortKeyBuffer(out.getDataTableSpec(), exec);
+        RowIterator outIt = out.iterator();
+        try {
+            long outIndex = 0;
+            while (outIt.hasNext()) {
+                exec.checkCanceled();
+                DataRow row = outIt.next();
+                m_buffer.add(row.getKey(), row,
+                        getSortKey(row, idCol, outIndex++));
+            }
+        } finally {
+            if (outIt instanceof CloseableRowIterator) {
+                ((CloseableRowIterator)outIt).close();
+            }
+        }
+        m_buffer.sort(exec);
+        return m_buffer.iterator();
+    }
+
+    /** Whether the rows of a table are in input order. Stops reading at
+     * the first row out of order. */
+    private boolean isInOrder(final DataTable table, final int idCol,
+            final ExecutionMonitor exec) throws CanceledExecutionException {
+        CloseableRowIterator it = (CloseableRowIterator)table.iterator();
+        try {
+            long lastSortKey = Long.MIN_VALUE;
+            long outIndex = 0;
+            while (it.hasNext()) {
+                exec.checkCanceled();
+                long sortKey = getSortKey(it.next(), idCol, outIndex++);
+                if (sortKey < lastSortKey) {
+                    return false;
+                }
+                lastSortKey = sortKey;
+            }
+            return true;
+        } finally {
+            it.close();
+        }
+    }
+
+    /** Clears the temporary tables created by {@link #reorder(DataTable,
+     * int, ExecutionContext) reorder}.
+     */
+    void clear() {
+        if (m_buffer != null) {
+            m_buffer.clear();
+            m_buffer = null;
+        }
+    }
+}
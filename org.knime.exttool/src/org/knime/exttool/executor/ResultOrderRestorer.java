@@ -0,0 +1,205 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.util.Arrays;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.BlobSupportDataRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+
+/**
+ * Brings the joined output of a table derived from the input (with distinct
+ * or reordered rows) back to the input rows and their order. Each input row
+ * is mapped to a row of the derived table; the result rows of a derived row
+ * are added for all input rows mapped to it. Used by
+ * {@link InputDeduplicator} and {@link InputGrouper}.
+ *
+ * <p>The row keys and an int per input row are kept in memory.
+ *
+ * @author agent
+ */
+final class ResultOrderRestorer {
+
+    /** Keys of the input rows. */
+    private final String[] m_keys;
+    /** Index of the derived row for each input row. */
+    private final int[] m_derivedIndex;
+    /** Keys of the derived rows, in order of the derived table. */
+    private final String[] m_derivedKeys;
+
+    /**
+     * @param keys The keys of the input rows.
+     * @param derivedIndex The index of the corresponding row in the derived
+     *        table for each input row.
+     * @param derivedKeys The keys of the rows of the derived table.
+     */
+    ResultOrderRestorer(final String[] keys, final int[] derivedIndex,
+            final String[] derivedKeys) {
+        m_keys = keys;
+        m_derivedIndex = derivedIndex;
+        m_derivedKeys = derivedKeys;
+    }
+
+    /** Creates the output for the input rows from the joined output of the
+     * derived table. Each joined row of a derived row is added for all input
+     * rows mapped to it, with the input row's key (and the same suffix for
+     * multiple results). The rows are sorted in input order, output rows
+     * without input row are added at the end.
+     * @param derivedResult The joined output, in order of the derived rows.
+     * @param separator The separator of keys for multiple results.
+     * @param input The input table, whose cells replace the input cells of
+     *        the joined rows (if the derived rows may differ from the input
+     *        rows mapped to them), or null to keep the joined rows' cells.
+     * @param exec For progress/cancelation/table creation.
+     * @return The output table in input order.
+     * @throws CanceledExecutionException If canceled.
+     */
+    BufferedDataTable restore(final BufferedDataTable derivedResult,
+            final String separator, final BufferedDataTable input,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        // linked lists of the input rows of each derived row, in order
+        int[] head = new int[m_derivedKeys.length];
+        Arrays.fill(head, -1);
+        int[] next = new int[m_keys.length];
+        for (int i = m_keys.length - 1; i >= 0; i--) {
+            next[i] = head[m_derivedIndex[i]];
+            head[m_derivedIndex[i]] = i;
+        }
+        DataTableSpec spec = derivedResult.getDataTableSpec();
+        SortKeyBuffer buffer = new SortKeyBuffer(spec, exec);
+        ExecutionContext fanExec = exec.createSubExecutionContext(0.4);
+        final double rowCount = derivedResult.getRowCount();
+        int derived = -1;
+        long groupRow = 0;
+        long unmatched = 0;
+        long resultIndex = 0;
+        for (DataRow row : derivedResult) {
+            fanExec.checkCanceled();
+            fanExec.setProgress(resultIndex++ / rowCount);
+            String key = row.getKey().getString();
+            String suffix;
+            if (derived + 1 < m_derivedKeys.length
+                    && key.equals(m_derivedKeys[derived + 1])) {
+                derived += 1;
+                groupRow = 0;
+                suffix = "";
+            } else if (derived >= 0 && key.equals(
+                    m_derivedKeys[derived] + separator + groupRow)) {
+                suffix = separator + groupRow;
+            } else {
+                // no corresponding input row, sorted to the end
+                buffer.add(row.getKey(), row,
+                        ((long)Integer.MAX_VALUE << 32) | unmatched++);
+                continue;
+            }
+            for (int i = head[derived]; i >= 0; i = next[i]) {
+                RowKey newKey = new RowKey(m_keys[i] + suffix);
+                buffer.add(newKey, row, ((long)i << 32) | groupRow);
+            }
+            groupRow++;
+        }
+        BufferedDataTable sorted =
+            buffer.sort(exec.createSubExecutionContext(0.4));
+        if (input == null) {
+            return buffer.createTable(exec.createSubExecutionContext(0.2));
+        }
+        BufferedDataTable result = replaceInputCells(sorted, buffer, spec,
+                input, exec.createSubExecutionContext(0.2));
+        buffer.clear();
+        return result;
+    }
+
+    /** Replaces the input cells of the sorted rows by the cells of their
+     * input row (the rows of a derived row contain the cells of one of its
+     * input rows) and removes the sort column. */
+    private static BufferedDataTable replaceInputCells(
+            final BufferedDataTable sorted, final SortKeyBuffer buffer,
+            final DataTableSpec spec, final BufferedDataTable input,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        final int inCols = input.getDataTableSpec().getNumColumns();
+        final int cellCount = spec.getNumColumns();
+        final double rowCount = sorted.getRowCount();
+        BufferedDataContainer cont = exec.createDataContainer(spec);
+        CloseableRowIterator inIt = input.iterator();
+        try {
+            DataRow inRow = null;
+            long inIndex = -1;
+            long index = 0;
+            for (DataRow row : sorted) {
+                exec.checkCanceled();
+                exec.setProgress(index++ / rowCount);
+                long position = buffer.getSortKey(row) >>> 32;
+                if (position != Integer.MAX_VALUE) {
+                    while (inIndex < position) {
+                        inRow = inIt.next();
+                        inIndex++;
+                    }
+                }
+                DataCell[] cells = new DataCell[cellCount];
+                for (int i = 0; i < cellCount; i++) {
+                    DataRow source = position != Integer.MAX_VALUE
+                        && i < inCols ? inRow : row;
+                    cells[i] = SortKeyBuffer.getRawCell(source, i);
+                }
+                cont.addRowToTable(new BlobSupportDataRow(row.getKey(), cells));
+            }
+        } finally {
+            inIt.close();
+        }
+        cont.close();
+        return cont.getTable();
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.util.Comparator;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.BlobSupportDataRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ColumnRearranger;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.sort.BufferedDataTableSorter;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+
+/**
+ * Brings rows into a different order. Each row is buffered with an
+ * additional long column, its sort key; the buffer is sorted by that key
+ * (spilling to disk for large tables) and read back without the key column.
+ * The sorting is skipped if the rows are added in key order. Used by
+ * {@link OutputRowReorderer}, {@link InputGrouper} and
+ * {@link ResultOrderRestorer}.
+ *
+ * @author agent
+ */
+final class SortKeyBuffer {
+
+    private final ExecutionContext m_exec;
+    private final BufferedDataContainer m_cont;
+    /** Index of the sort key column, i.e. the number of data columns. */
+    private final int m_sortCol;
+    private boolean m_isSorted = true;
+    private long m_lastSortKey = Long.MIN_VALUE;
+    /** The table in sort key order, including the sort key column. */
+    private BufferedDataTable m_result;
+
+    /**
+     * @param spec The spec of the rows to add.
+     * @param exec To create (and clear) the temporary tables.
+     */
+    SortKeyBuffer(final DataTableSpec spec, final ExecutionContext exec) {
+        m_exec = exec;
+        m_sortCol = spec.getNumColumns();
+        String sortColName = "sort key";
+        while (spec.containsName(sortColName)) {
+            sortColName = sortColName + "_";
+        }
+        m_cont = exec.createDataContainer(new DataTableSpec(spec,
+                new DataTableSpec(new DataColumnSpecCreator(
+                        sortColName, LongCell.TYPE).createSpec())));
+    }
+
+    /** Adds a row to the buffer.
+     * @param key The key of the row in the sorted table.
+     * @param row The row, its cells are added.
+     * @param sortKey The sort key of the row.
+     */
+    void add(final RowKey key, final DataRow row, final long sortKey) {
+        m_isSorted = m_isSorted && sortKey >= m_lastSortKey;
+        m_lastSortKey = sortKey;
+        DataCell[] cells = new DataCell[m_sortCol + 1];
+        for (int i = 0; i < m_sortCol; i++) {
+            cells[i] = getRawCell(row, i);
+        }
+        cells[m_sortCol] = new LongCell(sortKey);
+        m_cont.addRowToTable(new BlobSupportDataRow(key, cells));
+    }
+
+    /** Closes the buffer and sorts the rows by their sort key, unless they
+     * were added in order. Must be called once, after all rows are added.
+     * @param exec For progress/cancelation of the sorting.
+     * @return The rows in sort key order, including the sort key column
+     *         (see {@link #getSortKey(DataRow)}).
+     * @throws CanceledExecutionException If canceled.
+     */
+    BufferedDataTable sort(final ExecutionContext exec)
+        throws CanceledExecutionException {
+        m_cont.close();
+        BufferedDataTable buffer = m_cont.getTable();
+        if (m_isSorted) {
+            m_result = buffer;
+            return m_result;
+        }
+        BufferedDataTableSorter sorter = new BufferedDataTableSorter(
+                buffer, new Comparator<DataRow>() {
+            /** {@inheritDoc} */
+            @Override
+            public int compare(final DataRow r1, final DataRow r2) {
+                return Long.compare(getSortKey(r1), getSortKey(r2));
+            }
+        });
+        m_result = sorter.sort(exec);
+        m_exec.clearTable(buffer);
+        return m_result;
+    }
+
+    /** Get the sort key of a row of the table returned by
+     * {@link #sort(ExecutionContext)}.
+     * @param row A sorted row.
+     * @return Its sort key.
+     */
+    long getSortKey(final DataRow row) {
+        return ((LongValue)row.getCell(m_sortCol)).getLongValue();
+    }
+
+    /** Get the sorted rows without the sort key column. The table is
+     * created from the sorted table, which must not be cleared then.
+     * @param exec For progress/cancelation/table creation.
+     * @return The sorted table.
+     * @throws CanceledExecutionException If canceled.
+     */
+    BufferedDataTable createTable(final ExecutionContext exec)
+        throws CanceledExecutionException {
+        ColumnRearranger rearranger =
+            new ColumnRearranger(m_result.getDataTableSpec());
+        rearranger.remove(m_sortCol);
+        return exec.createColumnRearrangeTable(m_result, rearranger, exec);
+    }
+
+    /** Get an iterator on the sorted rows without the sort key column.
+     * @return A new iterator, to be closed when done.
+     */
+    CloseableRowIterator iterator() {
+        final CloseableRowIterator it = m_result.iterator();
+        return new CloseableRowIterator() {
+            /** {@inheritDoc} */
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public DataRow next() {
+                DataRow row = it.next();
+                DataCell[] cells = new DataCell[m_sortCol];
+                for (int i = 0; i < m_sortCol; i++) {
+                    cells[i] = getRawCell(row, i);
+                }
+                return new BlobSupportDataRow(row.getKey(), cells);
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public void close() {
+                it.close();
+            }
+        };
+    }
+
+    /** Clears the sorted table, if any. */
+    void clear() {
+        if (m_result != null) {
+            m_exec.clearTable(m_result);
+            m_result = null;
+        }
+    }
+
+    /** Get a cell of a row without unwrapping blobs.
+     * @param row The row.
+     * @param index The cell index.
+     * @return The raw cell if the row supports blobs, the cell otherwise.
+     */
+    static DataCell getRawCell(final DataRow row, final int index) {
+        return row instanceof BlobSupportDataRow
+            ? ((BlobSupportDataRow)row).getRawCell(index) : row.getCell(index);
+    }
+}
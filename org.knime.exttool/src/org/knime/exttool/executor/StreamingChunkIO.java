@@ -0,0 +1,174 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 16, 2026 (agent): created
+ */
+package org.knime.exttool.executor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.knime.core.node.NodeLogger;
+
+/** Writes the {@link DataHandle#isStreaming() streaming} input handles of a
+ * chunk while the external tool runs. Each stream is served by its own
+ * thread, started before the tool and joined after it terminated.
+ * @author agent
+ */
+final class StreamingChunkIO {
+
+    private static final NodeLogger LOGGER =
+        NodeLogger.getLogger(StreamingChunkIO.class);
+
+    /** Id provider for threads. */
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /** Time to wait for streams after the tool was canceled. */
+    private static final long ABORT_TIMEOUT_MS = 5000L;
+
+    private final List<DataHandle> m_handles = new ArrayList<DataHandle>();
+    private final List<Thread> m_threads = new ArrayList<Thread>();
+    private final List<Exception> m_writeErrors = new ArrayList<Exception>();
+
+    private StreamingChunkIO() {
+    }
+
+    /** Starts writing the streams of a chunk, to be called right before the
+     * external tool is started.
+     * @param writes The tasks writing the streaming input handles.
+     * @param ins All input handles of the chunk.
+     * @return The running streams or null if no handle is streaming.
+     */
+    static StreamingChunkIO start(final List<? extends Callable<?>> writes,
+            final InputDataHandle[] ins) {
+        final StreamingChunkIO io = new StreamingChunkIO();
+        for (InputDataHandle in : ins) {
+            if (in.isStreaming()) {
+                io.m_handles.add(in);
+            }
+        }
+        if (io.m_handles.isEmpty()) {
+            return null;
+        }
+        for (final Callable<?> write : writes) {
+            io.startThread(new Runnable() {
+                /** {@inheritDoc} */
+                @Override
+                public void run() {
+                    try {
+                        write.call();
+                    } catch (Exception e) {
+                        synchronized (io.m_writeErrors) {
+                            io.m_writeErrors.add(e);
+                        }
+                    }
+                }
+            });
+        }
+        return io;
+    }
+
+    private void startThread(final Runnable r) {
+        Thread t = new Thread(r, "KNIME-Exttool-Stream-"
+                + THREAD_COUNTER.incrementAndGet());
+        t.setDaemon(true);
+        m_threads.add(t);
+        t.start();
+    }
+
+    /** Waits for all streams after the external tool terminated.
+     * @throws Exception If writing failed other than by the tool closing its
+     *         input.
+     */
+    void finish() throws Exception {
+        for (Thread t : m_threads) {
+            t.join(100);
+            while (t.isAlive()) {
+                // the tool did not open (all of) its streams
+                releaseAll();
+                t.join(100);
+            }
+        }
+        synchronized (m_writeErrors) {
+            for (Exception e : m_writeErrors) {
+                if (!(e instanceof IOException)) {
+                    throw e;
+                }
+                // tool did not consume (all of) its input
+                LOGGER.debug("Writing input stream stopped: "
+                        + e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Stops all streams if the tool failed or was canceled, waits a few
+     * seconds for the threads to terminate. */
+    void abort() {
+        for (Thread t : m_threads) {
+            t.interrupt();
+        }
+        long deadline = System.currentTimeMillis() + ABORT_TIMEOUT_MS;
+        try {
+            for (Thread t : m_threads) {
+                while (t.isAlive() && System.currentTimeMillis() < deadline) {
+                    releaseAll();
+                    t.join(100);
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void releaseAll() {
+        for (DataHandle h : m_handles) {
+            h.releaseStream();
+        }
+    }
+
+}
@@ -47,6 +47,7 @@
  */
 package org.knime.exttool.filetype;
 
+import org.knime.core.data.DataTable;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.ExecutionContext;
 import org.knime.exttool.executor.OutputDataHandle;
@@ -90,4 +91,24 @@ protected AbstractFileTypeRead(final AbstractFileTypeFactory factory) {
     public abstract BufferedDataTable readTable(final OutputDataHandle handle,
             final ExecutionContext exec) throws Exception;
 
+    /** Read the file from the given output data handle as a table that is
+     * iterated exactly once. It's used when the rows are directly joined with
+     * the input data, whereby implementations that can parse the file while
+     * iterating should avoid the (temporary) table creation in
+     * {@link #readTable(OutputDataHandle, ExecutionContext)}. The same
+     * requirements to the ID column apply. This default implementation
+     * returns the result of {@link #readTable(OutputDataHandle,
+     * ExecutionContext)}.
+     * @param handle the output handle.
+     * @param exec for progress/cancelation/table creation
+     * @return the output table, whose spec is known upfront
+     * @throws Exception In case of problems
+     * @since 5.9
+     */
+    public DataTable readTableForSingleIteration(
+            final OutputDataHandle handle, final ExecutionContext exec)
+        throws Exception {
+        return readTable(handle, exec);
+    }
+
 }
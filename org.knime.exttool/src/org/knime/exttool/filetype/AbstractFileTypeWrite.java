@@ -109,4 +109,18 @@ public abstract void writeTable(DataTableSpec spec,
             final ExecutionMonitor exec)
         throws IOException, CanceledExecutionException;
 
+    /** Get the columns whose content is written to the file. Input rows
+     * that are equal in these columns are equal for the external tool (used
+     * to pass only distinct rows to the tool). It can safely be assumed that
+     * {@link #prepare(AbstractFileTypeWriteConfig)} has been called
+     * beforehand. This implementation returns null.
+     * @param spec The input spec.
+     * @return The names of the written columns or null if all columns are
+     *         written (or the columns are not known).
+     * @since 5.9
+     */
+    public String[] getWrittenColumns(final DataTableSpec spec) {
+        return null;
+    }
+
 }
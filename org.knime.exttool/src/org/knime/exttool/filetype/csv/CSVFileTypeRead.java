@@ -52,6 +52,7 @@
 import org.knime.base.node.io.filereader.FileAnalyzer;
 import org.knime.base.node.io.filereader.FileReaderNodeSettings;
 import org.knime.base.node.io.filereader.FileTable;
+import org.knime.core.data.DataTable;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.util.tokenizer.SettingsStatus;
@@ -83,6 +84,24 @@ public void prepare(final AbstractFileTypeReadConfig config) {
     @Override
     public BufferedDataTable readTable(final OutputDataHandle in,
             final ExecutionContext exec) throws Exception {
+        return exec.createBufferedDataTable(createFileTable(in), exec);
+    }
+
+    /** Returns the file table without copying it into a buffered table, the
+     * file is parsed while iterating. {@inheritDoc} */
+    @Override
+    public DataTable readTableForSingleIteration(final OutputDataHandle in,
+            final ExecutionContext exec) throws Exception {
+        return createFileTable(in);
+    }
+
+    /** Analyzes the output file and creates a table on it.
+     * @param in The output handle (must be a file handle).
+     * @return A table reading from the file.
+     * @throws Exception If the file can't be accessed or analyzed.
+     */
+    private FileTable createFileTable(final OutputDataHandle in)
+        throws Exception {
 
         File input;
         if (in instanceof OutputDataHandle.FileOutputDataHandle) {
@@ -125,9 +144,7 @@ public BufferedDataTable readTable(final OutputDataHandle in,
         if (status.getNumOfErrors() > 0) {
             throw new IllegalStateException(status.getErrorMessage(0));
         }
-        FileTable fTable = new FileTable(settings.createDataTableSpec(),
-                settings, null);
-        return exec.createBufferedDataTable(fTable, exec);
+        return new FileTable(settings.createDataTableSpec(), settings, null);
     }
 
 }
@@ -158,23 +158,26 @@ public RowIterator iterator() {
                 return it;
             }
         };
-        String[] includeCols;
-        if (m_csvConfig.isIncludeAllColumns()) {
-            List<String> includeColsL = new ArrayList<String>();
-            for (DataColumnSpec col : spec) {
-                if (CSVFileTypeWriteConfig.COLUMN_FILTER.includeColumn(col)) {
-                    includeColsL.add(col.getName());
-                }
-            }
-            includeCols = includeColsL.toArray(new String[includeColsL.size()]);
-        } else {
-            includeCols = m_csvConfig.getIncludeColumns();
-        }
-        table = new FilterColumnTable(table, includeCols);
+        table = new FilterColumnTable(table, getWrittenColumns(spec));
         try (OutputStreamWriter outWriter = new OutputStreamWriter(out, StandardCharsets.UTF_8);
                 CSVWriter csvWriter = new CSVWriter(outWriter, fileWriterSettings)) {
             csvWriter.write(table, exec);
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public String[] getWrittenColumns(final DataTableSpec spec) {
+        if (!m_csvConfig.isIncludeAllColumns()) {
+            return m_csvConfig.getIncludeColumns();
+        }
+        List<String> includeColsL = new ArrayList<String>();
+        for (DataColumnSpec col : spec) {
+            if (CSVFileTypeWriteConfig.COLUMN_FILTER.includeColumn(col)) {
+                includeColsL.add(col.getName());
+            }
+        }
+        return includeColsL.toArray(new String[includeColsL.size()]);
+    }
+
 }
@@ -122,7 +122,8 @@ protected abstract void loadSettingsInDialog(final ExttoolSettings
      * @param env The current execution environment (providing flow vars, e.g.)
      * @return The array of the command line args, the different values may
      *         contain place holders %inFile% or %outFile% to represent the
-     *         respective in/output.
+     *         respective in/output and %threads% for the number of threads
+     *         the process may use.
      * @throws InvalidSettingsException If the settings are invalid.
      */
     protected abstract String[] getCommandlineArgs(
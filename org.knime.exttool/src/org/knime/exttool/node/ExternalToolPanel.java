@@ -50,22 +50,32 @@
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
 
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
 import javax.swing.JSpinner;
+import javax.swing.JTextField;
 import javax.swing.SpinnerNumberModel;
+import javax.swing.border.Border;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataValue;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NotConfigurableException;
+import org.knime.core.node.util.ColumnSelectionComboxBox;
 import org.knime.core.node.util.FilesHistoryPanel;
 import org.knime.exttool.node.ExttoolCustomizer.Chunking;
 
@@ -85,8 +95,29 @@ public class ExternalToolPanel extends JPanel {
     private final JRadioButton m_chunkButtonSingleRow;
     private final JRadioButton m_chunkButtonChunkSize;
     private final JRadioButton m_chunkButtonNrChunks;
+    private final JRadioButton m_chunkButtonAdaptive;
+    private final JRadioButton m_chunkButtonByGroup;
     private final JSpinner m_chunkSizeSpinner;
     private final JSpinner m_nrChunksSpinner;
+    private final JSpinner m_adaptiveOverheadSpinner;
+    private final JSpinner m_maxGroupChunksSpinner;
+    private final ColumnSelectionComboxBox m_groupColumnBox;
+    private final JCheckBox m_pipelinedChecker;
+    private final JSpinner m_maxChunksInFlightSpinner;
+    private final JCheckBox m_speculativeChecker;
+    private final JSpinner m_speculativeFactorSpinner;
+    private final JCheckBox m_failFastChecker;
+    private final JSpinner m_maxFailedPercentSpinner;
+    private final JCheckBox m_bisectChecker;
+    private final JCheckBox m_chunkWeightChecker;
+    private final ColumnSelectionComboxBox m_chunkWeightColumnBox;
+    private final JCheckBox m_deduplicateChecker;
+    private final JCheckBox m_incrementalChecker;
+    private final JSpinner m_incrementalMaxSizeSpinner;
+    private final JCheckBox m_resultCacheChecker;
+    private final JTextField m_resultCacheDirField;
+    private final JButton m_resultCacheBrowseButton;
+    private final JSpinner m_resultCacheMaxSizeSpinner;
     private final JLabel[] m_inputTypeSummaryLabels;
 
     private final ExttoolCustomizer m_exttoolCustomizer;
@@ -110,6 +141,10 @@ public ExternalToolPanel(final ExttoolCustomizer customizer) {
         m_chunkButtonChunkSize = new JRadioButton("Chunks of Size");
         m_chunkButtonNrChunks = new JRadioButton("Nr of Chunks");
         m_chunkButtonSingleRow = new JRadioButton("Each row individually");
+        m_chunkButtonAdaptive =
+            new JRadioButton("Adaptive, max. start-up overhead (%)");
+        m_chunkButtonAdaptive.setToolTipText("Chunk sizes are derived from "
+                + "the measured runtime of small probe chunks");
         m_chunkSizeSpinner = new JSpinner(
                 new SpinnerNumberModel(500, 2, Integer.MAX_VALUE, 50));
         m_chunkButtonChunkSize.addChangeListener(new ChangeListener() {
@@ -132,11 +167,173 @@ public void stateChanged(final ChangeEvent e) {
             }
         });
         m_nrChunksSpinner.setEnabled(false);
+        m_adaptiveOverheadSpinner = new JSpinner(
+                new SpinnerNumberModel(5, 1, 99, 1));
+        m_chunkButtonAdaptive.addChangeListener(new ChangeListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                m_adaptiveOverheadSpinner.setEnabled(
+                        m_chunkButtonAdaptive.isSelected());
+            }
+        });
+        m_adaptiveOverheadSpinner.setEnabled(false);
+        m_chunkButtonByGroup =
+            new JRadioButton("Rows of a group together, max. nr of chunks");
+        m_chunkButtonByGroup.setToolTipText("Rows with the same value in the "
+                + "selected column are passed to the tool in the same chunk");
+        m_maxGroupChunksSpinner = new JSpinner(
+                new SpinnerNumberModel(20, 1, Integer.MAX_VALUE, 2));
+        @SuppressWarnings("unchecked")
+        ColumnSelectionComboxBox groupColumnBox =
+            new ColumnSelectionComboxBox((Border)null, DataValue.class);
+        m_groupColumnBox = groupColumnBox;
+        m_chunkButtonByGroup.addChangeListener(new ChangeListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                boolean selected = m_chunkButtonByGroup.isSelected();
+                m_maxGroupChunksSpinner.setEnabled(selected);
+                m_groupColumnBox.setEnabled(selected);
+            }
+        });
+        m_maxGroupChunksSpinner.setEnabled(false);
+        m_groupColumnBox.setEnabled(false);
+        m_pipelinedChecker = new JCheckBox(
+                "Start execution while writing chunks, max chunks in flight");
+        m_pipelinedChecker.setToolTipText("Chunks are executed as soon as "
+                + "their input is written; the number of chunks that are "
+                + "written but not yet finished is limited (0 = automatic)");
+        m_maxChunksInFlightSpinner = new JSpinner(
+                new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 1));
+        m_pipelinedChecker.addChangeListener(new ChangeListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                m_maxChunksInFlightSpinner.setEnabled(
+                        m_pipelinedChecker.isSelected());
+            }
+        });
+        m_maxChunksInFlightSpinner.setEnabled(false);
+        m_speculativeChecker = new JCheckBox(
+                "Start backup of slow chunks, runtime factor to median");
+        m_speculativeChecker.setToolTipText("Once most chunks are done, a "
+                + "chunk running longer than the given multiple of the "
+                + "median runtime is started a second time; the first copy "
+                + "to finish is used");
+        m_speculativeFactorSpinner = new JSpinner(
+                new SpinnerNumberModel(3.0, 1.1, 100.0, 0.5));
+        m_speculativeChecker.addChangeListener(new ChangeListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                m_speculativeFactorSpinner.setEnabled(
+                        m_speculativeChecker.isSelected());
+            }
+        });
+        m_speculativeFactorSpinner.setEnabled(false);
+        m_failFastChecker = new JCheckBox(
+                "Abort when more chunks fail than (%)");
+        m_failFastChecker.setToolTipText("Cancels the remaining chunks and "
+                + "kills their processes (0 = abort on first failure)");
+        m_maxFailedPercentSpinner = new JSpinner(
+                new SpinnerNumberModel(0, 0, 99, 5));
+        m_failFastChecker.addChangeListener(new ChangeListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                m_maxFailedPercentSpinner.setEnabled(
+                        m_failFastChecker.isSelected());
+            }
+        });
+        m_maxFailedPercentSpinner.setEnabled(false);
+        m_bisectChecker = new JCheckBox(
+                "Run failed chunks again on halves to find failing rows");
+        m_bisectChecker.setToolTipText("Splits failed chunks recursively, "
+                + "down to single rows; only the rows that fail have no "
+                + "result");
+        m_chunkWeightChecker = new JCheckBox(
+                "Balance chunks by cost of rows in column");
+        m_chunkWeightChecker.setToolTipText("Numeric columns contain the "
+                + "cost of a row, otherwise the length of the cell's text is "
+                + "used; the most expensive chunks are run first");
+        @SuppressWarnings("unchecked")
+        ColumnSelectionComboxBox chunkWeightColumnBox =
+            new ColumnSelectionComboxBox((Border)null, DataValue.class);
+        m_chunkWeightColumnBox = chunkWeightColumnBox;
+        m_chunkWeightChecker.addChangeListener(new ChangeListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                m_chunkWeightColumnBox.setEnabled(
+                        m_chunkWeightChecker.isEnabled()
+                        && m_chunkWeightChecker.isSelected());
+            }
+        });
+        m_chunkWeightColumnBox.setEnabled(false);
+        m_deduplicateChecker = new JCheckBox(
+                "Pass only distinct input rows to the external tool");
+        m_deduplicateChecker.setToolTipText("The result of a row is added "
+                + "to all rows with identical cells");
+        m_incrementalChecker = new JCheckBox("Re-use results of unchanged "
+                + "rows on re-execution, max. size (MB)");
+        m_incrementalChecker.setToolTipText("Only new or changed rows are "
+                + "passed to the external tool when the node is executed "
+                + "again");
+        m_incrementalMaxSizeSpinner = new JSpinner(
+                new SpinnerNumberModel(1024, 1, Integer.MAX_VALUE, 256));
+        m_incrementalChecker.addChangeListener(new ChangeListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                m_incrementalMaxSizeSpinner.setEnabled(
+                        m_incrementalChecker.isSelected());
+            }
+        });
+        m_incrementalMaxSizeSpinner.setEnabled(false);
+        m_resultCacheChecker = new JCheckBox("Cache results in directory");
+        m_resultCacheChecker.setToolTipText("Chunks with the same input and "
+                + "command line as a previous execution are not executed "
+                + "again but read from the cache");
+        m_resultCacheDirField = new JTextField(20);
+        m_resultCacheBrowseButton = new JButton("Browse...");
+        m_resultCacheBrowseButton.addActionListener(new ActionListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void actionPerformed(final ActionEvent e) {
+                JFileChooser chooser = new JFileChooser(
+                        m_resultCacheDirField.getText());
+                chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+                int exit = chooser.showDialog(
+                        ExternalToolPanel.this, "Select");
+                File dir = chooser.getSelectedFile();
+                if (exit == JFileChooser.APPROVE_OPTION && dir != null) {
+                    m_resultCacheDirField.setText(dir.getAbsolutePath());
+                }
+            }
+        });
+        m_resultCacheMaxSizeSpinner = new JSpinner(
+                new SpinnerNumberModel(1024, 1, Integer.MAX_VALUE, 256));
+        m_resultCacheChecker.addChangeListener(new ChangeListener() {
+            /** {@inheritDoc} */
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                boolean selected = m_resultCacheChecker.isSelected();
+                m_resultCacheDirField.setEnabled(selected);
+                m_resultCacheBrowseButton.setEnabled(selected);
+                m_resultCacheMaxSizeSpinner.setEnabled(selected);
+            }
+        });
+        m_resultCacheDirField.setEnabled(false);
+        m_resultCacheBrowseButton.setEnabled(false);
+        m_resultCacheMaxSizeSpinner.setEnabled(false);
         ButtonGroup bg = new ButtonGroup();
         bg.add(m_chunkButtonEntireTable);
         bg.add(m_chunkButtonChunkSize);
         bg.add(m_chunkButtonNrChunks);
         bg.add(m_chunkButtonSingleRow);
+        bg.add(m_chunkButtonAdaptive);
+        bg.add(m_chunkButtonByGroup);
         m_chunkButtonEntireTable.doClick();
         m_inputTypeSummaryLabels = new JLabel[customizer.getNrInputs()];
         for (int i = 0; i < m_inputTypeSummaryLabels.length; i++) {
@@ -179,6 +376,51 @@ protected void initLayout() {
             JPanel chunkHandlingPanel = createChunkHandlingPanel();
             add(chunkHandlingPanel, gbc);
         }
+        gbc.gridx = 0;
+        gbc.gridwidth = GridBagConstraints.REMAINDER;
+        if (m_exttoolCustomizer.getNrInputs() > 0) {
+            add(m_deduplicateChecker, gbc);
+        }
+        if (m_exttoolCustomizer.getNrInputs() > 0
+                && m_exttoolCustomizer.getNrOutputs() == 1) {
+            JPanel incrementalPanel = new JPanel(new GridBagLayout());
+            GridBagConstraints c = new GridBagConstraints();
+            c.anchor = GridBagConstraints.WEST;
+            incrementalPanel.add(m_incrementalChecker, c);
+            c.insets = new Insets(0, 5, 0, 0);
+            incrementalPanel.add(m_incrementalMaxSizeSpinner, c);
+            add(incrementalPanel, gbc);
+        }
+        add(createResultCachePanel(), gbc);
+    }
+
+    private JPanel createResultCachePanel() {
+        JPanel result = new JPanel(new GridBagLayout());
+        result.setBorder(BorderFactory.createTitledBorder(" Result Cache "));
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 20, 5, 5);
+        gbc.anchor = GridBagConstraints.WEST;
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        result.add(m_resultCacheChecker, gbc);
+
+        gbc.gridx += 1;
+        gbc.weightx = 1.0;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        result.add(m_resultCacheDirField, gbc);
+
+        gbc.gridx += 1;
+        gbc.weightx = 0;
+        gbc.fill = GridBagConstraints.NONE;
+        result.add(m_resultCacheBrowseButton, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy += 1;
+        result.add(new JLabel("Max. cache size (MB)"), gbc);
+
+        gbc.gridx += 1;
+        result.add(m_resultCacheMaxSizeSpinner, gbc);
+        return result;
     }
 
     private JPanel createChunkHandlingPanel() {
@@ -203,6 +445,12 @@ private JPanel createChunkHandlingPanel() {
         gbc.gridy += 1;
         result.add(m_chunkButtonNrChunks, gbc);
 
+        gbc.gridy += 1;
+        result.add(m_chunkButtonAdaptive, gbc);
+
+        gbc.gridy += 1;
+        result.add(m_chunkButtonByGroup, gbc);
+
         gbc.gridx += 1;
         gbc.gridy = 2;
         gbc.weightx = 1.0;
@@ -211,6 +459,60 @@ private JPanel createChunkHandlingPanel() {
         gbc.gridy += 1;
         result.add(m_nrChunksSpinner, gbc);
 
+        gbc.gridy += 1;
+        result.add(m_adaptiveOverheadSpinner, gbc);
+
+        gbc.gridy += 1;
+        JPanel groupPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints c = new GridBagConstraints();
+        c.anchor = GridBagConstraints.WEST;
+        groupPanel.add(m_maxGroupChunksSpinner, c);
+        c.insets = new Insets(0, 5, 0, 0);
+        groupPanel.add(new JLabel("Column"), c);
+        groupPanel.add(m_groupColumnBox, c);
+        result.add(groupPanel, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy += 1;
+        gbc.weightx = 0;
+        result.add(m_pipelinedChecker, gbc);
+
+        gbc.gridx += 1;
+        gbc.weightx = 1.0;
+        result.add(m_maxChunksInFlightSpinner, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy += 1;
+        gbc.weightx = 0;
+        result.add(m_speculativeChecker, gbc);
+
+        gbc.gridx += 1;
+        gbc.weightx = 1.0;
+        result.add(m_speculativeFactorSpinner, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy += 1;
+        gbc.weightx = 0;
+        result.add(m_failFastChecker, gbc);
+
+        gbc.gridx += 1;
+        gbc.weightx = 1.0;
+        result.add(m_maxFailedPercentSpinner, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy += 1;
+        gbc.weightx = 0;
+        gbc.gridwidth = 2;
+        result.add(m_bisectChecker, gbc);
+        gbc.gridwidth = 1;
+
+        gbc.gridy += 1;
+        result.add(m_chunkWeightChecker, gbc);
+
+        gbc.gridx += 1;
+        gbc.weightx = 1.0;
+        result.add(m_chunkWeightColumnBox, gbc);
+
         return result;
     }
 
@@ -241,11 +543,49 @@ protected void loadSettingsFrom(final ExttoolSettings settings,
             m_chunkButtonNrChunks.doClick();
             m_nrChunksSpinner.setValue(chunkValue);
             break;
+        case Adaptive:
+            m_chunkButtonAdaptive.doClick();
+            m_adaptiveOverheadSpinner.setValue(chunkValue);
+            break;
+        case ByGroup:
+            m_chunkButtonByGroup.doClick();
+            m_maxGroupChunksSpinner.setValue(chunkValue);
+            break;
         default:
             NodeLogger.getLogger(getClass()).coding(
                     "Unknown chunking: " + chunking);
             m_chunkButtonEntireTable.doClick();
         }
+        m_pipelinedChecker.setSelected(settings.isPipelinedExecution());
+        m_maxChunksInFlightSpinner.setValue(
+                Math.max(0, settings.getMaxChunksInFlight()));
+        m_speculativeChecker.setSelected(settings.isSpeculativeExecution());
+        m_speculativeFactorSpinner.setValue(
+                settings.getSpeculativeRuntimeFactor());
+        int maxFailedPercent = settings.getMaxFailedChunksPercent();
+        m_failFastChecker.setSelected(maxFailedPercent < 100);
+        m_maxFailedPercentSpinner.setValue(
+                maxFailedPercent < 100 ? maxFailedPercent : 0);
+        m_bisectChecker.setSelected(settings.isBisectFailedChunks());
+        String weightColumn = settings.getChunkWeightColumn();
+        DataTableSpec firstSpec = inputSpecs.length > 0 ? inputSpecs[0] : null;
+        boolean hasColumns = firstSpec != null && firstSpec.getNumColumns() > 0;
+        if (hasColumns) {
+            m_chunkWeightColumnBox.update(firstSpec, weightColumn);
+            m_groupColumnBox.update(
+                    firstSpec, settings.getChunkGroupColumn());
+        }
+        m_chunkWeightChecker.setEnabled(hasColumns);
+        m_chunkWeightChecker.setSelected(
+                hasColumns && weightColumn != null);
+        m_deduplicateChecker.setSelected(settings.isDeduplicateInput());
+        m_incrementalChecker.setSelected(settings.isIncrementalExecution());
+        m_incrementalMaxSizeSpinner.setValue(
+                settings.getIncrementalMaxSize());
+        String cacheDir = settings.getResultCacheDirectory();
+        m_resultCacheChecker.setSelected(cacheDir != null);
+        m_resultCacheDirField.setText(cacheDir == null ? "" : cacheDir);
+        m_resultCacheMaxSizeSpinner.setValue(settings.getResultCacheMaxSize());
 
         AbstractCommandlineSettings cmdSets = settings.getCommandlineSettings();
         m_commandlineControl.loadSettings(cmdSets, inputSpecs);
@@ -268,6 +608,18 @@ protected void saveSettingsTo(final ExttoolSettings settings)
         } else if (m_chunkButtonNrChunks.isSelected()) {
             chunking = Chunking.NrChunks;
             chunkValue = (Integer)m_nrChunksSpinner.getValue();
+        } else if (m_chunkButtonAdaptive.isSelected()) {
+            chunking = Chunking.Adaptive;
+            chunkValue = (Integer)m_adaptiveOverheadSpinner.getValue();
+        } else if (m_chunkButtonByGroup.isSelected()) {
+            chunking = Chunking.ByGroup;
+            chunkValue = (Integer)m_maxGroupChunksSpinner.getValue();
+            String groupColumn = m_groupColumnBox.getSelectedColumn();
+            if (groupColumn == null) {
+                throw new InvalidSettingsException(
+                        "No column selected for chunking by group");
+            }
+            settings.setChunkGroupColumn(groupColumn);
         } else if (m_chunkButtonSingleRow.isSelected()) {
             chunking = Chunking.IndividualRow;
             chunkValue = -1;
@@ -276,6 +628,33 @@ protected void saveSettingsTo(final ExttoolSettings settings)
             chunkValue = -1;
         }
         settings.setChunking(chunking, chunkValue);
+        settings.setPipelinedExecution(m_pipelinedChecker.isSelected());
+        settings.setMaxChunksInFlight(
+                (Integer)m_maxChunksInFlightSpinner.getValue());
+        settings.setSpeculativeExecution(m_speculativeChecker.isSelected());
+        settings.setSpeculativeRuntimeFactor(
+                (Double)m_speculativeFactorSpinner.getValue());
+        settings.setMaxFailedChunksPercent(m_failFastChecker.isSelected()
+                ? (Integer)m_maxFailedPercentSpinner.getValue() : 100);
+        settings.setBisectFailedChunks(m_bisectChecker.isSelected());
+        settings.setChunkWeightColumn(m_chunkWeightChecker.isSelected()
+                ? m_chunkWeightColumnBox.getSelectedColumn() : null);
+        settings.setDeduplicateInput(m_deduplicateChecker.isSelected());
+        settings.setIncrementalExecution(m_incrementalChecker.isSelected());
+        settings.setIncrementalMaxSize(
+                (Integer)m_incrementalMaxSizeSpinner.getValue());
+        if (m_resultCacheChecker.isSelected()) {
+            String cacheDir = m_resultCacheDirField.getText();
+            if (cacheDir == null || cacheDir.trim().isEmpty()) {
+                throw new InvalidSettingsException(
+                        "No result cache directory set");
+            }
+            settings.setResultCacheDirectory(cacheDir);
+        } else {
+            settings.setResultCacheDirectory(null);
+        }
+        settings.setResultCacheMaxSize(
+                (Integer)m_resultCacheMaxSizeSpinner.getValue());
         AbstractCommandlineSettings cmdSets = settings.getCommandlineSettings();
 //        m_commandlineControl.saveGlobalSettingsGlobal(settings);
         m_commandlineControl.saveSettings(cmdSets);
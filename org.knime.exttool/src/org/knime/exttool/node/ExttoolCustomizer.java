@@ -124,7 +124,18 @@ public enum Chunking {
         /** Chunks with a certain number of rows. */
         ChunksOfSize,
         /** Given number of chunks, number of rows per chunk set accordingly. */
-        NrChunks;
+        NrChunks,
+        /** Chunk sizes determined during execution from the measured runtime
+         * of small probe chunks; the chunk value is the maximum fraction
+         * (in percent) of the runtime spent on process start-up.
+         * @since 5.9 */
+        Adaptive,
+        /** Rows with the same value in the
+         * {@link ExttoolSettings#getChunkGroupColumn() group column} are in
+         * the same chunk, groups are distributed to at most the given number
+         * of chunks.
+         * @since 5.9 */
+        ByGroup;
 
         /** Parses the argument, throws exception if invalid.
          * @param value The value to parse
@@ -148,6 +159,40 @@ public static Chunking read(final String value)
         }
     }
 
+    /** How the rows of the external tool output are matched with the rows
+     * of the input table.
+     * @since 5.9 */
+    public enum JoinMode {
+        /** Matched by the ID column, the output retains the input order. */
+        Ordered,
+        /** Matched by the ID column, the output may have any order. */
+        Hash,
+        /** Matched by position, the output has no ID column and exactly one
+         * row per input row, in input order. */
+        Positional;
+
+        /** Parses the argument, throws exception if invalid.
+         * @param value The value to parse
+         * @return The corresponding enum value.
+         * @throws InvalidSettingsException If that fails.
+         */
+        public static JoinMode read(final String value)
+            throws InvalidSettingsException {
+            if (value == null) {
+                throw new InvalidSettingsException("Value for "
+                        + JoinMode.class.getSimpleName()
+                        + " is null");
+            }
+            try {
+                return valueOf(value);
+            } catch (IllegalArgumentException iae) {
+                throw new InvalidSettingsException("Invalid value for "
+                        + JoinMode.class.getSimpleName()
+                        + ": " + value);
+            }
+        }
+    }
+
     private final int m_nrInputs;
     private final int m_nrOutputs;
 
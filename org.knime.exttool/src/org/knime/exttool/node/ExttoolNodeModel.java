@@ -47,8 +47,10 @@
  */
 package org.knime.exttool.node;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.NoSuchElementException;
 
 import org.knime.core.data.DataTableSpec;
@@ -58,9 +60,11 @@
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettings;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.exttool.executor.Execution;
+import org.knime.exttool.executor.IncrementalResultStore;
 
 /** Default node model for the external tool model. It mostly just delegates
  * to the executor and settings that are created by the
@@ -72,6 +76,9 @@ public class ExttoolNodeModel extends NodeModel {
 
     private final ExttoolCustomizer m_customizer;
     private ExttoolSettings m_settings;
+    /** Output of the last execution for incremental execution, kept across
+     * resets; null if not enabled. */
+    private IncrementalResultStore m_incrementalStore;
 
     /** Create new model, using in/out count as in the customizer.
      * @param customizer The configuration object.
@@ -105,7 +112,18 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
                 inData, exec.createSubExecutionContext(0.0));
         BufferedDataTable[] result;
         try {
-            result = execution.execute(newInData, exec);
+            if (isIncrementalExecution()) {
+                if (m_incrementalStore == null) {
+                    m_incrementalStore = new IncrementalResultStore();
+                }
+                long maxSize =
+                    m_settings.getIncrementalMaxSize() * 1024L * 1024L;
+                result = m_incrementalStore.execute(execution, newInData,
+                        createFingerprint(newInData), maxSize, exec);
+            } else {
+                disposeIncrementalStore();
+                result = execution.execute(newInData, exec);
+            }
         } finally {
             execution.cleanUp();
         }
@@ -116,10 +134,47 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
         return result;
     }
 
+    /** Whether incremental execution is enabled and possible. */
+    private boolean isIncrementalExecution() {
+        return m_settings.isIncrementalExecution()
+            && m_customizer.getNrInputs() > 0
+            && m_customizer.getNrOutputs() == 1;
+    }
+
+    /** Identifies settings and input specs, stored results of unchanged
+     * rows are only used if this is unchanged. */
+    private String createFingerprint(final BufferedDataTable[] inData)
+        throws IOException {
+        NodeSettings settings = new NodeSettings("fingerprint");
+        m_settings.saveSettingsTo(settings);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        settings.saveToXML(out);
+        StringBuilder b = new StringBuilder(
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+        for (BufferedDataTable t : inData) {
+            b.append(t.getDataTableSpec());
+        }
+        return b.toString();
+    }
+
+    private void disposeIncrementalStore() {
+        if (m_incrementalStore != null) {
+            m_incrementalStore.dispose();
+            m_incrementalStore = null;
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void reset() {
-        // nothing to do (might to clear logs once we have a view)
+        // nothing to do (might to clear logs once we have a view),
+        // results for incremental execution are retained
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onDispose() {
+        disposeIncrementalStore();
     }
 
     /** {@inheritDoc} */
@@ -152,7 +207,10 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
     protected void saveInternals(final File nodeInternDir,
             final ExecutionMonitor exec) throws IOException,
             CanceledExecutionException {
-        // nothing to save (might need to save execution status messages?)
+        // results for incremental execution, if any
+        if (m_incrementalStore != null) {
+            m_incrementalStore.save(nodeInternDir);
+        }
     }
 
     /** {@inheritDoc} */
@@ -160,7 +218,13 @@ protected void saveInternals(final File nodeInternDir,
     protected void loadInternals(final File nodeInternDir,
             final ExecutionMonitor exec) throws IOException,
             CanceledExecutionException {
-        // nothing to load (might need to save execution status messages?)
+        // results for incremental execution, if saved
+        if (m_settings != null && isIncrementalExecution()) {
+            IncrementalResultStore store = new IncrementalResultStore();
+            store.load(nodeInternDir);
+            disposeIncrementalStore();
+            m_incrementalStore = store;
+        }
     }
 
     /** Delegate to super to read flow variable.
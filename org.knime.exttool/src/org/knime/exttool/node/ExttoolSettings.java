@@ -66,6 +66,7 @@
 import org.knime.exttool.filetype.csv.CSVFileTypeFactory;
 import org.knime.exttool.node.ExttoolCustomizer.Chunking;
 import org.knime.exttool.node.ExttoolCustomizer.DeleteTempFilePolicy;
+import org.knime.exttool.node.ExttoolCustomizer.JoinMode;
 
 /**
  * Settings tree containing a node configuration. Typical use case is that prior
@@ -102,6 +103,20 @@ public class ExttoolSettings {
     private Chunking m_chunking = Chunking.EntireTable;
     private int m_chunkValue;
     private String m_multipleResultRowKeySeparator = "_";
+    private boolean m_pipelinedExecution;
+    private int m_maxChunksInFlight = -1;
+    private boolean m_speculativeExecution;
+    private double m_speculativeRuntimeFactor = 3.0;
+    private int m_maxFailedChunksPercent = 100;
+    private boolean m_bisectFailedChunks;
+    private String m_chunkWeightColumn;
+    private String m_chunkGroupColumn;
+    private JoinMode m_joinMode = JoinMode.Ordered;
+    private String m_resultCacheDirectory;
+    private boolean m_deduplicateInput;
+    private boolean m_incrementalExecution;
+    private int m_incrementalMaxSize = 1024;
+    private int m_resultCacheMaxSize = 1024;
 
     /** Create a new settings object from the given customizer.
      * @param customizer The corresponding customizer.
@@ -197,9 +212,11 @@ public Chunking getChunking() {
     }
 
     /** Get the value for the chunking. For {@link Chunking#ChunksOfSize} this
-     * represents the number of rows per chunk and for {@link Chunking#NrChunks}
-     * this is the number of chunks. For all other, the returned value has
-     * no meaning.
+     * represents the number of rows per chunk, for {@link Chunking#NrChunks}
+     * this is the number of chunks, for {@link Chunking#ByGroup} the maximum
+     * number of chunks and for {@link Chunking#Adaptive} the
+     * maximum process start-up overhead in percent. For all other, the
+     * returned value has no meaning.
      * @return The chunking value, interpretation depends on
      * {@link #getChunking()}
      */
@@ -207,10 +224,13 @@ public int getChunkValue() {
         return m_chunkValue;
     }
 
-    /** Sets chunking parameters. If chunking is {@link Chunking#ChunksOfSize}
-     * or {@link Chunking#NrChunks} the <code>value</code> parameter is
-     * interpreted as number of rows or number of chunks. It must not be &lt 1
-     * in this case. In all other cases the value is ignored.
+    /** Sets chunking parameters. If chunking is {@link Chunking#ChunksOfSize},
+     * {@link Chunking#NrChunks} or {@link Chunking#ByGroup} the
+     * <code>value</code> parameter is interpreted as number of rows or
+     * (maximum) number of chunks. It must not be &lt 1
+     * in this case. If chunking is {@link Chunking#Adaptive} the value is the
+     * maximum overhead in percent, which must be in [1, 99]. In all other
+     * cases the value is ignored.
      * @param chunking The chunking to set (not null)
      * @param value The value (see above)
      * @throws InvalidSettingsException If arguments are invalid.
@@ -224,12 +244,20 @@ public void setChunking(final Chunking chunking, final int value)
         switch (chunking) {
         case ChunksOfSize:
         case NrChunks:
+        case ByGroup:
             if (value < 1) {
                 throw new InvalidSettingsException(
                         "Invalid chunk value: " + value);
             }
             newValue = value;
             break;
+        case Adaptive:
+            if (value < 1 || value > 99) {
+                throw new InvalidSettingsException(
+                        "Invalid overhead percentage: " + value);
+            }
+            newValue = value;
+            break;
         default:
             newValue = -1;
         }
@@ -237,6 +265,281 @@ public void setChunking(final Chunking chunking, final int value)
         m_chunkValue = newValue;
     }
 
+    /** Whether chunks are submitted to the executor as soon as their input
+     * is written (instead of writing all chunks before the first execution
+     * starts). Only relevant if chunking is enabled.
+     * @return the pipelinedExecution property
+     * @see #getMaxChunksInFlight()
+     */
+    public boolean isPipelinedExecution() {
+        return m_pipelinedExecution;
+    }
+
+    /** Set the pipelined execution property, see
+     * {@link #isPipelinedExecution()} for details.
+     * @param pipelinedExecution the pipelinedExecution to set
+     */
+    public void setPipelinedExecution(final boolean pipelinedExecution) {
+        m_pipelinedExecution = pipelinedExecution;
+    }
+
+    /** Get the maximum number of chunks that are written but whose execution
+     * has not yet finished. Only used for {@link #isPipelinedExecution()
+     * pipelined execution}, it bounds the temporary disk space occupied by the
+     * input data.
+     * @return the maximum number of chunks in flight; values &lt; 1 represent
+     *         an automatic value derived from the executor's parallelism.
+     */
+    public int getMaxChunksInFlight() {
+        return m_maxChunksInFlight;
+    }
+
+    /** Set the max number of chunks in flight, see
+     * {@link #getMaxChunksInFlight()}.
+     * @param maxChunksInFlight the value to set, &lt; 1 for automatic.
+     */
+    public void setMaxChunksInFlight(final int maxChunksInFlight) {
+        m_maxChunksInFlight = maxChunksInFlight < 1 ? -1 : maxChunksInFlight;
+    }
+
+    /** Whether a backup copy of a chunk is started if it runs much longer
+     * than the other chunks, see {@link #getSpeculativeRuntimeFactor()}.
+     * The result of the copy that finishes first is used, the other is
+     * killed. Only relevant if chunking is enabled.
+     * @return the speculativeExecution property
+     */
+    public boolean isSpeculativeExecution() {
+        return m_speculativeExecution;
+    }
+
+    /** Set the speculative execution property, see
+     * {@link #isSpeculativeExecution()}.
+     * @param speculativeExecution the value to set
+     */
+    public void setSpeculativeExecution(final boolean speculativeExecution) {
+        m_speculativeExecution = speculativeExecution;
+    }
+
+    /** A backup of a running chunk is started once most chunks are done and
+     * its runtime exceeds this multiple of the median chunk runtime. Only
+     * used for {@link #isSpeculativeExecution() speculative execution}.
+     * @return the runtime factor, default 3
+     */
+    public double getSpeculativeRuntimeFactor() {
+        return m_speculativeRuntimeFactor;
+    }
+
+    /** Set the runtime factor, see {@link #getSpeculativeRuntimeFactor()}.
+     * @param factor the value to set
+     * @throws InvalidSettingsException If the factor is &lt;= 1.
+     */
+    public void setSpeculativeRuntimeFactor(final double factor)
+        throws InvalidSettingsException {
+        if (!(factor > 1.0)) {
+            throw new InvalidSettingsException(
+                    "Invalid runtime factor (must be > 1): " + factor);
+        }
+        m_speculativeRuntimeFactor = factor;
+    }
+
+    /** The percentage of chunks that may fail before the execution is
+     * aborted. Once more chunks failed, the remaining chunks are canceled
+     * and their processes killed. 0 aborts on the first failure, 100 (the
+     * default) runs all chunks and only fails if all chunks fail.
+     * @return the maximum percentage of failed chunks
+     */
+    public int getMaxFailedChunksPercent() {
+        return m_maxFailedChunksPercent;
+    }
+
+    /** Set the max percentage of failed chunks, see
+     * {@link #getMaxFailedChunksPercent()}.
+     * @param percent the value to set
+     * @throws InvalidSettingsException If not in [0, 100].
+     */
+    public void setMaxFailedChunksPercent(final int percent)
+        throws InvalidSettingsException {
+        if (percent < 0 || percent > 100) {
+            throw new InvalidSettingsException(
+                    "Invalid percentage of failed chunks: " + percent);
+        }
+        m_maxFailedChunksPercent = percent;
+    }
+
+    /** Whether a failed chunk is split into halves that are run again
+     * (recursively, down to single rows), so that only the rows that make
+     * the external tool fail are missing in the result.
+     * @return the bisectFailedChunks property
+     */
+    public boolean isBisectFailedChunks() {
+        return m_bisectFailedChunks;
+    }
+
+    /** Set the bisect failed chunks property, see
+     * {@link #isBisectFailedChunks()}.
+     * @param bisectFailedChunks the value to set
+     */
+    public void setBisectFailedChunks(final boolean bisectFailedChunks) {
+        m_bisectFailedChunks = bisectFailedChunks;
+    }
+
+    /** Column in the first input table holding the (estimated) cost of each
+     * row. If set, chunks of size or number are balanced by the cost of
+     * their rows rather than by row count and the most expensive chunks are
+     * run first. Numeric columns contain the cost, for other columns the
+     * length of the cell's text (e.g. of a molecule) is used as estimate.
+     * @return the column name, null if chunks are balanced by row count.
+     */
+    public String getChunkWeightColumn() {
+        return m_chunkWeightColumn;
+    }
+
+    /** Set the chunk weight column, see {@link #getChunkWeightColumn()}.
+     * @param chunkWeightColumn the column, null or empty to disable.
+     */
+    public void setChunkWeightColumn(final String chunkWeightColumn) {
+        m_chunkWeightColumn = chunkWeightColumn == null
+            || chunkWeightColumn.isEmpty() ? null : chunkWeightColumn;
+    }
+
+    /** Column in the first input table whose values define the groups of
+     * rows for {@link Chunking#ByGroup}, rows of a group are passed to the
+     * external tool in the same chunk.
+     * @return the column name, null if not set.
+     */
+    public String getChunkGroupColumn() {
+        return m_chunkGroupColumn;
+    }
+
+    /** Set the chunk group column, see {@link #getChunkGroupColumn()}.
+     * @param chunkGroupColumn the column, null or empty if not set.
+     */
+    public void setChunkGroupColumn(final String chunkGroupColumn) {
+        m_chunkGroupColumn = chunkGroupColumn == null
+            || chunkGroupColumn.isEmpty() ? null : chunkGroupColumn;
+    }
+
+    /** How output rows of the external tool are matched with input rows,
+     * default is {@link JoinMode#Ordered}.
+     * @return the join mode, never null.
+     */
+    public JoinMode getJoinMode() {
+        return m_joinMode;
+    }
+
+    /** Set the join mode, see {@link #getJoinMode()}.
+     * @param joinMode the join mode to set
+     * @throws InvalidSettingsException If the argument is null.
+     */
+    public void setJoinMode(final JoinMode joinMode)
+        throws InvalidSettingsException {
+        if (joinMode == null) {
+            throw new InvalidSettingsException("Join mode must not be null.");
+        }
+        m_joinMode = joinMode;
+    }
+
+    /** Whether only distinct rows of the input table (at port 0) are passed
+     * to the external tool. The result of a distinct row is added to all
+     * its duplicates. Rows are duplicates if the cells written to the input
+     * file are equal.
+     * @return the deduplicateInput property
+     */
+    public boolean isDeduplicateInput() {
+        return m_deduplicateInput;
+    }
+
+    /** Set the deduplicate input property, see
+     * {@link #isDeduplicateInput()}.
+     * @param deduplicateInput the value to set
+     */
+    public void setDeduplicateInput(final boolean deduplicateInput) {
+        m_deduplicateInput = deduplicateInput;
+    }
+
+    /** Whether the output of unchanged input rows is kept for the next
+     * execution. On re-execution only new or changed rows (with respect to
+     * row key and cells) are passed to the external tool. Only used for
+     * nodes with one output port.
+     * @return the incrementalExecution property
+     * @see #getIncrementalMaxSize()
+     */
+    public boolean isIncrementalExecution() {
+        return m_incrementalExecution;
+    }
+
+    /** Set the incremental execution property, see
+     * {@link #isIncrementalExecution()}.
+     * @param incrementalExecution the value to set
+     */
+    public void setIncrementalExecution(final boolean incrementalExecution) {
+        m_incrementalExecution = incrementalExecution;
+    }
+
+    /** Get the max size in MB of the output kept for incremental execution,
+     * nothing is kept if it is exceeded.
+     * @return the size limit in MB.
+     */
+    public int getIncrementalMaxSize() {
+        return m_incrementalMaxSize;
+    }
+
+    /** Set the max size of the output kept for incremental execution, see
+     * {@link #getIncrementalMaxSize()}.
+     * @param incrementalMaxSize the limit in MB, must be &gt; 0.
+     * @throws InvalidSettingsException If the argument is &lt;= 0.
+     */
+    public void setIncrementalMaxSize(final int incrementalMaxSize)
+        throws InvalidSettingsException {
+        if (incrementalMaxSize <= 0) {
+            throw new InvalidSettingsException(
+                    "Invalid size limit: " + incrementalMaxSize);
+        }
+        m_incrementalMaxSize = incrementalMaxSize;
+    }
+
+    /** Directory of the persistent cache of chunk results, null if results
+     * are not cached. The cache is shared by all nodes using the same
+     * directory, a chunk is not executed if the cache contains the output
+     * for identical input files, command line and executable.
+     * @return the cache directory or null.
+     * @see #getResultCacheMaxSize()
+     */
+    public String getResultCacheDirectory() {
+        return m_resultCacheDirectory;
+    }
+
+    /** Set the result cache directory, see {@link #getResultCacheDirectory()}.
+     * @param resultCacheDirectory the directory, null or empty to disable.
+     */
+    public void setResultCacheDirectory(final String resultCacheDirectory) {
+        m_resultCacheDirectory = resultCacheDirectory == null
+            || resultCacheDirectory.trim().isEmpty() ? null
+                    : resultCacheDirectory.trim();
+    }
+
+    /** Get the size limit of the result cache in MB, least recently used
+     * entries are deleted if the limit is exceeded.
+     * @return the size limit in MB.
+     */
+    public int getResultCacheMaxSize() {
+        return m_resultCacheMaxSize;
+    }
+
+    /** Set the size limit of the result cache in MB, see
+     * {@link #getResultCacheMaxSize()}.
+     * @param resultCacheMaxSize the limit to set, must be &gt; 0.
+     * @throws InvalidSettingsException If the argument is &lt;= 0.
+     */
+    public void setResultCacheMaxSize(final int resultCacheMaxSize)
+        throws InvalidSettingsException {
+        if (resultCacheMaxSize <= 0) {
+            throw new InvalidSettingsException(
+                    "Invalid result cache size: " + resultCacheMaxSize);
+        }
+        m_resultCacheMaxSize = resultCacheMaxSize;
+    }
+
     /** The string to include in new row keys when more than one result is
      * returned, default is '_', e.g. Row1_1, Row1_2, etc.
      * @param value the multipleResultRowKeySeparator to set
@@ -436,11 +739,28 @@ public void saveSettingsTo(final NodeSettingsWO settings) {
         switch (m_chunking) {
         case ChunksOfSize:
         case NrChunks:
+        case Adaptive:
+        case ByGroup:
             settings.addInt("chunkingValue", m_chunkValue);
             break;
         default:
             // ignore, value has no meaning
         }
+        settings.addBoolean("pipelinedExecution", m_pipelinedExecution);
+        settings.addInt("maxChunksInFlight", m_maxChunksInFlight);
+        settings.addBoolean("speculativeExecution", m_speculativeExecution);
+        settings.addDouble("speculativeRuntimeFactor",
+                m_speculativeRuntimeFactor);
+        settings.addInt("maxFailedChunksPercent", m_maxFailedChunksPercent);
+        settings.addBoolean("bisectFailedChunks", m_bisectFailedChunks);
+        settings.addString("chunkWeightColumn", m_chunkWeightColumn);
+        settings.addString("chunkGroupColumn", m_chunkGroupColumn);
+        settings.addString("joinMode", m_joinMode.name());
+        settings.addString("resultCacheDirectory", m_resultCacheDirectory);
+        settings.addInt("resultCacheMaxSize", m_resultCacheMaxSize);
+        settings.addBoolean("deduplicateInput", m_deduplicateInput);
+        settings.addBoolean("incrementalExecution", m_incrementalExecution);
+        settings.addInt("incrementalMaxSize", m_incrementalMaxSize);
 
         settings.addString("deleteTempFilePolicy",
                 m_deleteTempFilePolicy.name());
@@ -493,15 +813,59 @@ public void loadSettingsFrom(final NodeSettingsRO settings)
         switch (m_chunking) {
         case ChunksOfSize:
         case NrChunks:
+        case ByGroup:
             m_chunkValue = settings.getInt("chunkingValue");
             if (m_chunkValue < 1) {
                 throw new InvalidSettingsException(
                         "Invalid chunking value: " + m_chunkValue);
             }
             break;
+        case Adaptive:
+            m_chunkValue = settings.getInt("chunkingValue");
+            if (m_chunkValue < 1 || m_chunkValue > 99) {
+                throw new InvalidSettingsException(
+                        "Invalid overhead percentage: " + m_chunkValue);
+            }
+            break;
         default:
             m_chunkValue = -1;
         }
+        // added in 5.9, default to non-pipelined execution
+        m_pipelinedExecution = settings.getBoolean("pipelinedExecution", false);
+        setMaxChunksInFlight(settings.getInt("maxChunksInFlight", -1));
+        // added in 5.9, default to no backup copies of slow chunks
+        m_speculativeExecution =
+            settings.getBoolean("speculativeExecution", false);
+        setSpeculativeRuntimeFactor(
+                settings.getDouble("speculativeRuntimeFactor", 3.0));
+        // added in 5.9, default to running all chunks despite failures
+        setMaxFailedChunksPercent(
+                settings.getInt("maxFailedChunksPercent", 100));
+        // added in 5.9, default to failing the entire chunk
+        m_bisectFailedChunks =
+            settings.getBoolean("bisectFailedChunks", false);
+        // added in 5.9, default to chunks of equal row count
+        setChunkWeightColumn(settings.getString("chunkWeightColumn", null));
+        // added in 5.9, only used by the (new) group chunking
+        setChunkGroupColumn(settings.getString("chunkGroupColumn", null));
+        if (Chunking.ByGroup.equals(m_chunking)
+                && m_chunkGroupColumn == null) {
+            throw new InvalidSettingsException(
+                    "No column set for chunking by group");
+        }
+        // added in 5.9, default to join in input order
+        m_joinMode = JoinMode.read(
+                settings.getString("joinMode", JoinMode.Ordered.name()));
+        // added in 5.9, default to no result cache
+        setResultCacheDirectory(
+                settings.getString("resultCacheDirectory", null));
+        setResultCacheMaxSize(settings.getInt("resultCacheMaxSize", 1024));
+        // added in 5.9, default to passing all rows
+        m_deduplicateInput = settings.getBoolean("deduplicateInput", false);
+        // added in 5.9, default to executing all rows
+        m_incrementalExecution =
+            settings.getBoolean("incrementalExecution", false);
+        setIncrementalMaxSize(settings.getInt("incrementalMaxSize", 1024));
 
         String deleteTempFilePolicyS =
             settings.getString("deleteTempFilePolicy");
@@ -583,14 +947,55 @@ public void loadSettingsFrom(final NodeSettingsRO settings,
         switch (m_chunking) {
         case ChunksOfSize:
         case NrChunks:
+        case ByGroup:
             m_chunkValue = settings.getInt("chunkingValue", 20);
             if (m_chunkValue < 1) {
                 m_chunkValue = 20;
             }
             break;
+        case Adaptive:
+            m_chunkValue = settings.getInt("chunkingValue", 5);
+            if (m_chunkValue < 1 || m_chunkValue > 99) {
+                m_chunkValue = 5;
+            }
+            break;
         default:
             m_chunkValue = -1;
         }
+        m_pipelinedExecution = settings.getBoolean("pipelinedExecution", false);
+        setMaxChunksInFlight(settings.getInt("maxChunksInFlight", -1));
+        m_speculativeExecution =
+            settings.getBoolean("speculativeExecution", false);
+        m_speculativeRuntimeFactor =
+            settings.getDouble("speculativeRuntimeFactor", 3.0);
+        if (!(m_speculativeRuntimeFactor > 1.0)) {
+            m_speculativeRuntimeFactor = 3.0;
+        }
+        m_maxFailedChunksPercent = Math.max(0, Math.min(100,
+                settings.getInt("maxFailedChunksPercent", 100)));
+        m_bisectFailedChunks =
+            settings.getBoolean("bisectFailedChunks", false);
+        setChunkWeightColumn(settings.getString("chunkWeightColumn", null));
+        setChunkGroupColumn(settings.getString("chunkGroupColumn", null));
+        try {
+            m_joinMode = JoinMode.read(
+                    settings.getString("joinMode", JoinMode.Ordered.name()));
+        } catch (InvalidSettingsException ise) {
+            m_joinMode = JoinMode.Ordered;
+        }
+        setResultCacheDirectory(
+                settings.getString("resultCacheDirectory", null));
+        m_resultCacheMaxSize = settings.getInt("resultCacheMaxSize", 1024);
+        if (m_resultCacheMaxSize <= 0) {
+            m_resultCacheMaxSize = 1024;
+        }
+        m_deduplicateInput = settings.getBoolean("deduplicateInput", false);
+        m_incrementalExecution =
+            settings.getBoolean("incrementalExecution", false);
+        m_incrementalMaxSize = settings.getInt("incrementalMaxSize", 1024);
+        if (m_incrementalMaxSize <= 0) {
+            m_incrementalMaxSize = 1024;
+        }
 
         DeleteTempFilePolicy defDeleteTempFilePolicy =
             m_customizer.getDefaultDeleteTempFilePolicy();
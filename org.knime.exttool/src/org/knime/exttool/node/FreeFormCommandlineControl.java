@@ -82,7 +82,9 @@ protected void registerPanel(
         helpText.append("<i>%inFile%</i> and <i>%outFile%</i>");
         helpText.append(", which<br />");
         helpText.append("will be replaced by the full path to the in-");
-        helpText.append("and output file upon execution</body></html>");
+        helpText.append("and output file upon execution (<i>%threads%</i>");
+        helpText.append(" by the number of<br />threads available to each ");
+        helpText.append("process)</body></html>");
         JLabel helpLabel = new JLabel(helpText.toString());
         Insets oldInsets = gbc.insets;
         gbc.insets = new Insets(15, 5, 5, 5);
@@ -81,6 +81,7 @@
 import org.knime.exttool.filetype.AbstractFileTypeFactory;
 import org.knime.exttool.filetype.AbstractFileTypeReadConfig;
 import org.knime.exttool.filetype.AbstractFileTypeReadConfigPanel;
+import org.knime.exttool.node.ExttoolCustomizer.JoinMode;
 import org.knime.exttool.node.ExttoolSettings.PathAndTypeConfigurationOutput;
 
 /** Output file panel to the external tool node dialog. It shows temp file
@@ -96,6 +97,9 @@ public class OutputFilePanel extends JPanel {
 
     private final ExttoolCustomizer m_exttoolCustomizer;
     private final PortSettingsPanel[] m_portSettingsPanels;
+    private final JRadioButton m_joinOrderedButton;
+    private final JRadioButton m_joinHashButton;
+    private final JRadioButton m_joinPositionalButton;
 
     private File m_lastDirectory;
 
@@ -110,6 +114,16 @@ public OutputFilePanel(final ExttoolCustomizer customizer) {
         for (int i = 0; i < m_portSettingsPanels.length; i++) {
             m_portSettingsPanels[i] = new PortSettingsPanel(i);
         }
+        m_joinOrderedButton =
+            new JRadioButton("By row ID, same order as input");
+        m_joinHashButton = new JRadioButton("By row ID, any order");
+        m_joinPositionalButton = new JRadioButton(
+                "By position (one row per input row, no ID column)");
+        ButtonGroup joinGroup = new ButtonGroup();
+        joinGroup.add(m_joinOrderedButton);
+        joinGroup.add(m_joinHashButton);
+        joinGroup.add(m_joinPositionalButton);
+        m_joinOrderedButton.doClick();
     }
 
     /** Does the layout, to be called right after construction. */
@@ -132,6 +146,17 @@ protected void initLayout() {
             add(new JSeparator(), gbc);
             add(m_portSettingsPanels[i], gbc);
         }
+        if (m_exttoolCustomizer.getNrInputs() > 0
+                && m_portSettingsPanels.length > 0) {
+            JPanel joinPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            joinPanel.setBorder(BorderFactory.createTitledBorder(
+                    " Matching of output and input rows "));
+            joinPanel.add(m_joinOrderedButton);
+            joinPanel.add(m_joinHashButton);
+            joinPanel.add(m_joinPositionalButton);
+            add(new JSeparator(), gbc);
+            add(joinPanel, gbc);
+        }
     }
 
     /** Restores settings from a settings object, inits defaults if that fails.
@@ -144,6 +169,16 @@ protected void loadSettingsFrom(final ExttoolSettings settings)
         for (PortSettingsPanel p : m_portSettingsPanels) {
             p.loadSettingsFrom(settings);
         }
+        switch (settings.getJoinMode()) {
+        case Hash:
+            m_joinHashButton.doClick();
+            break;
+        case Positional:
+            m_joinPositionalButton.doClick();
+            break;
+        default:
+            m_joinOrderedButton.doClick();
+        }
     }
 
     /** Saves the current configuration to the argument.
@@ -155,6 +190,13 @@ protected void saveSettingsTo(final ExttoolSettings settings)
         for (int i = 0; i < m_portSettingsPanels.length; i++) {
             m_portSettingsPanels[i].saveSettingsTo(settings);
         }
+        JoinMode joinMode = JoinMode.Ordered;
+        if (m_joinHashButton.isSelected()) {
+            joinMode = JoinMode.Hash;
+        } else if (m_joinPositionalButton.isSelected()) {
+            joinMode = JoinMode.Positional;
+        }
+        settings.setJoinMode(joinMode);
     }
 
     private final class PortSettingsPanel extends JPanel {